@@ -3,8 +3,10 @@ package data.scripts;
 import com.fs.starfarer.api.BaseModPlugin;
 import com.fs.starfarer.api.Global;
 import data.scripts.casino.CasinoConfig;
+import data.scripts.casino.CasinoDayScheduler;
 import data.scripts.casino.CasinoDebtScript;
 import data.scripts.casino.CasinoVIPManager;
+import data.scripts.casino.shared.HandHistoryStore;
 
 /**
  * Mod plugin for the Interastral Peace Casino.
@@ -16,6 +18,7 @@ public class CasinoModPlugin extends BaseModPlugin {
     public void onApplicationLoad() {
         Global.getLogger(this.getClass()).info("Interastral Peace Casino Loaded");
         CasinoConfig.loadSettings();
+        HandHistoryStore.install();
     }
 
     @Override
@@ -23,7 +26,10 @@ public class CasinoModPlugin extends BaseModPlugin {
         Global.getLogger(this.getClass()).info("Interastral Peace Casino: Game Loaded");
         CasinoVIPManager.initializeSystem();
         CasinoDebtScript.initializeSystem();
-        Global.getSector().addTransientScript(new CasinoVIPManager());
+        CasinoDayScheduler.initializeSystem();
+        CasinoDayScheduler dayScheduler = new CasinoDayScheduler();
+        dayScheduler.addListener(new CasinoVIPManager());
+        Global.getSector().addTransientScript(dayScheduler);
         Global.getSector().addTransientScript(new CasinoDebtScript());
         // Note: CasinoMarketInteractionListener removed - option is now added via rules.csv only
     }
@@ -0,0 +1,152 @@
+package data.scripts.casino;
+
+import com.fs.starfarer.api.Global;
+import com.fs.starfarer.api.campaign.rules.MemoryAPI;
+
+/**
+ * In-memory view of the player's casino account (Stargem balance, top-ups, VIP pass).
+ * Values are read from player memory once per save and kept in plain fields; every mutation
+ * writes through to memory immediately, so saves always see the current state.
+ * {@link #getVersion()} changes whenever anything shown in a balance/credit label could have
+ * changed, letting UIs skip redraws while the account is untouched.
+ */
+public final class CasinoAccount {
+
+    static final String BALANCE_KEY = "$ipc_stargems";
+    static final String CUMULATIVE_VIP_PURCHASES_KEY = "$ipc_cumulative_vip_purchases";
+    static final String CUMULATIVE_TOPUP_KEY = "$ipc_cumulative_topup_amount";
+    static final String VIP_START_TIME_KEY = "$ipc_vip_start_time";
+    static final String VIP_DURATION_KEY = "$ipc_vip_duration";
+
+    private static MemoryAPI boundMemory;
+
+    private static int balance;
+    private static int cumulativeVIPPurchases;
+    private static int cumulativeTopup;
+    private static long vipStartTime;
+    private static int vipDuration;
+
+    private static int version;
+    private static int lastDaysRemaining = -1;
+    private static int lastPlayerLevel = -1;
+
+    private CasinoAccount() {}
+
+    /**
+     * Re-reads the account from player memory. Called on game load; also triggered
+     * automatically when a different save's memory is detected.
+     */
+    public static void reload() {
+        MemoryAPI memory = Global.getSector().getPlayerMemoryWithoutUpdate();
+        boundMemory = memory;
+        balance = memory.getInt(BALANCE_KEY);
+        cumulativeVIPPurchases = memory.getInt(CUMULATIVE_VIP_PURCHASES_KEY);
+        cumulativeTopup = memory.getInt(CUMULATIVE_TOPUP_KEY);
+        vipStartTime = memory.contains(VIP_START_TIME_KEY) ? memory.getLong(VIP_START_TIME_KEY) : 0L;
+        vipDuration = memory.contains(VIP_DURATION_KEY) ? memory.getInt(VIP_DURATION_KEY) : 0;
+        lastDaysRemaining = -1;
+        lastPlayerLevel = -1;
+        version++;
+    }
+
+    private static void ensureLoaded() {
+        if (boundMemory != Global.getSector().getPlayerMemoryWithoutUpdate()) {
+            reload();
+        }
+    }
+
+    public static int getBalance() {
+        ensureLoaded();
+        return balance;
+    }
+
+    public static int getCumulativeVIPPurchases() {
+        ensureLoaded();
+        return cumulativeVIPPurchases;
+    }
+
+    public static int getCumulativeTopup() {
+        ensureLoaded();
+        return cumulativeTopup;
+    }
+
+    public static void addToBalance(int amount) {
+        ensureLoaded();
+        if (amount == 0) return;
+        balance += amount;
+        boundMemory.set(BALANCE_KEY, balance);
+        if (amount > 0) {
+            cumulativeTopup += amount;
+            boundMemory.set(CUMULATIVE_TOPUP_KEY, cumulativeTopup);
+        }
+        version++;
+    }
+
+    public static void addCumulativeVIPPurchases(int passes) {
+        ensureLoaded();
+        cumulativeVIPPurchases += passes;
+        boundMemory.set(CUMULATIVE_VIP_PURCHASES_KEY, cumulativeVIPPurchases);
+        version++;
+    }
+
+    public static void addCumulativeTopup(int amount) {
+        ensureLoaded();
+        cumulativeTopup += amount;
+        boundMemory.set(CUMULATIVE_TOPUP_KEY, cumulativeTopup);
+        version++;
+    }
+
+    public static void setVIPPass(long startTime, int duration) {
+        ensureLoaded();
+        vipStartTime = startTime;
+        vipDuration = duration;
+        boundMemory.set(VIP_START_TIME_KEY, startTime);
+        boundMemory.set(VIP_DURATION_KEY, duration);
+        version++;
+    }
+
+    public static int getDaysRemaining() {
+        return getDaysRemainingAt(0);
+    }
+
+    /** Days of VIP pass that were left {@code daysAgo} days ago. */
+    public static int getDaysRemainingAt(int daysAgo) {
+        ensureLoaded();
+        if (vipDuration <= 0 || vipStartTime == 0) return 0;
+
+        float elapsedDays = Global.getSector().getClock().getElapsedDaysSince(vipStartTime) - daysAgo;
+        return Math.max(0, Math.min(vipDuration, vipDuration - (int) elapsedDays));
+    }
+
+    public static int getCreditCeiling() {
+        if (getDaysRemaining() <= 0) {
+            return 0;
+        }
+        return getVIPCreditCeiling();
+    }
+
+    /** Credit ceiling the player has while a VIP pass is active, regardless of whether one is. */
+    public static int getVIPCreditCeiling() {
+        ensureLoaded();
+        int playerLevel = Global.getSector().getPlayerStats().getLevel();
+
+        return CasinoConfig.BASE_DEBT_CEILING
+            + (cumulativeVIPPurchases * CasinoConfig.CEILING_INCREASE_PER_VIP)
+            + (int) (playerLevel * CasinoConfig.OVERDRAFT_CEILING_LEVEL_MULTIPLIER);
+    }
+
+    /**
+     * Monotonic change counter. Also advances when the VIP pass ticks down a day or the
+     * player levels up, since both move the credit ceiling without touching the balance.
+     */
+    public static int getVersion() {
+        int daysRemaining = getDaysRemaining();
+        int playerLevel = Global.getSector().getPlayerStats().getLevel();
+        if (daysRemaining != lastDaysRemaining || playerLevel != lastPlayerLevel) {
+            lastDaysRemaining = daysRemaining;
+            lastPlayerLevel = playerLevel;
+            version++;
+        }
+        return version;
+    }
+}
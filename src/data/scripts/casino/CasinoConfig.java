@@ -3,6 +3,7 @@ package data.scripts.casino;
 import com.fs.starfarer.api.Global;
 import com.fs.starfarer.api.combat.ShipAPI.HullSize;
 
+import data.scripts.casino.shared.CasinoMetrics;
 import org.apache.log4j.Logger;
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -38,6 +39,15 @@ public class CasinoConfig {
     public static float POKER_BLIND_DEFENSE_THRESHOLD;
     public static float POKER_BLIND_FOLD_RESISTANCE;
     public static boolean POKER_AI_DEBUG_LOGGING = true;
+    public static boolean POKER_HAND_HISTORY_ENABLED = true;
+    public static int POKER_HAND_HISTORY_MAX_HANDS = 500;
+    public static int POKER_TABLE_SEATS = 5;
+    public static boolean POKER_EQUITY_HUD_ENABLED = false;
+    public static int POKER_EQUITY_HUD_SAMPLES = 20000;
+
+    // Blackjack
+    public static float BLACKJACK_PENETRATION = 0.75f;
+    public static boolean BLACKJACK_ADVISOR_ENABLED = true;
 
     // Gacha
     public static int GACHA_COST;
@@ -76,6 +86,7 @@ public class CasinoConfig {
 
     // Arena - Simulation
     public static int ARENA_SIMULATION_COUNT;
+    public static boolean ARENA_SPECULATIVE_ODDS = true;
     public static float ARENA_MID_ROUND_BASE_PENALTY;
     public static float ARENA_MID_ROUND_PROGRESSIVE_PENALTY;
     public static int ARENA_MAX_BET_PER_CHAMPION;
@@ -117,6 +128,14 @@ public class CasinoConfig {
     public static int MARKET_SIZE_MIN_FOR_GENERAL_CASINO;
     public static float STARGEM_EXCHANGE_RATE;
 
+    // Sprite Cache
+    public static int SPRITE_CACHE_MAX_MEGABYTES;
+    public static int SPRITE_CACHE_MAX_ENTRIES;
+
+    // Diagnostics
+    public static boolean METRICS_ENABLED;
+    public static float METRICS_LOG_INTERVAL;
+
     // Dynamic Lists
     public static final List<GemPackage> GEM_PACKAGES = new ArrayList<>();
 
@@ -133,157 +152,278 @@ public class CasinoConfig {
 
     public static final Map<HullSize, ArenaStat> ARENA_BASE_STATS = new HashMap<>();
 
+    /** Poker values the AIs and equity code read while deciding, plus the equity HUD's sample cap. */
+    public record PokerSettings(int smallBlind, int bigBlind, int minRaise, int maxRaiseRandomAddition,
+                                int monteCarloSamples, float blindDefenseThreshold, float blindFoldResistance,
+                                int equityHudSamples)
+    {
+    }
+
+    /** Arena values read by the combat rules, the odds Monte Carlo and the payout formula. */
+    public record ArenaSettings(float actionMultiplier, float chaosEventChance, float singleShipDamagePercent,
+                                float multiShipDamagePercent, int simulationCount, boolean speculativeOdds,
+                                float agilityCap, float baseOdds, float minOdds, float houseEdge,
+                                float consolationBase, float[] consolationPositionFactors, float killBonusPerKill,
+                                float midRoundBasePenalty, float midRoundProgressivePenalty,
+                                float diminishingReturnsMin, float hpOddsFactor, float minHpOddsMult,
+                                float maxHpOddsMult)
+    {
+        public ArenaSettings {
+            consolationPositionFactors = consolationPositionFactors.clone();
+        }
+
+        @Override
+        public float[] consolationPositionFactors() {
+            return consolationPositionFactors.clone();
+        }
+
+        /** Consolation factor for a finishing position (1 = runner-up); the last factor covers the rest. */
+        public float positionFactor(int finalPosition) {
+            if (finalPosition <= 0 || consolationPositionFactors.length == 0) return 0.0f;
+            int index = Math.min(finalPosition, consolationPositionFactors.length) - 1;
+            return consolationPositionFactors[index];
+        }
+    }
+
+    /** Gacha pool sizes, rates and pity thresholds. */
+    public record GachaSettings(int cost, int poolCapitals, int poolCruisers, int poolDestroyers, int poolFrigates,
+                                int pityHard5, int pitySoftStart5, int pityHard4, int rotationDays,
+                                float prob5Star, float prob4Star)
+    {
+    }
+
+    /** VIP pass, interest and debt ceiling values. */
+    public record VipSettings(int dailyReward, int passDays, int passCost, float vipDailyInterestRate,
+                              float normalDailyInterestRate, int baseDebtCeiling, int ceilingIncreasePerVip,
+                              float maxDebtMultiplier)
+    {
+    }
+
+    /**
+     * One consistent set of the subsystem settings. A (re)load builds a new one and swaps it in whole,
+     * so code that captures it at the start of a decision, simulation or pull keeps seeing the values it
+     * started with, and a background worker can be handed it instead of reading the statics.
+     */
+    public record Snapshot(PokerSettings poker, ArenaSettings arena, GachaSettings gacha, VipSettings vip)
+    {
+    }
+
+    private static volatile Snapshot snapshot;
+
+    public static Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public static PokerSettings poker() {
+        return snapshot.poker();
+    }
+
+    public static ArenaSettings arena() {
+        return snapshot.arena();
+    }
+
+    public static GachaSettings gacha() {
+        return snapshot.gacha();
+    }
+
+    public static VipSettings vip() {
+        return snapshot.vip();
+    }
+
     // Gacha Blacklist
     public static final Set<String> GACHA_SHIP_BLACKLIST_CSV = new HashSet<>();
 
+    /** Reads casino_settings.json; calling it again reloads and publishes a fresh {@link Snapshot}. */
     public static void loadSettings() {
         try {
-            JSONObject settings = Global.getSettings().loadJSON(CONFIG_PATH, MOD_ID);
-
-            // VIP settings
-            VIP_DAILY_REWARD = settings.optInt("vipDailyReward", 100);
-            VIP_PASS_DAYS = settings.optInt("vipPassDays", 30);
-            VIP_DAILY_INTEREST_RATE = (float) settings.optDouble("vipDailyInterestRate", 0.005);
-            NORMAL_DAILY_INTEREST_RATE = (float) settings.optDouble("normalDailyInterestRate", 0.01);
-            BASE_DEBT_CEILING = settings.optInt("baseDebtCeiling", 5000);
-            CEILING_INCREASE_PER_VIP = settings.optInt("ceilingIncreasePerVIP", 10000);
-            VIP_PASS_COST = settings.optInt("vipPassCost", 100000);
-
-            // Poker settings
-            POKER_SMALL_BLIND = settings.optInt("pokerSmallBlind", 50);
-            POKER_BIG_BLIND = settings.optInt("pokerBigBlind", 100);
-            POKER_DEFAULT_OPPONENT_STACK = settings.optInt("pokerDefaultOpponentStack", 10000);
-            if (settings.has("pokerStackSizes")) {
-                JSONArray stackSizes = settings.getJSONArray("pokerStackSizes");
-                POKER_STACK_SIZES = new int[stackSizes.length()];
-                for (int i = 0; i < stackSizes.length(); i++) {
-                    POKER_STACK_SIZES[i] = stackSizes.optInt(i);
-                }
+            applySettings(Global.getSettings().loadJSON(CONFIG_PATH, MOD_ID));
+            log.info("Casino configuration loaded successfully");
+
+        } catch (IOException | JSONException e) {
+            log.error("Error loading casino configuration: " + e.getMessage());
+            log.info("Using default configuration values");
+        }
+
+        loadGachaShipsBlacklist();
+    }
+
+    /** Reads every setting from an already parsed casino_settings.json (also used by offline tools). */
+    public static void applySettings(JSONObject settings) throws JSONException {
+        // VIP settings
+        VIP_DAILY_REWARD = settings.optInt("vipDailyReward", 100);
+        VIP_PASS_DAYS = settings.optInt("vipPassDays", 30);
+        VIP_DAILY_INTEREST_RATE = (float) settings.optDouble("vipDailyInterestRate", 0.005);
+        NORMAL_DAILY_INTEREST_RATE = (float) settings.optDouble("normalDailyInterestRate", 0.01);
+        BASE_DEBT_CEILING = settings.optInt("baseDebtCeiling", 5000);
+        CEILING_INCREASE_PER_VIP = settings.optInt("ceilingIncreasePerVIP", 10000);
+        VIP_PASS_COST = settings.optInt("vipPassCost", 100000);
+
+        // Poker settings
+        POKER_SMALL_BLIND = settings.optInt("pokerSmallBlind", 50);
+        POKER_BIG_BLIND = settings.optInt("pokerBigBlind", 100);
+        POKER_DEFAULT_OPPONENT_STACK = settings.optInt("pokerDefaultOpponentStack", 10000);
+        if (settings.has("pokerStackSizes")) {
+            JSONArray stackSizes = settings.getJSONArray("pokerStackSizes");
+            POKER_STACK_SIZES = new int[stackSizes.length()];
+            for (int i = 0; i < stackSizes.length(); i++) {
+                POKER_STACK_SIZES[i] = stackSizes.optInt(i);
             }
-            POKER_AI_MAX_RAISE_RANDOM_ADDITION = settings.optInt("pokerAIMaxRaiseRandomAddition", 200);
-            POKER_AI_MIN_RAISE_VALUE = settings.optInt("pokerAIMinRaiseValue", 200);
-            POKER_MONTE_CARLO_SAMPLES = settings.optInt("pokerMonteCarloSamples", 2000);
-            POKER_BLIND_DEFENSE_THRESHOLD = (float) settings.optDouble("pokerBlindDefenseThreshold", 0.05);
-            POKER_BLIND_FOLD_RESISTANCE = (float) settings.optDouble("pokerBlindFoldResistance", 0.12);
-
-            // Gacha settings
-            GACHA_COST = settings.optInt("gachaCost", 160);
-            GACHA_POOL_SIZE = settings.optInt("gachaPoolSize", 40);
-            GACHA_POOL_CAPITALS = settings.optInt("gachaPoolCapitals", 3);
-            GACHA_POOL_CRUISERS = settings.optInt("gachaPoolCruisers", 9);
-            GACHA_POOL_DESTROYERS = settings.optInt("gachaPoolDestroyers", 12);
-            GACHA_POOL_FRIGATES = settings.optInt("gachaPoolFrigates", 16);
-            PITY_HARD_5 = settings.optInt("pityHard5", 90);
-            PITY_SOFT_START_5 = settings.optInt("pitySoftStart5", 73);
-            PITY_HARD_4 = settings.optInt("pityHard4", 10);
-            GACHA_ROTATION_DAYS = settings.optInt("gachaRotationDays", 14);
-            SHIP_TRADE_RATE = (float) settings.optDouble("shipTradeRate", 1000);
-            SHIP_SELL_MULTIPLIER = (float) settings.optDouble("shipSellMultiplier", 0.9);
-            PROB_5_STAR = (float) settings.optDouble("prob5Star", 0.006);
-            PROB_4_STAR = (float) settings.optDouble("prob4Star", 0.051);
-
-            // Arena settings
-            ARENA_SHIP_COUNT = settings.optInt("arenaShipCount", 5);
-            ARENA_AGILITY_CAP = (float) settings.optDouble("arenaAgilityCap", 0.75);
-            ARENA_BASE_ODDS = (float) settings.optDouble("arenaBaseOdds", 5.0);
-            ARENA_MIN_ODDS = (float) settings.optDouble("arenaMinOdds", 1.01);
-            ARENA_HOUSE_EDGE = (float) settings.optDouble("arenaHouseEdge", 0.1);
-            ARENA_ENTRY_FEE = settings.optInt("arenaEntryFee", 100);
-            ARENA_SURVIVAL_BONUS_PER_TURN = (float) settings.optDouble("arenaSurvivalBonusPerTurn", 0.05);
-            ARENA_KILL_BONUS_PER_KILL = (float) settings.optDouble("arenaKillBonusPerKill", 0.1);
-            ARENA_CONSOLATION_BASE = (float) settings.optDouble("arenaConsolationBase", 0.10);
-            ARENA_KILL_BONUS_FLAT = (float) settings.optDouble("arenaKillBonusFlat", 0.10);
-            ARENA_KILL_BONUS_DIMINISH_PER_ROUND = (float) settings.optDouble("arenaKillBonusDiminishPerRound", 0.30);
-
-            if (settings.has("arenaConsolationPositionFactors")) {
-                JSONArray factors = settings.getJSONArray("arenaConsolationPositionFactors");
-                ARENA_CONSOLATION_POSITION_FACTORS = new float[factors.length()];
-                for (int i = 0; i < factors.length(); i++) {
-                    ARENA_CONSOLATION_POSITION_FACTORS[i] = (float) factors.getDouble(i);
-                }
+        }
+        POKER_AI_MAX_RAISE_RANDOM_ADDITION = settings.optInt("pokerAIMaxRaiseRandomAddition", 200);
+        POKER_AI_MIN_RAISE_VALUE = settings.optInt("pokerAIMinRaiseValue", 200);
+        POKER_MONTE_CARLO_SAMPLES = settings.optInt("pokerMonteCarloSamples", 2000);
+        POKER_BLIND_DEFENSE_THRESHOLD = (float) settings.optDouble("pokerBlindDefenseThreshold", 0.05);
+        POKER_BLIND_FOLD_RESISTANCE = (float) settings.optDouble("pokerBlindFoldResistance", 0.12);
+        POKER_HAND_HISTORY_ENABLED = settings.optBoolean("pokerHandHistoryEnabled", true);
+        POKER_HAND_HISTORY_MAX_HANDS = settings.optInt("pokerHandHistoryMaxHands", 500);
+        POKER_TABLE_SEATS = settings.optInt("pokerTableSeats", 5);
+        POKER_EQUITY_HUD_ENABLED = settings.optBoolean("pokerEquityHudEnabled", false);
+        POKER_EQUITY_HUD_SAMPLES = settings.optInt("pokerEquityHudSamples", 20000);
+
+        // Blackjack settings
+        BLACKJACK_PENETRATION = (float) settings.optDouble("blackjackPenetration", 0.75);
+        BLACKJACK_ADVISOR_ENABLED = settings.optBoolean("blackjackAdvisorEnabled", true);
+
+        // Gacha settings
+        GACHA_COST = settings.optInt("gachaCost", 160);
+        GACHA_POOL_SIZE = settings.optInt("gachaPoolSize", 40);
+        GACHA_POOL_CAPITALS = settings.optInt("gachaPoolCapitals", 3);
+        GACHA_POOL_CRUISERS = settings.optInt("gachaPoolCruisers", 9);
+        GACHA_POOL_DESTROYERS = settings.optInt("gachaPoolDestroyers", 12);
+        GACHA_POOL_FRIGATES = settings.optInt("gachaPoolFrigates", 16);
+        PITY_HARD_5 = settings.optInt("pityHard5", 90);
+        PITY_SOFT_START_5 = settings.optInt("pitySoftStart5", 73);
+        PITY_HARD_4 = settings.optInt("pityHard4", 10);
+        GACHA_ROTATION_DAYS = settings.optInt("gachaRotationDays", 14);
+        SHIP_TRADE_RATE = (float) settings.optDouble("shipTradeRate", 1000);
+        SHIP_SELL_MULTIPLIER = (float) settings.optDouble("shipSellMultiplier", 0.9);
+        PROB_5_STAR = (float) settings.optDouble("prob5Star", 0.006);
+        PROB_4_STAR = (float) settings.optDouble("prob4Star", 0.051);
+
+        // Arena settings
+        ARENA_SHIP_COUNT = settings.optInt("arenaShipCount", 5);
+        ARENA_AGILITY_CAP = (float) settings.optDouble("arenaAgilityCap", 0.75);
+        ARENA_BASE_ODDS = (float) settings.optDouble("arenaBaseOdds", 5.0);
+        ARENA_MIN_ODDS = (float) settings.optDouble("arenaMinOdds", 1.01);
+        ARENA_HOUSE_EDGE = (float) settings.optDouble("arenaHouseEdge", 0.1);
+        ARENA_ENTRY_FEE = settings.optInt("arenaEntryFee", 100);
+        ARENA_SURVIVAL_BONUS_PER_TURN = (float) settings.optDouble("arenaSurvivalBonusPerTurn", 0.05);
+        ARENA_KILL_BONUS_PER_KILL = (float) settings.optDouble("arenaKillBonusPerKill", 0.1);
+        ARENA_CONSOLATION_BASE = (float) settings.optDouble("arenaConsolationBase", 0.10);
+        ARENA_KILL_BONUS_FLAT = (float) settings.optDouble("arenaKillBonusFlat", 0.10);
+        ARENA_KILL_BONUS_DIMINISH_PER_ROUND = (float) settings.optDouble("arenaKillBonusDiminishPerRound", 0.30);
+
+        if (settings.has("arenaConsolationPositionFactors")) {
+            JSONArray factors = settings.getJSONArray("arenaConsolationPositionFactors");
+            ARENA_CONSOLATION_POSITION_FACTORS = new float[factors.length()];
+            for (int i = 0; i < factors.length(); i++) {
+                ARENA_CONSOLATION_POSITION_FACTORS[i] = (float) factors.getDouble(i);
             }
-            ARENA_ACTION_MULTIPLIER = (float) settings.optDouble("arenaActionMultiplier", 1.5);
-            ARENA_DIMINISHING_RETURNS_PER_ROUND = (float) settings.optDouble("arenaDiminishingReturnsPerRound", 0.2);
-            ARENA_DIMINISHING_RETURNS_MIN = (float) settings.optDouble("arenaDiminishingReturnsMin", 0.25);
-
-            // Arena simulation settings
-            ARENA_SIMULATION_COUNT = settings.optInt("arenaSimulationCount", 500);
-            ARENA_MID_ROUND_BASE_PENALTY = (float) settings.optDouble("arenaMidRoundBasePenalty", 0.5);
-            ARENA_MID_ROUND_PROGRESSIVE_PENALTY = (float) settings.optDouble("arenaMidRoundProgressivePenalty", 0.15);
-            ARENA_MAX_BET_PER_CHAMPION = settings.optInt("arenaMaxBetPerChampion", 10000);
-            ARENA_HP_ODDS_FACTOR = (float) settings.optDouble("arenaHpOddsFactor", 2.0);
-            ARENA_MAX_HP_ODDS_MULT = (float) settings.optDouble("arenaMaxHpOddsMult", 3.0);
-            ARENA_MIN_HP_ODDS_MULT = (float) settings.optDouble("arenaMinHpOddsMult", 0.5);
-
-            // Arena prefix/affix multipliers
-            ARENA_PREFIX_MULT_STRONG = (float) settings.optDouble("arenaPrefixMultStrong", 1.3);
-            ARENA_PREFIX_MULT_WEAK = (float) settings.optDouble("arenaPrefixMultWeak", 0.7);
-            ARENA_PREFIX_AGILITY_BONUS = (float) settings.optDouble("arenaPrefixAgilityBonus", 0.15);
-            ARENA_PREFIX_BRAVERY_BONUS = (float) settings.optDouble("arenaPrefixBraveryBonus", 0.1);
-            ARENA_AFFIX_MULT_STRONG = (float) settings.optDouble("arenaAffixMultStrong", 1.2);
-            ARENA_AFFIX_MULT_WEAK = (float) settings.optDouble("arenaAffixMultWeak", 0.8);
-            ARENA_AFFIX_AGILITY_BONUS = (float) settings.optDouble("arenaAffixAgilityBonus", 0.1);
-            ARENA_AFFIX_BRAVERY_BONUS = (float) settings.optDouble("arenaAffixBraveryBonus", 0.08);
-
-            // Arena chaos event settings
-            ARENA_CHAOS_EVENT_CHANCE = (float) settings.optDouble("arenaChaosEventChance", 0.1);
-            ARENA_SINGLE_SHIP_DAMAGE_PERCENT = (float) settings.optDouble("arenaSingleShipDamagePercent", 0.15);
-            ARENA_MULTI_SHIP_DAMAGE_PERCENT = (float) settings.optDouble("arenaMultiShipDamagePercent", 0.1);
-
-            // Arena battle log animation settings
-            ARENA_LOG_LINE_DELAY = (float) settings.optDouble("arenaLogLineDelay", 0.7f);
-            ARENA_SPRITE_NUDGE_AMOUNT = (float) settings.optDouble("arenaSpriteNudgeAmount", 12.0f);
-            ARENA_SPRITE_NUDGE_DURATION = (float) settings.optDouble("arenaSpriteNudgeDuration", 0.25f);
-            ARENA_HP_ANIM_DURATION = (float) settings.optDouble("arenaHpAnimDuration", 0.4f);
-            ARENA_FLASH_COUNT = settings.optInt("arenaFlashCount", 2);
-            ARENA_EVASION_DURATION = (float) settings.optDouble("arenaEvasionDuration", 0.3f);
-            ARENA_EVASION_SPLIT_DISTANCE = (float) settings.optDouble("arenaEvasionSplitDistance", 15.0f);
-
-            // Arena base stats from JSON
-            if (settings.has("arenaBaseStats")) {
-                JSONObject baseStats = settings.getJSONObject("arenaBaseStats");
-                for (HullSize size : ARENA_BASE_STATS.keySet()) {
-                    String key = size.toString().toLowerCase();
-                    if (baseStats.has(key)) {
-                        JSONObject stat = baseStats.getJSONObject(key);
-                        ArenaStat arenaStat = ARENA_BASE_STATS.get(size);
-                        if (stat.has("hp")) arenaStat.hp = stat.getInt("hp");
-                        if (stat.has("power")) arenaStat.power = stat.getInt("power");
-                        if (stat.has("agility")) arenaStat.agility = (float) stat.getDouble("agility");
-                    }
+        }
+        ARENA_ACTION_MULTIPLIER = (float) settings.optDouble("arenaActionMultiplier", 1.5);
+        ARENA_DIMINISHING_RETURNS_PER_ROUND = (float) settings.optDouble("arenaDiminishingReturnsPerRound", 0.2);
+        ARENA_DIMINISHING_RETURNS_MIN = (float) settings.optDouble("arenaDiminishingReturnsMin", 0.25);
+
+        // Arena simulation settings
+        ARENA_SIMULATION_COUNT = settings.optInt("arenaSimulationCount", 500);
+        ARENA_SPECULATIVE_ODDS = settings.optBoolean("arenaSpeculativeOdds", true);
+        ARENA_MID_ROUND_BASE_PENALTY = (float) settings.optDouble("arenaMidRoundBasePenalty", 0.5);
+        ARENA_MID_ROUND_PROGRESSIVE_PENALTY = (float) settings.optDouble("arenaMidRoundProgressivePenalty", 0.15);
+        ARENA_MAX_BET_PER_CHAMPION = settings.optInt("arenaMaxBetPerChampion", 10000);
+        ARENA_HP_ODDS_FACTOR = (float) settings.optDouble("arenaHpOddsFactor", 2.0);
+        ARENA_MAX_HP_ODDS_MULT = (float) settings.optDouble("arenaMaxHpOddsMult", 3.0);
+        ARENA_MIN_HP_ODDS_MULT = (float) settings.optDouble("arenaMinHpOddsMult", 0.5);
+
+        // Arena prefix/affix multipliers
+        ARENA_PREFIX_MULT_STRONG = (float) settings.optDouble("arenaPrefixMultStrong", 1.3);
+        ARENA_PREFIX_MULT_WEAK = (float) settings.optDouble("arenaPrefixMultWeak", 0.7);
+        ARENA_PREFIX_AGILITY_BONUS = (float) settings.optDouble("arenaPrefixAgilityBonus", 0.15);
+        ARENA_PREFIX_BRAVERY_BONUS = (float) settings.optDouble("arenaPrefixBraveryBonus", 0.1);
+        ARENA_AFFIX_MULT_STRONG = (float) settings.optDouble("arenaAffixMultStrong", 1.2);
+        ARENA_AFFIX_MULT_WEAK = (float) settings.optDouble("arenaAffixMultWeak", 0.8);
+        ARENA_AFFIX_AGILITY_BONUS = (float) settings.optDouble("arenaAffixAgilityBonus", 0.1);
+        ARENA_AFFIX_BRAVERY_BONUS = (float) settings.optDouble("arenaAffixBraveryBonus", 0.08);
+
+        // Arena chaos event settings
+        ARENA_CHAOS_EVENT_CHANCE = (float) settings.optDouble("arenaChaosEventChance", 0.1);
+        ARENA_SINGLE_SHIP_DAMAGE_PERCENT = (float) settings.optDouble("arenaSingleShipDamagePercent", 0.15);
+        ARENA_MULTI_SHIP_DAMAGE_PERCENT = (float) settings.optDouble("arenaMultiShipDamagePercent", 0.1);
+
+        // Arena battle log animation settings
+        ARENA_LOG_LINE_DELAY = (float) settings.optDouble("arenaLogLineDelay", 0.7f);
+        ARENA_SPRITE_NUDGE_AMOUNT = (float) settings.optDouble("arenaSpriteNudgeAmount", 12.0f);
+        ARENA_SPRITE_NUDGE_DURATION = (float) settings.optDouble("arenaSpriteNudgeDuration", 0.25f);
+        ARENA_HP_ANIM_DURATION = (float) settings.optDouble("arenaHpAnimDuration", 0.4f);
+        ARENA_FLASH_COUNT = settings.optInt("arenaFlashCount", 2);
+        ARENA_EVASION_DURATION = (float) settings.optDouble("arenaEvasionDuration", 0.3f);
+        ARENA_EVASION_SPLIT_DISTANCE = (float) settings.optDouble("arenaEvasionSplitDistance", 15.0f);
+
+        // Arena base stats from JSON
+        if (settings.has("arenaBaseStats")) {
+            JSONObject baseStats = settings.getJSONObject("arenaBaseStats");
+            for (HullSize size : ARENA_BASE_STATS.keySet()) {
+                String key = size.toString().toLowerCase();
+                if (baseStats.has(key)) {
+                    JSONObject stat = baseStats.getJSONObject(key);
+                    ArenaStat arenaStat = ARENA_BASE_STATS.get(size);
+                    if (stat.has("hp")) arenaStat.hp = stat.getInt("hp");
+                    if (stat.has("power")) arenaStat.power = stat.getInt("power");
+                    if (stat.has("agility")) arenaStat.agility = (float) stat.getDouble("agility");
                 }
             }
+        }
 
-            // Credit ceiling settings
-            MAX_DEBT_MULTIPLIER = (float) settings.optDouble("maxDebtMultiplier", 2.0);
-            OVERDRAFT_CEILING_LEVEL_MULTIPLIER = (float) settings.optDouble("overdraftCeilingLevelMultiplier", 1000.0);
-            DEBT_COLLECTOR_THRESHOLD_PERCENT = (float) settings.optDouble("debtCollectorThresholdPercent", 0.0);
-
-            // Market settings
-            MARKET_SIZE_MIN_FOR_PLAYER_CASINO = settings.optInt("marketSizeMinForPlayerCasino", 4);
-            MARKET_SIZE_MIN_FOR_GENERAL_CASINO = settings.optInt("marketSizeMinForGeneralCasino", 3);
-            STARGEM_EXCHANGE_RATE = (float) settings.optDouble("stargemExchangeRate", 1000.0);
-
-            if (settings.has("gemPackages")) {
-                JSONArray packages = settings.getJSONArray("gemPackages");
-                GEM_PACKAGES.clear();
-                for (int i = 0; i < packages.length(); i++) {
-                    JSONObject pkg = packages.getJSONObject(i);
-                    GEM_PACKAGES.add(new GemPackage(pkg.getInt("gems"), pkg.getInt("cost")));
-                }
+        // Credit ceiling settings
+        MAX_DEBT_MULTIPLIER = (float) settings.optDouble("maxDebtMultiplier", 2.0);
+        OVERDRAFT_CEILING_LEVEL_MULTIPLIER = (float) settings.optDouble("overdraftCeilingLevelMultiplier", 1000.0);
+        DEBT_COLLECTOR_THRESHOLD_PERCENT = (float) settings.optDouble("debtCollectorThresholdPercent", 0.0);
+
+        // Market settings
+        MARKET_SIZE_MIN_FOR_PLAYER_CASINO = settings.optInt("marketSizeMinForPlayerCasino", 4);
+        MARKET_SIZE_MIN_FOR_GENERAL_CASINO = settings.optInt("marketSizeMinForGeneralCasino", 3);
+        STARGEM_EXCHANGE_RATE = (float) settings.optDouble("stargemExchangeRate", 1000.0);
+
+        // Sprite cache settings
+        SPRITE_CACHE_MAX_MEGABYTES = settings.optInt("spriteCacheMaxMegabytes", 128);
+        SPRITE_CACHE_MAX_ENTRIES = settings.optInt("spriteCacheMaxEntries", 200);
+
+        // Diagnostics settings
+        METRICS_ENABLED = settings.optBoolean("metricsEnabled", false);
+        METRICS_LOG_INTERVAL = (float) settings.optDouble("metricsLogIntervalSeconds", 60.0);
+        CasinoMetrics.setEnabled(METRICS_ENABLED);
+
+        if (settings.has("gemPackages")) {
+            JSONArray packages = settings.getJSONArray("gemPackages");
+            GEM_PACKAGES.clear();
+            for (int i = 0; i < packages.length(); i++) {
+                JSONObject pkg = packages.getJSONObject(i);
+                GEM_PACKAGES.add(new GemPackage(pkg.getInt("gems"), pkg.getInt("cost")));
             }
+        }
 
-            // Sync alias
-            NON_VIP_DAILY_INTEREST_RATE = NORMAL_DAILY_INTEREST_RATE;
-
-            log.info("Casino configuration loaded successfully");
+        // Sync alias
+        NON_VIP_DAILY_INTEREST_RATE = NORMAL_DAILY_INTEREST_RATE;
 
-        } catch (IOException | JSONException e) {
-            log.error("Error loading casino configuration: " + e.getMessage());
-            log.info("Using default configuration values");
-        }
+        snapshot = captureSnapshot();
+    }
 
-        loadGachaShipsBlacklist();
+    private static Snapshot captureSnapshot() {
+        return new Snapshot(
+            new PokerSettings(POKER_SMALL_BLIND, POKER_BIG_BLIND, POKER_AI_MIN_RAISE_VALUE,
+                POKER_AI_MAX_RAISE_RANDOM_ADDITION, POKER_MONTE_CARLO_SAMPLES, POKER_BLIND_DEFENSE_THRESHOLD,
+                POKER_BLIND_FOLD_RESISTANCE, POKER_EQUITY_HUD_SAMPLES),
+            new ArenaSettings(ARENA_ACTION_MULTIPLIER, ARENA_CHAOS_EVENT_CHANCE, ARENA_SINGLE_SHIP_DAMAGE_PERCENT,
+                ARENA_MULTI_SHIP_DAMAGE_PERCENT, ARENA_SIMULATION_COUNT, ARENA_SPECULATIVE_ODDS,
+                ARENA_AGILITY_CAP, ARENA_BASE_ODDS, ARENA_MIN_ODDS, ARENA_HOUSE_EDGE,
+                ARENA_CONSOLATION_BASE, ARENA_CONSOLATION_POSITION_FACTORS, ARENA_KILL_BONUS_PER_KILL,
+                ARENA_MID_ROUND_BASE_PENALTY, ARENA_MID_ROUND_PROGRESSIVE_PENALTY,
+                ARENA_DIMINISHING_RETURNS_MIN, ARENA_HP_ODDS_FACTOR, ARENA_MIN_HP_ODDS_MULT,
+                ARENA_MAX_HP_ODDS_MULT),
+            new GachaSettings(GACHA_COST, GACHA_POOL_CAPITALS, GACHA_POOL_CRUISERS, GACHA_POOL_DESTROYERS,
+                GACHA_POOL_FRIGATES, PITY_HARD_5, PITY_SOFT_START_5, PITY_HARD_4, GACHA_ROTATION_DAYS,
+                PROB_5_STAR, PROB_4_STAR),
+            new VipSettings(VIP_DAILY_REWARD, VIP_PASS_DAYS, VIP_PASS_COST, VIP_DAILY_INTEREST_RATE,
+                NORMAL_DAILY_INTEREST_RATE, BASE_DEBT_CEILING, CEILING_INCREASE_PER_VIP, MAX_DEBT_MULTIPLIER));
     }
 
     private static void loadGachaShipsBlacklist() {
@@ -308,5 +448,6 @@ public class CasinoConfig {
         ARENA_BASE_STATS.put(HullSize.DESTROYER, new ArenaStat(120, 35, 0.25f));
         ARENA_BASE_STATS.put(HullSize.CRUISER, new ArenaStat(180, 50, 0.15f));
         ARENA_BASE_STATS.put(HullSize.CAPITAL_SHIP, new ArenaStat(250, 70, 0.10f));
+        snapshot = captureSnapshot();
     }
 }
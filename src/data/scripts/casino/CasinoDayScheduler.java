@@ -0,0 +1,72 @@
+package data.scripts.casino;
+
+import com.fs.starfarer.api.EveryFrameScript;
+import com.fs.starfarer.api.Global;
+import com.fs.starfarer.api.campaign.CampaignClockAPI;
+import com.fs.starfarer.api.campaign.rules.MemoryAPI;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fires day-boundary callbacks for the casino's daily systems.
+ * Each frame only compares the calendar day; when it changes, listeners receive the number
+ * of whole days since the last tick, so long fast-forwards arrive as one batch.
+ */
+public class CasinoDayScheduler implements EveryFrameScript {
+
+    public interface DayListener {
+        void onDaysElapsed(int days);
+    }
+
+    private static final String LAST_TICK_KEY = "$ipc_vip_last_processed_day";
+
+    /** Tolerance for frame granularity when a tick lands just before a full day has elapsed. */
+    public static final float DAY_SLACK = 0.1f;
+
+    private final List<DayListener> listeners = new ArrayList<>();
+    private int lastDay = -1;
+
+    public void addListener(DayListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public boolean isDone() { return false; }
+
+    @Override
+    public boolean runWhilePaused() { return false; }
+
+    @Override
+    public void advance(float amount) {
+        CampaignClockAPI clock = Global.getSector().getClock();
+        int day = clock.getDay();
+        if (day == lastDay) return;
+        boolean firstTick = lastDay == -1;
+        lastDay = day;
+
+        MemoryAPI memory = Global.getSector().getPlayerMemoryWithoutUpdate();
+        long lastTick = memory.contains(LAST_TICK_KEY) ? memory.getLong(LAST_TICK_KEY) : 0L;
+        if (lastTick == 0L) {
+            memory.set(LAST_TICK_KEY, clock.getTimestamp());
+            return;
+        }
+
+        // Right after a load the calendar day "changes" without a boundary being crossed
+        float slack = firstTick ? 0f : DAY_SLACK;
+        int days = (int) (clock.getElapsedDaysSince(lastTick) + slack);
+        if (days < 1) return;
+
+        memory.set(LAST_TICK_KEY, clock.getTimestamp());
+        for (DayListener listener : listeners) {
+            listener.onDaysElapsed(days);
+        }
+    }
+
+    public static void initializeSystem() {
+        MemoryAPI memory = Global.getSector().getPlayerMemoryWithoutUpdate();
+        if (!memory.contains(LAST_TICK_KEY)) {
+            memory.set(LAST_TICK_KEY, Global.getSector().getClock().getTimestamp());
+        }
+    }
+}
@@ -46,6 +46,15 @@ public class CasinoDebtScript implements EveryFrameScript {
     private boolean shouldSpawnCollector = false;
     private final long seed;
 
+    // Event tracking: the state machine only re-runs when the account changes, a day passes,
+    // the player leaves a system with a pending spawn, or the collector fleet goes away.
+    private int lastAccountVersion = -1;
+    private int lastDay = -1;
+    private boolean dirty = true;
+    private boolean debtAboveThreshold = false;
+    private boolean debtNearThreshold = false;
+    private CampaignFleetAPI collectorFleet = null;
+
     public CasinoDebtScript() {
         seed = Misc.genRandomSeed();
     }
@@ -71,7 +80,29 @@ public class CasinoDebtScript implements EveryFrameScript {
         if (playerFleet == null) return;
 
         updateSystemTracking(playerFleet, days);
-        updateCollectorState();
+
+        if (collectorFleet != null && (!collectorFleet.isAlive() || collectorFleet.isDespawning())) {
+            collectorFleet = null;
+            dirty = true;
+        }
+
+        int accountVersion = CasinoVIPManager.getAccountVersion();
+        if (accountVersion != lastAccountVersion) {
+            lastAccountVersion = accountVersion;
+            recalculateDebtThresholds();
+            dirty = true;
+        }
+
+        int day = Global.getSector().getClock().getDay();
+        if (day != lastDay) {
+            lastDay = day;
+            dirty = true;
+        }
+
+        if (dirty) {
+            dirty = false;
+            updateCollectorState();
+        }
     }
     
     private void updateSystemTracking(CampaignFleetAPI playerFleet, float days) {
@@ -91,6 +122,7 @@ public class CasinoDebtScript implements EveryFrameScript {
                     Vector2f systemLoc = systemPlayerIsIn.getLocation();
                     Global.getSector().getMemoryWithoutUpdate().set(MEM_EXITED_SYSTEM_LOC, systemLoc);
                     shouldSpawnCollector = true;
+                    dirty = true;
                 }
             }
             daysInSystem = 0f;
@@ -102,13 +134,12 @@ public class CasinoDebtScript implements EveryFrameScript {
         daysInSystem += days;
     }
     
-    private void updateCollectorState() {
-        String state = getCollectorState();
+    private void recalculateDebtThresholds() {
         int currentBalance = CasinoVIPManager.getBalance();
         int ceiling = CasinoVIPManager.getCreditCeiling();
         
-        boolean debtAboveThreshold = false;
-        boolean debtNearThreshold = false;
+        debtAboveThreshold = false;
+        debtNearThreshold = false;
         if (currentBalance < 0 && ceiling > 0) {
             int debtAmount = -currentBalance;
             int debtAboveCeiling = Math.max(0, debtAmount - ceiling);
@@ -121,6 +152,10 @@ public class CasinoDebtScript implements EveryFrameScript {
         }
         
         checkNearThresholdWarning(debtNearThreshold);
+    }
+
+    private void updateCollectorState() {
+        String state = getCollectorState();
         
         switch (state) {
             case STATE_NONE:
@@ -139,6 +174,11 @@ public class CasinoDebtScript implements EveryFrameScript {
                 handleDefeatedState(debtAboveThreshold);
                 break;
         }
+
+        // A transition may enable the next one (e.g. defeated -> none -> pending); re-run next frame
+        if (!state.equals(getCollectorState())) {
+            dirty = true;
+        }
     }
     
     private void checkNearThresholdWarning(boolean debtNearThreshold) {
@@ -234,13 +274,17 @@ public class CasinoDebtScript implements EveryFrameScript {
     }
 
     private void handleActiveState() {
-        String fleetId = Global.getSector().getMemoryWithoutUpdate().getString(MEM_COLLECTOR_FLEET_ID);
-        if (fleetId != null) {
-            CampaignFleetAPI fleet = findFleetById(fleetId);
-            if (fleet != null && fleet.isAlive() && !fleet.isDespawning()) {
-                return;
+        if (collectorFleet == null) {
+            // Only after a load: resolve the saved fleet id once, then keep the reference
+            String fleetId = Global.getSector().getMemoryWithoutUpdate().getString(MEM_COLLECTOR_FLEET_ID);
+            if (fleetId != null) {
+                collectorFleet = findFleetById(fleetId);
             }
         }
+        if (collectorFleet != null && collectorFleet.isAlive() && !collectorFleet.isDespawning()) {
+            return;
+        }
+        collectorFleet = null;
         
         setCollectorState(STATE_DEFEATED);
         Global.getSector().getMemoryWithoutUpdate().unset(MEM_COLLECTOR_FLEET_ID);
@@ -352,6 +396,7 @@ public class CasinoDebtScript implements EveryFrameScript {
         debtCollectorFleet.getMemoryWithoutUpdate().set("$ipc_debt_collector", true);
         
         Global.getSector().getMemoryWithoutUpdate().set(MEM_COLLECTOR_FLEET_ID, debtCollectorFleet.getId());
+        collectorFleet = debtCollectorFleet;
         
         AbilityPlugin eb = debtCollectorFleet.getAbility(Abilities.EMERGENCY_BURN);
         if (eb != null) eb.activate();
@@ -1,6 +1,5 @@
 package data.scripts.casino;
 
-import com.fs.starfarer.api.EveryFrameScript;
 import com.fs.starfarer.api.Global;
 import com.fs.starfarer.api.campaign.CampaignClockAPI;
 import com.fs.starfarer.api.campaign.rules.MemoryAPI;
@@ -11,113 +10,142 @@ import java.util.List;
 import java.util.Random;
 
 /** Manages VIP status, Stargem balance, credit, and daily rewards. */
-public class CasinoVIPManager implements EveryFrameScript {
+public class CasinoVIPManager implements CasinoDayScheduler.DayListener {
 
     private static final String LAST_REWARD_TIME_KEY = "$ipc_vip_last_reward_time";
-    private static final String LAST_PROCESSED_DAY_KEY = "$ipc_vip_last_processed_day";
     private static final String LAST_MONTHLY_NOTIFY_KEY = "$ipc_vip_last_monthly_notify";
     private static final String MONTHLY_NOTIFY_MODE_KEY = "$ipc_vip_monthly_notify_mode";
     private static final String VIP_AD_HISTORY_KEY = "$ipc_vip_ad_history";
     private static final String LAST_DEBT_WARNING_KEY = "$ipc_last_debt_warning";
 
-    private float timer = 0f;
     private final Random random = new Random();
 
+    /**
+     * Settles interest and VIP rewards for every day since the last tick in one step:
+     * VIP days compound at the VIP rate with the daily reward credited, the rest use the
+     * normal rate, and a single summary notification is sent for the whole batch.
+     */
     @Override
-    public boolean isDone() { return false; }
-
-    @Override
-    public boolean runWhilePaused() { return false; }
-
-    public void advance(float amount) {
-        timer += amount;
-        if (timer < 1.0f) return;
-        timer -= 1.0f;
-
+    public void onDaysElapsed(int days) {
         CampaignClockAPI clock = Global.getSector().getClock();
         MemoryAPI memory = Global.getSector().getPlayerMemoryWithoutUpdate();
-        
-        if (!memory.contains(LAST_PROCESSED_DAY_KEY)) {
-            memory.set(LAST_PROCESSED_DAY_KEY, clock.getTimestamp());
-            return;
+
+        // A VIP purchase pays out immediately; don't pay the same day again at the next boundary
+        long lastRewardTime = memory.contains(LAST_REWARD_TIME_KEY) ? memory.getLong(LAST_REWARD_TIME_KEY) : 0L;
+        if (lastRewardTime > 0) {
+            int sinceReward = (int) (clock.getElapsedDaysSince(lastRewardTime) + CasinoDayScheduler.DAY_SLACK);
+            days = Math.min(days, sinceReward);
+            if (days < 1) return;
         }
-        
-        long lastProcessedDay = memory.getLong(LAST_PROCESSED_DAY_KEY);
-        if (lastProcessedDay == 0) {
-            memory.set(LAST_PROCESSED_DAY_KEY, clock.getTimestamp());
-            return;
+
+        CasinoConfig.VipSettings settings = CasinoConfig.vip();
+        int vipDays = Math.min(days, CasinoAccount.getDaysRemainingAt(days));
+        int normalDays = days - vipDays;
+        int startBalance = getBalance();
+        double debt = -startBalance;
+        boolean hitMaxDebt = false;
+
+        if (vipDays > 0) {
+            int maxDebt = (int) (CasinoAccount.getVIPCreditCeiling() * settings.maxDebtMultiplier());
+            debt = compoundDebt(debt, settings.vipDailyInterestRate(), settings.dailyReward(), vipDays, maxDebt);
+            hitMaxDebt = debt > 0 && debt + settings.dailyReward() >= maxDebt;
         }
-        
-        float daysElapsed = clock.getElapsedDaysSince(lastProcessedDay);
-        if (daysElapsed >= 1.0f) {
-            checkDaily();
-            memory.set(LAST_PROCESSED_DAY_KEY, clock.getTimestamp());
+        if (normalDays > 0) {
+            int maxDebt = (int) (getCreditCeiling() * settings.maxDebtMultiplier());
+            debt = compoundDebt(debt, settings.normalDailyInterestRate(), 0, normalDays, maxDebt);
+            hitMaxDebt = debt > 0 && debt >= maxDebt;
         }
-    }
 
-    private void checkDaily() {
-        int daysRemaining = getDaysRemaining();
-        boolean hasVIP = daysRemaining > 0;
-        int currentBalance = getBalance();
-        boolean hasDebt = currentBalance < 0;
+        int rewardTotal = vipDays * settings.dailyReward();
+        int interestAmount = (int) Math.round(debt) + startBalance + rewardTotal;
+        if (rewardTotal > 0) {
+            addToBalance(rewardTotal);
+        }
+        if (interestAmount > 0) {
+            addToBalance(-interestAmount);
+            Global.getLogger(CasinoVIPManager.class).info(
+                "Interest applied: " + interestAmount + " gems over " + days + " day(s) (starting debt: "
+                    + Math.max(0, -startBalance) + ")"
+            );
+        } else {
+            interestAmount = 0;
+        }
 
-        CampaignClockAPI clock = Global.getSector().getClock();
-        MemoryAPI memory = Global.getSector().getPlayerMemoryWithoutUpdate();
-        
-        Long lastRewardTime = null;
-        if (memory.contains(LAST_REWARD_TIME_KEY)) {
-            lastRewardTime = memory.getLong(LAST_REWARD_TIME_KEY);
+        if (hitMaxDebt) {
+            Global.getSector().getCampaignUI().addMessage(
+                Strings.get("notifications.debt_max_limit"),
+                Color.ORANGE
+            );
         }
 
-        float daysSinceLastReward;
-        if (lastRewardTime == null || lastRewardTime == 0 || lastRewardTime == -1L) {
-            daysSinceLastReward = 0;
-        } else {
-            daysSinceLastReward = clock.getElapsedDaysSince(lastRewardTime);
+        if (vipDays > 0) {
+            if (shouldShowNotification()) {
+                sendVIPNotification(days, rewardTotal, interestAmount);
+            }
+        } else if (startBalance < 0) {
+            sendDebtWarningNotification(days, interestAmount);
+
+            checkMonthlyDebtWarning();
         }
-        
-        if (lastRewardTime == null || lastRewardTime == 0 || daysSinceLastReward >= 1.0f || lastRewardTime == -1L) {
-            
-            int interestAmount = 0;
-            if (hasDebt) {
-                int currentDebt = -currentBalance;
-                int maxDebt = getMaxDebt();
-                
-if (currentDebt >= maxDebt) {
-                    Global.getSector().getCampaignUI().addMessage(
-                        Strings.get("notifications.debt_max_limit"),
-                        Color.ORANGE
-                    );
-                } else {
-                    float interestRate = hasVIP ? CasinoConfig.VIP_DAILY_INTEREST_RATE : CasinoConfig.NORMAL_DAILY_INTEREST_RATE;
-                    interestAmount = (int) (currentDebt * interestRate);
-                    
-                    if (currentDebt + interestAmount > maxDebt) {
-                        interestAmount = maxDebt - currentDebt;
-                    }
-                    
-                    addToBalance(-interestAmount);
-                    
-                    Global.getLogger(CasinoVIPManager.class).info(
-                        "Interest applied: " + interestAmount + " gems (debt: " + currentDebt + ", rate: " + interestRate + ")"
-                    );
-                }
+
+        memory.set(LAST_REWARD_TIME_KEY, clock.getTimestamp());
+    }
+
+    /**
+     * Closed form of {@code days} daily steps of: accrue {@code rate} interest on outstanding debt
+     * (none once at or above {@code maxDebt}, and never past it), then credit {@code reward}.
+     * Matches day-by-day processing up to per-day rounding. A negative result is a positive balance.
+     */
+    static double compoundDebt(double debt, double rate, double reward, int days, double maxDebt) {
+        // Uncapped recurrence d' = d * g - reward has the solution g^t * (d - F) + F, F = reward / rate.
+        // Each pass of the loop jumps straight to the next phase change (cap reached/left, debt paid off).
+        double growth = 1.0 + rate;
+        double fixedPoint = rate > 0 ? reward / rate : 0;
+        int remaining = days;
+
+        while (remaining > 0) {
+            // At or above the cap no interest accrues until rewards bring the debt back under it
+            if (debt >= maxDebt) {
+                if (reward <= 0) return debt;
+                int cappedDays = (int) Math.min(remaining, Math.floor((debt - maxDebt) / reward) + 1);
+                debt -= cappedDays * reward;
+                remaining -= cappedDays;
+                continue;
             }
-            
-            if (hasVIP) {
-                addToBalance(CasinoConfig.VIP_DAILY_REWARD);
-                
-                if (shouldShowNotification()) {
-                    sendVIPNotification(interestAmount);
+            if (debt <= 0 || rate <= 0) {
+                return debt - remaining * reward;
+            }
+            double pinned = maxDebt - reward;
+            if (debt * growth >= maxDebt) {
+                // Today's interest hits the cap; the day ends at maxDebt - reward
+                debt = pinned;
+                remaining--;
+                if (pinned >= fixedPoint) {
+                    // Every later day refills to the cap as well
+                    return debt;
                 }
-            } else if (hasDebt) {
-                sendDebtWarningNotification(interestAmount);
-                
-                checkMonthlyDebtWarning();
+                continue;
             }
-            
-            memory.set(LAST_REWARD_TIME_KEY, clock.getTimestamp());
+            if (debt == fixedPoint) {
+                return debt;
+            }
+
+            if (debt < fixedPoint) {
+                // Rewards outpace interest: jump to the day the debt is paid off
+                int payoffDay = (int) Math.ceil(Math.log(fixedPoint / (fixedPoint - debt)) / Math.log(growth));
+                int step = Math.max(1, Math.min(payoffDay, remaining));
+                debt = Math.pow(growth, step) * (debt - fixedPoint) + fixedPoint;
+                remaining -= step;
+                continue;
+            }
+
+            // Interest outpaces rewards: grow uncapped up to the day before interest would hit the cap
+            int capDay = (int) Math.ceil(Math.log((pinned - fixedPoint) / (debt - fixedPoint)) / Math.log(growth));
+            int step = Math.max(1, Math.min(capDay - 1, remaining));
+            debt = Math.pow(growth, step) * (debt - fixedPoint) + fixedPoint;
+            remaining -= step;
         }
+        return debt;
     }
     
     private void checkMonthlyDebtWarning() {
@@ -201,22 +229,20 @@ if (currentDebt >= maxDebt) {
         return false;
     }
 
-    private void sendVIPNotification(int interestAmount) {
+    private void sendVIPNotification(int days, int rewardTotal, int interestAmount) {
         int newBalance = getBalance();
         int daysRemaining = getDaysRemaining();
         
-        StringBuilder rewardLine = new StringBuilder();
-        rewardLine.append(Strings.format("notifications.daily_gem", CasinoConfig.VIP_DAILY_REWARD));
+        StringBuilder summary = new StringBuilder();
+        summary.append(Strings.format("notifications.daily_gem", rewardTotal));
         
         if (interestAmount > 0) {
-            rewardLine.append(", ").append(Strings.format("notifications.interest", interestAmount));
+            summary.append(", ").append(Strings.format("notifications.interest", interestAmount));
         }
-        
-        Global.getSector().getCampaignUI().addMessage(rewardLine.toString(), Color.GREEN);
+        summary.append(" | ").append(Strings.format("notifications.balance_vip", newBalance, daysRemaining));
         
         Color balanceColor = newBalance >= 0 ? Color.GREEN : Color.RED;
-        String balanceLine = Strings.format("notifications.balance_vip", newBalance, daysRemaining);
-        Global.getSector().getCampaignUI().addMessage(balanceLine, balanceColor);
+        Global.getSector().getCampaignUI().addMessage(withDaysPrefix(days, summary), balanceColor);
         
         List<String> vipAds = Strings.getList("vip_ads");
         if (!vipAds.isEmpty()) {
@@ -228,33 +254,33 @@ if (currentDebt >= maxDebt) {
         }
     }
     
-    private void sendDebtWarningNotification(int interestAmount) {
+    private void sendDebtWarningNotification(int days, int interestAmount) {
         if (shouldSuppressDebtNotification()) {
             return;
         }
         
         int newBalance = getBalance();
         
+        StringBuilder summary = new StringBuilder();
         if (interestAmount > 0) {
-            Global.getSector().getCampaignUI().addMessage(
-                Strings.format("notifications.interest", interestAmount),
-                Color.RED
-            );
+            summary.append(Strings.format("notifications.interest", interestAmount)).append(" | ");
         }
+        summary.append(Strings.format("notifications.balance_vip", newBalance, 0));
         
-        Global.getSector().getCampaignUI().addMessage(
-            Strings.format("notifications.balance_vip", newBalance, 0),
-            Color.RED
-        );
+        Global.getSector().getCampaignUI().addMessage(withDaysPrefix(days, summary), Color.RED);
         
         Global.getSector().getCampaignUI().addMessage(
             Strings.get("notifications.debt_collector_warning"),
             Color.ORANGE
         );
     }
+
+    private static String withDaysPrefix(int days, CharSequence summary) {
+        return days > 1 ? Strings.format("notifications.days_summary", days, summary) : summary.toString();
+    }
     
     public static int getBalance() {
-        return Global.getSector().getPlayerMemoryWithoutUpdate().getInt("$ipc_stargems");
+        return CasinoAccount.getBalance();
     }
 
     public static int getStargems() {
@@ -262,60 +288,32 @@ if (currentDebt >= maxDebt) {
     }
 
     public static int getCumulativeVIPPurchases() {
-        return Global.getSector().getPlayerMemoryWithoutUpdate().getInt("$ipc_cumulative_vip_purchases");
+        return CasinoAccount.getCumulativeVIPPurchases();
     }
 
     public static int getCumulativeTopupAmount() {
-        return Global.getSector().getPlayerMemoryWithoutUpdate().getInt("$ipc_cumulative_topup_amount");
+        return CasinoAccount.getCumulativeTopup();
     }
 
     public static void addToBalance(int amount) {
-        int current = getBalance();
-        int newAmount = current + amount;
-        Global.getSector().getPlayerMemoryWithoutUpdate().set("$ipc_stargems", newAmount);
-        
-        if (amount > 0) {
-            addCumulativeTopup(amount);
-        }
+        CasinoAccount.addToBalance(amount);
     }
 
     public static void addCumulativeVIPPurchases(int passes) {
-        int current = getCumulativeVIPPurchases();
-        int newAmount = current + passes;
-        Global.getSector().getPlayerMemoryWithoutUpdate().set("$ipc_cumulative_vip_purchases", newAmount);
+        CasinoAccount.addCumulativeVIPPurchases(passes);
     }
 
     public static void addCumulativeTopup(int amount) {
-        int current = getCumulativeTopupAmount();
-        int newAmount = current + amount;
-        Global.getSector().getPlayerMemoryWithoutUpdate().set("$ipc_cumulative_topup_amount", newAmount);
+        CasinoAccount.addCumulativeTopup(amount);
     }
 
     public static int getDaysRemaining() {
-        CampaignClockAPI clock = Global.getSector().getClock();
-        MemoryAPI memory = Global.getSector().getPlayerMemoryWithoutUpdate();
-        
-        if (!memory.contains("$ipc_vip_duration")) {
-            return 0;
-        }
-        
-        int duration = memory.getInt("$ipc_vip_duration");
-        if (duration <= 0) return 0;
+        return CasinoAccount.getDaysRemaining();
+    }
 
-        if (!memory.contains("$ipc_vip_start_time")) {
-            return 0;
-        }
-        
-        long startTime = memory.getLong("$ipc_vip_start_time");
-        
-        if (startTime == 0) {
-            return 0;
-        }
-        
-        float elapsedDays = clock.getElapsedDaysSince(startTime);
-        int remaining = duration - (int) elapsedDays;
-        
-        return Math.max(0, remaining);
+    /** @see CasinoAccount#getVersion() */
+    public static int getAccountVersion() {
+        return CasinoAccount.getVersion();
     }
 
     public static void addSubscriptionDays(int days) {
@@ -333,8 +331,7 @@ if (currentDebt >= maxDebt) {
             newDuration = currentRemaining + days;
         }
         
-        memory.set("$ipc_vip_start_time", currentTimestamp);
-        memory.set("$ipc_vip_duration", newDuration);
+        CasinoAccount.setVIPPass(currentTimestamp, newDuration);
         
         addCumulativeVIPPurchases(1);
         
@@ -354,7 +351,8 @@ if (currentDebt >= maxDebt) {
         boolean hasDebt = currentBalance < 0;
 
         if (hasVIP) {
-            addToBalance(CasinoConfig.VIP_DAILY_REWARD);
+            CasinoConfig.VipSettings settings = CasinoConfig.vip();
+            addToBalance(settings.dailyReward());
             
             int interestAmount = 0;
             if (hasDebt) {
@@ -362,7 +360,7 @@ if (currentDebt >= maxDebt) {
                 int maxDebt = getMaxDebt();
                 
                 if (currentDebt < maxDebt) {
-                    float interestRate = CasinoConfig.VIP_DAILY_INTEREST_RATE;
+                    float interestRate = settings.vipDailyInterestRate();
                     interestAmount = (int) (currentDebt * interestRate);
                     
                     if (currentDebt + interestAmount > maxDebt) {
@@ -399,16 +397,7 @@ if (currentDebt >= maxDebt) {
     }
 
     public static int getCreditCeiling() {
-        if (getDaysRemaining() <= 0) {
-            return 0;
-        }
-        
-        int playerLevel = Global.getSector().getPlayerStats().getLevel();
-        int vipPurchases = getCumulativeVIPPurchases();
-        
-        return CasinoConfig.BASE_DEBT_CEILING 
-            + (vipPurchases * CasinoConfig.CEILING_INCREASE_PER_VIP)
-            + (int) (playerLevel * CasinoConfig.OVERDRAFT_CEILING_LEVEL_MULTIPLIER);
+        return CasinoAccount.getCreditCeiling();
     }
     
     public static int getMaxDebt() {
@@ -425,34 +414,30 @@ if (currentDebt >= maxDebt) {
     public static void initializeSystem() {
         MemoryAPI memory = Global.getSector().getPlayerMemoryWithoutUpdate();
         
-        if (!memory.contains("$ipc_stargems")) {
-            memory.set("$ipc_stargems", 0);
+        if (!memory.contains(CasinoAccount.BALANCE_KEY)) {
+            memory.set(CasinoAccount.BALANCE_KEY, 0);
         }
         
-        if (!memory.contains("$ipc_cumulative_vip_purchases")) {
-            memory.set("$ipc_cumulative_vip_purchases", 0);
+        if (!memory.contains(CasinoAccount.CUMULATIVE_VIP_PURCHASES_KEY)) {
+            memory.set(CasinoAccount.CUMULATIVE_VIP_PURCHASES_KEY, 0);
         }
         
-        if (!memory.contains("$ipc_cumulative_topup_amount")) {
-            memory.set("$ipc_cumulative_topup_amount", 0);
+        if (!memory.contains(CasinoAccount.CUMULATIVE_TOPUP_KEY)) {
+            memory.set(CasinoAccount.CUMULATIVE_TOPUP_KEY, 0);
         }
         
-        if (!memory.contains("$ipc_vip_start_time")) {
-            memory.set("$ipc_vip_start_time", 0L);
+        if (!memory.contains(CasinoAccount.VIP_START_TIME_KEY)) {
+            memory.set(CasinoAccount.VIP_START_TIME_KEY, 0L);
         }
         
-        if (!memory.contains("$ipc_vip_duration")) {
-            memory.set("$ipc_vip_duration", 0);
+        if (!memory.contains(CasinoAccount.VIP_DURATION_KEY)) {
+            memory.set(CasinoAccount.VIP_DURATION_KEY, 0);
         }
         
         if (!memory.contains(LAST_REWARD_TIME_KEY)) {
             memory.set(LAST_REWARD_TIME_KEY, -1L);
         }
         
-        if (!memory.contains(LAST_PROCESSED_DAY_KEY)) {
-            memory.set(LAST_PROCESSED_DAY_KEY, Global.getSector().getClock().getTimestamp());
-        }
-        
         if (!memory.contains(LAST_MONTHLY_NOTIFY_KEY)) {
             memory.set(LAST_MONTHLY_NOTIFY_KEY, 0L);
         }
@@ -464,6 +449,8 @@ if (currentDebt >= maxDebt) {
         if (!memory.contains(LAST_DEBT_WARNING_KEY)) {
             memory.set(LAST_DEBT_WARNING_KEY, 0L);
         }
+
+        CasinoAccount.reload();
     }
     
     public static boolean isOverdraftAvailable() {
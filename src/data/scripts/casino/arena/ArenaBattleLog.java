@@ -0,0 +1,72 @@
+package data.scripts.casino.arena;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import data.scripts.casino.arena.SpiralAbyssArena.SpiralGladiator;
+
+/**
+ * The battle log as the panel reads it. Lines from watched rounds are stored as text; a battle that
+ * was skipped to the end is appended as its {@link ArenaBattleRecord}, and each of its lines is only
+ * written out the first time something reads it.
+ */
+public class ArenaBattleLog extends AbstractList<String> {
+
+    private record Deferred(int start, SpiralAbyssArena arena, List<SpiralGladiator> combatants,
+                            ArenaBattleRecord record) {}
+
+    // Null marks a deferred line not yet written
+    private final ArrayList<String> lines = new ArrayList<>();
+    private final List<Deferred> deferred = new ArrayList<>();
+
+    @Override
+    public String get(int index) {
+        String line = lines.get(index);
+        if (line == null) {
+            Deferred d = findDeferred(index);
+            line = d.arena().describe(d.record(), index - d.start(), d.combatants());
+            lines.set(index, line);
+        }
+        return line;
+    }
+
+    private Deferred findDeferred(int index) {
+        for (int i = deferred.size() - 1; i >= 0; i--) {
+            Deferred d = deferred.get(i);
+            if (index >= d.start()) return d;
+        }
+        throw new IllegalStateException("No record for log line " + index);
+    }
+
+    @Override
+    public int size() {
+        return lines.size();
+    }
+
+    @Override
+    public boolean add(String line) {
+        lines.add(line);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends String> newLines) {
+        return lines.addAll(newLines);
+    }
+
+    /** Appends a record's events as log lines that are written out when first read. */
+    public void addDeferred(SpiralAbyssArena arena, List<SpiralGladiator> combatants, ArenaBattleRecord record) {
+        if (record.size() == 0) return;
+        deferred.add(new Deferred(lines.size(), arena, combatants, record));
+        lines.addAll(Collections.nCopies(record.size(), null));
+    }
+
+    @Override
+    public void clear() {
+        lines.clear();
+        deferred.clear();
+    }
+}
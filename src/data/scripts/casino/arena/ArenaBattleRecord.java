@@ -0,0 +1,101 @@
+package data.scripts.casino.arena;
+
+import java.util.Arrays;
+
+/**
+ * What happened in one or more arena rounds, kept as packed events (type, two ship indices and a
+ * value in one long) rather than log text, plus the per-ship outcome once the record is closed.
+ * Log lines are produced from it on demand by {@link SpiralAbyssArena#describe}.
+ */
+public final class ArenaBattleRecord {
+    public static final int NONE = -1;
+
+    // Event types; a and b are ship indices, value is round, damage or hp
+    static final int ROUND = 0;          // value = round number, 1-based
+    static final int HIT = 1;            // a hits b for value
+    static final int CRIT = 2;           // a crits b for value
+    static final int MISS = 3;           // a misses b
+    static final int KILL = 4;           // a destroys b
+    static final int INCIDENT = 5;       // b takes value from a single-ship incident
+    static final int INCIDENT_MULTI = 6; // a multi-ship incident starts
+    static final int INCIDENT_HIT = 7;   // b takes value from the multi-ship incident
+    static final int INCIDENT_KILL = 8;  // b is destroyed by a single-ship incident
+    static final int DESTROYED = 9;      // b is destroyed by the multi-ship incident
+    static final int STATUS_HEADER = 10;
+    static final int STATUS = 11;        // b has value hp and is enraged at a
+
+    private long[] events = new long[64];
+    private int size;
+
+    private final int[] deathOrder;
+    private int deaths;
+    private final int[] finalHp;
+    private final int[] kills;
+    private int rounds;
+
+    ArenaBattleRecord(int ships) {
+        deathOrder = new int[ships];
+        finalHp = new int[ships];
+        kills = new int[ships];
+    }
+
+    void add(int type, int a, int b, int value) {
+        if (size == events.length) events = Arrays.copyOf(events, size * 2);
+        events[size++] = ((long) type << 56) | ((long) (a & 0xFF) << 48) | ((long) (b & 0xFF) << 40)
+            | (value & 0xFFFFFFFFL);
+    }
+
+    void died(int ship) {
+        deathOrder[deaths++] = ship;
+    }
+
+    void close(ArenaCombat combat, int rounds) {
+        this.rounds = rounds;
+        System.arraycopy(combat.hp, 0, finalHp, 0, finalHp.length);
+        System.arraycopy(combat.kills, 0, kills, 0, kills.length);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    static int type(long event) {
+        return (int) (event >>> 56);
+    }
+
+    static int shipA(long event) {
+        int a = (int) (event >>> 48) & 0xFF;
+        return a == 0xFF ? NONE : a;
+    }
+
+    static int shipB(long event) {
+        int b = (int) (event >>> 40) & 0xFF;
+        return b == 0xFF ? NONE : b;
+    }
+
+    static int value(long event) {
+        return (int) event;
+    }
+
+    long event(int index) {
+        return events[index];
+    }
+
+    /** Rounds played, counting the one that ended the battle. */
+    public int rounds() {
+        return rounds;
+    }
+
+    /** Ships destroyed, in the order they died. */
+    public int[] deathOrder() {
+        return Arrays.copyOf(deathOrder, deaths);
+    }
+
+    public int finalHp(int ship) {
+        return finalHp[ship];
+    }
+
+    public int kills(int ship) {
+        return kills[ship];
+    }
+}
@@ -0,0 +1,246 @@
+package data.scripts.casino.arena;
+
+import java.util.List;
+import java.util.Random;
+
+import data.scripts.casino.CasinoConfig;
+import data.scripts.casino.arena.SpiralAbyssArena.ChaosEventType;
+import data.scripts.casino.arena.SpiralAbyssArena.SpiralGladiator;
+
+import static data.scripts.casino.arena.ArenaBattleRecord.*;
+
+/**
+ * The arena combat rules on plain per-ship arrays. A battle is loaded from the gladiators, played
+ * for one or more rounds into an {@link ArenaBattleRecord}, and written back, so fast-forwarding
+ * to the end costs no per-attack allocation and no log text. The settings come from the
+ * {@link SpiralAbyssArena} that owns the match, which captured them when the match was created.
+ */
+final class ArenaCombat {
+    private static final ChaosEventType[] CHAOS_EVENTS = ChaosEventType.values();
+
+    private final CasinoConfig.ArenaSettings settings;
+
+    final int ships;
+    final int[] hp;
+    final int[] maxHp;
+    final int[] power;
+    final float[] agility;
+    final float[] bravery;
+    final boolean[] dead;
+    final int[] kills;
+    final int[] totalAttacks;
+    final int[] turnsSurvived;
+    final int[] retaliate;
+    final boolean[] enraged;
+    final int[] rage;
+
+    // Scratch for the alive and eligible-attacker sets, in combatant order
+    private final int[] alive;
+    private final int[] eligible;
+
+    ArenaCombat(List<SpiralGladiator> combatants, CasinoConfig.ArenaSettings settings) {
+        this.settings = settings;
+        ships = combatants.size();
+        hp = new int[ships];
+        maxHp = new int[ships];
+        power = new int[ships];
+        agility = new float[ships];
+        bravery = new float[ships];
+        dead = new boolean[ships];
+        kills = new int[ships];
+        totalAttacks = new int[ships];
+        turnsSurvived = new int[ships];
+        retaliate = new int[ships];
+        enraged = new boolean[ships];
+        rage = new int[ships];
+        alive = new int[ships];
+        eligible = new int[ships];
+
+        for (int i = 0; i < ships; i++) {
+            SpiralGladiator g = combatants.get(i);
+            hp[i] = g.hp;
+            maxHp[i] = g.maxHp;
+            power[i] = g.power;
+            agility[i] = g.agility;
+            bravery[i] = g.bravery;
+            dead[i] = g.isDead;
+            kills[i] = g.kills;
+            totalAttacks[i] = g.totalAttacks;
+            turnsSurvived[i] = g.turnsSurvived;
+            retaliate[i] = indexOf(combatants, g.retaliateTarget);
+            enraged[i] = g.isEnraged;
+            rage[i] = indexOf(combatants, g.targetOfRage);
+        }
+    }
+
+    void store(List<SpiralGladiator> combatants) {
+        for (int i = 0; i < ships; i++) {
+            SpiralGladiator g = combatants.get(i);
+            g.hp = hp[i];
+            g.isDead = dead[i];
+            g.kills = kills[i];
+            g.totalAttacks = totalAttacks[i];
+            g.turnsSurvived = turnsSurvived[i];
+            g.retaliateTarget = retaliate[i] != NONE ? combatants.get(retaliate[i]) : null;
+            g.isEnraged = enraged[i];
+            g.targetOfRage = rage[i] != NONE ? combatants.get(rage[i]) : null;
+        }
+    }
+
+    private static int indexOf(List<SpiralGladiator> combatants, SpiralGladiator g) {
+        if (g == null) return NONE;
+        for (int i = 0; i < combatants.size(); i++) {
+            if (combatants.get(i) == g) return i;
+        }
+        return NONE;
+    }
+
+    private int collectAlive() {
+        int count = 0;
+        for (int i = 0; i < ships; i++) {
+            if (!dead[i]) alive[count++] = i;
+        }
+        return count;
+    }
+
+    /** Credits a survived round to every ship still alive; the handler does this after each step. */
+    void surviveRound() {
+        for (int i = 0; i < ships; i++) {
+            if (!dead[i]) turnsSurvived[i]++;
+        }
+    }
+
+    /**
+     * Plays one round: each living ship attacks in turn (fewest attacks first), then a chaos event
+     * may strike. Events go to {@code out}.
+     *
+     * @return ships still alive afterwards
+     */
+    int step(Random random, int currentRound, ArenaBattleRecord out) {
+        int count = collectAlive();
+        if (count < 2) return count;
+
+        out.add(ROUND, NONE, NONE, currentRound + 1);
+
+        final int attacksThisStep = Math.max(count, (int) (count * settings.actionMultiplier()));
+        int attacksDoneThisStep = 0;
+
+        while (true) {
+            count = collectAlive();
+            if (count < 2) break;
+
+            if (attacksDoneThisStep >= attacksThisStep) break;
+
+            int minAttacks = Integer.MAX_VALUE;
+            for (int k = 0; k < count; k++) {
+                minAttacks = Math.min(minAttacks, totalAttacks[alive[k]]);
+            }
+            int eligibleCount = 0;
+            for (int k = 0; k < count; k++) {
+                if (totalAttacks[alive[k]] == minAttacks) eligible[eligibleCount++] = alive[k];
+            }
+
+            final int attacker = eligible[random.nextInt(eligibleCount)];
+            totalAttacks[attacker]++;
+            attacksDoneThisStep++;
+
+            int target = alive[random.nextInt(count)];
+            while (target == attacker) target = alive[random.nextInt(count)];
+
+            if (retaliate[attacker] != NONE && !dead[retaliate[attacker]]) {
+                target = retaliate[attacker];
+                enraged[attacker] = true;
+                rage[attacker] = retaliate[attacker];
+                retaliate[attacker] = NONE;
+            } else if (retaliate[attacker] != NONE) {
+                retaliate[attacker] = NONE;
+                enraged[attacker] = false;
+                rage[attacker] = NONE;
+            }
+
+            if (rage[attacker] != NONE && dead[rage[attacker]]) {
+                enraged[attacker] = false;
+                rage[attacker] = NONE;
+            }
+
+            final float hitChance = 0.7f + agility[attacker] - agility[target];
+            if (random.nextFloat() < hitChance) {
+                final boolean crit = random.nextFloat() < bravery[attacker];
+                final int dmg = (int) (power[attacker] * (crit ? 1.5f : 1.0f));
+                hp[target] -= dmg;
+                out.add(crit ? CRIT : HIT, attacker, target, dmg);
+
+                if (random.nextFloat() < bravery[target]) {
+                    retaliate[target] = attacker;
+                    enraged[target] = true;
+                    rage[target] = attacker;
+                }
+
+                if (hp[target] <= 0) {
+                    destroy(target, out);
+                    kills[attacker]++;
+                    out.add(KILL, attacker, target, 0);
+                }
+            } else {
+                out.add(MISS, attacker, target, 0);
+            }
+        }
+
+        count = collectAlive();
+
+        if (currentRound > 0 && count >= 2 && random.nextFloat() < settings.chaosEventChance()) {
+            final ChaosEventType type = CHAOS_EVENTS[random.nextInt(CHAOS_EVENTS.length)];
+
+            if (type == ChaosEventType.SINGLE_SHIP_DAMAGE) {
+                final int target = alive[random.nextInt(count)];
+                final int dmg = (int) (maxHp[target] * settings.singleShipDamagePercent());
+                hp[target] -= dmg;
+                out.add(INCIDENT, NONE, target, dmg);
+
+                if (hp[target] <= 0) {
+                    destroy(target, out);
+                    out.add(INCIDENT_KILL, NONE, target, 0);
+                }
+            } else if (type == ChaosEventType.MULTI_SHIP_DAMAGE) {
+                final int shipsToDamage = Math.min(count, 2 + random.nextInt(Math.min(3, count - 1)));
+                // Same swaps as Collections.shuffle on a list of this size
+                for (int k = count; k > 1; k--) {
+                    final int j = random.nextInt(k);
+                    final int tmp = alive[k - 1];
+                    alive[k - 1] = alive[j];
+                    alive[j] = tmp;
+                }
+                out.add(INCIDENT_MULTI, NONE, NONE, 0);
+
+                for (int k = 0; k < shipsToDamage; k++) {
+                    final int target = alive[k];
+                    final int dmg = (int) (maxHp[target] * settings.multiShipDamagePercent());
+                    hp[target] -= dmg;
+                    out.add(INCIDENT_HIT, NONE, target, dmg);
+
+                    if (hp[target] <= 0) {
+                        destroy(target, out);
+                        out.add(DESTROYED, NONE, target, 0);
+                    }
+                }
+            }
+        }
+
+        count = collectAlive();
+        if (count > 0) {
+            out.add(STATUS_HEADER, NONE, NONE, 0);
+            for (int k = 0; k < count; k++) {
+                final int ship = alive[k];
+                out.add(STATUS, enraged[ship] ? rage[ship] : NONE, ship, hp[ship]);
+            }
+        }
+        return count;
+    }
+
+    private void destroy(int ship, ArenaBattleRecord out) {
+        dead[ship] = true;
+        enraged[ship] = false;
+        rage[ship] = NONE;
+        out.died(ship);
+    }
+}
@@ -29,6 +29,8 @@ import data.scripts.casino.CasinoConfig;
 import data.scripts.casino.CasinoVIPManager;
 import data.scripts.casino.Strings;
 import data.scripts.casino.shared.CasinoSpriteCache;
+import data.scripts.casino.shared.CasinoMetrics;
+import data.scripts.casino.shared.MetricsOverlay;
 import data.scripts.casino.arena.SpiralAbyssArena.SpiralGladiator;
 import data.scripts.casino.interaction.ArenaHandler.BetInfo;
 import data.scripts.casino.interaction.ArenaHandler.BetValidationResult;
@@ -389,10 +391,7 @@ public class ArenaPanelUI extends BaseCustomUIPanelPlugin
     private boolean shipStateInitialized = false;
 
     // Label caching (prevent redundant per-frame updates)
-    private int lastBalance = Integer.MIN_VALUE;
-    private int lastAvailableCredit = Integer.MIN_VALUE;
-    private int lastCreditCeiling = Integer.MIN_VALUE;
-    private boolean lastIsVIP = false;
+    private int lastAccountVersion = -1;
     private String lastInstructionText = null;
     private boolean rewardBreakdownCached = false;
 
@@ -460,6 +459,11 @@ public class ArenaPanelUI extends BaseCustomUIPanelPlugin
     private final Set<String> killedHullIds = new HashSet<>();
     private final Set<String> fadeOutHullIds = new HashSet<>();
     private final float[] fadeOutAlpha = new float[5];
+
+    // Metrics
+    private final CasinoMetrics.FrameTimer renderTimer = CasinoMetrics.frameTimer("arena.panel.render");
+    private final CasinoMetrics.FrameTimer advanceTimer = CasinoMetrics.frameTimer("arena.panel.advance");
+    private final MetricsOverlay metricsOverlay = new MetricsOverlay();
     
     private int getTotalBetOnShip(int shipIndex) {
         if (bets == null || combatants == null || shipIndex < 0 || shipIndex >= combatants.size()) {
@@ -545,6 +549,14 @@ public class ArenaPanelUI extends BaseCustomUIPanelPlugin
         this.bets = bets;
         this.battleLog = battleLog;
         this.actionCallback = callback;
+        prefetchShipSprites(combatants);
+    }
+
+    private static void prefetchShipSprites(List<SpiralGladiator> combatants) {
+        if (combatants == null) return;
+        for (SpiralGladiator ship : combatants) {
+            CasinoSpriteCache.prefetch(ship.hullId);
+        }
     }
     
     private boolean isShipEffectivelyDead(SpiralGladiator ship) {
@@ -565,9 +577,22 @@ public class ArenaPanelUI extends BaseCustomUIPanelPlugin
         createUIElements();
         updateLabels();
         updateButtonVisibility();
+        metricsOverlay.attach(panel);
     }
 
     public void advance(float amount) {
+        metricsOverlay.advance(amount);
+        advanceTimer.begin();
+        try {
+            advancePanel(amount);
+        } finally {
+            advanceTimer.end();
+        }
+    }
+
+    private void advancePanel(float amount) {
+        CasinoSpriteCache.advancePrefetch();
+
         if (isAnimating && !pendingEntries.isEmpty()) {
             logAnimationTimer += amount;
 
@@ -1116,20 +1141,17 @@ public class ArenaPanelUI extends BaseCustomUIPanelPlugin
     private void updateBalanceLabel() {
         if (balanceLabel == null) return;
         
+        int accountVersion = CasinoVIPManager.getAccountVersion();
+        if (accountVersion == lastAccountVersion) {
+            return;
+        }
+        lastAccountVersion = accountVersion;
+
         int balance = CasinoVIPManager.getBalance();
         int availableCredit = CasinoVIPManager.getAvailableCredit();
         int creditCeiling = CasinoVIPManager.getCreditCeiling();
         boolean isVIP = CasinoVIPManager.isOverdraftAvailable();
         
-        if (balance == lastBalance && availableCredit == lastAvailableCredit 
-            && creditCeiling == lastCreditCeiling && isVIP == lastIsVIP) {
-            return;
-        }
-        lastBalance = balance;
-        lastAvailableCredit = availableCredit;
-        lastCreditCeiling = creditCeiling;
-        lastIsVIP = isVIP;
-        
         StringBuilder sb = new StringBuilder();
         Color balanceColor;
         
@@ -1235,6 +1257,15 @@ public class ArenaPanelUI extends BaseCustomUIPanelPlugin
     }
 
     public void renderBelow(float alphaMult) {
+        renderTimer.begin();
+        try {
+            renderPanel(alphaMult);
+        } finally {
+            renderTimer.end();
+        }
+    }
+
+    private void renderPanel(float alphaMult) {
         final PositionAPI pos = panel.getPosition();
         final float x = pos.getX();
         final float y = pos.getY();
@@ -1662,27 +1693,22 @@ public class ArenaPanelUI extends BaseCustomUIPanelPlugin
         }
         lastBattleLogSize = currentSize;
         
+        // Only the newest lines are shown, so read back from the end; a skipped battle's
+        // log is then only written out as far as the panel actually displays it
         cachedParsedEntries.clear();
-        if (battleLog != null) {
-            for (String entry : battleLog) {
-                ParsedLogEntry parsed = new ParsedLogEntry(entry);
-                parsed.parse(combatants);
-                cachedParsedEntries.add(parsed);
+        for (int i = currentSize - 1; i >= 0 && cachedParsedEntries.size() < battleLogTextLabels.length; i--) {
+            ParsedLogEntry parsed = new ParsedLogEntry(battleLog.get(i));
+            parsed.parse(combatants);
+            if (parsed.type.equals("STATUS") || parsed.type.isEmpty()) {
+                continue;
             }
+            cachedParsedEntries.add(0, parsed);
         }
     }
     
-private List<ParsedLogEntry> getFilteredEntries() {
+    private List<ParsedLogEntry> getFilteredEntries() {
         updateCachedParsedEntries();
-        
-        final List<ParsedLogEntry> filtered = new ArrayList<>();
-        for (ParsedLogEntry entry : cachedParsedEntries) {
-            if (entry.type.equals("STATUS") || entry.type.isEmpty()) {
-                continue;
-            }
-            filtered.add(entry);
-        }
-        return filtered;
+        return cachedParsedEntries;
     }
 
     private void renderBattleLogSprites(float panelX, float panelY, float alphaMult) {
@@ -2149,6 +2175,7 @@ private List<ParsedLogEntry> getFilteredEntries() {
         List<String> battleLog
     ) {
         resetAnimationState();
+        prefetchShipSprites(combatants);
         
         this.battleEnded = false;
         this.winnerIndex = -1;
@@ -2174,10 +2201,7 @@ private List<ParsedLogEntry> getFilteredEntries() {
         shipStateInitialized = false;
         lastCurrentRound = -1;
         lastTotalBet = -1;
-        lastBalance = Integer.MIN_VALUE;
-        lastAvailableCredit = Integer.MIN_VALUE;
-        lastCreditCeiling = Integer.MIN_VALUE;
-        lastIsVIP = false;
+        lastAccountVersion = -1;
         lastInstructionText = null;
         for (int i = 0; i < 5; i++) {
             lastShipHp[i] = -1;
@@ -0,0 +1,79 @@
+package data.scripts.casino.arena;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import data.scripts.casino.CasinoConfig;
+import data.scripts.casino.arena.SpiralAbyssArena.SpiralGladiator;
+
+/**
+ * How a finished arena battle pays out: final positions, and the win or consolation return on one
+ * bet. Holds no state and touches no game API, so the handler and offline tools share one formula.
+ */
+public final class ArenaPayout {
+    private ArenaPayout() {}
+
+    /**
+     * Gives the winner position 0 and ranks the dead by rounds survived, longest first. Ships that
+     * went down in the same round share a position.
+     */
+    public static void assignFinalPositions(List<SpiralGladiator> combatants, SpiralGladiator winner) {
+        if (winner != null) {
+            winner.finalPosition = 0;
+        }
+
+        List<SpiralGladiator> deadShips = new ArrayList<>();
+        for (SpiralGladiator g : combatants) {
+            if (g.isDead) {
+                deadShips.add(g);
+            }
+        }
+
+        deadShips.sort((a, b) -> Integer.compare(b.turnsSurvived, a.turnsSurvived));
+
+        int position = 1;
+        int lastTurnsSurvived = -1;
+        for (SpiralGladiator ship : deadShips) {
+            if (lastTurnsSurvived != -1 && ship.turnsSurvived != lastTurnsSurvived) {
+                position++;
+            }
+            ship.finalPosition = position;
+            lastTurnsSurvived = ship.turnsSurvived;
+        }
+    }
+
+    /** Payout for a bet on the winner, at the odds frozen when it was placed. */
+    public static int winReward(int amount, float frozenOdds, SpiralGladiator ship, int roundPlaced) {
+        float effectiveMultiplier = Math.max(1.01f, frozenOdds * performanceMultiplier(ship, roundPlaced));
+        return (int) (amount * effectiveMultiplier);
+    }
+
+    /** Payout for a bet on a ship that was destroyed, by its final position and kills. */
+    public static int consolationReward(int amount, SpiralGladiator ship, int roundPlaced) {
+        float baseConsolation = CasinoConfig.ARENA_CONSOLATION_BASE * SpiralAbyssArena.getPositionFactor(ship.finalPosition);
+        float consolationRate = baseConsolation + killBonusFactor(roundPlaced, ship.kills);
+        return (int) (amount * consolationRate);
+    }
+
+    /** Survival and kill bonus on a winning bet; only bets placed before the first round earn it. */
+    public static float performanceMultiplier(SpiralGladiator ship, int roundPlaced) {
+        float survivalBonusMult = 1.0f;
+        if (roundPlaced == 0) {
+            survivalBonusMult = 1.0f + (ship.turnsSurvived * CasinoConfig.ARENA_SURVIVAL_BONUS_PER_TURN);
+        }
+
+        float killBonusMult = 1.0f;
+        if (roundPlaced == 0 && ship.kills > 0) {
+            killBonusMult = 1.0f + (ship.kills * CasinoConfig.ARENA_KILL_BONUS_PER_KILL);
+        }
+
+        return survivalBonusMult * killBonusMult;
+    }
+
+    /** Flat kill bonus added to the consolation rate; only bets placed before the first round earn it. */
+    public static float killBonusFactor(int roundPlaced, int kills) {
+        if (kills <= 0 || roundPlaced > 0) return 0.0f;
+
+        return CasinoConfig.ARENA_KILL_BONUS_FLAT * kills;
+    }
+}
@@ -6,21 +6,75 @@ import com.fs.starfarer.api.combat.ShipHullSpecAPI;
 import data.scripts.casino.CasinoConfig;
 import data.scripts.casino.gacha.CasinoGachaManager;
 import data.scripts.casino.Strings;
+import data.scripts.casino.shared.CasinoMetrics;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * One arena match. Everything that decides the outcome (the prefixes and affixes rolled for the
+ * roster, every combat round, the odds simulations) draws from random streams derived from the match
+ * seed, so a match is fully determined by its seed, its hull ids and the number of rounds played.
+ * The arena settings are captured when the match is created and used for every round, replay and
+ * odds simulation of it, so a config reload only affects matches started afterwards.
+ * Flavor text picks from its own unseeded stream and never shifts the combat.
+ */
 public class SpiralAbyssArena {
+    private final long seed;
+    private final Random matchRandom;
+    private final CasinoConfig.ArenaSettings settings;
+    private boolean rosterFromSeed = false;
     private final Random random = new Random();
     private final Queue<String> lastAttackHistory = new LinkedList<>();
     private final Queue<String> lastMissHistory = new LinkedList<>();
     private final Queue<String> lastCritHistory = new LinkedList<>();
     private final Queue<String> lastKillHistory = new LinkedList<>();
     private static final int MAX_HISTORY_SIZE = 3;
+    private static final CasinoMetrics.Histogram ODDS_TIME = CasinoMetrics.histogram("arena.odds");
+    private static final CasinoMetrics.Counter ODDS_CACHE_HITS = CasinoMetrics.counter("arena.odds.cache_hits");
     
-    private Map<Integer, Map<Integer, Float>> cachedPositionProbabilities = null;
-    private Map<Integer, Float> cachedExpectedKills = null;
-    private int cachedPositionRound = -1;
-    private List<Integer> cachedHpValues = null;
+    private static ExecutorService oddsWorker;
+
+    // Latest odds, replaced as a whole so the worker can publish while the game thread reads
+    private final AtomicReference<OddsSnapshot> oddsCache = new AtomicReference<>();
+    private volatile Speculation speculation;
     
+    /** Position probabilities and expected kills for one battle state, identified by round and hp. */
+    private record OddsSnapshot(int round, int[] hp, Map<Integer, Map<Integer, Float>> probabilities,
+                                Map<Integer, Float> expectedKills) {
+        boolean matches(List<SpiralGladiator> combatants, int currentRound) {
+            if (round != currentRound || hp.length != combatants.size()) return false;
+            for (int i = 0; i < hp.length; i++) {
+                if (combatants.get(i).hp != hp[i]) return false;
+            }
+            return true;
+        }
+    }
+
+    private record Speculation(OddsSnapshot key, Future<OddsSnapshot> result) {}
+
+    public SpiralAbyssArena() {
+        this(new Random().nextLong());
+    }
+
+    public SpiralAbyssArena(long seed) {
+        this.seed = seed;
+        this.matchRandom = new Random(seed);
+        this.settings = CasinoConfig.arena();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /** True once this arena rolled its roster from its seed, so the match can be rebuilt with {@link #replay}. */
+    public boolean isReplayable() {
+        return rosterFromSeed;
+    }
+
     public enum ChaosEventType {
         SINGLE_SHIP_DAMAGE,
         MULTI_SHIP_DAMAGE
@@ -84,9 +138,10 @@ public SpiralGladiator(String hullId, String prefix, String hullName, String aff
             this.hp = hp;
             this.maxHp = hp;
             this.power = power;
-            this.agility = Math.min(agility, CasinoConfig.ARENA_AGILITY_CAP);
+            CasinoConfig.ArenaSettings settings = CasinoConfig.arena();
+            this.agility = Math.min(agility, settings.agilityCap());
             this.bravery = bravery;
-            this.baseOdds = CasinoConfig.ARENA_BASE_ODDS;
+            this.baseOdds = settings.baseOdds();
         }
         
         public float getCurrentOdds(int currentRound) {
@@ -96,22 +151,16 @@ public SpiralGladiator(String hullId, String prefix, String hullName, String aff
                 return arenaRef.calculateCurrentOdds(combatantsRef, combatantIndex, currentRound);
             }
 
+            CasinoConfig.ArenaSettings settings = CasinoConfig.arena();
             float currentOdds = baseOdds;
             float hpRatio = (float) hp / (float) maxHp;
-            float hpFactor = 1.0f + (CasinoConfig.ARENA_HP_ODDS_FACTOR - 1.0f) * (1.0f - hpRatio);
-            hpFactor = Math.max(CasinoConfig.ARENA_MIN_HP_ODDS_MULT,
-                      Math.min(CasinoConfig.ARENA_MAX_HP_ODDS_MULT, hpFactor));
+            float hpFactor = 1.0f + (settings.hpOddsFactor() - 1.0f) * (1.0f - hpRatio);
+            hpFactor = Math.max(settings.minHpOddsMult(), Math.min(settings.maxHpOddsMult(), hpFactor));
             currentOdds *= hpFactor;
+            currentOdds *= midRoundMultiplier(settings, currentRound);
 
-            if (currentRound > 0) {
-                float basePenalty = CasinoConfig.ARENA_MID_ROUND_BASE_PENALTY;
-                float progressivePenalty = 1.0f - (currentRound * CasinoConfig.ARENA_MID_ROUND_PROGRESSIVE_PENALTY);
-                progressivePenalty = Math.max(CasinoConfig.ARENA_DIMINISHING_RETURNS_MIN, progressivePenalty);
-                currentOdds *= basePenalty * progressivePenalty;
-            }
-
-            currentOdds *= (1.0f - CasinoConfig.ARENA_HOUSE_EDGE);
-            return Math.max(CasinoConfig.ARENA_MIN_ODDS, currentOdds);
+            currentOdds *= (1.0f - settings.houseEdge());
+            return Math.max(settings.minOdds(), currentOdds);
         }
         
         public String getCurrentOddsString(int currentRound) {
@@ -131,14 +180,7 @@ public SpiralGladiator(String hullId, String prefix, String hullName, String aff
         }
         
         public String getStatusString() {
-            StringBuilder status = new StringBuilder();
-            status.append(hullName).append(": ").append(hp).append("/").append(maxHp).append(" HP");
-            
-            if (isEnraged && targetOfRage != null) {
-                status.append(" (angry at ").append(targetOfRage.hullName).append(")");
-            }
-            
-            return status.toString();
+            return statusString(this, hp, isEnraged ? targetOfRage : null);
         }
         
         public SpiralGladiator copyForSimulation() {
@@ -173,8 +215,8 @@ public SpiralGladiator(String hullId, String prefix, String hullName, String aff
         }
     }
     
-    private SimulationResult runSimulationToCompletionWithKills(List<SpiralGladiator> simCombatants, Map<Integer, Integer> originalToSimIndex) {
-        Random simRandom = new Random();
+    private SimulationResult runSimulationToCompletionWithKills(List<SpiralGladiator> simCombatants, Map<Integer, Integer> originalToSimIndex,
+                                                                CasinoConfig.ArenaSettings settings, Random simRandom) {
         Map<Integer, Integer> simToOriginalIndex = new HashMap<>();
         for (Map.Entry<Integer, Integer> entry : originalToSimIndex.entrySet()) {
             simToOriginalIndex.put(entry.getValue(), entry.getKey());
@@ -195,7 +237,7 @@ public SpiralGladiator(String hullId, String prefix, String hullName, String aff
                 break;
             }
             
-            int attacksThisRound = Math.max(alive.size(), (int)(alive.size() * CasinoConfig.ARENA_ACTION_MULTIPLIER));
+            int attacksThisRound = Math.max(alive.size(), (int)(alive.size() * settings.actionMultiplier()));
             int attacksDoneThisRound = 0;
             List<SpiralGladiator> diedThisRound = new ArrayList<>();
             
@@ -272,7 +314,6 @@ public SpiralGladiator(String hullId, String prefix, String hullName, String aff
     }
     
     public List<SpiralGladiator> generateCombatants(CasinoGachaManager gacha) {
-        List<SpiralGladiator> list = new ArrayList<>();
         List<String> pool = new ArrayList<>();
         Set<String> usedHullIds = new HashSet<>();
         
@@ -301,8 +342,18 @@ public SpiralGladiator(String hullId, String prefix, String hullName, String aff
             }
             attempts++;
         }
-        
-        for (String hullId : pool) {
+
+        return createCombatants(pool);
+    }
+
+    /**
+     * Builds the gladiators for the given hulls, rolling their prefixes and affixes from the match
+     * seed. Hulls without a spec are skipped without drawing, so the surviving ids give the same
+     * roster again.
+     */
+    public List<SpiralGladiator> createCombatants(List<String> hullIds) {
+        List<SpiralGladiator> list = new ArrayList<>();
+        for (String hullId : hullIds) {
             if (hullId == null) continue;
             
             ShipHullSpecAPI spec = Global.getSettings().getHullSpec(hullId);
@@ -310,50 +361,13 @@ public SpiralGladiator(String hullId, String prefix, String hullName, String aff
             
             CasinoConfig.ArenaStat base = CasinoConfig.ARENA_BASE_STATS.get(spec.getHullSize());
             if (base == null) base = CasinoConfig.ARENA_BASE_STATS.get(ShipAPI.HullSize.FRIGATE);
-            
-            int hp = base.hp;
-            int power = base.power;
-            float agility = base.agility;
-            float bravery = 0.20f;
-            
-            List<String> prefixPos = Strings.getList("arena_prefixes.positive");
-            List<String> prefixNeg = Strings.getList("arena_prefixes.negative");
-            int prefixIdx = random.nextInt(prefixPos.size());
-            boolean posPrefix = random.nextBoolean();
-            String prefix = posPrefix ? prefixPos.get(prefixIdx) : prefixNeg.get(prefixIdx);
-            
-            float multP = posPrefix ? CasinoConfig.ARENA_PREFIX_MULT_STRONG : CasinoConfig.ARENA_PREFIX_MULT_WEAK;
-            if (prefixIdx == 0) hp = (int)(hp * multP);
-            else if (prefixIdx == 1) power = (int)(power * multP);
-            else if (prefixIdx == 2) agility = posPrefix ? agility + CasinoConfig.ARENA_PREFIX_AGILITY_BONUS : Math.max(0, agility - CasinoConfig.ARENA_PREFIX_AGILITY_BONUS);
-            else bravery = posPrefix ? bravery + CasinoConfig.ARENA_PREFIX_BRAVERY_BONUS : Math.max(0, bravery - CasinoConfig.ARENA_PREFIX_BRAVERY_BONUS);
-            
-            List<String> affixPos = Strings.getList("arena_affixes.positive");
-            List<String> affixNeg = Strings.getList("arena_affixes.negative");
-            int affixIdx = random.nextInt(affixPos.size());
-            boolean posAffix = random.nextBoolean();
-            String affix = posAffix ? affixPos.get(affixIdx) : affixNeg.get(affixIdx);
-            
-            List<String> allValidAffixes = new ArrayList<>();
-            allValidAffixes.addAll(affixPos);
-            allValidAffixes.addAll(affixNeg);
-            
-            if (!allValidAffixes.contains(affix)) {
-                Global.getLogger(this.getClass()).warn("Invalid affix detected: " + affix + ", falling back to default");
-                affix = posAffix ? affixPos.get(0) : affixNeg.get(0);
-            }
-            
-            float multA = posAffix ? CasinoConfig.ARENA_AFFIX_MULT_STRONG : CasinoConfig.ARENA_AFFIX_MULT_WEAK;
-            if (affixIdx == 0) hp = (int)(hp * multA);
-            else if (affixIdx == 1) power = (int)(power * multA);
-            else if (affixIdx == 2) agility = posAffix ? agility + CasinoConfig.ARENA_AFFIX_AGILITY_BONUS : Math.max(0, agility - CasinoConfig.ARENA_AFFIX_AGILITY_BONUS);
-            else bravery = posAffix ? bravery + CasinoConfig.ARENA_AFFIX_BRAVERY_BONUS : Math.max(0, bravery - CasinoConfig.ARENA_AFFIX_BRAVERY_BONUS);
-            
-            agility = Math.min(agility, CasinoConfig.ARENA_AGILITY_CAP);
-            SpiralGladiator gladiator = new SpiralGladiator(hullId, prefix, spec.getHullName(), affix, hp, power, agility, bravery);
-            list.add(gladiator);
+
+            list.add(rollGladiator(matchRandom, hullId, spec.getHullName(), base,
+                Strings.getList("arena_prefixes.positive"), Strings.getList("arena_prefixes.negative"),
+                Strings.getList("arena_affixes.positive"), Strings.getList("arena_affixes.negative")));
         }
         
+        rosterFromSeed = true;
         for (int i = 0; i < list.size(); i++) {
             list.get(i).setArenaReference(this, list, i);
         }
@@ -361,156 +375,195 @@ public SpiralGladiator(String hullId, String prefix, String hullName, String aff
         return list;
     }
     
-    public List<String> simulateStep(List<SpiralGladiator> combatants, int currentRound) {
-        List<String> log = new ArrayList<>();
-        
-        List<SpiralGladiator> alive = new ArrayList<>();
-        for (SpiralGladiator g : combatants) if (!g.isDead) alive.add(g);
-        
-        if (alive.size() < 2) return log;
-        
-        log.add("[ROUND] Round " + (currentRound + 1));
+    /**
+     * Rolls one gladiator's prefix and affix from {@code random} (two draws each) and applies their
+     * stat changes to the hull size's base stats. Takes the name lists so it also runs without the game.
+     */
+    public static SpiralGladiator rollGladiator(Random random, String hullId, String hullName, CasinoConfig.ArenaStat base,
+                                                List<String> prefixPos, List<String> prefixNeg,
+                                                List<String> affixPos, List<String> affixNeg) {
+        int hp = base.hp;
+        int power = base.power;
+        float agility = base.agility;
+        float bravery = 0.20f;
+        
+        int prefixIdx = random.nextInt(prefixPos.size());
+        boolean posPrefix = random.nextBoolean();
+        String prefix = posPrefix ? prefixPos.get(prefixIdx) : prefixNeg.get(prefixIdx);
+        
+        float multP = posPrefix ? CasinoConfig.ARENA_PREFIX_MULT_STRONG : CasinoConfig.ARENA_PREFIX_MULT_WEAK;
+        if (prefixIdx == 0) hp = (int)(hp * multP);
+        else if (prefixIdx == 1) power = (int)(power * multP);
+        else if (prefixIdx == 2) agility = posPrefix ? agility + CasinoConfig.ARENA_PREFIX_AGILITY_BONUS : Math.max(0, agility - CasinoConfig.ARENA_PREFIX_AGILITY_BONUS);
+        else bravery = posPrefix ? bravery + CasinoConfig.ARENA_PREFIX_BRAVERY_BONUS : Math.max(0, bravery - CasinoConfig.ARENA_PREFIX_BRAVERY_BONUS);
+        
+        int affixIdx = random.nextInt(affixPos.size());
+        boolean posAffix = random.nextBoolean();
+        String affix = posAffix ? affixPos.get(affixIdx) : affixNeg.get(affixIdx);
+        
+        List<String> allValidAffixes = new ArrayList<>();
+        allValidAffixes.addAll(affixPos);
+        allValidAffixes.addAll(affixNeg);
+        
+        if (!allValidAffixes.contains(affix)) {
+            Global.getLogger(SpiralAbyssArena.class).warn("Invalid affix detected: " + affix + ", falling back to default");
+            affix = posAffix ? affixPos.get(0) : affixNeg.get(0);
+        }
+        
+        float multA = posAffix ? CasinoConfig.ARENA_AFFIX_MULT_STRONG : CasinoConfig.ARENA_AFFIX_MULT_WEAK;
+        if (affixIdx == 0) hp = (int)(hp * multA);
+        else if (affixIdx == 1) power = (int)(power * multA);
+        else if (affixIdx == 2) agility = posAffix ? agility + CasinoConfig.ARENA_AFFIX_AGILITY_BONUS : Math.max(0, agility - CasinoConfig.ARENA_AFFIX_AGILITY_BONUS);
+        else bravery = posAffix ? bravery + CasinoConfig.ARENA_AFFIX_BRAVERY_BONUS : Math.max(0, bravery - CasinoConfig.ARENA_AFFIX_BRAVERY_BONUS);
+        
+        agility = Math.min(agility, CasinoConfig.ARENA_AGILITY_CAP);
+        return new SpiralGladiator(hullId, prefix, hullName, affix, hp, power, agility, bravery);
+    }
 
-        int attacksThisStep = Math.max(alive.size(), (int)(alive.size() * CasinoConfig.ARENA_ACTION_MULTIPLIER));
-        int attacksDoneThisStep = 0;
-        
-        while (true) {
-            List<SpiralGladiator> currentAlive = new ArrayList<>();
-            for (SpiralGladiator g : combatants) if (!g.isDead) currentAlive.add(g);
-            if (currentAlive.size() < 2) break;
-            
-            if (attacksDoneThisStep >= attacksThisStep) break;
-            
-            int minAttacks = Integer.MAX_VALUE;
-            for (SpiralGladiator g : currentAlive) {
-                if (g.totalAttacks < minAttacks) minAttacks = g.totalAttacks;
-            }
-            
-            List<SpiralGladiator> eligibleAttackers = new ArrayList<>();
-            for (SpiralGladiator g : currentAlive) {
-                if (g.totalAttacks == minAttacks) {
-                    eligibleAttackers.add(g);
-                }
-            }
-            
-            SpiralGladiator attacker = eligibleAttackers.get(random.nextInt(eligibleAttackers.size()));
-            attacker.totalAttacks++;
-            attacksDoneThisStep++;
-            
-            SpiralGladiator target = currentAlive.get(random.nextInt(currentAlive.size()));
-            while (target == attacker) target = currentAlive.get(random.nextInt(currentAlive.size()));
-            
-            if (attacker.retaliateTarget != null && !attacker.retaliateTarget.isDead) {
-                target = attacker.retaliateTarget;
-                attacker.isEnraged = true;
-                attacker.targetOfRage = attacker.retaliateTarget;
-                attacker.retaliateTarget = null;
-            } else if (attacker.retaliateTarget != null) {
-                attacker.retaliateTarget = null;
-                attacker.isEnraged = false;
-                attacker.targetOfRage = null;
-            }
-            
-            if (attacker.targetOfRage != null && attacker.targetOfRage.isDead) {
-                attacker.isEnraged = false;
-                attacker.targetOfRage = null;
-            }
+    public List<String> simulateStep(List<SpiralGladiator> combatants, int currentRound) {
+        ArenaCombat combat = new ArenaCombat(combatants, settings);
+        ArenaBattleRecord record = new ArenaBattleRecord(combatants.size());
+        int aliveCount = combat.step(matchRandom, currentRound, record);
+        combat.store(combatants);
 
-            float hitChance = 0.7f + attacker.agility - target.agility;
-            if (random.nextFloat() < hitChance) {
-                boolean crit = random.nextFloat() < attacker.bravery;
-                int dmg = (int)(attacker.power * (crit ? 1.5f : 1.0f));
-                target.hp -= dmg;
-                
-                String flavor = crit ? getFlavor(Strings.getList("arena_flavor.crit"), lastCritHistory) : getFlavor(Strings.getList("arena_flavor.attack"), lastAttackHistory);
-                String prefix = crit ? "[CRIT] " : "[HIT] ";
-                log.add(prefix + flavor.replace("$attacker", attacker.shortName).replace("$target", target.shortName).replace("$dmg", ""+dmg));
-                
-                if (random.nextFloat() < target.bravery) {
-                    target.retaliateTarget = attacker;
-                    target.isEnraged = true;
-                    target.targetOfRage = attacker;
-                }
-                
-                if (target.hp <= 0) {
-                    target.isDead = true;
-                    target.isEnraged = false;
-                    target.targetOfRage = null;
-                    attacker.kills++;
-                    String kill = getFlavor(Strings.getList("arena_flavor.kill"), lastKillHistory);
-                    log.add("[KILL] " + kill.replace("$attacker", attacker.shortName).replace("$target", target.shortName));
-                }
-            } else {
-                String miss = getFlavor(Strings.getList("arena_flavor.miss"), lastMissHistory);
-                log.add("[MISS] " + miss.replace("$attacker", attacker.shortName).replace("$target", target.shortName));
-            }
+        invalidateOddsCache();
+        if (aliveCount > 1) {
+            speculateOdds(combatants, currentRound + 1);
         }
 
-        alive.clear();
-        for (SpiralGladiator g : combatants) if (!g.isDead) alive.add(g);
-
-        if (currentRound > 0 && alive.size() >= 2 && random.nextFloat() < CasinoConfig.ARENA_CHAOS_EVENT_CHANCE) {
-            ChaosEventType type = ChaosEventType.values()[random.nextInt(ChaosEventType.values().length)];
+        List<String> log = new ArrayList<>(record.size());
+        for (int i = 0; i < record.size(); i++) {
+            log.add(describe(record, i, combatants));
+        }
+        return log;
+    }
 
-            if (type == ChaosEventType.SINGLE_SHIP_DAMAGE) {
-                SpiralGladiator target = alive.get(random.nextInt(alive.size()));
-                int dmg = (int)(target.maxHp * CasinoConfig.ARENA_SINGLE_SHIP_DAMAGE_PERCENT);
-                target.hp -= dmg;
+    /**
+     * Plays the battle out from {@code currentRound} with the same rules as {@link #simulateStep},
+     * crediting survived rounds as the handler does between steps, but without building any text.
+     * The gladiators hold the final state afterwards; log lines can be produced later from the record.
+     */
+    public ArenaBattleRecord resolveToEnd(List<SpiralGladiator> combatants, int currentRound) {
+        ArenaCombat combat = new ArenaCombat(combatants, settings);
+        ArenaBattleRecord record = new ArenaBattleRecord(combatants.size());
+        int round = currentRound;
+        int aliveCount;
+        do {
+            aliveCount = combat.step(matchRandom, round, record);
+            round++;
+            combat.surviveRound();
+        } while (aliveCount > 1);
+        combat.store(combatants);
+        record.close(combat, round - currentRound);
+        invalidateOddsCache();
+        return record;
+    }
 
-                String description = getRandomDescription(Strings.getList("arena_damage.single"));
-                log.add("[EVENT] " + description.replace("$ship", target.shortName) + " (-" + dmg + " HP)");
+    /**
+     * Plays the first {@code rounds} rounds of a roster fresh from {@link #createCombatants}, as the
+     * handler did before the match was suspended, so the gladiators and this arena's random stream end
+     * up exactly where they were. The record holds the events for rebuilding the battle log.
+     */
+    public ArenaBattleRecord replay(List<SpiralGladiator> combatants, int rounds) {
+        ArenaCombat combat = new ArenaCombat(combatants, settings);
+        ArenaBattleRecord record = new ArenaBattleRecord(combatants.size());
+        int round = 0;
+        while (round < rounds) {
+            int aliveCount = combat.step(matchRandom, round, record);
+            round++;
+            combat.surviveRound();
+            if (aliveCount <= 1) break;
+        }
+        combat.store(combatants);
+        record.close(combat, round);
+        invalidateOddsCache();
+        return record;
+    }
 
-                if (target.hp <= 0) {
-                    target.isDead = true;
-                    target.isEnraged = false;
-                    target.targetOfRage = null;
-                    log.add("[KILL] " + target.shortName + " was destroyed by the incident!");
-                }
-            } else if (type == ChaosEventType.MULTI_SHIP_DAMAGE) {
-                int shipsToDamage = Math.min(alive.size(), 2 + random.nextInt(Math.min(3, alive.size() - 1)));
-                List<SpiralGladiator> shuffled = new ArrayList<>(alive);
-                Collections.shuffle(shuffled, random);
+    /** The battle log line for one recorded event. */
+    public String describe(ArenaBattleRecord record, int index, List<SpiralGladiator> combatants) {
+        long event = record.event(index);
+        int a = ArenaBattleRecord.shipA(event);
+        int b = ArenaBattleRecord.shipB(event);
+        int value = ArenaBattleRecord.value(event);
+        SpiralGladiator attacker = a != ArenaBattleRecord.NONE ? combatants.get(a) : null;
+        SpiralGladiator target = b != ArenaBattleRecord.NONE ? combatants.get(b) : null;
 
-                String description = getRandomDescription(Strings.getList("arena_damage.multi"));
-                log.add("[EVENT] " + description);
+        return switch (ArenaBattleRecord.type(event)) {
+            case ArenaBattleRecord.ROUND -> "[ROUND] Round " + value;
+            case ArenaBattleRecord.HIT -> "[HIT] " + getFlavor(Strings.getList("arena_flavor.attack"), lastAttackHistory)
+                .replace("$attacker", attacker.shortName).replace("$target", target.shortName).replace("$dmg", "" + value);
+            case ArenaBattleRecord.CRIT -> "[CRIT] " + getFlavor(Strings.getList("arena_flavor.crit"), lastCritHistory)
+                .replace("$attacker", attacker.shortName).replace("$target", target.shortName).replace("$dmg", "" + value);
+            case ArenaBattleRecord.MISS -> "[MISS] " + getFlavor(Strings.getList("arena_flavor.miss"), lastMissHistory)
+                .replace("$attacker", attacker.shortName).replace("$target", target.shortName);
+            case ArenaBattleRecord.KILL -> "[KILL] " + getFlavor(Strings.getList("arena_flavor.kill"), lastKillHistory)
+                .replace("$attacker", attacker.shortName).replace("$target", target.shortName);
+            case ArenaBattleRecord.INCIDENT -> "[EVENT] " + getRandomDescription(Strings.getList("arena_damage.single"))
+                .replace("$ship", target.shortName) + " (-" + value + " HP)";
+            case ArenaBattleRecord.INCIDENT_MULTI -> "[EVENT] " + getRandomDescription(Strings.getList("arena_damage.multi"));
+            case ArenaBattleRecord.INCIDENT_HIT -> "[HIT] " + target.shortName + " takes " + value + " damage!";
+            case ArenaBattleRecord.INCIDENT_KILL -> "[KILL] " + target.shortName + " was destroyed by the incident!";
+            case ArenaBattleRecord.DESTROYED -> "[KILL] " + target.shortName + " was destroyed!";
+            case ArenaBattleRecord.STATUS_HEADER -> "--- SHIP STATUS ---";
+            case ArenaBattleRecord.STATUS -> statusString(target, value, attacker);
+            default -> "";
+        };
+    }
+    
+    public void invalidateOddsCache() {
+        oddsCache.set(null);
+        Speculation pending = speculation;
+        if (pending != null) {
+            pending.result().cancel(false);
+            speculation = null;
+        }
+    }
 
-                for (int i = 0; i < shipsToDamage && i < shuffled.size(); i++) {
-                    SpiralGladiator target = shuffled.get(i);
-                    int dmg = (int)(target.maxHp * CasinoConfig.ARENA_MULTI_SHIP_DAMAGE_PERCENT);
-                    target.hp -= dmg;
-                    log.add("[HIT] " + target.shortName + " takes " + dmg + " damage!");
+    /**
+     * Starts working out the odds for the state the player is about to see, on a background thread,
+     * while the round's log plays out. The combatants are copied here so the worker never reads live
+     * gladiators; the result is published into the odds cache as soon as it is ready, and a query for
+     * the same state before then waits for it rather than starting over.
+     */
+    private void speculateOdds(List<SpiralGladiator> combatants, int currentRound) {
+        if (!settings.speculativeOdds()) return;
 
-                    if (target.hp <= 0) {
-                        target.isDead = true;
-                        target.isEnraged = false;
-                        target.targetOfRage = null;
-                        log.add("[KILL] " + target.shortName + " was destroyed!");
-                    }
-                }
-            }
+        List<SpiralGladiator> copies = new ArrayList<>(combatants.size());
+        int[] hp = new int[combatants.size()];
+        for (int i = 0; i < combatants.size(); i++) {
+            copies.add(combatants.get(i).copyForSimulation());
+            hp[i] = combatants.get(i).hp;
         }
 
-        List<SpiralGladiator> remainingShips = new ArrayList<>();
-        for (SpiralGladiator g : combatants) {
-            if (!g.isDead) {
-                remainingShips.add(g);
-            }
-        }
+        Future<OddsSnapshot> result = oddsWorker().submit(() -> {
+            OddsSnapshot snapshot = computePositionProbabilities(copies, currentRound, settings);
+            oddsCache.set(snapshot);
+            return snapshot;
+        });
+        speculation = new Speculation(new OddsSnapshot(currentRound, hp, null, null), result);
+    }
+
+    private static synchronized ExecutorService oddsWorker() {
+        if (oddsWorker == null) {
+            oddsWorker = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "IPC-ArenaOdds");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return oddsWorker;
+    }
+    
+    private static String statusString(SpiralGladiator ship, int hp, SpiralGladiator rageTarget) {
+        StringBuilder status = new StringBuilder();
+        status.append(ship.hullName).append(": ").append(hp).append("/").append(ship.maxHp).append(" HP");
         
-        if (!remainingShips.isEmpty()) {
-            log.add("--- SHIP STATUS ---");
-            for (SpiralGladiator g : remainingShips) {
-                log.add(g.getStatusString());
-            }
+        if (rageTarget != null) {
+            status.append(" (angry at ").append(rageTarget.hullName).append(")");
         }
         
-        return log;
-    }
-    
-    public void invalidateOddsCache() {
-        cachedPositionProbabilities = null;
-        cachedPositionRound = -1;
-        cachedHpValues = null;
+        return status.toString();
     }
     
     private String getRandomDescription(List<String> descriptions) {
@@ -520,36 +573,47 @@ public SpiralGladiator(String hullId, String prefix, String hullName, String aff
         return descriptions.get(random.nextInt(descriptions.size()));
     }
     
-    private boolean isPositionCacheValid(List<SpiralGladiator> combatants, int currentRound) {
-        if (cachedPositionProbabilities == null || cachedHpValues == null) return false;
-        if (cachedPositionRound != currentRound) return false;
-        if (cachedHpValues.size() != combatants.size()) return false;
-        for (int i = 0; i < combatants.size(); i++) {
-            if (combatants.get(i).hp != cachedHpValues.get(i)) return false;
-        }
-        return true;
+    public Map<Integer, Map<Integer, Float>> calculatePositionProbabilities(List<SpiralGladiator> combatants, int currentRound) {
+        return oddsFor(combatants, currentRound).probabilities();
     }
-    
-    private void updatePositionCache(List<SpiralGladiator> combatants, int currentRound, 
-                                      Map<Integer, Map<Integer, Float>> probabilities,
-                                      Map<Integer, Float> expectedKills) {
-        cachedPositionRound = currentRound;
-        cachedHpValues = new ArrayList<>();
-        for (SpiralGladiator g : combatants) {
-            cachedHpValues.add(g.hp);
-        }
-        cachedPositionProbabilities = new HashMap<>();
-        for (Map.Entry<Integer, Map<Integer, Float>> entry : probabilities.entrySet()) {
-            cachedPositionProbabilities.put(entry.getKey(), new HashMap<>(entry.getValue()));
-        }
-        cachedExpectedKills = new HashMap<>(expectedKills);
+
+    private OddsSnapshot oddsFor(List<SpiralGladiator> combatants, int currentRound) {
+        OddsSnapshot cached = oddsCache.get();
+        if (cached != null && cached.matches(combatants, currentRound)) {
+            ODDS_CACHE_HITS.increment();
+            return cached;
+        }
+
+        long start = CasinoMetrics.startTimer();
+        try {
+            Speculation pending = speculation;
+            if (pending != null && pending.key().matches(combatants, currentRound) && !pending.result().isCancelled()) {
+                try {
+                    return pending.result().get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Global.getLogger(this.getClass()).warn("Background arena odds failed, recomputing", e.getCause());
+                }
+            }
+
+            OddsSnapshot snapshot = computePositionProbabilities(combatants, currentRound, settings);
+            oddsCache.set(snapshot);
+            return snapshot;
+        } finally {
+            ODDS_TIME.recordSince(start);
+        }
     }
-    
-    public Map<Integer, Map<Integer, Float>> calculatePositionProbabilities(List<SpiralGladiator> combatants, int currentRound) {
-        if (isPositionCacheValid(combatants, currentRound)) {
-            return cachedPositionProbabilities;
+
+    /** Runs the Monte Carlo. Reads only {@code combatants} and {@code settings}, so it is safe off the game thread. */
+    private OddsSnapshot computePositionProbabilities(List<SpiralGladiator> combatants, int currentRound,
+                                                      CasinoConfig.ArenaSettings settings) {
+        int[] hp = new int[combatants.size()];
+        for (int i = 0; i < hp.length; i++) {
+            hp[i] = combatants.get(i).hp;
         }
         
+        
         Map<Integer, Map<Integer, Float>> positionProbabilities = new HashMap<>();
         Map<Integer, Float> expectedKills = new HashMap<>();
         int aliveCount = 0;
@@ -563,20 +627,21 @@ public SpiralGladiator(String hullId, String prefix, String hullName, String aff
         }
         
         if (aliveCount == 0) {
-            return positionProbabilities;
+            return new OddsSnapshot(currentRound, hp, positionProbabilities, expectedKills);
         }
         if (aliveCount == 1) {
             for (int i = 0; i < combatants.size(); i++) {
                 if (!combatants.get(i).isDead) {
                     positionProbabilities.get(i).put(0, 1.0f);
                     expectedKills.put(i, 0.0f);
-                    updatePositionCache(combatants, currentRound, positionProbabilities, expectedKills);
-                    return positionProbabilities;
+                    return new OddsSnapshot(currentRound, hp, positionProbabilities, expectedKills);
                 }
             }
         }
         
-        int simulations = CasinoConfig.ARENA_SIMULATION_COUNT;
+        int simulations = settings.simulationCount();
+        // Seeded by the match and the battle state, so the same state always gets the same odds
+        Random simRandom = new Random(seed ^ (31L * currentRound + Arrays.hashCode(hp)) * 0x9E3779B97F4A7C15L);
         Map<Integer, Map<Integer, Integer>> positionCounts = new HashMap<>();
         Map<Integer, Integer> totalKills = new HashMap<>();
         
@@ -600,7 +665,7 @@ public SpiralGladiator(String hullId, String prefix, String hullName, String aff
                 }
             }
             
-            SimulationResult result = runSimulationToCompletionWithKills(simCombatants, originalToSimIndex);
+            SimulationResult result = runSimulationToCompletionWithKills(simCombatants, originalToSimIndex, settings, simRandom);
             
             for (Map.Entry<Integer, Integer> entry : result.positions.entrySet()) {
                 int originalIndex = entry.getKey();
@@ -634,9 +699,7 @@ public SpiralGladiator(String hullId, String prefix, String hullName, String aff
             }
         }
         
-        updatePositionCache(combatants, currentRound, positionProbabilities, expectedKills);
-        
-        return positionProbabilities;
+        return new OddsSnapshot(currentRound, hp, positionProbabilities, expectedKills);
     }
     
     @Deprecated
@@ -645,15 +708,7 @@ public SpiralGladiator(String hullId, String prefix, String hullName, String aff
     }
     
     public static float getPositionFactor(int finalPosition) {
-        if (finalPosition <= 0) return 0.0f;
-        
-        float[] factors = CasinoConfig.ARENA_CONSOLATION_POSITION_FACTORS;
-        int index = finalPosition - 1;
-        
-        if (index < factors.length) {
-            return factors[index];
-        }
-        return factors[factors.length - 1];
+        return CasinoConfig.arena().positionFactor(finalPosition);
     }
     
     public float calculateCurrentOdds(List<SpiralGladiator> combatants, int shipIndex, int currentRound) {
@@ -661,16 +716,16 @@ public SpiralGladiator(String hullId, String prefix, String hullName, String aff
         
         if (ship.isDead) return 0.0f;
         
-        Map<Integer, Map<Integer, Float>> positionProbabilities = calculatePositionProbabilities(combatants, currentRound);
-        Map<Integer, Float> shipPositionProbs = positionProbabilities.get(shipIndex);
+        OddsSnapshot odds = oddsFor(combatants, currentRound);
+        Map<Integer, Float> shipPositionProbs = odds.probabilities().get(shipIndex);
         
         if (shipPositionProbs == null || shipPositionProbs.isEmpty()) {
-            return CasinoConfig.ARENA_MIN_ODDS;
+            return settings.minOdds();
         }
         
         Float winProbability = shipPositionProbs.get(0);
         if (winProbability == null || winProbability <= 0.0f) {
-            return CasinoConfig.ARENA_MIN_ODDS;
+            return settings.minOdds();
         }
         
         float expectedConsolationRate = 0.0f;
@@ -678,41 +733,34 @@ public SpiralGladiator(String hullId, String prefix, String hullName, String aff
             int position = posEntry.getKey();
             float probability = posEntry.getValue();
             if (position > 0) {
-                float positionFactor = getPositionFactor(position);
-                expectedConsolationRate += probability * CasinoConfig.ARENA_CONSOLATION_BASE * positionFactor;
+                float positionFactor = settings.positionFactor(position);
+                expectedConsolationRate += probability * settings.consolationBase() * positionFactor;
             }
         }
         
         float expectedKillBonus = 0.0f;
-        if (currentRound == 0 && cachedExpectedKills != null) {
-            Float expKills = cachedExpectedKills.get(shipIndex);
+        if (currentRound == 0) {
+            Float expKills = odds.expectedKills().get(shipIndex);
             if (expKills != null && expKills > 0) {
-                expectedKillBonus = winProbability * expKills * CasinoConfig.ARENA_KILL_BONUS_PER_KILL;
+                expectedKillBonus = winProbability * expKills * settings.killBonusPerKill();
             }
         }
         
-        float availableForWinPayout = 1.0f - CasinoConfig.ARENA_HOUSE_EDGE - expectedConsolationRate - expectedKillBonus;
+        float availableForWinPayout = 1.0f - settings.houseEdge() - expectedConsolationRate - expectedKillBonus;
         if (availableForWinPayout <= 0.0f) {
-            return CasinoConfig.ARENA_MIN_ODDS;
+            return settings.minOdds();
         }
 
-        float finalOdds = getFinalOdds(currentRound, availableForWinPayout, winProbability);
+        float finalOdds = availableForWinPayout / winProbability * midRoundMultiplier(settings, currentRound);
 
-        return Math.max(CasinoConfig.ARENA_MIN_ODDS, finalOdds);
+        return Math.max(settings.minOdds(), finalOdds);
     }
 
-    private static float getFinalOdds(int currentRound, float availableForWinPayout, Float winProbability)
-    {
-        float fairOdds = availableForWinPayout / winProbability;
-
-        float midRoundMultiplier = 1.0f;
-        if (currentRound > 0) {
-            float basePenalty = CasinoConfig.ARENA_MID_ROUND_BASE_PENALTY;
-            float progressivePenalty = 1.0f - (currentRound * CasinoConfig.ARENA_MID_ROUND_PROGRESSIVE_PENALTY);
-            progressivePenalty = Math.max(CasinoConfig.ARENA_DIMINISHING_RETURNS_MIN, progressivePenalty);
-            midRoundMultiplier = basePenalty * progressivePenalty;
-        }
-
-        return fairOdds * midRoundMultiplier;
+    /** Penalty on odds offered once the battle is under way, growing each round down to a floor. */
+    private static float midRoundMultiplier(CasinoConfig.ArenaSettings settings, int currentRound) {
+        if (currentRound <= 0) return 1.0f;
+        float progressivePenalty = 1.0f - (currentRound * settings.midRoundProgressivePenalty());
+        progressivePenalty = Math.max(settings.diminishingReturnsMin(), progressivePenalty);
+        return settings.midRoundBasePenalty() * progressivePenalty;
     }
 }
\ No newline at end of file
@@ -4,8 +4,34 @@ import data.scripts.casino.Strings;
 
 public record Card(Rank rank, Suit suit, GameType type)
 {
+    private static final Rank[] RANKS = Rank.values();
+    private static final Suit[] SUITS = Suit.values();
+    public static final int DISTINCT_CARDS = RANKS.length * SUITS.length;
 
-    public String displayName() {return suit.displayName;}
+    // One shared instance per card and game type, indexed by code()
+    private static final Card[][] INTERNED = new Card[GameType.values().length][DISTINCT_CARDS];
+
+    static {
+        for (GameType type : GameType.values()) {
+            for (int code = 0; code < DISTINCT_CARDS; code++) {
+                INTERNED[type.ordinal()][code] = new Card(RANKS[code >> 2], SUITS[code & 3], type);
+            }
+        }
+    }
+
+    /** @return the shared instance for a card code as from {@link #code()} */
+    public static Card of(int code, GameType type) {
+        return INTERNED[type.ordinal()][code];
+    }
+
+    public static Card of(Rank rank, Suit suit, GameType type) {
+        return INTERNED[type.ordinal()][rank.ordinal() * 4 + suit.ordinal()];
+    }
+
+    /** Compact card code, 0-51: rank ordinal times four plus suit ordinal. */
+    public int code() {return rank.ordinal() * 4 + suit.ordinal();}
+
+    public String displayName() {return suit.displayName();}
 
     
 
@@ -16,6 +42,6 @@ public record Card(Rank rank, Suit suit, GameType type)
     @Override
     public String toString()
     {
-        return "[" + Strings.format("poker_card_format.of", suit.displayName, rank.symbol) + "]";
+        return "[" + Strings.format("poker_card_format.of", suit.displayName(), rank.symbol) + "]";
     }
 }
@@ -1,20 +1,38 @@
 package data.scripts.casino.cards;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Random;
 
+/**
+ * A deck or shoe held as a byte[] of card codes (see {@link Card#code()}) with a cursor, drawing
+ * shared {@link Card} instances from the end. Drawing allocates nothing, and reshuffling is an
+ * in-place Fisher-Yates over the whole shoe, so one Deck can be kept for a whole session.
+ */
 public class Deck {
-    public final ArrayList<Card> cards = new ArrayList<>();
     public final int numDecks;
     public final GameType gameType;
     public final boolean autoRefresh;
 
+    // Codes of every card in the shoe; [0, remaining) are undealt, the next draw is order[remaining - 1]
+    private final byte[] order;
+    private int remaining;
+    private int cutCard;
+    private final Random random;
+    private final List<Card> undealtView = new UndealtCards();
+
     /**
      * POKER: one standard 52‑card deck, no auto‑refresh (return null when empty).
      * BLACKJACK: six standard decks shuffled together, auto‑refresh when empty.
+     * New decks are in a fixed order; call {@link #shuffle()} before dealing.
      */
     public Deck(GameType gameType) {
+        this(gameType, new Random());
+    }
+
+    public Deck(GameType gameType, Random random) {
         this.gameType = gameType;
+        this.random = random;
         switch (gameType) {
         case POKER:
             this.numDecks = 1;
@@ -29,31 +47,108 @@ public class Deck {
         default:
             throw new IllegalArgumentException(gameType.toString());
         }
-        init();
+
+        order = new byte[numDecks * Card.DISTINCT_CARDS];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (byte) (i % Card.DISTINCT_CARDS);
+        }
+        remaining = order.length;
     }
 
-    private void init() {
-        for (int d = 0; d < numDecks; d++) {
-            for (Suit s : Suit.values()) {
-                for (Rank r : Rank.values()) {
-                    cards.add(new Card(r, s, gameType));
-                }
-            }
+    /** A deck that deals exactly {@code drawOrder}, last card first, e.g. to replay a recorded hand. */
+    public static Deck ofDrawOrder(GameType gameType, List<Card> drawOrder) {
+        Deck deck = new Deck(gameType);
+        for (int i = 0; i < drawOrder.size(); i++) {
+            deck.order[i] = (byte) drawOrder.get(i).code();
         }
+        deck.remaining = drawOrder.size();
+        return deck;
     }
 
     public final Card draw() {
-        if (cards.isEmpty()) {
+        if (remaining == 0) {
             if (autoRefresh) {
-                final Deck fresh = new Deck(gameType);
-                fresh.shuffle();
-                cards.addAll(fresh.cards);
+                shuffle();
             } else {
                 return null;
             }
         }
-        return cards.remove(cards.size() - 1);
+        return Card.of(order[--remaining], gameType);
+    }
+
+    /** Returns every card to the shoe and shuffles it in place. */
+    public final void shuffle() {
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        remaining = order.length;
+    }
+
+    /**
+     * Moves the given cards from the undealt part of the shoe to the dealt part, as if they had been
+     * drawn, e.g. when rebuilding a suspended hand around a fresh shoe. Cards that are not among the
+     * undealt cards are skipped. A later {@link #shuffle()} returns them to the shoe as usual.
+     */
+    public final void removeUndealt(List<Card> cards) {
+        for (Card card : cards) {
+            if (card == null) continue;
+            byte code = (byte) card.code();
+            for (int i = remaining - 1; i >= 0; i--) {
+                if (order[i] == code) {
+                    order[i] = order[remaining - 1];
+                    order[--remaining] = code;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Places the cut card so that {@code penetration} (0-1) of the shoe is dealt before
+     * {@link #isPastCutCard()} reports that a reshuffle is due. 0 disables the cut card.
+     */
+    public final void setPenetration(float penetration) {
+        float clamped = Math.max(0f, Math.min(1f, penetration));
+        cutCard = clamped > 0f ? order.length - Math.round(order.length * clamped) : 0;
+    }
+
+    public final boolean isPastCutCard() {
+        return cutCard > 0 && remaining <= cutCard;
+    }
+
+    public final int remaining() {
+        return remaining;
+    }
+
+    public final int size() {
+        return order.length;
+    }
+
+    /** Adds the number of undealt cards of each rank into {@code counts}, indexed by rank ordinal. */
+    public final void countRemainingByRank(int[] counts) {
+        for (int i = 0; i < remaining; i++) {
+            counts[order[i] >> 2]++;
+        }
+    }
+
+    /** Read-only view of the undealt cards in storage order; the next draw is the last element. */
+    public final List<Card> cards() {
+        return undealtView;
     }
 
-    public final void shuffle() { Collections.shuffle(cards); }
+    private final class UndealtCards extends AbstractList<Card> {
+        @Override
+        public Card get(int index) {
+            if (index < 0 || index >= remaining) throw new IndexOutOfBoundsException(index);
+            return Card.of(order[index], gameType);
+        }
+
+        @Override
+        public int size() {
+            return remaining;
+        }
+    }
 }
@@ -8,9 +8,18 @@ public enum Suit {
     DIAMONDS("poker_suits.diamonds"),
     CLUBS("poker_suits.clubs");
 
-    public final String displayName;
+    public final String displayKey;
+    private String displayName;
 
     Suit(String key) {
-        this.displayName = Strings.get(key);
+        this.displayKey = key;
+    }
+
+    // Resolved on first use so the card logic can run without loaded strings (e.g. offline tools)
+    public String displayName() {
+        if (displayName == null) {
+            displayName = Strings.get(displayKey);
+        }
+        return displayName;
     }
 }
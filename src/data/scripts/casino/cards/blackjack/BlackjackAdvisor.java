@@ -0,0 +1,243 @@
+package data.scripts.casino.cards.blackjack;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import data.scripts.casino.cards.GameType;
+import data.scripts.casino.cards.Rank;
+import data.scripts.casino.cards.blackjack.BlackjackGame.Action;
+import data.scripts.casino.cards.blackjack.BlackjackGame.GameStateData;
+import data.scripts.casino.cards.blackjack.BlackjackGame.GameState;
+import data.scripts.casino.cards.blackjack.BlackjackGame.Hand;
+
+/**
+ * Composition-dependent expected values for the player's options, in units of the current bet,
+ * under this table's rules (dealer stands on all 17s, no peek, double on any two cards, one split).
+ * <p>
+ * The unseen pool is the undealt shoe plus the dealer's hole card while it is face down. For each
+ * (shoe signature, upcard) the dealer's final-total distribution is computed exactly by memoized
+ * recursion over the remaining counts, then stand/hit/double EVs for every (hard total, soft) are
+ * filled in by one pass from 21 downwards. Those tables are kept in a small LRU, so a query is a
+ * count of the shoe plus array lookups, and only the first query after a card is dealt does real work.
+ * Draws the player makes later in the hand are taken from the current composition.
+ * <p>
+ * A two-card 21 on a split hand is settled ahead of the total comparison and pays even money unless
+ * the dealer has blackjack, so it also beats a dealer 21 made with three or more cards. The dealer
+ * distribution does not tell those 21s apart, so that case is priced separately from the chance of
+ * the hole card completing a dealer blackjack.
+ */
+public class BlackjackAdvisor {
+
+    public record Advice(double stand, double hit, double doubleDown, double split, Action best) {
+        public boolean canDouble() { return !Double.isNaN(doubleDown); }
+        public boolean canSplit() { return !Double.isNaN(split); }
+    }
+
+    // Card points 1 (ace) to 10; index 0 unused
+    private static final int POINTS = 11;
+    private static final Rank[] RANKS = Rank.values();
+
+    // Signature layout: 5 bits per point value 1-9 (at most 24 of each in six decks), 7 bits for tens
+    private static final int[] SIG_SHIFT = {0, 0, 5, 10, 15, 20, 25, 30, 35, 40, 45};
+
+    // Dealer outcome slots: 17-21, then bust
+    private static final int OUTCOMES = 6;
+    private static final int BUST = 5;
+    private static final double[][] FINAL = new double[OUTCOMES][];
+
+    static {
+        for (int i = 0; i < OUTCOMES; i++) {
+            FINAL[i] = new double[OUTCOMES];
+            FINAL[i][i] = 1.0;
+        }
+    }
+
+    private static final int CACHE_SIZE = 32;
+
+    private final Map<Long, Table> cache = new LinkedHashMap<>(CACHE_SIZE * 2, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Table> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final int[] byRank = new int[RANKS.length];
+    private final int[] counts = new int[POINTS];
+
+    /** @return advice for the hand being played, or null outside the player's turn */
+    public Advice advise(BlackjackGame game) {
+        final GameStateData state = game.getState();
+        if (state.state != GameState.PLAYER_TURN) return null;
+
+        final Hand hand = game.getCurrentHand();
+        final Hand dealer = game.getDealerHand();
+        if (hand == null || hand.cards.isEmpty() || dealer.cards.size() < 2) return null;
+
+        Arrays.fill(byRank, 0);
+        game.countUnseenByRank(byRank);
+        Arrays.fill(counts, 0);
+        for (int r = 0; r < RANKS.length; r++) {
+            counts[points(RANKS[r])] += byRank[r];
+        }
+
+        final int upcard = points(game.getDealerUpcard().rank());
+        final Table table = table(counts, upcard);
+
+        final int hard = hand.getHardTotal();
+        final int soft = hand.isSoft() ? 1 : 0;
+        final boolean isSplit = !state.splitHands.isEmpty();
+        final double stand = isSplit && hand.isBlackjack() ? table.splitTwentyOne : table.stand[hard][soft];
+        final double hit = table.hit[hard][soft];
+
+        final boolean canDouble = hand.canDoubleDown() && state.playerStack >= hand.betAmount;
+        final boolean canSplit = hand.canSplit() && state.playerStack >= hand.betAmount && !isSplit;
+        final double doubleDown = canDouble ? table.doubleDown[hard][soft] : Double.NaN;
+        final double split = canSplit ? table.split[points(hand.cards.get(0).rank())] : Double.NaN;
+
+        Action best = hit > stand ? Action.HIT : Action.STAND;
+        double bestEv = Math.max(hit, stand);
+        if (canDouble && doubleDown > bestEv) {
+            best = Action.DOUBLE_DOWN;
+            bestEv = doubleDown;
+        }
+        if (canSplit && split > bestEv) {
+            best = Action.SPLIT;
+        }
+        return new Advice(stand, hit, doubleDown, split, best);
+    }
+
+    /** EV tables for a composition (counts by points, hole card included) against an upcard. */
+    Table table(int[] counts, int upcard) {
+        final long signature = signature(counts);
+        final Long key = signature * POINTS + upcard;
+        Table table = cache.get(key);
+        if (table == null) {
+            table = new Table(counts, upcard, signature);
+            cache.put(key, table);
+        }
+        return table;
+    }
+
+    static long signature(int[] counts) {
+        long signature = 0;
+        for (int p = 1; p < POINTS; p++) {
+            signature |= (long) counts[p] << SIG_SHIFT[p];
+        }
+        return signature;
+    }
+
+    private static int points(Rank rank) {
+        return rank == Rank.ACE ? 1 : rank.getValue(GameType.BLACKJACK);
+    }
+
+    /** Value of a hand from its hard total, counting one ace as 11 when that doesn't bust. */
+    private static int value(int hard, int soft) {
+        return soft == 1 && hard + 10 <= 21 ? hard + 10 : hard;
+    }
+
+    static final class Table {
+        // Probability of each dealer outcome (17-21, bust) for this composition and upcard
+        final double[] dealer;
+        // EVs indexed [hard total][has a usable ace]
+        final double[][] stand = new double[22][2];
+        final double[][] hit = new double[22][2];
+        final double[][] best = new double[22][2];
+        final double[][] doubleDown = new double[22][2];
+        // Splitting a pair, indexed by card points; both hands counted
+        final double[] split = new double[POINTS];
+        // Standing on a two-card 21 after a split: wins unless the dealer has blackjack, which pushes
+        final double splitTwentyOne;
+
+        Table(int[] counts, int upcard, long signature) {
+            int total = 0;
+            for (int p = 1; p < POINTS; p++) total += counts[p];
+
+            final int[] pool = counts.clone();
+            dealer = total > 0
+                ? dealerOutcomes(upcard, upcard == 1 ? 1 : 0, pool, total, signature, new HashMap<>())
+                : FINAL[BUST];
+
+            final double[] standByValue = new double[22];
+            for (int v = 0; v <= 21; v++) {
+                double ev = dealer[BUST];
+                for (int d = 17; d <= 21; d++) {
+                    ev += v > d ? dealer[d - 17] : v < d ? -dealer[d - 17] : 0;
+                }
+                standByValue[v] = ev;
+            }
+
+            final double[] draw = new double[POINTS];
+            for (int p = 1; p < POINTS; p++) draw[p] = total > 0 ? (double) counts[p] / total : 0;
+
+            // The hole card is still in the pool, so it completes a blackjack with the draw odds
+            splitTwentyOne = 1 - (upcard == 1 ? draw[10] : upcard == 10 ? draw[1] : 0);
+
+            for (int hard = 21; hard >= 1; hard--) {
+                for (int soft = 0; soft < 2; soft++) {
+                    stand[hard][soft] = standByValue[value(hard, soft)];
+                    double hitEv = 0, doubleEv = 0;
+                    for (int p = 1; p < POINTS; p++) {
+                        if (draw[p] == 0) continue;
+                        final int next = hard + p;
+                        if (next > 21) {
+                            hitEv -= draw[p];
+                            doubleEv -= draw[p];
+                        } else {
+                            final int nextSoft = soft == 1 || p == 1 ? 1 : 0;
+                            hitEv += draw[p] * best[next][nextSoft];
+                            doubleEv += draw[p] * standByValue[value(next, nextSoft)];
+                        }
+                    }
+                    hit[hard][soft] = hitEv;
+                    doubleDown[hard][soft] = 2 * doubleEv;
+                    best[hard][soft] = Math.max(stand[hard][soft], hitEv);
+                }
+            }
+
+            for (int pair = 1; pair < POINTS; pair++) {
+                double ev = 0;
+                for (int p = 1; p < POINTS; p++) {
+                    if (draw[p] == 0) continue;
+                    final int hard = pair + p;
+                    final int soft = pair == 1 || p == 1 ? 1 : 0;
+                    ev += draw[p] * (hard == 11 && soft == 1
+                        ? splitTwentyOne
+                        : Math.max(best[hard][soft], doubleDown[hard][soft]));
+                }
+                split[pair] = 2 * ev;
+            }
+        }
+
+        /**
+         * Final-total distribution for a dealer holding {@code hard} (aces as 1) who still draws from
+         * {@code pool}. The pool is restored before returning. Memoized on the pool's signature, which
+         * together with the upcard fixes the dealer's cards.
+         */
+        private static double[] dealerOutcomes(int hard, int soft, int[] pool, int left, long signature,
+                                               Map<Long, double[]> memo) {
+            final int value = value(hard, soft);
+            if (value > 21) return FINAL[BUST];
+            if (value >= 17) return FINAL[value - 17];
+            if (left == 0) return FINAL[BUST];
+
+            final double[] cached = memo.get(signature);
+            if (cached != null) return cached;
+
+            final double[] result = new double[OUTCOMES];
+            for (int p = 1; p < POINTS; p++) {
+                final int n = pool[p];
+                if (n == 0) continue;
+                pool[p] = n - 1;
+                final double[] sub = dealerOutcomes(hard + p, soft == 1 || p == 1 ? 1 : 0, pool, left - 1,
+                    signature - (1L << SIG_SHIFT[p]), memo);
+                pool[p] = n;
+                final double weight = (double) n / left;
+                for (int o = 0; o < OUTCOMES; o++) result[o] += weight * sub[o];
+            }
+            memo.put(signature, result);
+            return result;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import data.scripts.casino.CasinoConfig;
 import data.scripts.casino.cards.Card;
 import data.scripts.casino.cards.Deck;
 import data.scripts.casino.cards.GameType;
@@ -16,10 +17,18 @@ public class BlackjackGame {
 
     private static final float BLACKJACK_PAYOUT = 2.5f; // 3:2 payout for blackjack
 
+    /**
+     * A blackjack hand. The hard total (aces as 1) and ace count are kept as cards are added,
+     * so value, softness, bust and blackjack checks are constant-time and allocation-free.
+     */
     public static class Hand {
-        public final List<Card> cards = new ArrayList<>(12);
+        private final List<Card> cardList = new ArrayList<>(12);
+        public final List<Card> cards = Collections.unmodifiableList(cardList);
         public int betAmount;
 
+        private int hardTotal;
+        private int aces;
+
         public Hand() {}
 
         public Hand(int bet) {
@@ -27,37 +36,27 @@ public class BlackjackGame {
         }
 
         public void addCard(Card card) {
-            cards.add(card);
+            cardList.add(card);
+            if (card.isAce()) {
+                hardTotal += 1;
+                aces++;
+            } else {
+                hardTotal += card.value();
+            }
         }
 
-        private int[] computeValueAndAces() {
-            int total = 0, aces = 0;
-            for (Card c : cards) {
-                total += c.value();
-                if (c.isAce()) aces++;
-            }
-            return new int[]{total, aces};
+        /** Total with every ace counted as 1. */
+        public int getHardTotal() {
+            return hardTotal;
         }
 
         public int getValue() {
-            int[] result = computeValueAndAces();
-            int total = result[0], aces = result[1];
-            while (total > 21 && aces > 0) {
-                total -= 10;
-                aces--;
-            }
-            return total;
+            return isSoft() ? hardTotal + 10 : hardTotal;
         }
 
+        /** True while one ace can still count as 11 without busting. */
         public boolean isSoft() {
-            int[] result = computeValueAndAces();
-            int total = result[0], aces = result[1];
-            int reducedAces = 0;
-            while (total > 21 && aces > reducedAces) {
-                total -= 10;
-                reducedAces++;
-            }
-            return aces > reducedAces;
+            return aces > 0 && hardTotal + 10 <= 21;
         }
 
         public boolean isBust() { return getValue() > 21; }
@@ -91,9 +90,7 @@ public class BlackjackGame {
     }
 
     private final GameStateData state;
-    private Deck deck;
-    private int handsSinceShuffle;
-    private static final int RESHUFFLE_INTERVAL = 50;
+    private final Deck deck;
 
     public BlackjackGame(int playerStack) {
         state = new GameStateData();
@@ -102,8 +99,43 @@ public class BlackjackGame {
         state.dealerHand = new Hand();
         state.splitHands = new ArrayList<>();
         deck = new Deck(GameType.BLACKJACK);
+        deck.setPenetration(CasinoConfig.BLACKJACK_PENETRATION);
         deck.shuffle();
-        handsSinceShuffle = 0;
+    }
+
+    /**
+     * Rebuilds a game from a suspended state. The shoe is freshly shuffled, with every card still
+     * held by the player, split and dealer hands taken out so none of them can be dealt twice.
+     */
+    public static BlackjackGame createSuspendedGame(GameStateData saved) {
+        BlackjackGame game = new BlackjackGame(saved.playerStack);
+        GameStateData state = game.state;
+        state.playerHand = saved.playerHand;
+        state.dealerHand = saved.dealerHand;
+        state.splitHands = saved.splitHands;
+        state.currentSplitIndex = saved.currentSplitIndex;
+        state.pot = saved.pot;
+        state.currentBet = saved.currentBet;
+        state.state = saved.state;
+        state.lastPotWon = saved.lastPotWon;
+        state.dealerHoleCardRevealed = saved.dealerHoleCardRevealed;
+        state.originalBalance = saved.originalBalance;
+        state.creditCeiling = saved.creditCeiling;
+        state.creditBorrowed = saved.creditBorrowed;
+        state.splitHandResults = saved.splitHandResults;
+        state.overdraftEnabled = saved.overdraftEnabled;
+        game.removeHeldCardsFromShoe();
+        return game;
+    }
+
+    private void removeHeldCardsFromShoe() {
+        if (state.playerHand != null) deck.removeUndealt(state.playerHand.cards);
+        if (state.dealerHand != null) deck.removeUndealt(state.dealerHand.cards);
+        if (state.splitHands != null) {
+            for (Hand hand : state.splitHands) {
+                deck.removeUndealt(hand.cards);
+            }
+        }
     }
 
     private void resetHandState() {
@@ -119,11 +151,9 @@ public class BlackjackGame {
     }
 
     public void startNewHand() {
-        handsSinceShuffle++;
-        if (handsSinceShuffle >= RESHUFFLE_INTERVAL) {
-            deck = new Deck(GameType.BLACKJACK);
+        // Reshuffle between hands once the cut card is reached
+        if (deck.isPastCutCard()) {
             deck.shuffle();
-            handsSinceShuffle = 0;
         }
         resetHandState();
     }
@@ -325,6 +355,22 @@ public class BlackjackGame {
         return state.dealerHoleCardRevealed;
     }
 
+    /** The dealer's face-up card; the first card dealt to the dealer is the hole card. */
+    public Card getDealerUpcard() {
+        return state.dealerHand.cards.size() > 1 ? state.dealerHand.cards.get(1) : null;
+    }
+
+    /**
+     * Adds the cards the player cannot see into {@code counts}, indexed by rank ordinal: the undealt
+     * shoe plus the dealer's hole card while it is face down.
+     */
+    public void countUnseenByRank(int[] counts) {
+        deck.countRemainingByRank(counts);
+        if (!state.dealerHoleCardRevealed && !state.dealerHand.cards.isEmpty()) {
+            counts[state.dealerHand.cards.get(0).rank().ordinal()]++;
+        }
+    }
+
     public Hand getCurrentHand() {
         if (!state.splitHands.isEmpty() && state.currentSplitIndex < state.splitHands.size()) {
             return state.splitHands.get(state.currentSplitIndex);
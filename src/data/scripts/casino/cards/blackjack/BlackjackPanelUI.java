@@ -15,11 +15,13 @@ import com.fs.starfarer.api.ui.TooltipMakerAPI;
 import com.fs.starfarer.api.ui.UIComponentAPI;
 import com.fs.starfarer.api.campaign.CustomVisualDialogDelegate.DialogCallbacks;
 
+import data.scripts.casino.CasinoConfig;
 import data.scripts.casino.Strings;
 import data.scripts.casino.cards.Card;
 import data.scripts.casino.cards.CardFlipAnimation;
 import data.scripts.casino.shared.BaseCardGamePanelUI;
 import data.scripts.casino.shared.CardRenderingUtils;
+import data.scripts.casino.cards.blackjack.BlackjackAdvisor.Advice;
 import data.scripts.casino.cards.blackjack.BlackjackGame.Action;
 import data.scripts.casino.cards.blackjack.BlackjackGame.GameStateData;
 import data.scripts.casino.cards.blackjack.BlackjackGame.Hand;
@@ -41,6 +43,7 @@ public class BlackjackPanelUI extends BaseCardGamePanelUI<BlackjackGame> {
     private static final int[] BET_AMOUNTS = {100, 250, 500, 1000, 2500};
 
     private static final int HAND_SIZE = 2;
+    private static final Color COLOR_ADVISOR = new Color(150, 210, 255);
 
     protected final BlackjackActionCallback actionCallback;
     protected DialogCallbacks callbacks;
@@ -71,9 +74,13 @@ public class BlackjackPanelUI extends BaseCardGamePanelUI<BlackjackGame> {
     protected LabelAPI dealerTotalLabel;
     protected LabelAPI playerTotalLabel;
     protected LabelAPI waitingLabel;
+    protected LabelAPI advisorLabel;
     protected LabelAPI[] splitHandValueLabels = new LabelAPI[HAND_SIZE];
     protected LabelAPI[] splitHandResultLabels = new LabelAPI[HAND_SIZE];
 
+    protected final BlackjackAdvisor advisor = new BlackjackAdvisor();
+    protected Advice advice;
+
     public interface BlackjackActionCallback {
         void onPlayerAction(Action action);
         void onNewHand();
@@ -218,6 +225,14 @@ public class BlackjackPanelUI extends BaseCardGamePanelUI<BlackjackGame> {
             .setSize(200f, 25f);
         waitingLabel.setOpacity(0f);
 
+        final float advisorY = PANEL_HEIGHT - BUTTON_HEIGHT - MARGIN - 30f;
+        advisorLabel = settings.createLabel("", Fonts.DEFAULT_SMALL);
+        advisorLabel.setColor(COLOR_ADVISOR);
+        advisorLabel.setAlignment(Alignment.MID);
+        panel.addComponent((UIComponentAPI) advisorLabel).inTL(cx - 250f, advisorY)
+            .setSize(500f, 25f);
+        advisorLabel.setOpacity(0f);
+
         final float playerLabelY = PANEL_HEIGHT * 0.75f - CARD_HEIGHT - 15f;
         playerTotalLabel = settings.createLabel("", Fonts.DEFAULT_SMALL);
         playerTotalLabel.setColor(COLOR_PLAYER);
@@ -354,6 +369,7 @@ public class BlackjackPanelUI extends BaseCardGamePanelUI<BlackjackGame> {
 
         updateDealerTotal(state);
         updatePlayerTotal(state);
+        updateAdvisor();
     }
     
     private void updatePlayerStackLabel(GameStateData state) {
@@ -503,7 +519,7 @@ public class BlackjackPanelUI extends BaseCardGamePanelUI<BlackjackGame> {
             dealerTotalLabel.setText(totalText);
             dealerTotalLabel.setOpacity(1f);
         } else {
-            final int visibleValue = dealerHand.cards.get(0).value();
+            final int visibleValue = game.getDealerUpcard().value();
             final String totalText = Strings.format("blackjack.dealer_showing", visibleValue);
             dealerTotalLabel.setText(totalText);
             dealerTotalLabel.setOpacity(1f);
@@ -533,6 +549,34 @@ public class BlackjackPanelUI extends BaseCardGamePanelUI<BlackjackGame> {
         playerTotalLabel.setOpacity(1f);
     }
 
+    private void updateAdvisor() {
+        if (advice == null) {
+            advisorLabel.setOpacity(0f);
+            return;
+        }
+
+        final StringBuilder entries = new StringBuilder();
+        entries.append(Strings.format("blackjack.advisor_entry", Strings.get("blackjack.hit"), advice.hit()));
+        entries.append(" | ").append(Strings.format("blackjack.advisor_entry", Strings.get("blackjack.stand"), advice.stand()));
+        if (advice.canDouble()) {
+            entries.append(" | ").append(Strings.format("blackjack.advisor_entry", Strings.get("blackjack.double_down"), advice.doubleDown()));
+        }
+        if (advice.canSplit()) {
+            entries.append(" | ").append(Strings.format("blackjack.advisor_entry", Strings.get("blackjack.split"), advice.split()));
+        }
+        advisorLabel.setText(Strings.format("blackjack.advisor_ev", entries, getActionText(advice.best())));
+        advisorLabel.setOpacity(1f);
+    }
+
+    private String getActionText(Action action) {
+        return switch (action) {
+            case HIT -> Strings.get("blackjack.hit");
+            case STAND -> Strings.get("blackjack.stand");
+            case DOUBLE_DOWN -> Strings.get("blackjack.double_down");
+            case SPLIT -> Strings.get("blackjack.split");
+        };
+    }
+
     public final void renderBelow(float alphaMult) {
         final PositionAPI pos = panel.getPosition();
         final float x = pos.getX();
@@ -713,6 +757,9 @@ public class BlackjackPanelUI extends BaseCardGamePanelUI<BlackjackGame> {
             dealerCardAnimations[0].triggerFlip(0f);
         }
         lastDealerHoleRevealed = holeRevealed;
+
+        // Cards only change between calls here, so the advice is worked out once per state change
+        advice = CasinoConfig.BLACKJACK_ADVISOR_ENABLED ? advisor.advise(game) : null;
     }
 
     @Override
@@ -8,8 +8,10 @@ import data.scripts.casino.cards.GameType;
 import data.scripts.casino.cards.pokerShared.PokerAction;
 import data.scripts.casino.cards.pokerShared.PokerAICommon;
 import data.scripts.casino.cards.pokerShared.PokerHandEvaluator;
+import data.scripts.casino.cards.pokerShared.PokerHandState;
 import data.scripts.casino.cards.pokerShared.PokerRound;
 import data.scripts.casino.cards.pokerShared.PokerUtils;
+import data.scripts.casino.shared.HandHistory;
 
 
 public class PokerGame {
@@ -50,6 +52,13 @@ public class PokerGame {
     private Deck deck;
     private int bigBlindAmount;
 
+    private final Random handSeeds;
+    private final HandHistory.Recorder history;
+
+    // Hole plus community cards, extended as cards are dealt
+    private final PokerHandState playerHandState = new PokerHandState();
+    private final PokerHandState opponentHandState = new PokerHandState();
+
     public PokerGame() {
         this(1000, 1000);
     }
@@ -57,6 +66,9 @@ public class PokerGame {
     public PokerGame(int playerStack, int opponentStack) {
         ai = new PokerOpponentAI();
         state = new PokerState();
+        long sessionSeed = new Random().nextLong();
+        handSeeds = new Random(sessionSeed);
+        history = HandHistory.newRecorder(HandHistory.GAME_HEADS_UP, 2, sessionSeed);
 
         int avgStack = (playerStack + opponentStack) / 2;
 
@@ -74,6 +86,9 @@ public class PokerGame {
     private PokerGame(boolean marker) {
         ai = new PokerOpponentAI();
         state = new PokerState();
+        long sessionSeed = new Random().nextLong();
+        handSeeds = new Random(sessionSeed);
+        history = HandHistory.newRecorder(HandHistory.GAME_HEADS_UP, 2, sessionSeed);
         deck = new Deck(GameType.POKER);
         deck.shuffle();
     }
@@ -119,6 +134,11 @@ public class PokerGame {
         game.state.opponentDeclaredAllIn = opponentDeclaredAllIn;
         game.state.displayPlayerBet = playerBet;
         game.state.displayOpponentBet = opponentBet;
+
+        // Held cards must not come out of the fresh deck again
+        game.deck.removeUndealt(game.state.playerHand);
+        game.deck.removeUndealt(game.state.opponentHand);
+        game.deck.removeUndealt(game.state.communityCards);
         
         game.evaluateHands();
         
@@ -132,14 +152,34 @@ public class PokerGame {
         return state;
     }
 
+    /**
+     * Closes the current hand in the hand history with the stacks as they are now. The handler pays
+     * out heads-up pots, so it calls this once the pot is settled and before the table is left or
+     * suspended. Does nothing if no hand is open.
+     */
+    public void recordHandEnd() {
+        if (history != null) {
+            history.endHand(new int[]{state.playerStack, state.opponentStack});
+        }
+    }
+
     public PokerOpponentAI getAI() {
         return ai;
     }
 
     public void startNewHand() {
-        deck = new Deck(GameType.POKER);
+        // The deck is reused between hands; shuffling returns every card to it
+        if (deck == null) deck = new Deck(GameType.POKER);
         deck.shuffle();
 
+        long handSeed = handSeeds.nextLong();
+        ai.setSeed(handSeed);
+        // Closes the previous hand too, in case the handler did not
+        if (history != null) {
+            history.beginHand(handSeed, state.dealer != null ? state.dealer.ordinal() : -1, bigBlindAmount,
+                new int[]{state.playerStack, state.opponentStack}, deck.cards());
+        }
+
         state.playerHand = new ArrayList<>();
         state.opponentHand = new ArrayList<>();
         state.communityCards = new ArrayList<>();
@@ -148,6 +188,8 @@ public class PokerGame {
         state.opponentHand.add(deck.draw());
         state.playerHand.add(deck.draw());
         state.opponentHand.add(deck.draw());
+        playerHandState.reset(state.playerHand);
+        opponentHandState.reset(state.opponentHand);
 
 
 
@@ -214,6 +256,10 @@ public class PokerGame {
     }
 
     public void processPlayerAction(PokerAction action, int raiseAmount) {
+        if (history != null) {
+            history.action(0, action, state.round, raiseAmount);
+        }
+
         switch (action) {
             case RAISE:
                 ai.recordPlayerAction("RAISE");
@@ -320,6 +366,16 @@ public class PokerGame {
     }
 
     public void processOpponentAction(PokerAICommon.AIResponse response) {
+        if (history != null) {
+            PokerAction recorded = switch (response.action) {
+                case FOLD -> PokerAction.FOLD;
+                case CHECK -> PokerAction.CHECK;
+                case CALL -> PokerAction.CALL;
+                case RAISE, BET -> PokerAction.RAISE;
+            };
+            history.action(1, recorded, state.round, response.raiseAmount);
+        }
+
         switch (response.action) {
             case RAISE:
                 ai.recordAIAction("RAISE");
@@ -438,13 +494,20 @@ private void checkRoundProgression() {
 
     private void evaluateHands() {
         if (state.communityCards.size() >= 3) {
-            PokerHandEvaluator.HandScore playerScore = PokerHandEvaluator.evaluate(state.playerHand, state.communityCards);
-            PokerHandEvaluator.HandScore opponentScore = PokerHandEvaluator.evaluate(state.opponentHand, state.communityCards);
-            state.playerHandRank = playerScore.rank;
-            state.opponentHandRank = opponentScore.rank;
+            state.playerHandRank = playerHandState.sync(state.playerHand, state.communityCards).rank();
+            state.opponentHandRank = opponentHandState.sync(state.opponentHand, state.communityCards).rank();
         } else {
             state.playerHandRank = null;
             state.opponentHandRank = null;
         }
     }
+
+    /** Packed strength of the player's best hand so far; see {@link PokerHandEvaluator#evaluatePacked}. */
+    public int getPlayerHandStrength() {
+        return playerHandState.sync(state.playerHand, state.communityCards).strength();
+    }
+
+    public int getOpponentHandStrength() {
+        return opponentHandState.sync(state.opponentHand, state.communityCards).strength();
+    }
 }
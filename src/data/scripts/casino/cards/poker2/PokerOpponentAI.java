@@ -7,11 +7,13 @@ import data.scripts.casino.cards.Card;
 import data.scripts.casino.cards.Deck;
 import data.scripts.casino.cards.GameType;
 import data.scripts.casino.cards.pokerShared.AbstractPokerAI;
+import data.scripts.casino.cards.pokerShared.DrawAnalyzer;
 import data.scripts.casino.cards.pokerShared.PokerAIUtils;
 import data.scripts.casino.cards.pokerShared.MonteCarloUtility;
 import data.scripts.casino.cards.pokerShared.PokerHandEvaluator;
 import data.scripts.casino.cards.pokerShared.PokerAICommon;
 import data.scripts.casino.cards.pokerShared.PokerRound;
+import data.scripts.casino.shared.CasinoMetrics;
 
 public class PokerOpponentAI extends AbstractPokerAI {
 
@@ -152,8 +154,21 @@ public class PokerOpponentAI extends AbstractPokerAI {
              new PokerAICommon.AIResponse(PokerAICommon.InternalAction.FOLD, 0));
     }
     
+    private static final CasinoMetrics.Histogram DECIDE_TIME = CasinoMetrics.histogram("poker.ai.decide");
+
     public PokerAICommon.AIResponse decide(List<Card> holeCards, List<Card> communityCards,
                             int currentBetToCall, int potSize, int stackSize) {
+        long start = CasinoMetrics.startTimer();
+        settings = CasinoConfig.poker();
+        try {
+            return computeDecision(holeCards, communityCards, currentBetToCall, potSize, stackSize);
+        } finally {
+            DECIDE_TIME.recordSince(start);
+        }
+    }
+
+    private PokerAICommon.AIResponse computeDecision(List<Card> holeCards, List<Card> communityCards,
+                            int currentBetToCall, int potSize, int stackSize) {
         if (communityCards.isEmpty()) {
             return preFlopDecision(holeCards, currentBetToCall, potSize, stackSize);
         } else {
@@ -163,6 +178,7 @@ public class PokerOpponentAI extends AbstractPokerAI {
     
     public PokerAICommon.AIResponse decideAllInResponse(List<Card> holeCards, List<Card> communityCards,
                             int currentBetToCall, int potSize) {
+        settings = CasinoConfig.poker();
         float equity = communityCards.isEmpty() ? 
             calculatePreflopEquity(holeCards) : 
             calculatePostflopEquity(holeCards, communityCards);
@@ -201,7 +217,7 @@ public class PokerOpponentAI extends AbstractPokerAI {
 
             if (equity >= openThreshold || (equity >= 0.30f && random.nextFloat() < bluffChance)) {
                 float posMult = isInPosition ? 1.2f : 0.85f;
-                int raiseAmount = Math.max(CasinoConfig.POKER_AI_MIN_RAISE_VALUE,
+                int raiseAmount = Math.max(settings.minRaise(),
                     (int)(Math.max(bigBlind * 3, Math.min(stackSize / 20, stackSize)) * posMult));
                 decision = new PokerAICommon.AIResponse(PokerAICommon.InternalAction.RAISE, raiseAmount);
             } else {
@@ -214,7 +230,7 @@ public class PokerOpponentAI extends AbstractPokerAI {
                 if (equity > 0.60f && random.nextFloat() < 0.4f) {
                     int threeBetSize = bigBlind * 3;
                     threeBetSize = Math.min(threeBetSize, stackSize);
-                    decision = new PokerAICommon.AIResponse(PokerAICommon.InternalAction.RAISE, Math.max(threeBetSize, CasinoConfig.POKER_AI_MIN_RAISE_VALUE));
+                    decision = new PokerAICommon.AIResponse(PokerAICommon.InternalAction.RAISE, Math.max(threeBetSize, settings.minRaise()));
                 } else {
                     decision = new PokerAICommon.AIResponse(PokerAICommon.InternalAction.CALL, 0);
                 }
@@ -264,9 +280,9 @@ public class PokerOpponentAI extends AbstractPokerAI {
                     }
 
                     if (should3Bet && evRaise > evCall && evRaise > evFold && evRaise > 0) {
-                        threeBetSize = Math.max(threeBetSize, CasinoConfig.POKER_AI_MIN_RAISE_VALUE);
-                        if (CasinoConfig.POKER_AI_MAX_RAISE_RANDOM_ADDITION > 0) {
-                            threeBetSize += random.nextInt(CasinoConfig.POKER_AI_MAX_RAISE_RANDOM_ADDITION);
+                        threeBetSize = Math.max(threeBetSize, settings.minRaise());
+                        if (settings.maxRaiseRandomAddition() > 0) {
+                            threeBetSize += random.nextInt(settings.maxRaiseRandomAddition());
                         }
                         decision = new PokerAICommon.AIResponse(PokerAICommon.InternalAction.RAISE, threeBetSize);
                     } else if (evCall > evFold) {
@@ -314,10 +330,11 @@ public class PokerOpponentAI extends AbstractPokerAI {
         PokerAICommon.MonteCarloResult mcResult = runMonteCarloSimulationFull(holeCards, communityCards);
         float trueEquity = mcResult.getTotalEquity();
 
-        float impliedOddsBonus = calculateImpliedOddsBonus(holeCards, communityCards, trueEquity);
+        DrawAnalyzer.Analysis draws = analyzeDraws(holeCards, communityCards);
+        float impliedOddsBonus = calculateImpliedOddsBonus(draws, communityCards.size(), trueEquity);
         float adjustedTrueEquity = trueEquity + impliedOddsBonus;
 
-        boolean wetBoard = PokerAIUtils.isWetBoard(communityCards);
+        boolean wetBoard = draws.wetBoard();
         PokerRound currentRound = switch (communityCards.size()) {
             case 3 -> PokerRound.FLOP;
             case 4 -> PokerRound.TURN;
@@ -336,7 +353,7 @@ public class PokerOpponentAI extends AbstractPokerAI {
         if (currentBetToCall == 0) {
             PokerAICommon.AIResponse decision = handleFreeCheckDecision(
                 equity, potSize, stackSize, isInPosition, isWetBoard);
-            applyPersonalityToRaise(decision, equity, stackSize);
+            decision = applyPersonalityToRaise(decision, equity, stackSize);
             boolean wasInitiator = decision.action == PokerAICommon.InternalAction.RAISE;
             recordBettingAction(currentRound, decision.action, decision.raiseAmount, potSize, wasInitiator);
             return decision;
@@ -440,7 +457,7 @@ public class PokerOpponentAI extends AbstractPokerAI {
 
         PokerAICommon.AIResponse finalDecision;
         if (bestRaiseEV > evCall && bestRaiseEV > evFold && bestRaiseSize > 0) {
-            bestRaiseSize = Math.max(bestRaiseSize, CasinoConfig.POKER_AI_MIN_RAISE_VALUE);
+            bestRaiseSize = Math.max(bestRaiseSize, settings.minRaise());
             bestRaiseSize = Math.min(bestRaiseSize, stackSize);
             finalDecision = new PokerAICommon.AIResponse(PokerAICommon.InternalAction.RAISE, bestRaiseSize);
         } else if (evCall > evFold) {
@@ -533,11 +550,11 @@ recordBettingAction(currentRound, deviation.action, deviation.raiseAmount, potSi
     private void initializePreflopEquityCache() {
         if (preflopCacheInitialized) return;
         
-        Deck deck = new Deck(GameType.POKER);
-        for (int i = 0; i < deck.cards.size(); i++) {
-            for (int j = i + 1; j < deck.cards.size(); j++) {
-                Card c1 = deck.cards.get(i);
-                Card c2 = deck.cards.get(j);
+        List<Card> deck = new Deck(GameType.POKER).cards();
+        for (int i = 0; i < deck.size(); i++) {
+            for (int j = i + 1; j < deck.size(); j++) {
+                Card c1 = deck.get(i);
+                Card c2 = deck.get(j);
                 
                 String key = createHandKey(c1, c2);
                 
@@ -667,7 +684,7 @@ recordBettingAction(currentRound, deviation.action, deviation.raiseAmount, potSi
         int wins = 0;
         int ties = 0;
         int losses = 0;
-        int simulationCount = CasinoConfig.POKER_MONTE_CARLO_SAMPLES;
+        int simulationCount = settings.monteCarloSamples();
         
         boolean[] excluded = MonteCarloUtility.createExclusionMask(holeCards, communityCards);
         
@@ -17,12 +17,14 @@ import com.fs.starfarer.api.ui.TooltipMakerAPI;
 import com.fs.starfarer.api.ui.UIComponentAPI;
 import com.fs.starfarer.api.campaign.CustomVisualDialogDelegate.DialogCallbacks;
 
+import data.scripts.casino.CasinoConfig;
 import data.scripts.casino.Strings;
 import data.scripts.casino.cards.Card;
 import data.scripts.casino.cards.CardFlipAnimation;
 import data.scripts.casino.shared.BaseCardGamePanelUI;
 import data.scripts.casino.shared.CardRenderingUtils;
 import data.scripts.casino.cards.poker2.PokerGame.PokerState;
+import data.scripts.casino.cards.pokerShared.LiveEquityEstimator;
 import data.scripts.casino.cards.pokerShared.PokerAction;
 import data.scripts.casino.cards.pokerShared.PokerHandEvaluator;
 import data.scripts.casino.cards.pokerShared.PokerHandEvaluator.HandScore;
@@ -81,6 +83,8 @@ public class PokerPanelUI extends BaseCardGamePanelUI<PokerGame> {
         lastAnimatedCommunityCount = 0;
         playerCardsAnimated = false;
         playerHandRankLabel.setOpacity(0f);
+        equityEstimator.clear();
+        equityHudLabel.setOpacity(0f);
     }
 
     private void checkAndTriggerAnimations(PokerState state, PokerRound previousRound, int previousCommunityCount) {
@@ -122,6 +126,10 @@ public class PokerPanelUI extends BaseCardGamePanelUI<PokerGame> {
     private LabelAPI returnMessageLabel;
     private LabelAPI resultLabel;
     private LabelAPI playerHandRankLabel;
+    private LabelAPI equityHudLabel;
+
+    private final LiveEquityEstimator equityEstimator = new LiveEquityEstimator();
+    private LiveEquityEstimator.Estimate shownEstimate;
 
     public interface PokerActionCallback {
         void onPlayerAction(PokerAction action, int raiseAmount);
@@ -463,6 +471,15 @@ public class PokerPanelUI extends BaseCardGamePanelUI<PokerGame> {
         panel.addComponent((UIComponentAPI) playerHandRankLabel).inTL(160, 505)
             .setSize(200f, 18f);
         playerHandRankLabel.setOpacity(0f);
+
+        final float playerCardRightEdge = PANEL_WIDTH / 2f + (HAND_SIZE * CARD_WIDTH + CARD_SPACING) / 2f;
+        equityHudLabel = settings.createLabel("", Fonts.DEFAULT_SMALL);
+        equityHudLabel.setColor(PokerUIUtils.COLOR_EQUITY_HUD);
+        equityHudLabel.setAlignment(Alignment.LMID);
+        panel.addComponent((UIComponentAPI) equityHudLabel)
+            .inTL(playerCardRightEdge + 15f, PANEL_HEIGHT * 0.75f - CARD_HEIGHT / 2f)
+            .setSize(320f, 60f);
+        equityHudLabel.setOpacity(0f);
     }
 
     public final void showOpponentAction(String action) {
@@ -509,6 +526,30 @@ public class PokerPanelUI extends BaseCardGamePanelUI<PokerGame> {
         playerHandRankLabel.setOpacity(1f);
     }
 
+    private void updateEquityHud(PokerState state) {
+        final boolean show = CasinoConfig.POKER_EQUITY_HUD_ENABLED && state.playerHand != null
+            && state.playerHand.size() == HAND_SIZE && state.communityCards != null
+            && state.round != PokerRound.SHOWDOWN && state.folder == null;
+        if (!show) {
+            equityEstimator.clear();
+            shownEstimate = null;
+            equityHudLabel.setOpacity(0f);
+            return;
+        }
+
+        equityEstimator.update(state.playerHand, state.communityCards, 1, CasinoConfig.poker().equityHudSamples());
+        final LiveEquityEstimator.Estimate estimate = equityEstimator.latest();
+        if (estimate == null) {
+            equityHudLabel.setOpacity(0f);
+            return;
+        }
+        if (estimate != shownEstimate) {
+            shownEstimate = estimate;
+            equityHudLabel.setText(PokerUIUtils.formatEquityHud(estimate, 1));
+        }
+        equityHudLabel.setOpacity(1f);
+    }
+
     private void createReturnMessageLabel() {
         final float RETURN_LABEL_WIDTH = 400f;
         final float RETURN_LABEL_HEIGHT = 25f;
@@ -650,17 +691,7 @@ public class PokerPanelUI extends BaseCardGamePanelUI<PokerGame> {
 
     private String formatHandRank(PokerHandEvaluator.HandRank rank) {
         if (rank == null) return Strings.get("poker_hand_desc.unknown");
-        return switch (rank) {
-            case HIGH_CARD -> Strings.get("poker_hand_rank.high_card");
-            case PAIR -> Strings.get("poker_hand_rank.pair");
-            case TWO_PAIR -> Strings.get("poker_hand_rank.two_pair");
-            case THREE_OF_A_KIND -> Strings.get("poker_hand_rank.three_of_a_kind");
-            case STRAIGHT -> Strings.get("poker_hand_rank.straight");
-            case FLUSH -> Strings.get("poker_hand_rank.flush");
-            case FULL_HOUSE -> Strings.get("poker_hand_rank.full_house");
-            case FOUR_OF_A_KIND -> Strings.get("poker_hand_rank.four_of_a_kind");
-            case STRAIGHT_FLUSH -> Strings.get("poker_hand_rank.straight_flush");
-        };
+        return PokerUIUtils.getHandRankName(rank);
     }
 
     private void createNextHandButton() {
@@ -706,6 +737,7 @@ public class PokerPanelUI extends BaseCardGamePanelUI<PokerGame> {
 
         updateResultLabel(state);
         updatePlayerHandRankLabel(state);
+        updateEquityHud(state);
         updateNextHandButton(state);
         updateButtonVisibility();
 
@@ -2,48 +2,101 @@ package data.scripts.casino.cards.poker5;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import data.scripts.casino.CasinoConfig;
 import data.scripts.casino.cards.Card;
+import data.scripts.casino.cards.GameType;
 import data.scripts.casino.cards.pokerShared.MonteCarloUtility;
 import data.scripts.casino.cards.pokerShared.PokerAICommon;
 import data.scripts.casino.cards.pokerShared.PokerHandEvaluator;
 
+/**
+ * Monte Carlo equity against any number of random opponent hands. Each sample draws only the cards
+ * it uses (a partial shuffle of a reused index array), scores the hero once, and stops at the first
+ * opponent who beats it, so a sample costs one packed evaluation per opponent at most and nothing
+ * is allocated inside the loop. Cards are kept as the suit-mask and rank-count longs that
+ * {@link PokerHandEvaluator#evaluatePacked(long, long)} reads.
+ */
 public class MultiPlayerEquityCalculator {
-    
+
     private static final Card[] ALL_CARDS = MonteCarloUtility.getAllCards();
+    private static final long[] SUIT_BIT = new long[ALL_CARDS.length];
+    private static final long[] RANK_COUNT = new long[ALL_CARDS.length];
+
+    static {
+        for (int i = 0; i < ALL_CARDS.length; i++) {
+            SUIT_BIT[i] = suitBit(ALL_CARDS[i]);
+            RANK_COUNT[i] = rankCount(ALL_CARDS[i]);
+        }
+    }
+
+    private final Random random;
+    private final int[] deck = new int[ALL_CARDS.length];
+
+    public MultiPlayerEquityCalculator(Random random) {
+        this.random = random;
+    }
 
     public PokerAICommon.MonteCarloResult calculateMultiWayEquity(List<Card> holeCards, List<Card> communityCards, int opponentCount) {
+        return calculateMultiWayEquity(holeCards, communityCards, opponentCount, CasinoConfig.poker().monteCarloSamples());
+    }
+
+    public PokerAICommon.MonteCarloResult calculateMultiWayEquity(List<Card> holeCards, List<Card> communityCards,
+                                                                  int opponentCount, int samples) {
         int wins = 0;
         int ties = 0;
         int losses = 0;
-        int samples = CasinoConfig.POKER_MONTE_CARLO_SAMPLES;
 
         boolean[] excluded = MonteCarloUtility.createExclusionMask(holeCards, communityCards);
+        int available = 0;
+        for (int i = 0; i < excluded.length; i++) {
+            if (!excluded[i]) deck[available++] = i;
+        }
+
+        long boardSuits = 0, boardRanks = 0;
+        for (int i = 0, n = communityCards.size(); i < n; i++) {
+            boardSuits |= suitBit(communityCards.get(i));
+            boardRanks += rankCount(communityCards.get(i));
+        }
+        long holeSuits = 0, holeRanks = 0;
+        for (int i = 0, n = holeCards.size(); i < n; i++) {
+            holeSuits |= suitBit(holeCards.get(i));
+            holeRanks += rankCount(holeCards.get(i));
+        }
+
+        int boardNeeded = MonteCarloUtility.getOpponentCardOffset(communityCards.size());
+        opponentCount = Math.max(0, Math.min(opponentCount, (available - boardNeeded) / 2));
+        int draw = boardNeeded + opponentCount * 2;
 
         for (int i = 0; i < samples; i++) {
-            int[] shuffledIndices = MonteCarloUtility.shuffleAvailableCards(
-                new java.util.Random(), excluded);
+            for (int k = 0; k < draw; k++) {
+                int j = k + random.nextInt(available - k);
+                int tmp = deck[k];
+                deck[k] = deck[j];
+                deck[j] = tmp;
+            }
 
-            Card[] boardCards = MonteCarloUtility.completeBoard(communityCards, shuffledIndices);
+            long suits = boardSuits, ranks = boardRanks;
+            for (int k = 0; k < boardNeeded; k++) {
+                suits |= SUIT_BIT[deck[k]];
+                ranks += RANK_COUNT[deck[k]];
+            }
 
-            PokerHandEvaluator.HandScore ourScore = PokerHandEvaluator.evaluateHandFast(holeCards, boardCards);
+            int ourScore = PokerHandEvaluator.evaluatePacked(suits | holeSuits, ranks + holeRanks);
 
             boolean isWinner = true;
             boolean isTied = false;
-            int oppCardOffset = MonteCarloUtility.getOpponentCardOffset(communityCards.size());
-
-            for (int opp = 0; opp < opponentCount; opp++) {
-                Card opp1 = ALL_CARDS[shuffledIndices[oppCardOffset + opp * 2]];
-                Card opp2 = ALL_CARDS[shuffledIndices[oppCardOffset + opp * 2 + 1]];
-                PokerHandEvaluator.HandScore oppScore = PokerHandEvaluator.evaluateTwoCardsFast(opp1, opp2, boardCards);
+            for (int opp = 0, k = boardNeeded; opp < opponentCount; opp++, k += 2) {
+                int c1 = deck[k], c2 = deck[k + 1];
+                int oppScore = PokerHandEvaluator.evaluatePacked(suits | SUIT_BIT[c1] | SUIT_BIT[c2],
+                    ranks + RANK_COUNT[c1] + RANK_COUNT[c2]);
 
-                int cmp = ourScore.compareTo(oppScore);
-                if (cmp < 0) {
+                if (oppScore > ourScore) {
                     isWinner = false;
                     isTied = false;
                     break;
-                } else if (cmp == 0) {
+                } else if (oppScore == ourScore) {
                     isTied = true;
                 }
             }
@@ -61,6 +114,18 @@ public class MultiPlayerEquityCalculator {
     }
 
     public float calculatePreflopEquity(List<Card> holeCards, int opponentCount) {
-        return calculateMultiWayEquity(holeCards, new ArrayList<>(), opponentCount).getTotalEquity();
+        return calculatePreflopEquity(holeCards, opponentCount, CasinoConfig.poker().monteCarloSamples());
+    }
+
+    public float calculatePreflopEquity(List<Card> holeCards, int opponentCount, int samples) {
+        return calculateMultiWayEquity(holeCards, new ArrayList<>(), opponentCount, samples).getTotalEquity();
+    }
+
+    private static long suitBit(Card card) {
+        return 1L << (card.suit().ordinal() * 16 + card.rank().getValue(GameType.POKER));
+    }
+
+    private static long rankCount(Card card) {
+        return 1L << (card.rank().getValue(GameType.POKER) * 4);
     }
-}
\ No newline at end of file
+}
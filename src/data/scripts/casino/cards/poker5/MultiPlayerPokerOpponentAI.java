@@ -2,21 +2,24 @@ package data.scripts.casino.cards.poker5;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import data.scripts.casino.CasinoConfig;
 import data.scripts.casino.cards.Card;
 import data.scripts.casino.cards.pokerShared.AbstractPokerAI;
+import data.scripts.casino.cards.pokerShared.DrawAnalyzer;
 import data.scripts.casino.cards.pokerShared.PokerAIUtils;
 import data.scripts.casino.cards.pokerShared.PokerAction;
 import data.scripts.casino.cards.pokerShared.PokerAICommon;
 import data.scripts.casino.cards.pokerShared.PokerRound;
+import data.scripts.casino.shared.CasinoMetrics;
 
 public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements PokerAI5 {
     private static final PokerAICommon.AIResponse FOLD_RESPONSE = new PokerAICommon.AIResponse(PokerAICommon.InternalAction.FOLD, 0);
     private static final PokerAICommon.AIResponse CHECK_RESPONSE = new PokerAICommon.AIResponse(PokerAICommon.InternalAction.CHECK, 0);
     private static final PokerAICommon.AIResponse CALL_RESPONSE = new PokerAICommon.AIResponse(PokerAICommon.InternalAction.CALL, 0);
 
-    private final MultiPlayerEquityCalculator equityCalculator = new MultiPlayerEquityCalculator();
+    private final MultiPlayerEquityCalculator equityCalculator = new MultiPlayerEquityCalculator(random);
 
     private final int seatIndex;
     private Position position;
@@ -27,7 +30,12 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
     private boolean declaredAllIn;
 
     public MultiPlayerPokerOpponentAI(int seatIndex) {
+        this(seatIndex, new Random().nextLong());
+    }
+
+    public MultiPlayerPokerOpponentAI(int seatIndex, long seed) {
         super();
+        setSeed(seed);
         this.seatIndex = seatIndex;
         this.holeCards = new ArrayList<>();
         this.stack = 0;
@@ -79,7 +87,19 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
         return stack;
     }
 
+    private static final CasinoMetrics.Histogram DECIDE_TIME = CasinoMetrics.histogram("poker5.ai.decide");
+
     public PokerAICommon.AIResponse decide(TableStateSnapshot table) {
+        long start = CasinoMetrics.startTimer();
+        settings = CasinoConfig.poker();
+        try {
+            return computeDecision(table);
+        } finally {
+            DECIDE_TIME.recordSince(start);
+        }
+    }
+
+    private PokerAICommon.AIResponse computeDecision(TableStateSnapshot table) {
         if (!isActive || declaredAllIn || holeCards.size() < 2) {
             return FOLD_RESPONSE;
         }
@@ -97,7 +117,7 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
     private PokerAICommon.AIResponse preFlopDecision(TableStateSnapshot table, int betToCall, int opponentCount) {
         updateProfile();
 
-        float equity = equityCalculator.calculatePreflopEquity(holeCards, opponentCount);
+        float equity = equityCalculator.calculatePreflopEquity(holeCards, opponentCount, settings.monteCarloSamples());
         float adjustedEquity = adjustEquityForPosition(equity, PokerRound.PREFLOP);
         float positionThreshold = getPositionThreshold();
 
@@ -129,20 +149,20 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
                 
                 TableStateSnapshot.OpponentInfo raiser = table.findLikelyRaiser();
                 if (raiser != null) {
-                    Position raiserPosition = raiser.getPosition(table.buttonSeat());
+                    Position raiserPosition = raiser.getPosition(table.buttonSeat(), table.seats());
                     if (position.isInPositionVs(raiserPosition)) {
                         threeBetThreshold = 0.55f;
                     }
                     
                     if (position.isBlind() && table.isStealAttempt(raiser)) {
-                        threeBetThreshold -= CasinoConfig.POKER_BLIND_DEFENSE_THRESHOLD;
+                        threeBetThreshold -= settings.blindDefenseThreshold();
                     }
                 }
                 
                 if (adjustedEquity > threeBetThreshold && random.nextFloat() < 0.4f) {
                     int threeBetSize = Math.max(
                         Math.min(bigBlind * 3, stack - betToCall),
-                        CasinoConfig.POKER_AI_MIN_RAISE_VALUE
+                        settings.minRaise()
                     );
                     decision = new PokerAICommon.AIResponse(PokerAICommon.InternalAction.RAISE, threeBetSize);
                 } else {
@@ -161,7 +181,7 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
                     float evFold = -committedThisRound;
 
                     if (adjustedEquity < positionThreshold && potOdds > adjustedEquity) {
-                        if (position.isBlind() && random.nextFloat() < CasinoConfig.POKER_BLIND_FOLD_RESISTANCE) {
+                        if (position.isBlind() && random.nextFloat() < settings.blindFoldResistance()) {
                             decision = CALL_RESPONSE;
                         } else {
                             decision = FOLD_RESPONSE;
@@ -178,7 +198,7 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
             }
         }
 
-        applyPersonalityToRaise(decision, adjustedEquity, stack);
+        decision = applyPersonalityToRaise(decision, adjustedEquity, stack);
         boolean wasInitiator = decision.action == PokerAICommon.InternalAction.RAISE && betToCall == 0;
         recordBettingNarrative(PokerRound.PREFLOP, decision.action, decision.raiseAmount, table.pot(), wasInitiator);
 
@@ -188,18 +208,20 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
     private PokerAICommon.AIResponse postFlopDecision(TableStateSnapshot table, int betToCall, int opponentCount) {
         updateProfile();
 
-        float trueEquity = equityCalculator.calculateMultiWayEquity(holeCards, table.communityCards(), opponentCount).getTotalEquity();
+        float trueEquity = equityCalculator.calculateMultiWayEquity(holeCards, table.communityCards(), opponentCount,
+            settings.monteCarloSamples()).getTotalEquity();
         float adjustedEquity = adjustEquityForPosition(trueEquity, table.round());
 
-        float impliedOddsBonus = calculateImpliedOddsBonus(holeCards, table.communityCards(), trueEquity, opponentCount);
+        DrawAnalyzer.Analysis draws = analyzeDraws(holeCards, table.communityCards());
+        float impliedOddsBonus = calculateImpliedOddsBonus(draws, table.communityCards().size(), trueEquity, opponentCount);
         adjustedEquity += impliedOddsBonus;
 
-        boolean wetBoard = PokerAIUtils.isWetBoard(table.communityCards());
+        boolean wetBoard = draws.wetBoard();
 
         if (betToCall == 0) {
             PokerAICommon.AIResponse decision = handleFreeCheckDecision(
                 adjustedEquity, table.pot(), stack, position.isLatePosition(), wetBoard);
-            applyPersonalityToRaise(decision, adjustedEquity, stack);
+            decision = applyPersonalityToRaise(decision, adjustedEquity, stack);
             boolean wasInitiator = decision.action == PokerAICommon.InternalAction.RAISE;
             recordBettingNarrative(table.round(), decision.action, decision.raiseAmount, table.pot(), wasInitiator);
             return decision;
@@ -294,7 +316,7 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
 
         PokerAICommon.AIResponse finalDecision;
         if (bestRaiseEV > evCall && bestRaiseEV > evFold && bestRaiseSize > 0) {
-            bestRaiseSize = Math.min(Math.max(bestRaiseSize, CasinoConfig.POKER_AI_MIN_RAISE_VALUE), stack - betToCall);
+            bestRaiseSize = Math.min(Math.max(bestRaiseSize, settings.minRaise()), stack - betToCall);
             finalDecision = new PokerAICommon.AIResponse(PokerAICommon.InternalAction.RAISE, bestRaiseSize);
         } else if (evCall > evFold) {
             finalDecision = CALL_RESPONSE;
@@ -319,6 +341,10 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
         float positionBonus = switch (position) {
             case BUTTON -> 0.05f;
             case CUT_OFF -> 0.03f;
+            case HIJACK -> 0.01f;
+            case LOJACK -> -0.01f;
+            case MIDDLE -> -0.02f;
+            case UTG_1 -> -0.04f;
             case SMALL_BLIND -> -0.02f;
             case BIG_BLIND -> -0.03f;
             case UTG -> -0.05f;
@@ -337,6 +363,10 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
 
         return switch (position) {
             case UTG -> base + 0.08f;
+            case UTG_1 -> base + 0.07f;
+            case MIDDLE -> base + 0.04f;
+            case LOJACK -> base + 0.02f;
+            case HIJACK -> base;
             case BIG_BLIND -> base + 0.05f;
             case SMALL_BLIND -> base + 0.03f;
             case CUT_OFF -> base - 0.02f;
@@ -368,7 +398,7 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
                 baseFoldProb *= 0.7f;
             }
 
-            Position oppPosition = opp.getPosition(table.buttonSeat());
+            Position oppPosition = opp.getPosition(table.buttonSeat(), table.seats());
             if (this.position.isInPositionVs(oppPosition)) {
                 baseFoldProb += 0.08f;
             } else if (oppPosition.isInPositionVs(this.position)) {
@@ -391,9 +421,9 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
             baseRaise = (int) (baseRaise * 0.85f);
         }
 
-        baseRaise = Math.max(CasinoConfig.POKER_AI_MIN_RAISE_VALUE, baseRaise);
-        if (CasinoConfig.POKER_AI_MAX_RAISE_RANDOM_ADDITION > 0) {
-            baseRaise += random.nextInt(CasinoConfig.POKER_AI_MAX_RAISE_RANDOM_ADDITION);
+        baseRaise = Math.max(settings.minRaise(), baseRaise);
+        if (settings.maxRaiseRandomAddition() > 0) {
+            baseRaise += random.nextInt(settings.maxRaiseRandomAddition());
         }
 
         return Math.min(baseRaise, stack);
@@ -401,7 +431,7 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
 
     private int calculateRaiseSize(int pot, int currentBet) {
         int raiseSize = Math.min(Math.max(currentBet * 3, pot * 2), stack - currentBet);
-        return Math.max(CasinoConfig.POKER_AI_MIN_RAISE_VALUE, raiseSize);
+        return Math.max(settings.minRaise(), raiseSize);
     }
 
     public PokerAICommon.Personality getPersonality() { return personality; }
@@ -419,8 +449,9 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
     }
 
     private TableStateSnapshot createTableSnapshot(PokerGame5.PokerState5 state, int myIndex) {
-        List<TableStateSnapshot.OpponentInfo> opponents = new ArrayList<>();
-        for (int i = 0; i < PokerGame5.NUM_PLAYERS; i++) {
+        int seats = state.seats();
+        List<TableStateSnapshot.OpponentInfo> opponents = new ArrayList<>(seats - 1);
+        for (int i = 0; i < seats; i++) {
             if (i != myIndex) {
                 PokerAICommon.Personality oppPersonality;
                 if (i == PokerGame5.HUMAN_PLAYER_INDEX) {
@@ -435,13 +466,13 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
             }
         }
         int currentBet = 0;
-        for (int i = 0; i < PokerGame5.NUM_PLAYERS; i++) {
+        for (int i = 0; i < seats; i++) {
             if (!state.foldedPlayers.contains(i) && state.bets[i] > currentBet) {
                 currentBet = state.bets[i];
             }
         }
         return new TableStateSnapshot(opponents, state.communityCards, state.pot, currentBet,
-            state.buttonPosition, state.currentPlayerIndex, state.round);
+            state.buttonPosition, state.currentPlayerIndex, state.round, seats);
     }
 
     @Override
@@ -451,7 +482,7 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
         this.isActive = !state.foldedPlayers.contains(playerIndex);
         this.declaredAllIn = state.declaredAllIn[playerIndex];
         this.holeCards = state.hands[playerIndex] != null ? new ArrayList<>(state.hands[playerIndex]) : new ArrayList<>();
-        this.position = Position.fromSeatIndex(playerIndex, state.buttonPosition);
+        this.position = Position.fromSeatIndex(playerIndex, state.buttonPosition, state.seats());
 
         TableStateSnapshot snapshot = createTableSnapshot(state, playerIndex);
         PokerAICommon.AIResponse internalResponse = decide(snapshot);
@@ -468,7 +499,7 @@ public class MultiPlayerPokerOpponentAI extends AbstractPokerAI implements Poker
         resetForNewHand();
         this.stack = state.stacks[playerIndex];
         this.holeCards = state.hands[playerIndex] != null ? new ArrayList<>(state.hands[playerIndex]) : new ArrayList<>();
-        this.position = Position.fromSeatIndex(playerIndex, state.buttonPosition);
+        this.position = Position.fromSeatIndex(playerIndex, state.buttonPosition, state.seats());
         handsPlayed++;
     }
 
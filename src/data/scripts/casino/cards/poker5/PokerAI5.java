@@ -25,5 +25,7 @@ public interface PokerAI5 {
 
     void recordAction(int playerIndex, String actionType);
 
+    void setSeed(long seed);
+
     void reset();
 }
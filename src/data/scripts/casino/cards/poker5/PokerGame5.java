@@ -7,12 +7,17 @@ import data.scripts.casino.cards.Deck;
 import data.scripts.casino.cards.GameType;
 import data.scripts.casino.cards.pokerShared.PokerAction;
 import data.scripts.casino.cards.pokerShared.PokerHandEvaluator;
+import data.scripts.casino.cards.pokerShared.PokerHandState;
 import data.scripts.casino.cards.pokerShared.PokerRound;
 import data.scripts.casino.cards.pokerShared.PokerUtils;
+import data.scripts.casino.shared.HandHistory;
 
 public class PokerGame5 {
 
-    public static final int NUM_PLAYERS = 5;
+    // Seat counts a table can be created with; seat 0 is always the human
+    public static final int MIN_PLAYERS = 3;
+    public static final int MAX_PLAYERS = 9;
+    public static final int DEFAULT_PLAYERS = 5;
     public static final int HUMAN_PLAYER_INDEX = 0;
 
     public static class SidePot {
@@ -54,62 +59,102 @@ public class PokerGame5 {
         public String[] lastPokerActions;
         public int foldWinner;
 
-        @SuppressWarnings("unchecked")
         public PokerState5() {
-            hands = (List<Card>[]) new List[NUM_PLAYERS];
-            for (int i = 0; i < NUM_PLAYERS; i++) {
+            this(DEFAULT_PLAYERS);
+        }
+
+        @SuppressWarnings("unchecked")
+        public PokerState5(int seats) {
+            if (seats < MIN_PLAYERS || seats > MAX_PLAYERS) {
+                throw new IllegalArgumentException("Unsupported seat count: " + seats);
+            }
+            hands = (List<Card>[]) new List[seats];
+            for (int i = 0; i < seats; i++) {
                 hands[i] = new ArrayList<>();
             }
             communityCards = new ArrayList<>();
-            stacks = new int[NUM_PLAYERS];
-            bets = new int[NUM_PLAYERS];
-            displayBets = new int[NUM_PLAYERS];
-            totalContributions = new int[NUM_PLAYERS];
-            hasActed = new boolean[NUM_PLAYERS];
-            declaredAllIn = new boolean[NUM_PLAYERS];
+            stacks = new int[seats];
+            bets = new int[seats];
+            displayBets = new int[seats];
+            totalContributions = new int[seats];
+            hasActed = new boolean[seats];
+            declaredAllIn = new boolean[seats];
             foldedPlayers = new HashSet<>();
             activePlayers = new HashSet<>();
             sidePots = new ArrayList<>();
-            handRanks = new PokerHandEvaluator.HandRank[NUM_PLAYERS];
+            handRanks = new PokerHandEvaluator.HandRank[seats];
             winners = new int[0];
-            lastPokerActions = new String[NUM_PLAYERS];
+            lastPokerActions = new String[seats];
             foldWinner = -1;
         }
+
+        public int seats() {
+            return stacks.length;
+        }
     }
 
+    private final int numPlayers;
     private final PokerState5 state;
     private final PokerAI5[] aiPlayers;
     private Deck deck;
-    private final int bigBlindAmount;
+    private int bigBlindAmount;
 
+    // Every hand's AI randomness derives from the session seed, so hand histories replay exactly
+    private final long sessionSeed;
+    private final Random handSeeds;
+    private final HandHistory.Recorder history;
+
+    // Hole plus community cards per seat, extended as cards are dealt
+    private final PokerHandState[] handStates;
+    private final int[] showdownWinnings;
+
+    /** A table with one seat per starting stack, {@link #MIN_PLAYERS} to {@link #MAX_PLAYERS} of them. */
     public PokerGame5(int[] startingStacks) {
         this(startingStacks, false);
     }
 
     PokerGame5(int[] startingStacks, boolean suspendedGameMarker) {
-        state = new PokerState5();
-        aiPlayers = new PokerAI5[NUM_PLAYERS];
+        this(startingStacks, suspendedGameMarker, new Random().nextLong(), true);
+    }
+
+    PokerGame5(int[] startingStacks, boolean suspendedGameMarker, long sessionSeed, boolean recordHistory) {
+        numPlayers = startingStacks.length;
+        state = new PokerState5(numPlayers);
+        handStates = new PokerHandState[numPlayers];
+        showdownWinnings = new int[numPlayers];
+        for (int i = 0; i < numPlayers; i++) {
+            handStates[i] = new PokerHandState();
+        }
+        aiPlayers = new PokerAI5[numPlayers];
         aiPlayers[HUMAN_PLAYER_INDEX] = null;
 
-        for (int i = 1; i < NUM_PLAYERS; i++) {
-            aiPlayers[i] = new MultiPlayerPokerOpponentAI(i);
+        this.sessionSeed = sessionSeed;
+        this.handSeeds = new Random(sessionSeed);
+        this.history = recordHistory ? HandHistory.newRecorder(HandHistory.GAME_POKER5, numPlayers, sessionSeed) : null;
+
+        for (int i = 1; i < numPlayers; i++) {
+            aiPlayers[i] = new MultiPlayerPokerOpponentAI(i, sessionSeed + i);
         }
 
         int avgStack = 0;
         for (int s : startingStacks) avgStack += s;
-        avgStack /= NUM_PLAYERS;
+        avgStack /= numPlayers;
         this.bigBlindAmount = PokerUtils.calculateBigBlind(avgStack);
 
-        System.arraycopy(startingStacks, 0, state.stacks, 0, NUM_PLAYERS);
+        System.arraycopy(startingStacks, 0, state.stacks, 0, numPlayers);
         state.bigBlind = bigBlindAmount;
         state.maxStack = startingStacks[HUMAN_PLAYER_INDEX];
-        state.buttonPosition = NUM_PLAYERS - 1;
+        state.buttonPosition = numPlayers - 1;
 
         if (!suspendedGameMarker) {
             startNewHand();
         }
     }
 
+    public int getNumPlayers() {
+        return numPlayers;
+    }
+
     public PokerState5 getState() {
         return state;
     }
@@ -118,40 +163,69 @@ public class PokerGame5 {
         return aiPlayers[playerIndex];
     }
 
+    /** Puts an AI in a seat, including the human one; used by headless self-play. */
+    void seatAI(int playerIndex, PokerAI5 ai) {
+        aiPlayers[playerIndex] = ai;
+    }
+
     public int getSBPosition() {
-        return (state.buttonPosition + 1) % NUM_PLAYERS;
+        return (state.buttonPosition + 1) % numPlayers;
     }
 
     public int getBBPosition() {
-        return (state.buttonPosition + 2) % NUM_PLAYERS;
+        return (state.buttonPosition + 2) % numPlayers;
     }
 
     public int getPlayerPosition(int playerIndex) {
-        return (playerIndex - state.buttonPosition + NUM_PLAYERS) % NUM_PLAYERS;
+        return (playerIndex - state.buttonPosition + numPlayers) % numPlayers;
     }
 
     public String getPositionName(int playerIndex) {
         if (!canPlay(playerIndex)) return "";
-        int pos = getPlayerPosition(playerIndex);
-        return switch (pos) {
-            case 0 -> "BTN";
-            case 1 -> "SB";
-            case 2 -> "BB";
-            case 3 -> "UTG";
-            case 4 -> "UTG+1";
-            default -> "P" + pos;
-        };
+        return Position.fromSeatIndex(playerIndex, state.buttonPosition, numPlayers).getShortName();
     }
 
     public int getBigBlindAmount() {
         return bigBlindAmount;
     }
 
+    void setBigBlindAmount(int bigBlind) {
+        bigBlindAmount = bigBlind;
+        state.bigBlind = bigBlind;
+    }
+
+    public long getSessionSeed() {
+        return sessionSeed;
+    }
+
     public void startNewHand() {
+        // The deck is reused between hands; shuffling returns every card to it
+        Deck shuffled = deck != null ? deck : new Deck(GameType.POKER);
+        shuffled.shuffle();
+        startNewHand(shuffled, handSeeds.nextLong());
+    }
+
+    /** Gives a suspended game a fresh deck holding none of the cards already in hands or on the board. */
+    void rebuildDeckAroundHeldCards() {
         deck = new Deck(GameType.POKER);
         deck.shuffle();
+        for (List<Card> hand : state.hands) {
+            if (hand != null) deck.removeUndealt(hand);
+        }
+        deck.removeUndealt(state.communityCards);
+    }
 
-        for (int i = 0; i < NUM_PLAYERS; i++) {
+    /** Deals from a prepared deck with the given AI seed; used directly when replaying hand histories. */
+    void startNewHand(Deck preparedDeck, long handSeed) {
+        if (history != null) {
+            history.beginHand(handSeed, state.buttonPosition, bigBlindAmount, state.stacks, preparedDeck.cards());
+        }
+        deck = preparedDeck;
+        for (int i = 0; i < numPlayers; i++) {
+            if (aiPlayers[i] != null) aiPlayers[i].setSeed(handSeed + i);
+        }
+
+        for (int i = 0; i < numPlayers; i++) {
             if (canPlay(i)) {
                 List<Card> hand = new ArrayList<>(2);
                 hand.add(deck.draw());
@@ -160,6 +234,7 @@ public class PokerGame5 {
             } else {
                 state.hands[i] = new ArrayList<>();
             }
+            handStates[i].reset(state.hands[i]);
         }
 
         state.communityCards = new ArrayList<>();
@@ -172,7 +247,7 @@ public class PokerGame5 {
         Arrays.fill(state.lastPokerActions, null);
         state.foldedPlayers.clear();
         state.activePlayers.clear();
-        for (int i = 0; i < NUM_PLAYERS; i++) {
+        for (int i = 0; i < numPlayers; i++) {
             if (state.stacks[i] > 0) {
                 state.activePlayers.add(i);
             }
@@ -195,8 +270,8 @@ public class PokerGame5 {
 
         evaluateHands();
 
-        for (int i = 1; i < NUM_PLAYERS; i++) {
-            aiPlayers[i].newHandStarted(i, state);
+        for (int i = 0; i < numPlayers; i++) {
+            if (aiPlayers[i] != null) aiPlayers[i].newHandStarted(i, state);
         }
     }
 
@@ -205,8 +280,8 @@ public class PokerGame5 {
         int bbPos = getBBPosition();
 
         if (!canPlay(sbPos)) {
-            for (int i = 1; i <= NUM_PLAYERS; i++) {
-                int candidate = (state.buttonPosition + 1 + i) % NUM_PLAYERS;
+            for (int i = 1; i <= numPlayers; i++) {
+                int candidate = (state.buttonPosition + 1 + i) % numPlayers;
                 if (canPlay(candidate) && candidate != bbPos) {
                     sbPos = candidate;
                     break;
@@ -215,8 +290,8 @@ public class PokerGame5 {
         }
 
         if (!canPlay(bbPos)) {
-            for (int i = 1; i <= NUM_PLAYERS; i++) {
-                int candidate = (sbPos + i) % NUM_PLAYERS;
+            for (int i = 1; i <= numPlayers; i++) {
+                int candidate = (sbPos + i) % numPlayers;
                 if (canPlay(candidate)) {
                     bbPos = candidate;
                     break;
@@ -257,15 +332,15 @@ public class PokerGame5 {
 
     public int getFirstToAct() {
         if (state.round == PokerRound.PREFLOP) {
-            return getNextActivePlayer((state.buttonPosition + 2) % NUM_PLAYERS);
+            return getNextActivePlayer((state.buttonPosition + 2) % numPlayers);
         } else {
             return getNextActivePlayer(state.buttonPosition);
         }
     }
 
     public int getNextActivePlayer(int from) {
-        for (int i = 1; i <= NUM_PLAYERS; i++) {
-            int next = (from + i) % NUM_PLAYERS;
+        for (int i = 1; i <= numPlayers; i++) {
+            int next = (from + i) % numPlayers;
             if (canAct(next)) {
                 return next;
             }
@@ -286,7 +361,7 @@ public class PokerGame5 {
 
     public int countPlayablePlayers() {
         int count = 0;
-        for (int i = 0; i < NUM_PLAYERS; i++) {
+        for (int i = 0; i < numPlayers; i++) {
             if (canPlay(i)) count++;
         }
         return count;
@@ -297,8 +372,8 @@ public class PokerGame5 {
     }
 
     private int findNextButtonPosition() {
-        for (int i = 1; i <= NUM_PLAYERS; i++) {
-            int nextPos = (state.buttonPosition + i) % NUM_PLAYERS;
+        for (int i = 1; i <= numPlayers; i++) {
+            int nextPos = (state.buttonPosition + i) % numPlayers;
             if (canPlay(nextPos)) {
                 return nextPos;
             }
@@ -313,7 +388,7 @@ public class PokerGame5 {
 
     public int getCurrentBet() {
         int maxBet = 0;
-        for (int i = 0; i < NUM_PLAYERS; i++) {
+        for (int i = 0; i < numPlayers; i++) {
             if (!state.foldedPlayers.contains(i) && state.bets[i] > maxBet) {
                 maxBet = state.bets[i];
             }
@@ -335,6 +410,10 @@ public class PokerGame5 {
         if (state.currentPlayerIndex != playerIndex && state.round != PokerRound.SHOWDOWN) return;
         if (state.foldedPlayers.contains(playerIndex)) return;
 
+        if (history != null) {
+            history.action(playerIndex, action, state.round, raiseAmount);
+        }
+
         switch (action) {
             case FOLD -> processFold(playerIndex);
             case CHECK -> processCheck(playerIndex);
@@ -353,8 +432,8 @@ public class PokerGame5 {
 
     private void notifyAIPlayersOfPokerAction(int actingPlayer, PokerAction action) {
         String actionStr = action.name();
-        for (int i = 1; i < NUM_PLAYERS; i++) {
-            if (i != actingPlayer) {
+        for (int i = 0; i < numPlayers; i++) {
+            if (i != actingPlayer && aiPlayers[i] != null) {
                 aiPlayers[i].recordAction(actingPlayer, actionStr);
             }
         }
@@ -398,7 +477,8 @@ public class PokerGame5 {
 
     private void processRaise(int playerIndex, int totalBetAmount) {
         int currentBet = getCurrentBet();
-        int raiseIncrement = totalBetAmount - currentBet;
+        // A raise is at least the minimum raise; short stacks go all-in for less
+        totalBetAmount = Math.max(totalBetAmount, getMinRaiseAmount());
         int actualAmount = Math.min(totalBetAmount - state.bets[playerIndex], state.stacks[playerIndex]);
 
         state.stacks[playerIndex] -= actualAmount;
@@ -407,14 +487,16 @@ public class PokerGame5 {
         state.totalContributions[playerIndex] += actualAmount;
         state.pot += actualAmount;
 
-        state.lastRaiseAmount = raiseIncrement;
-        state.lastRaisePlayerIndex = playerIndex;
+        if (state.bets[playerIndex] > currentBet) {
+            state.lastRaiseAmount = state.bets[playerIndex] - currentBet;
+            state.lastRaisePlayerIndex = playerIndex;
+        }
 
         if (state.stacks[playerIndex] <= 0) {
             state.declaredAllIn[playerIndex] = true;
         }
 
-        for (int i = 0; i < NUM_PLAYERS; i++) {
+        for (int i = 0; i < numPlayers; i++) {
             if (i != playerIndex && canAct(i)) {
                 state.hasActed[i] = false;
             }
@@ -438,7 +520,7 @@ public class PokerGame5 {
             state.lastRaiseAmount = state.bets[playerIndex] - currentBet;
             state.lastRaisePlayerIndex = playerIndex;
 
-            for (int i = 0; i < NUM_PLAYERS; i++) {
+            for (int i = 0; i < numPlayers; i++) {
                 if (i != playerIndex && canAct(i)) {
                     state.hasActed[i] = false;
                 }
@@ -450,7 +532,7 @@ public class PokerGame5 {
 
     private void calculateSidePots() {
         List<Integer> allContributors = new ArrayList<>();
-        for (int i = 0; i < NUM_PLAYERS; i++) {
+        for (int i = 0; i < numPlayers; i++) {
             if (state.totalContributions[i] > 0) {
                 allContributors.add(i);
             }
@@ -511,7 +593,7 @@ public class PokerGame5 {
         int maxBetAmongActors = 0;
         int activeActorCount = 0;
 
-        for (int i = 0; i < NUM_PLAYERS; i++) {
+        for (int i = 0; i < numPlayers; i++) {
             if (state.foldedPlayers.contains(i)) continue;
             if (canAct(i)) {
                 activeActorCount++;
@@ -525,7 +607,7 @@ public class PokerGame5 {
             return true;
         }
 
-        for (int i = 0; i < NUM_PLAYERS; i++) {
+        for (int i = 0; i < numPlayers; i++) {
             if (state.foldedPlayers.contains(i)) continue;
             if (canAct(i)) {
                 if (state.bets[i] != maxBetAmongActors) {
@@ -573,10 +655,9 @@ public class PokerGame5 {
 
     public void evaluateHands() {
         if (state.communityCards.size() >= 3) {
-            for (int i = 0; i < NUM_PLAYERS; i++) {
-                if (!state.foldedPlayers.contains(i) && state.hands[i] != null) {
-                    PokerHandEvaluator.HandScore score = PokerHandEvaluator.evaluate(state.hands[i], state.communityCards);
-                    state.handRanks[i] = score.rank;
+            for (int i = 0; i < numPlayers; i++) {
+                if (!state.foldedPlayers.contains(i) && state.hands[i] != null && !state.hands[i].isEmpty()) {
+                    state.handRanks[i] = syncHandState(i).rank();
                 }
             }
         } else {
@@ -584,6 +665,16 @@ public class PokerGame5 {
         }
     }
 
+    private PokerHandState syncHandState(int playerIndex) {
+        return handStates[playerIndex].sync(state.hands[playerIndex], state.communityCards);
+    }
+
+    /** Packed strength of a seat's current best hand; see {@link PokerHandEvaluator#evaluatePacked}. */
+    public int getHandStrength(int playerIndex) {
+        List<Card> hole = state.hands[playerIndex];
+        return hole != null && !hole.isEmpty() ? syncHandState(playerIndex).strength() : 0;
+    }
+
     public void calculateSidePotsFromState() {
         state.sidePots.clear();
         calculateSidePots();
@@ -595,66 +686,84 @@ public class PokerGame5 {
 
     public void determineWinners() {
         if (state.round != PokerRound.SHOWDOWN) return;
-        if (state.foldWinner >= 0) return;
+        if (state.foldWinner >= 0) {
+            recordHandEnd();
+            return;
+        }
 
-        List<PokerHandEvaluator.PlayerScore> scores = new ArrayList<>();
-        for (int i = 0; i < NUM_PLAYERS; i++) {
+        // Strengths come from the per-seat hand states; pots are then settled on seat bitmasks
+        int liveMask = 0;
+        for (int i = 0; i < numPlayers; i++) {
             if (!state.foldedPlayers.contains(i) && state.hands[i] != null && !state.hands[i].isEmpty()) {
-                PokerHandEvaluator.HandScore score = PokerHandEvaluator.evaluate(state.hands[i], state.communityCards);
-                scores.add(new PokerHandEvaluator.PlayerScore(i, score));
+                syncHandState(i);
+                liveMask |= 1 << i;
             }
         }
 
-        if (scores.isEmpty()) return;
-
-        scores.sort((a, b) -> b.score.compareTo(a.score));
+        if (liveMask == 0) return;
 
-        Map<Integer, Integer> winnings = new HashMap<>();
-
-        for (SidePot pot : state.sidePots) {
-            List<PokerHandEvaluator.PlayerScore> eligibleScores = new ArrayList<>();
-            for (PokerHandEvaluator.PlayerScore ps : scores) {
-                if (pot.eligiblePlayers.contains(ps.playerIndex)) {
-                    eligibleScores.add(ps);
-                }
-            }
+        Arrays.fill(showdownWinnings, 0);
+        int winnerMask = 0;
+        int totalPot = 0;
 
-            if (eligibleScores.isEmpty()) continue;
+        for (int p = 0, n = state.sidePots.size(); p < n; p++) {
+            SidePot pot = state.sidePots.get(p);
+            totalPot += pot.amount;
 
-            eligibleScores.sort((a, b) -> b.score.compareTo(a.score));
+            int eligible = 0;
+            for (int seat : pot.eligiblePlayers) eligible |= 1 << seat;
+            eligible &= liveMask;
+            if (eligible == 0) continue;
 
-            List<Integer> potWinners = new ArrayList<>();
-            PokerHandEvaluator.HandScore bestScore = eligibleScores.get(0).score;
-            for (PokerHandEvaluator.PlayerScore ps : eligibleScores) {
-                if (ps.score.equals(bestScore)) {
-                    potWinners.add(ps.playerIndex);
+            int best = 0;
+            int potWinners = 0;
+            for (int i = 0; i < numPlayers; i++) {
+                if ((eligible & (1 << i)) == 0) continue;
+                int strength = handStates[i].strength();
+                if (strength > best) {
+                    best = strength;
+                    potWinners = 1 << i;
+                } else if (strength == best) {
+                    potWinners |= 1 << i;
                 }
             }
 
-            int share = pot.amount / potWinners.size();
-            int remainder = pot.amount % potWinners.size();
-
-            for (int w : potWinners) {
-                winnings.merge(w, share, Integer::sum);
+            int count = Integer.bitCount(potWinners);
+            int share = pot.amount / count;
+            for (int i = 0; i < numPlayers; i++) {
+                if ((potWinners & (1 << i)) != 0) showdownWinnings[i] += share;
             }
 
+            // Odd chips go to the winner closest to the button
+            int remainder = pot.amount % count;
             if (remainder > 0) {
-                int closestToButton = potWinners.stream()
-                    .min((a, b) -> Integer.compare(
-                        (a - state.buttonPosition + NUM_PLAYERS) % NUM_PLAYERS,
-                        (b - state.buttonPosition + NUM_PLAYERS) % NUM_PLAYERS))
-                    .orElse(potWinners.get(0));
-                winnings.merge(closestToButton, remainder, Integer::sum);
+                for (int offset = 0; offset < numPlayers; offset++) {
+                    int seat = (state.buttonPosition + offset) % numPlayers;
+                    if ((potWinners & (1 << seat)) != 0) {
+                        showdownWinnings[seat] += remainder;
+                        break;
+                    }
+                }
             }
+            winnerMask |= potWinners;
         }
 
-        for (Map.Entry<Integer, Integer> entry : winnings.entrySet()) {
-            state.stacks[entry.getKey()] += entry.getValue();
+        state.winners = new int[Integer.bitCount(winnerMask)];
+        for (int i = 0, w = 0; i < numPlayers; i++) {
+            state.stacks[i] += showdownWinnings[i];
+            if ((winnerMask & (1 << i)) != 0) state.winners[w++] = i;
         }
 
-        state.winners = winnings.keySet().stream().mapToInt(Integer::intValue).toArray();
-        state.lastPotWon = state.sidePots.stream().mapToInt(p -> p.amount).sum();
+        state.lastPotWon = totalPot;
         state.pot = 0;
         state.sidePots.clear();
+        recordHandEnd();
+    }
+
+    /** Closes the current hand in the hand history, e.g. when the table is left or suspended mid-hand. */
+    public void recordHandEnd() {
+        if (history != null) {
+            history.endHand(state.stacks);
+        }
     }
 }
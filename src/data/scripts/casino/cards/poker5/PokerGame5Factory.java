@@ -9,16 +9,19 @@ import data.scripts.casino.cards.pokerShared.PokerUtils;
 
 public class PokerGame5Factory {
 
+    // The per-key memory format predates configurable tables and always held five seats
+    public static final int LEGACY_SEATS = 5;
+
     @SuppressWarnings("unchecked")
     public static PokerGame5 restoreFromMemory(MemoryAPI mem) {
         if (!mem.contains("$ipc_poker5_pot")) return null;
 
-        int[] stacks = new int[PokerGame5.NUM_PLAYERS];
-        int[] bets = new int[PokerGame5.NUM_PLAYERS];
-        boolean[] folded = new boolean[PokerGame5.NUM_PLAYERS];
-        boolean[] allIn = new boolean[PokerGame5.NUM_PLAYERS];
-        boolean[] hasActed = new boolean[PokerGame5.NUM_PLAYERS];
-        List<Card>[] hands = new ArrayList[PokerGame5.NUM_PLAYERS];
+        int[] stacks = new int[LEGACY_SEATS];
+        int[] bets = new int[LEGACY_SEATS];
+        boolean[] folded = new boolean[LEGACY_SEATS];
+        boolean[] allIn = new boolean[LEGACY_SEATS];
+        boolean[] hasActed = new boolean[LEGACY_SEATS];
+        List<Card>[] hands = new ArrayList[LEGACY_SEATS];
 
         int buttonPosition = mem.getInt("$ipc_poker5_button_position");
         int bigBlind = mem.getInt("$ipc_poker5_big_blind");
@@ -33,7 +36,7 @@ public class PokerGame5Factory {
             if (card != null) communityCards.add(card);
         }
 
-        for (int i = 0; i < PokerGame5.NUM_PLAYERS; i++) {
+        for (int i = 0; i < LEGACY_SEATS; i++) {
             stacks[i] = mem.getInt("$ipc_poker5_stack_" + i);
             bets[i] = mem.getInt("$ipc_poker5_bet_" + i);
             folded[i] = mem.getBoolean("$ipc_poker5_folded_" + i);
@@ -52,6 +55,47 @@ public class PokerGame5Factory {
             buttonPosition, bigBlind, pot, round, currentPlayer);
     }
 
+    /**
+     * Rebuilds a game from a fully decoded state (see GameStateCodec), keeping contributions
+     * and side pots exactly as they were when the game was suspended.
+     */
+    public static PokerGame5 restoreFromState(PokerGame5.PokerState5 saved) {
+        PokerGame5 game = new PokerGame5(saved.stacks, true);
+        PokerGame5.PokerState5 state = game.getState();
+
+        int seats = saved.seats();
+        for (int i = 0; i < seats; i++) {
+            state.hands[i] = new ArrayList<>(saved.hands[i]);
+        }
+        state.communityCards = new ArrayList<>(saved.communityCards);
+        System.arraycopy(saved.stacks, 0, state.stacks, 0, seats);
+        System.arraycopy(saved.bets, 0, state.bets, 0, seats);
+        System.arraycopy(saved.displayBets, 0, state.displayBets, 0, seats);
+        System.arraycopy(saved.totalContributions, 0, state.totalContributions, 0, seats);
+        System.arraycopy(saved.hasActed, 0, state.hasActed, 0, seats);
+        System.arraycopy(saved.declaredAllIn, 0, state.declaredAllIn, 0, seats);
+        state.foldedPlayers.addAll(saved.foldedPlayers);
+        state.activePlayers.addAll(saved.activePlayers);
+        state.sidePots.addAll(saved.sidePots);
+
+        state.pot = saved.pot;
+        state.mainPotCap = saved.mainPotCap;
+        state.buttonPosition = saved.buttonPosition;
+        state.round = saved.round;
+        state.currentPlayerIndex = saved.currentPlayerIndex;
+        state.lastRaiseAmount = saved.lastRaiseAmount;
+        state.lastRaisePlayerIndex = saved.lastRaisePlayerIndex;
+        state.lastPotWon = saved.lastPotWon;
+        state.bigBlind = saved.bigBlind;
+        state.maxStack = saved.maxStack;
+        state.foldWinner = saved.foldWinner;
+        state.winners = saved.winners;
+
+        game.evaluateHands();
+
+        return game;
+    }
+
     public static PokerGame5 createSuspendedGame(
             int[] stacks,
             int[] bets,
@@ -76,7 +120,7 @@ public class PokerGame5Factory {
         state.currentPlayerIndex = currentPlayerIndex;
         state.pot = pot;
 
-        for (int i = 0; i < PokerGame5.NUM_PLAYERS; i++) {
+        for (int i = 0; i < stacks.length; i++) {
             state.stacks[i] = stacks[i];
             state.bets[i] = bets[i];
             state.displayBets[i] = bets[i];
@@ -93,6 +137,7 @@ public class PokerGame5Factory {
         }
 
         state.communityCards = new ArrayList<>(communityCards);
+        game.rebuildDeckAroundHeldCards();
 
         game.evaluateHands();
 
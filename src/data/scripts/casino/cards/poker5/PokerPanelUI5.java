@@ -18,12 +18,16 @@ import com.fs.starfarer.api.ui.TooltipMakerAPI;
 import com.fs.starfarer.api.ui.UIComponentAPI;
 import com.fs.starfarer.api.campaign.CustomVisualDialogDelegate.DialogCallbacks;
 
+import data.scripts.casino.CasinoConfig;
 import data.scripts.casino.Strings;
 import data.scripts.casino.cards.Card;
 import data.scripts.casino.cards.CardFlipAnimation;
 import data.scripts.casino.shared.BaseCardGamePanelUI;
 import data.scripts.casino.shared.CardRenderingUtils;
+import data.scripts.casino.shared.CasinoMetrics;
+import data.scripts.casino.shared.MetricsOverlay;
 import data.scripts.casino.cards.poker5.PokerGame5.PokerState5;
+import data.scripts.casino.cards.pokerShared.LiveEquityEstimator;
 import data.scripts.casino.cards.pokerShared.PokerAction;
 import data.scripts.casino.cards.pokerShared.PokerHandEvaluator;
 import data.scripts.casino.cards.pokerShared.PokerUIUtils;
@@ -44,7 +48,6 @@ public class PokerPanelUI5 extends BaseCardGamePanelUI<PokerGame5> {
     private static final float RAISE_BUTTON_WIDTH = 180f;
     private static final int HAND_SIZE = 2;
     private static final int MAX_COMMUNITY_CARDS = 5;
-    private static final int NUM_OPPONENTS = PokerGame5.NUM_PLAYERS - 1;
 
     private static final Color COLOR_PLAYER = new Color(100, 200, 255);
     private static final Color COLOR_OPPONENT = new Color(255, 150, 100);
@@ -64,7 +67,8 @@ public class PokerPanelUI5 extends BaseCardGamePanelUI<PokerGame5> {
     private static final float AI_THINK_DELAY = 5.0f;
 
     private final CardFlipAnimation[] playerCardAnimations = new CardFlipAnimation[HAND_SIZE];
-    private final CardFlipAnimation[][] opponentCardAnimations = new CardFlipAnimation[NUM_OPPONENTS][HAND_SIZE];
+    private final int numOpponents;
+    private final CardFlipAnimation[][] opponentCardAnimations;
     private final CardFlipAnimation[] communityCardAnimations = new CardFlipAnimation[MAX_COMMUNITY_CARDS];
 
     private PokerRound lastAnimatedRound = null;
@@ -81,13 +85,17 @@ public class PokerPanelUI5 extends BaseCardGamePanelUI<PokerGame5> {
     private LabelAPI waitingLabel;
     private LabelAPI resultLabel;
 
-    private final LabelAPI[] playerNameLabels = new LabelAPI[NUM_OPPONENTS];
-    private final LabelAPI[] opponentStackLabels = new LabelAPI[NUM_OPPONENTS];
-    private final LabelAPI[] opponentActionLabels = new LabelAPI[NUM_OPPONENTS];
-    private final LabelAPI[] opponentBetLabels = new LabelAPI[NUM_OPPONENTS];
+    private final LabelAPI[] playerNameLabels;
+    private final LabelAPI[] opponentStackLabels;
+    private final LabelAPI[] opponentActionLabels;
+    private final LabelAPI[] opponentBetLabels;
     private LabelAPI playerStackLabel;
     private LabelAPI playerBetLabel;
     private LabelAPI playerHandRankLabel;
+    private LabelAPI equityHudLabel;
+
+    private final LiveEquityEstimator equityEstimator = new LiveEquityEstimator();
+    private LiveEquityEstimator.Estimate shownEstimate;
 
     private int lastPot = -1;
     private PokerRound lastRound = null;
@@ -101,6 +109,11 @@ public class PokerPanelUI5 extends BaseCardGamePanelUI<PokerGame5> {
     private float cachedPlayerStartX = 0f;
     private float cachedPlayerY = 0f;
 
+    // Metrics
+    private final CasinoMetrics.FrameTimer renderTimer = CasinoMetrics.frameTimer("poker5.panel.render");
+    private final CasinoMetrics.FrameTimer advanceTimer = CasinoMetrics.frameTimer("poker5.panel.advance");
+    private final MetricsOverlay metricsOverlay = new MetricsOverlay();
+
     public interface PokerActionCallback5 {
         void onPlayerAction(PokerAction action, int raiseAmount);
         void onNextHand();
@@ -113,11 +126,17 @@ public class PokerPanelUI5 extends BaseCardGamePanelUI<PokerGame5> {
     public PokerPanelUI5(PokerGame5 game, PokerActionCallback5 callback) {
         super(game);
         this.actionCallback = callback;
+        this.numOpponents = game.getNumPlayers() - 1;
+        this.opponentCardAnimations = new CardFlipAnimation[numOpponents][HAND_SIZE];
+        this.playerNameLabels = new LabelAPI[numOpponents];
+        this.opponentStackLabels = new LabelAPI[numOpponents];
+        this.opponentActionLabels = new LabelAPI[numOpponents];
+        this.opponentBetLabels = new LabelAPI[numOpponents];
 
         for (int i = 0; i < HAND_SIZE; i++) {
             playerCardAnimations[i] = new CardFlipAnimation();
         }
-        for (int i = 0; i < NUM_OPPONENTS; i++) {
+        for (int i = 0; i < numOpponents; i++) {
             for (int j = 0; j < HAND_SIZE; j++) {
                 opponentCardAnimations[i][j] = new CardFlipAnimation();
             }
@@ -135,6 +154,7 @@ public class PokerPanelUI5 extends BaseCardGamePanelUI<PokerGame5> {
         currentAITurn = -1;
         skipRequested = false;
         wasMousePressed = false;
+        metricsOverlay.attach(panel);
     }
 
     @Override
@@ -225,43 +245,75 @@ public class PokerPanelUI5 extends BaseCardGamePanelUI<PokerGame5> {
         final float arcLabelBottomY = PANEL_HEIGHT * 0.22f;
         final float cornerLabelY = PANEL_HEIGHT * 0.455f;
 
-        for (int i = 0; i < NUM_OPPONENTS; i++) {
-            final float t = (float) i / (NUM_OPPONENTS - 1);
-            final float angle = (float) (Math.PI * (0.15 + 0.7 * t));
+        final float labelWidth = getSeatLabelWidth(arcRadiusX);
 
-            final float x = centerX - arcRadiusX * (float) Math.cos(angle);
-            final float y = (i == 0 || i == 3) ? cornerLabelY : arcLabelBottomY - (arcLabelBottomY - arcLabelTopY) * (1f - (float) Math.sin(angle));
+        for (int i = 0; i < numOpponents; i++) {
+            final float x = centerX + arcRadiusX * getSeatOffsetX(i);
+            final float y = isCornerSeat(i) ? cornerLabelY : arcLabelBottomY - (arcLabelBottomY - arcLabelTopY) * (1f - getSeatLift(i));
 
             playerNameLabels[i] = settings.createLabel("", Fonts.DEFAULT_SMALL);
             playerNameLabels[i].setColor(COLOR_OPPONENT);
             playerNameLabels[i].setAlignment(Alignment.MID);
             panel.addComponent((UIComponentAPI) playerNameLabels[i])
-                .inTL(x - 70f, y)
-                .setSize(140f, 16f);
+                .inTL(x - labelWidth / 2f, y)
+                .setSize(labelWidth, 16f);
 
             opponentStackLabels[i] = settings.createLabel("", Fonts.DEFAULT_SMALL);
             opponentStackLabels[i].setColor(COLOR_OPPONENT);
             opponentStackLabels[i].setAlignment(Alignment.MID);
             panel.addComponent((UIComponentAPI) opponentStackLabels[i])
-                .inTL(x - 70f, y + 16f)
-                .setSize(140f, 16f);
+                .inTL(x - labelWidth / 2f, y + 16f)
+                .setSize(labelWidth, 16f);
 
             opponentActionLabels[i] = settings.createLabel("", Fonts.DEFAULT_SMALL);
             opponentActionLabels[i].setColor(Color.YELLOW);
             opponentActionLabels[i].setAlignment(Alignment.MID);
             panel.addComponent((UIComponentAPI) opponentActionLabels[i])
-                .inTL(x - 70f, y + 32f)
-                .setSize(140f, 16f);
+                .inTL(x - labelWidth / 2f, y + 32f)
+                .setSize(labelWidth, 16f);
 
             opponentBetLabels[i] = settings.createLabel("", Fonts.DEFAULT_SMALL);
             opponentBetLabels[i].setColor(new Color(200, 200, 100));
             opponentBetLabels[i].setAlignment(Alignment.MID);
             panel.addComponent((UIComponentAPI) opponentBetLabels[i])
-                .inTL(x - 70f, y + 48f)
-                .setSize(140f, 16f);
+                .inTL(x - labelWidth / 2f, y + 48f)
+                .setSize(labelWidth, 16f);
         }
     }
 
+    // Tables of up to five seats keep the original even-angle arc; larger ones are spaced evenly across
+    // the table so neighbouring hands don't collide near the ends
+    private static final int ARC_LAYOUT_MAX_OPPONENTS = 4;
+
+    /** Horizontal offset of an opponent seat from the table centre, as a fraction of the arc radius. */
+    private float getSeatOffsetX(int i) {
+        final float t = numOpponents > 1 ? (float) i / (numOpponents - 1) : 0.5f;
+        if (numOpponents <= ARC_LAYOUT_MAX_OPPONENTS) {
+            return -(float) Math.cos(Math.PI * (0.15 + 0.7 * t));
+        }
+        return -0.95f + 1.9f * t;
+    }
+
+    /** Height of an opponent seat on the arc: 0 at its ends, 1 at its top. */
+    private float getSeatLift(int i) {
+        final float x = getSeatOffsetX(i);
+        return (float) Math.sqrt(Math.max(0f, 1f - x * x));
+    }
+
+    private boolean isCornerSeat(int i) {
+        return i == 0 || i == numOpponents - 1;
+    }
+
+    private float getSeatLabelWidth(float arcRadiusX) {
+        if (numOpponents <= ARC_LAYOUT_MAX_OPPONENTS) return 140f;
+        return Math.min(140f, arcRadiusX * 1.9f / (numOpponents - 1));
+    }
+
+    /** Distance between an opponent's two cards; crowded tables overlap them. */
+    private float getOpponentCardStep() {
+        return numOpponents <= ARC_LAYOUT_MAX_OPPONENTS ? CARD_WIDTH + CARD_SPACING : CARD_WIDTH * 0.5f;
+    }
+
     private void createPlayerStackLabel() {
         final float centerX = PANEL_WIDTH / 2f;
         final float cardRightEdge = centerX + (HAND_SIZE * CARD_WIDTH + CARD_SPACING) / 2f;
@@ -289,6 +341,15 @@ public class PokerPanelUI5 extends BaseCardGamePanelUI<PokerGame5> {
         panel.addComponent((UIComponentAPI) playerBetLabel)
             .inTL(labelX, cardCenterY + 12f)
             .setSize(150f, 16f);
+
+        final float cardLeftEdge = centerX - (HAND_SIZE * CARD_WIDTH + CARD_SPACING) / 2f;
+        equityHudLabel = settings.createLabel("", Fonts.DEFAULT_SMALL);
+        equityHudLabel.setColor(PokerUIUtils.COLOR_EQUITY_HUD);
+        equityHudLabel.setAlignment(Alignment.RMID);
+        panel.addComponent((UIComponentAPI) equityHudLabel)
+            .inTL(cardLeftEdge - 15f - 320f, cardCenterY - CARD_HEIGHT / 2f)
+            .setSize(320f, 60f);
+        equityHudLabel.setOpacity(0f);
     }
 
     private void createNextHandButton() {
@@ -427,6 +488,15 @@ public class PokerPanelUI5 extends BaseCardGamePanelUI<PokerGame5> {
     }
 
     public final void renderBelow(float alphaMult) {
+        renderTimer.begin();
+        try {
+            renderPanel(alphaMult);
+        } finally {
+            renderTimer.end();
+        }
+    }
+
+    private void renderPanel(float alphaMult) {
         final PositionAPI pos = panel.getPosition();
         final float x = pos.getX();
         final float y = pos.getY();
@@ -459,6 +529,7 @@ public class PokerPanelUI5 extends BaseCardGamePanelUI<PokerGame5> {
         updateWaitingLabel(state);
         updatePlayerLabel(state);
         updateOpponentLabels(state);
+        updateEquityHud(state);
     }
 
     private void updateRoundLabel(PokerState5 state) {
@@ -530,23 +601,44 @@ public class PokerPanelUI5 extends BaseCardGamePanelUI<PokerGame5> {
         playerStackLabel.setColor(isBust ? COLOR_FOLDED : getPlayerColor(isFolded, isCurrentTurn, state.declaredAllIn[playerIdx], COLOR_PLAYER));
     }
 
+    private void updateEquityHud(PokerState5 state) {
+        final int playerIdx = PokerGame5.HUMAN_PLAYER_INDEX;
+        final List<Card> hand = state.hands[playerIdx];
+        int opponents = 0;
+        for (int i = 0; i < game.getNumPlayers(); i++) {
+            if (i != playerIdx && game.isActive(i)) opponents++;
+        }
+
+        final boolean show = CasinoConfig.POKER_EQUITY_HUD_ENABLED && hand != null && hand.size() == HAND_SIZE
+            && state.communityCards != null && state.round != PokerRound.SHOWDOWN
+            && !state.foldedPlayers.contains(playerIdx) && opponents > 0;
+        if (!show) {
+            equityEstimator.clear();
+            shownEstimate = null;
+            equityHudLabel.setOpacity(0f);
+            return;
+        }
+
+        equityEstimator.update(hand, state.communityCards, opponents, CasinoConfig.poker().equityHudSamples());
+        final LiveEquityEstimator.Estimate estimate = equityEstimator.latest();
+        if (estimate == null) {
+            equityHudLabel.setOpacity(0f);
+            return;
+        }
+        if (estimate != shownEstimate) {
+            shownEstimate = estimate;
+            equityHudLabel.setText(PokerUIUtils.formatEquityHud(estimate, opponents));
+        }
+        equityHudLabel.setOpacity(1f);
+    }
+
     private String formatHandRank(PokerHandEvaluator.HandRank rank) {
         if (rank == null) return "";
-        return switch (rank) {
-            case HIGH_CARD -> Strings.get("poker_hand_rank.high_card");
-            case PAIR -> Strings.get("poker_hand_rank.pair");
-            case TWO_PAIR -> Strings.get("poker_hand_rank.two_pair");
-            case THREE_OF_A_KIND -> Strings.get("poker_hand_rank.three_of_a_kind");
-            case STRAIGHT -> Strings.get("poker_hand_rank.straight");
-            case FLUSH -> Strings.get("poker_hand_rank.flush");
-            case FULL_HOUSE -> Strings.get("poker_hand_rank.full_house");
-            case FOUR_OF_A_KIND -> Strings.get("poker_hand_rank.four_of_a_kind");
-            case STRAIGHT_FLUSH -> Strings.get("poker_hand_rank.straight_flush");
-        };
+        return PokerUIUtils.getHandRankName(rank);
     }
 
     private void updateOpponentLabels(PokerState5 state) {
-        for (int i = 0; i < NUM_OPPONENTS; i++) {
+        for (int i = 0; i < numOpponents; i++) {
             final int playerIdx = i + 1;
             final boolean isFolded = state.foldedPlayers.contains(playerIdx);
             final boolean isAllIn = state.declaredAllIn[playerIdx];
@@ -728,20 +820,18 @@ public class PokerPanelUI5 extends BaseCardGamePanelUI<PokerGame5> {
 
         final int currentActor = waitingForAI ? currentAITurn : state.currentPlayerIndex;
 
-        for (int i = 0; i < NUM_OPPONENTS; i++) {
+        for (int i = 0; i < numOpponents; i++) {
             final int playerIdx = i + 1;
             if (state.foldedPlayers.contains(playerIdx)) continue;
 
             final List<Card> cards = state.hands[playerIdx];
             if (cards == null || cards.isEmpty()) continue;
 
-            final float t = (float) i / (NUM_OPPONENTS - 1);
-            final float angle = (float) (Math.PI * (0.15 + 0.7 * t));
-
-            final float handX = cx - arcRadiusX * (float) Math.cos(angle);
-            final float handY = (i == 0 || i == 3) ? panelY + panelH * 0.55f : arcBottomY + (arcTopY - arcBottomY) * (1f - (float) Math.sin(angle));
+            final float handX = cx + arcRadiusX * getSeatOffsetX(i);
+            final float handY = isCornerSeat(i) ? panelY + panelH * 0.55f : arcBottomY + (arcTopY - arcBottomY) * (1f - getSeatLift(i));
 
-            final float totalWidth = HAND_SIZE * CARD_WIDTH + CARD_SPACING;
+            final float cardStep = getOpponentCardStep();
+            final float totalWidth = (HAND_SIZE - 1) * cardStep + CARD_WIDTH;
             final float startX = handX - totalWidth / 2f;
 
             final int stack = state.stacks[playerIdx];
@@ -755,7 +845,7 @@ public class PokerPanelUI5 extends BaseCardGamePanelUI<PokerGame5> {
 
             for (int j = 0; j < cards.size() && j < HAND_SIZE; j++) {
                 final Card card = cards.get(j);
-                final float cardX = startX + j * (CARD_WIDTH + CARD_SPACING);
+                final float cardX = startX + j * cardStep;
                 final boolean isOpponentWinner = state.round == PokerRound.SHOWDOWN && isPlayerWinner(state.winners, playerIdx);
                 if (isOpponentTurn || isOpponentWinner) {
                     CardRenderingUtils.renderCardHighlightBorder(cardX, handY, COLOR_HIGHLIGHT, alphaMult * 0.8f);
@@ -770,6 +860,16 @@ public class PokerPanelUI5 extends BaseCardGamePanelUI<PokerGame5> {
     }
 
     public final void advance(float amount) {
+        metricsOverlay.advance(amount);
+        advanceTimer.begin();
+        try {
+            advancePanel(amount);
+        } finally {
+            advanceTimer.end();
+        }
+    }
+
+    private void advancePanel(float amount) {
         final boolean mouseDown = Mouse.isButtonDown(0);
         
         if (waitingForAI) {
@@ -799,7 +899,7 @@ public class PokerPanelUI5 extends BaseCardGamePanelUI<PokerGame5> {
         for (int i = 0; i < HAND_SIZE; i++) {
             playerCardAnimations[i].advance(amount);
         }
-        for (int i = 0; i < NUM_OPPONENTS; i++) {
+        for (int i = 0; i < numOpponents; i++) {
             for (int j = 0; j < HAND_SIZE; j++) {
                 opponentCardAnimations[i][j].advance(amount);
             }
@@ -871,7 +971,7 @@ public class PokerPanelUI5 extends BaseCardGamePanelUI<PokerGame5> {
             previousCommunityCount, currentCommunityCount, CardFlipAnimation.STAGGER_DELAY);
 
         if (state.round == PokerRound.SHOWDOWN && previousRound != PokerRound.SHOWDOWN) {
-            for (int i = 0; i < NUM_OPPONENTS; i++) {
+            for (int i = 0; i < numOpponents; i++) {
                 final int playerIdx = i + 1;
                 if (!state.foldedPlayers.contains(playerIdx)) {
                     PokerUIUtils.triggerOpponentAnimations(opponentCardAnimations[i], 
@@ -1,11 +1,25 @@
 package data.scripts.casino.cards.poker5;
 
 public enum Position {
-    BUTTON,
-    SMALL_BLIND,
-    BIG_BLIND,
-    UTG,
-    CUT_OFF;
+    BUTTON("BTN"),
+    SMALL_BLIND("SB"),
+    BIG_BLIND("BB"),
+    UTG("UTG"),
+    UTG_1("UTG+1"),
+    MIDDLE("MP"),
+    LOJACK("LJ"),
+    HIJACK("HJ"),
+    CUT_OFF("CO");
+
+    private final String shortName;
+
+    Position(String shortName) {
+        this.shortName = shortName;
+    }
+
+    public String getShortName() {
+        return shortName;
+    }
 
     public boolean isLatePosition() {
         return this == BUTTON || this == CUT_OFF;
@@ -24,19 +38,34 @@ public enum Position {
             case SMALL_BLIND -> 0;
             case BIG_BLIND -> 1;
             case UTG -> 2;
-            case CUT_OFF -> 3;
-            case BUTTON -> 4;
+            case UTG_1 -> 3;
+            case MIDDLE -> 4;
+            case LOJACK -> 5;
+            case HIJACK -> 6;
+            case CUT_OFF -> 7;
+            case BUTTON -> 8;
         };
     }
 
-    public static Position fromSeatIndex(int seatIndex, int buttonSeat) {
-        int relativePos = (seatIndex - buttonSeat + 5) % 5;
+    /**
+     * Names a seat by where it sits relative to the button at a table of {@code seats}. The first seat
+     * after the big blind is always UTG; the rest are named back from the button (CO, HJ, LJ, MP,
+     * UTG+1), so short-handed tables drop the early positions first.
+     */
+    public static Position fromSeatIndex(int seatIndex, int buttonSeat, int seats) {
+        int relativePos = (seatIndex - buttonSeat + seats) % seats;
         return switch (relativePos) {
+            case 0 -> BUTTON;
             case 1 -> SMALL_BLIND;
             case 2 -> BIG_BLIND;
             case 3 -> UTG;
-            case 4 -> CUT_OFF;
-            default -> BUTTON;
+            default -> switch (seats - relativePos) {
+                case 1 -> CUT_OFF;
+                case 2 -> HIJACK;
+                case 3 -> LOJACK;
+                case 4 -> MIDDLE;
+                default -> UTG_1;
+            };
         };
     }
 }
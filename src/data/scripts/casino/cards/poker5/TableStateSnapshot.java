@@ -7,7 +7,7 @@ import data.scripts.casino.cards.pokerShared.PokerAICommon;
 import data.scripts.casino.cards.pokerShared.PokerRound;
 
 public record TableStateSnapshot(List<OpponentInfo> opponents, List<Card> communityCards, int pot, int currentBet,
-                                 int buttonSeat, int currentActorSeat, PokerRound round)
+                                 int buttonSeat, int currentActorSeat, PokerRound round, int seats)
 {
 
     public int getActiveOpponentCount()
@@ -31,7 +31,7 @@ public record TableStateSnapshot(List<OpponentInfo> opponents, List<Card> commun
         for (OpponentInfo opp : opponents)
         {
             if (!opp.isActive) continue;
-            Position oppPos = opp.getPosition(buttonSeat);
+            Position oppPos = opp.getPosition(buttonSeat, seats);
             if (oppPos.isInPositionVs(myPosition))
             {
                 count++;
@@ -59,7 +59,7 @@ public record TableStateSnapshot(List<OpponentInfo> opponents, List<Card> commun
     public boolean isStealAttempt(OpponentInfo raiser)
     {
         if (raiser == null) return false;
-        Position raiserPos = raiser.getPosition(buttonSeat);
+        Position raiserPos = raiser.getPosition(buttonSeat, seats);
         return raiserPos.isLatePosition();
     }
 
@@ -85,9 +85,9 @@ public record TableStateSnapshot(List<OpponentInfo> opponents, List<Card> commun
             this.declaredAllIn = declaredAllIn;
         }
 
-        public Position getPosition(int buttonSeat)
+        public Position getPosition(int buttonSeat, int seats)
         {
-            return Position.fromSeatIndex(seatIndex, buttonSeat);
+            return Position.fromSeatIndex(seatIndex, buttonSeat, seats);
         }
     }
 }
@@ -1,6 +1,5 @@
 package data.scripts.casino.cards.pokerShared;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
@@ -18,15 +17,29 @@ public abstract class AbstractPokerAI {
     protected int raisesThisRound = 0;
     protected int totalPotThisRound = 0;
 
-    protected static final int RECENT_ACTION_SIZE = 10;
-    protected final int[] recentActions = new int[RECENT_ACTION_SIZE];
-    protected int recentActionIndex = 0;
+    // Taken at the start of each decision so one decision never mixes values from two config loads
+    protected CasinoConfig.PokerSettings settings = CasinoConfig.poker();
+
+    // Opponent action codes from trackPlayerAction, used as slots in recentActions
+    protected static final int ACTION_FOLD = 0;
+    protected static final int ACTION_CALL = 1;
+    protected static final int ACTION_RAISE = 2;
+    protected static final int ACTION_CHECK = 3;
+
+    // Per-action and per-hand decay of the opponent's recent actions and showdowns
+    protected static final float RECENT_ACTION_DECAY = 0.88f;
+    protected static final float SHOWDOWN_DECAY = 0.9f;
+    protected static final int SHOWDOWN_BLUFF = 0;
+    protected static final int SHOWDOWN_TRAP = 1;
+
+    // Draws worth paying extra for on implied odds
+    protected static final PokerHandEvaluator.HandRank IMPLIED_ODDS_THRESHOLD = PokerHandEvaluator.HandRank.STRAIGHT;
+
+    protected final PokerAICommon.DecayedSums recentActions = new PokerAICommon.DecayedSums(4, RECENT_ACTION_DECAY);
     protected int recentActionCount = 0;
 
-    protected static final int SHOWDOWN_HISTORY_SIZE = 10;
-    protected final PokerAICommon.ShowdownRecord[] showdownHistory = new PokerAICommon.ShowdownRecord[SHOWDOWN_HISTORY_SIZE];
-    protected int showdownHistoryIndex = 0;
-    protected int showdownHistoryCount = 0;
+    protected final PokerAICommon.DecayedSums showdowns = new PokerAICommon.DecayedSums(2, SHOWDOWN_DECAY);
+    protected int showdownsAgedAtHand = 0;
 
     protected int totalPlayerActions = 0;
     protected int totalPlayerRaises = 0;
@@ -49,8 +62,9 @@ public abstract class AbstractPokerAI {
     protected int timesBluffedByPlayer = 0;
     protected int largeBetsWithoutShowdown = 0;
 
-    protected AbstractPokerAI() {
-        Arrays.fill(recentActions, 0);
+    /** Reseeds all of this AI's randomness; the games do this every hand so recorded hands replay exactly. */
+    public void setSeed(long seed) {
+        random.setSeed(seed);
     }
 
     protected void updateProfile() {
@@ -64,82 +78,52 @@ public abstract class AbstractPokerAI {
     protected void contributeFromRecentActions() {
         if (recentActionCount < 2) return;
 
-        float weightedRaises = 0, weightedFolds = 0, weightedPassive = 0;
-        float totalWeight = 0;
-
-        for (int i = 0; i < recentActionCount; i++) {
-            float decay = getRecentActionDecay(i);
-            totalWeight += decay;
-            int action = recentActions[i];
-            if (action == 2) weightedRaises += decay;
-            else if (action == 0) weightedFolds += decay;
-            else if (action == 1 || action == 3) weightedPassive += decay;
-        }
-
-        if (totalWeight > 0) {
-            float raiseRatio = weightedRaises / totalWeight;
-            float foldRatio = weightedFolds / totalWeight;
-            float passiveRatio = weightedPassive / totalWeight;
-
-            float confidenceBoost = Math.min(recentActionCount * 0.08f, 0.5f);
+        float raiseRatio = recentActions.ratio(ACTION_RAISE);
+        float foldRatio = recentActions.ratio(ACTION_FOLD);
+        float passiveRatio = recentActions.ratio(ACTION_CALL) + recentActions.ratio(ACTION_CHECK);
 
-            if (raiseRatio > 0.35f) {
-                profile.aggressionConfidence += confidenceBoost * raiseRatio;
-                profile.loosePlayLikelihood += 0.15f * raiseRatio;
-            }
-            if (foldRatio > 0.35f) {
-                profile.passivityConfidence += confidenceBoost * foldRatio;
-                profile.tightPlayLikelihood += 0.15f * foldRatio;
-            }
-            if (passiveRatio > 0.5f) {
-                profile.passivityConfidence += confidenceBoost * passiveRatio * 0.5f;
-            }
+        float confidenceBoost = Math.min(recentActions.weight() * 0.08f, 0.5f);
 
-            profile.totalConfidence += confidenceBoost;
+        if (raiseRatio > 0.35f) {
+            profile.aggressionConfidence += confidenceBoost * raiseRatio;
+            profile.loosePlayLikelihood += 0.15f * raiseRatio;
+        }
+        if (foldRatio > 0.35f) {
+            profile.passivityConfidence += confidenceBoost * foldRatio;
+            profile.tightPlayLikelihood += 0.15f * foldRatio;
+        }
+        if (passiveRatio > 0.5f) {
+            profile.passivityConfidence += confidenceBoost * passiveRatio * 0.5f;
         }
-    }
 
-    protected float getRecentActionDecay(int index) {
-        int distance = recentActionCount - 1 - index;
-        return Math.max(0.4f, 1.0f - distance * 0.12f);
+        profile.totalConfidence += confidenceBoost;
     }
 
     protected void contributeFromShowdownHistory() {
-        if (showdownHistoryCount == 0) return;
+        ageShowdowns();
+        if (showdowns.weight() == 0f) return;
 
-        float weightedBluffs = 0, weightedTraps = 0;
-        float totalWeight = 0;
+        float bluffRatio = showdowns.ratio(SHOWDOWN_BLUFF);
+        float trapRatio = showdowns.ratio(SHOWDOWN_TRAP);
 
-        for (int i = 0; i < showdownHistoryCount; i++) {
-            PokerAICommon.ShowdownRecord rec = showdownHistory[i];
-            float decay = rec.getDecayFactor(handsPlayed);
-            totalWeight += decay;
+        profile.bluffLikelihood = bluffRatio;
+        profile.trapLikelihood = trapRatio;
 
-            if (rec.wasBluff) {
-                weightedBluffs += decay * 1.5f;
-            } else if (rec.handRankValue >= 6 && rec.lastBetRatio < 0.3f) {
-                weightedTraps += decay * 1.2f;
-            }
+        if (bluffRatio > 0.15f) {
+            profile.aggressionConfidence += bluffRatio * 0.8f;
+            profile.totalConfidence += bluffRatio * 0.6f;
+        }
+        if (trapRatio > 0.20f) {
+            profile.passivityConfidence += trapRatio * 0.5f;
+            profile.totalConfidence += trapRatio * 0.4f;
         }
 
-        if (totalWeight > 0) {
-            float bluffRatio = weightedBluffs / totalWeight;
-            float trapRatio = weightedTraps / totalWeight;
-
-            profile.bluffLikelihood = bluffRatio;
-            profile.trapLikelihood = trapRatio;
-
-            if (bluffRatio > 0.15f) {
-                profile.aggressionConfidence += bluffRatio * 0.8f;
-                profile.totalConfidence += bluffRatio * 0.6f;
-            }
-            if (trapRatio > 0.20f) {
-                profile.passivityConfidence += trapRatio * 0.5f;
-                profile.totalConfidence += trapRatio * 0.4f;
-            }
+        profile.totalConfidence += Math.min(showdowns.weight() * 0.1f, 0.4f);
+    }
 
-            profile.totalConfidence += Math.min(showdownHistoryCount * 0.1f, 0.4f);
-        }
+    private void ageShowdowns() {
+        showdowns.age(handsPlayed - showdownsAgedAtHand);
+        showdownsAgedAtHand = handsPlayed;
     }
 
     protected void contributeFromLongTermStats() {
@@ -158,15 +142,20 @@ public abstract class AbstractPokerAI {
     }
 
     protected void trackRecentAction(int actionType) {
-        recentActions[recentActionIndex] = actionType;
-        recentActionIndex = (recentActionIndex + 1) % RECENT_ACTION_SIZE;
-        if (recentActionCount < RECENT_ACTION_SIZE) recentActionCount++;
+        recentActions.age(1);
+        recentActions.add(actionType, 1f);
+        recentActionCount++;
     }
 
     protected void trackShowdownRecord(int handRankValue, float lastBetRatio, boolean won, boolean wasBluff) {
-        showdownHistory[showdownHistoryIndex] = new PokerAICommon.ShowdownRecord(handRankValue, lastBetRatio, won, wasBluff, handsPlayed);
-        showdownHistoryIndex = (showdownHistoryIndex + 1) % SHOWDOWN_HISTORY_SIZE;
-        if (showdownHistoryCount < SHOWDOWN_HISTORY_SIZE) showdownHistoryCount++;
+        ageShowdowns();
+        if (wasBluff) {
+            showdowns.add(SHOWDOWN_BLUFF, 1.5f);
+        } else if (handRankValue >= 6 && lastBetRatio < 0.3f) {
+            showdowns.add(SHOWDOWN_TRAP, 1.2f);
+        } else {
+            showdowns.add(-1, 0f);
+        }
         updateProfile();
     }
 
@@ -296,20 +285,30 @@ public abstract class AbstractPokerAI {
         return stackSize <= 0 || committedThisRound > 0.3f * (committedThisRound + stackSize);
     }
 
-    protected float calculateImpliedOddsBonus(List<Card> holeCards, List<Card> communityCards, float currentEquity) {
-        return calculateImpliedOddsBonus(holeCards, communityCards, currentEquity, 0);
+    protected DrawAnalyzer.Analysis analyzeDraws(List<Card> holeCards, List<Card> communityCards) {
+        return DrawAnalyzer.analyze(holeCards, communityCards, IMPLIED_ODDS_THRESHOLD);
     }
 
-    protected float calculateImpliedOddsBonus(List<Card> holeCards, List<Card> communityCards, float currentEquity, int opponentCount) {
-        int outs = PokerAIUtils.countOuts(holeCards, communityCards);
-        int streetsRemaining = 5 - communityCards.size();
-        float drawEquity = outs * 0.02f * streetsRemaining;
+    protected float calculateImpliedOddsBonus(DrawAnalyzer.Analysis draws, int boardSize, float currentEquity) {
+        return calculateImpliedOddsBonus(draws, boardSize, currentEquity, 0);
+    }
+
+    protected float calculateImpliedOddsBonus(DrawAnalyzer.Analysis draws, int boardSize, float currentEquity, int opponentCount) {
+        // Chance of hitting one of the outs by the river, from our own view of the unseen cards
+        int unseen = 50 - boardSize;
+        float miss = 1f;
+        for (int street = 0; street < 5 - boardSize; street++) {
+            miss *= (float) (unseen - street - draws.outs()) / (unseen - street);
+        }
+        float drawEquity = 1f - miss;
 
         if (currentEquity >= 0.60f || drawEquity <= 0.05f) {
             return 0f;
         }
 
-        float opponentBonus = opponentCount > 0 ? Math.min(opponentCount * 0.05f, 0.15f) : 0f;
+        // Extra callers pay off flushes and open-enders; gutshots and boats are harder to get paid on
+        boolean bigDraw = draws.flushDraw() || draws.straightDraw() == DrawAnalyzer.StraightDraw.OPEN_ENDED;
+        float opponentBonus = opponentCount > 0 && bigDraw ? Math.min(opponentCount * 0.05f, 0.15f) : 0f;
         return Math.min((drawEquity + opponentBonus) * 0.5f, 0.15f);
     }
 
@@ -341,13 +340,13 @@ public abstract class AbstractPokerAI {
         if (equity >= threshold || (equity >= threshold - 0.05f && random.nextFloat() < bluffChance)) {
             int[] raiseSizes = calculatePostFlopRaiseSizes(potSize, wetBoard, equity, inLatePosition);
             int raiseAmount = raiseSizes[random.nextInt(raiseSizes.length)];
-            raiseAmount = Math.min(Math.max(raiseAmount, CasinoConfig.POKER_AI_MIN_RAISE_VALUE), stackSize);
+            raiseAmount = Math.min(Math.max(raiseAmount, settings.minRaise()), stackSize);
             return new PokerAICommon.AIResponse(PokerAICommon.InternalAction.RAISE, raiseAmount);
         }
 
         if (equity < 0.35f && random.nextFloat() < bluffChance * 0.5f) {
             int bluffRaise = (int) (potSize * 0.5f);
-            bluffRaise = Math.min(Math.max(bluffRaise, CasinoConfig.POKER_AI_MIN_RAISE_VALUE), stackSize);
+            bluffRaise = Math.min(Math.max(bluffRaise, settings.minRaise()), stackSize);
             return new PokerAICommon.AIResponse(PokerAICommon.InternalAction.RAISE, bluffRaise);
         }
 
@@ -367,29 +366,41 @@ public abstract class AbstractPokerAI {
         committedThisRound = 0;
     }
 
-    protected void applyPersonalityToRaise(PokerAICommon.AIResponse decision, float equity, int stack) {
-        if (decision.action == PokerAICommon.InternalAction.RAISE) {
+    /**
+     * Returns the decision adjusted for personality. Decisions can be shared constants
+     * (e.g. a static CALL response), so any change is returned as a new response.
+     */
+    protected PokerAICommon.AIResponse applyPersonalityToRaise(PokerAICommon.AIResponse decision, float equity, int stack) {
+        PokerAICommon.InternalAction action = decision.action;
+        int raiseAmount = decision.raiseAmount;
+
+        if (action == PokerAICommon.InternalAction.RAISE) {
             if (personality == PokerAICommon.Personality.AGGRESSIVE && random.nextFloat() < 0.3f) {
-                decision.raiseAmount = (int) (decision.raiseAmount * 1.3f);
+                raiseAmount = (int) (raiseAmount * 1.3f);
             } else if (personality == PokerAICommon.Personality.TIGHT && random.nextFloat() < 0.3f) {
-                decision.raiseAmount = (int) (decision.raiseAmount * 0.8f);
+                raiseAmount = (int) (raiseAmount * 0.8f);
             }
-            decision.raiseAmount = Math.min(decision.raiseAmount, stack);
+            raiseAmount = Math.min(raiseAmount, stack);
         }
 
         if (personality == PokerAICommon.Personality.AGGRESSIVE 
-            && decision.action == PokerAICommon.InternalAction.FOLD && equity > 0.35f) {
+            && action == PokerAICommon.InternalAction.FOLD && equity > 0.35f) {
             if (random.nextFloat() < 0.2f) {
-                decision.action = PokerAICommon.InternalAction.CALL;
+                action = PokerAICommon.InternalAction.CALL;
             }
         }
 
         if (personality == PokerAICommon.Personality.TIGHT 
-            && decision.action == PokerAICommon.InternalAction.CALL && equity < 0.45f) {
+            && action == PokerAICommon.InternalAction.CALL && equity < 0.45f) {
             if (random.nextFloat() < 0.2f) {
-                decision.action = PokerAICommon.InternalAction.FOLD;
+                action = PokerAICommon.InternalAction.FOLD;
             }
         }
+
+        if (action == decision.action && raiseAmount == decision.raiseAmount) {
+            return decision;
+        }
+        return new PokerAICommon.AIResponse(action, raiseAmount);
     }
 
     protected float getPerceivedStrength(PokerAICommon.NarrativeType narrativeType, boolean wetBoard) {
@@ -435,7 +446,7 @@ public abstract class AbstractPokerAI {
     public void trackPlayerAction(boolean isRaise, boolean isFold, boolean isCheck, boolean isPreFlop, boolean putMoneyInPot) {
         totalPlayerActions++;
         
-        int actionType = isRaise ? 2 : (isFold ? 0 : (isCheck ? 3 : 1));
+        int actionType = isRaise ? ACTION_RAISE : (isFold ? ACTION_FOLD : (isCheck ? ACTION_CHECK : ACTION_CALL));
         trackRecentAction(actionType);
         
         if (isRaise) {
@@ -571,10 +582,8 @@ public abstract class AbstractPokerAI {
     protected boolean canPivotToBluff(boolean wetBoard) {
         if (narrative.aggregateAggression > 0.5f) return false;
         
-        if (narrative.historyCount == 0) return true;
-        
-        int lastIndex = (narrative.historyIndex - 1 + PokerAICommon.BettingNarrative.MAX_HISTORY) % PokerAICommon.BettingNarrative.MAX_HISTORY;
-        PokerAICommon.BettingAction last = narrative.history[lastIndex];
+        PokerAICommon.BettingAction last = narrative.lastAction;
+        if (last == null) return true;
         
         if (last.action == PokerAICommon.InternalAction.CHECK) return true;
         
@@ -0,0 +1,162 @@
+package data.scripts.casino.cards.pokerShared;
+
+import java.util.List;
+
+import data.scripts.casino.cards.Card;
+
+/**
+ * Board texture, draws and exact outs, read from tables indexed by 13-bit rank masks (bit 0 = deuce,
+ * bit 12 = ace) plus the per-suit bitmasks and rank counts used by
+ * {@link PokerHandEvaluator#evaluatePacked(long, long)}.
+ * <p>
+ * For every rank mask the tables hold the ranks that would complete a straight and the most ranks
+ * found in any five-rank window, so straight draws and connectedness are one lookup each. Outs are
+ * exact: only cards that can reach the requested category are evaluated (straight completers, the
+ * ranks already held and the suits one short of a flush, when the threshold is a straight or better),
+ * and a card only counts if it lifts the hand's category and the board alone doesn't get there with it.
+ */
+public final class DrawAnalyzer {
+
+    public enum StraightDraw { NONE, GUTSHOT, OPEN_ENDED }
+
+    /** Everything the AI reads about the hand's draws and the board for one decision. */
+    public record Analysis(int outs, boolean flushDraw, StraightDraw straightDraw, boolean wetBoard) {}
+
+    private static final int RANK_MASKS = 1 << 13;
+    private static final int WHEEL = 0x100F;
+
+    // Ranks that would complete a straight (0 if the mask already holds one)
+    private static final short[] STRAIGHT_COMPLETERS = new short[RANK_MASKS];
+    // Most ranks in any five consecutive ranks, the wheel included
+    private static final byte[] STRAIGHT_WINDOW = new byte[RANK_MASKS];
+
+    static {
+        for (int mask = 0; mask < RANK_MASKS; mask++) {
+            if (!hasStraight(mask)) {
+                int completers = 0;
+                for (int r = 0; r < 13; r++) {
+                    if ((mask & (1 << r)) == 0 && hasStraight(mask | (1 << r))) completers |= 1 << r;
+                }
+                STRAIGHT_COMPLETERS[mask] = (short) completers;
+            }
+
+            int window = Integer.bitCount(mask & WHEEL);
+            for (int low = 0; low <= 8; low++) {
+                window = Math.max(window, Integer.bitCount((mask >>> low) & 0x1F));
+            }
+            STRAIGHT_WINDOW[mask] = (byte) window;
+        }
+    }
+
+    private DrawAnalyzer() {}
+
+    private static boolean hasStraight(int mask) {
+        if ((mask & WHEEL) == WHEEL) return true;
+        for (int low = 0; low <= 8; low++) {
+            if (((mask >>> low) & 0x1F) == 0x1F) return true;
+        }
+        return false;
+    }
+
+    public static Analysis analyze(List<Card> holeCards, List<Card> communityCards,
+                                   PokerHandEvaluator.HandRank threshold) {
+        long holeSuits = PokerHandEvaluator.suitMasks(holeCards);
+        long boardSuits = PokerHandEvaluator.suitMasks(communityCards);
+        long ranks = PokerHandEvaluator.rankCounts(holeCards) + PokerHandEvaluator.rankCounts(communityCards);
+        long boardRanks = PokerHandEvaluator.rankCounts(communityCards);
+        int cardsToCome = 5 - communityCards.size();
+
+        long suits = holeSuits | boardSuits;
+        int outs = cardsToCome > 0 ? outs(suits, ranks, boardSuits, boardRanks, threshold) : 0;
+        boolean flushDraw = cardsToCome > 0 && hasFlushDraw(holeSuits, boardSuits);
+        StraightDraw straightDraw = cardsToCome > 0
+            ? straightDraw(rankMask(suits), rankMask(boardSuits))
+            : StraightDraw.NONE;
+        return new Analysis(outs, flushDraw, straightDraw, isWet(boardSuits));
+    }
+
+    public static boolean isWetBoard(List<Card> communityCards) {
+        return isWet(PokerHandEvaluator.suitMasks(communityCards));
+    }
+
+    /** Three of a suit or three ranks within a straight's reach. */
+    public static boolean isWet(long boardSuits) {
+        for (int s = 0; s < 4; s++) {
+            if (Integer.bitCount(suitMask(boardSuits, s)) >= 3) return true;
+        }
+        return STRAIGHT_WINDOW[rankMask(boardSuits)] >= 3;
+    }
+
+    /** Four to a flush using at least one hole card. */
+    public static boolean hasFlushDraw(long holeSuits, long boardSuits) {
+        for (int s = 0; s < 4; s++) {
+            if (suitMask(holeSuits, s) != 0 && Integer.bitCount(suitMask(holeSuits | boardSuits, s)) == 4) return true;
+        }
+        return false;
+    }
+
+    /** Straight draw of the whole hand, ignoring completing ranks that would give the board alone a straight. */
+    public static StraightDraw straightDraw(int handRanks, int boardRanks) {
+        int completers = STRAIGHT_COMPLETERS[handRanks] & ~STRAIGHT_COMPLETERS[boardRanks];
+        return switch (Integer.bitCount(completers)) {
+            case 0 -> StraightDraw.NONE;
+            case 1 -> StraightDraw.GUTSHOT;
+            default -> StraightDraw.OPEN_ENDED;
+        };
+    }
+
+    /**
+     * Unseen cards that take the hand to {@code threshold} or better and above its current category,
+     * where the board plus that card would not reach the same category on its own.
+     *
+     * @param suits      hole and board cards, as {@link PokerHandEvaluator#evaluatePacked(long, long)} takes them
+     * @param boardSuits the board alone
+     */
+    public static int outs(long suits, long ranks, long boardSuits, long boardRanks,
+                           PokerHandEvaluator.HandRank threshold) {
+        int current = PokerHandEvaluator.evaluatePacked(suits, ranks) >>> 20;
+        int target = Math.max(threshold.value, current + 1);
+
+        // Every rank and suit can matter below a straight; from a straight up only these can
+        int candidateRanks = 0x1FFF;
+        int flushSuits = 0xF;
+        if (target >= PokerHandEvaluator.HandRank.STRAIGHT.value) {
+            int held = rankMask(suits);
+            candidateRanks = STRAIGHT_COMPLETERS[held] | held;
+            flushSuits = 0;
+            for (int s = 0; s < 4; s++) {
+                if (Integer.bitCount(suitMask(suits, s)) >= 4) flushSuits |= 1 << s;
+            }
+        }
+
+        int outs = 0;
+        for (int s = 0; s < 4; s++) {
+            int ranksToTry = (flushSuits & (1 << s)) != 0 ? 0x1FFF : candidateRanks;
+            ranksToTry &= ~suitMask(suits, s);
+            while (ranksToTry != 0) {
+                int r = Integer.numberOfTrailingZeros(ranksToTry);
+                ranksToTry &= ranksToTry - 1;
+
+                long bit = 1L << (s * 16 + r + 2);
+                long count = 1L << ((r + 2) * 4);
+                int improved = PokerHandEvaluator.evaluatePacked(suits | bit, ranks + count) >>> 20;
+                if (improved < target) continue;
+                int boardOnly = PokerHandEvaluator.evaluatePacked(boardSuits | bit, boardRanks + count) >>> 20;
+                if (boardOnly < improved) outs++;
+            }
+        }
+        return outs;
+    }
+
+    /** 13-bit mask of the ranks present in packed suit masks. */
+    private static int rankMask(long suits) {
+        int mask = 0;
+        for (int s = 0; s < 4; s++) mask |= suitMask(suits, s);
+        return mask;
+    }
+
+    /** One suit's ranks as a 13-bit mask. */
+    private static int suitMask(long suits, int suit) {
+        return (int) (suits >>> (suit * 16 + 2)) & 0x1FFF;
+    }
+}
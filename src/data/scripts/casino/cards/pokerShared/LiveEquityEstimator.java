@@ -0,0 +1,166 @@
+package data.scripts.casino.cards.pokerShared;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import data.scripts.casino.cards.Card;
+import data.scripts.casino.cards.pokerShared.PokerHandEvaluator.HandRank;
+
+/**
+ * The player's equity against the opponents still in the hand, and the chance of ending the hand
+ * with each {@link HandRank}, worked out on a background thread for the table HUD.
+ * <p>
+ * Each new situation (hole cards, board or number of opponents) starts a job that deals random
+ * opponent hands and runouts and publishes an estimate after a first small batch, then again each
+ * time the sample count doubles, up to the configured cap. The panel polls {@link #latest()} every
+ * frame, so it shows a coarse figure almost at once and it settles while the player thinks. A newer
+ * request makes the running job stop at its next batch.
+ */
+public final class LiveEquityEstimator {
+
+    public record Estimate(int samples, float equity, float[] handRankOdds, int generation) {
+        public float odds(HandRank rank) {
+            return handRankOdds[rank.ordinal()];
+        }
+    }
+
+    private static final int FIRST_BATCH = 250;
+    private static final HandRank[] HAND_RANKS = HandRank.values();
+
+    private static final int DECK = 52;
+    private static final long[] SUIT_BIT = new long[DECK];
+    private static final long[] RANK_COUNT = new long[DECK];
+
+    static {
+        for (int suit = 0; suit < 4; suit++) {
+            for (int r = 2; r <= 14; r++) {
+                SUIT_BIT[suit * 13 + r - 2] = 1L << (suit * 16 + r);
+                RANK_COUNT[suit * 13 + r - 2] = 1L << (r * 4);
+            }
+        }
+    }
+
+    private static ExecutorService worker;
+
+    private final AtomicReference<Estimate> latest = new AtomicReference<>();
+    private volatile int generation;
+
+    // Situation of the last request, to tell when a new job is needed
+    private long requestedHole = -1;
+    private long requestedBoard = -1;
+    private int requestedOpponents = -1;
+
+    /**
+     * Starts a new estimate if the situation differs from the last request; otherwise does nothing,
+     * so the panels call it every frame.
+     */
+    public void update(List<Card> holeCards, List<Card> communityCards, int opponents, int maxSamples) {
+        long hole = PokerHandEvaluator.suitMasks(holeCards);
+        long board = PokerHandEvaluator.suitMasks(communityCards);
+        if (hole == requestedHole && board == requestedBoard && opponents == requestedOpponents) return;
+
+        requestedHole = hole;
+        requestedBoard = board;
+        requestedOpponents = opponents;
+        int job = ++generation;
+        latest.set(null);
+
+        long holeRanks = PokerHandEvaluator.rankCounts(holeCards);
+        long boardRanks = PokerHandEvaluator.rankCounts(communityCards);
+        int boardSize = communityCards.size();
+        worker().submit(() -> estimate(job, hole, holeRanks, board, boardRanks, boardSize, opponents, maxSamples));
+    }
+
+    /** @return the newest estimate for the last requested situation, or null until the first batch is done */
+    public Estimate latest() {
+        Estimate estimate = latest.get();
+        return estimate != null && estimate.generation() == generation ? estimate : null;
+    }
+
+    /** Stops any running job and forgets the last situation. */
+    public void clear() {
+        generation++;
+        latest.set(null);
+        requestedHole = -1;
+        requestedBoard = -1;
+        requestedOpponents = -1;
+    }
+
+    private void estimate(int job, long holeSuits, long holeRanks, long boardSuits, long boardRanks,
+                          int boardSize, int opponents, int maxSamples) {
+        long known = holeSuits | boardSuits;
+        int[] deck = new int[DECK];
+        int available = 0;
+        for (int i = 0; i < DECK; i++) {
+            if ((known & SUIT_BIT[i]) == 0) deck[available++] = i;
+        }
+
+        int boardNeeded = 5 - boardSize;
+        opponents = Math.max(0, Math.min(opponents, (available - boardNeeded) / 2));
+        int draw = boardNeeded + opponents * 2;
+
+        Random random = new Random();
+        int[] rankCounts = new int[HAND_RANKS.length];
+        double share = 0;
+        int samples = 0;
+        int target = Math.min(FIRST_BATCH, maxSamples);
+
+        while (job == generation) {
+            for (; samples < target; samples++) {
+                for (int k = 0; k < draw; k++) {
+                    int j = k + random.nextInt(available - k);
+                    int tmp = deck[k];
+                    deck[k] = deck[j];
+                    deck[j] = tmp;
+                }
+
+                long suits = boardSuits, ranks = boardRanks;
+                for (int k = 0; k < boardNeeded; k++) {
+                    suits |= SUIT_BIT[deck[k]];
+                    ranks += RANK_COUNT[deck[k]];
+                }
+
+                int ours = PokerHandEvaluator.evaluatePacked(suits | holeSuits, ranks + holeRanks);
+                rankCounts[(ours >>> 20) - 1]++;
+
+                int tied = 0;
+                boolean lost = false;
+                for (int opp = 0, k = boardNeeded; opp < opponents; opp++, k += 2) {
+                    int c1 = deck[k], c2 = deck[k + 1];
+                    int theirs = PokerHandEvaluator.evaluatePacked(suits | SUIT_BIT[c1] | SUIT_BIT[c2],
+                        ranks + RANK_COUNT[c1] + RANK_COUNT[c2]);
+                    if (theirs > ours) {
+                        lost = true;
+                        break;
+                    }
+                    if (theirs == ours) tied++;
+                }
+                if (!lost) share += 1.0 / (tied + 1);
+            }
+
+            float[] odds = new float[HAND_RANKS.length];
+            for (int i = 0; i < odds.length; i++) {
+                odds[i] = (float) rankCounts[i] / samples;
+            }
+            if (job != generation) return;
+            latest.set(new Estimate(samples, (float) (share / samples), odds, job));
+
+            if (samples >= maxSamples) return;
+            target = Math.min(maxSamples, target * 2);
+        }
+    }
+
+    private static synchronized ExecutorService worker() {
+        if (worker == null) {
+            worker = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "IPC-PokerEquity");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return worker;
+    }
+}
@@ -4,17 +4,23 @@ import java.util.List;
 import java.util.Random;
 
 import data.scripts.casino.cards.Card;
-import data.scripts.casino.cards.Deck;
 import data.scripts.casino.cards.GameType;
+import data.scripts.casino.cards.Rank;
+import data.scripts.casino.cards.Suit;
+import data.scripts.casino.shared.CasinoMetrics;
 
 public class MonteCarloUtility {
     
     private static final Card[] ALL_CARDS = new Card[52];
+    private static final CasinoMetrics.Counter SIMULATIONS = CasinoMetrics.counter("poker.mc.simulations");
+    private static final CasinoMetrics.Counter SAMPLES = CasinoMetrics.counter("poker.mc.samples");
     
     static {
-        Deck deck = new Deck(GameType.POKER);
-        for (int i = 0; i < 52; i++) {
-            ALL_CARDS[i] = deck.cards.get(i);
+        int i = 0;
+        for (Suit s : Suit.values()) {
+            for (Rank r : Rank.values()) {
+                ALL_CARDS[i++] = Card.of(r, s, GameType.POKER);
+            }
         }
     }
     
@@ -76,6 +82,8 @@ public class MonteCarloUtility {
     }
     
     public static PokerAICommon.MonteCarloResult createResult(int wins, int ties, int losses, int samples) {
+        SIMULATIONS.increment();
+        SAMPLES.add(samples);
         return new PokerAICommon.MonteCarloResult(wins, ties, losses, samples);
     }
 }
\ No newline at end of file
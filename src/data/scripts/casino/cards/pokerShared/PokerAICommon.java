@@ -37,11 +37,13 @@ public class PokerAICommon {
         }
     }
 
+    /**
+     * What this AI's own betting in the current hand says about its hand. Each action updates running
+     * counters and pattern flags, so {@link #type} and the metrics are plain reads however long the hand.
+     */
     public static class BettingNarrative {
-        public static final int MAX_HISTORY = 6;
-        public BettingAction[] history = new BettingAction[MAX_HISTORY];
-        public int historyCount = 0;
-        public int historyIndex = 0;
+        public BettingAction lastAction;
+        public int actionCount = 0;
 
         public float aggregateAggression = 0f;
         public boolean hasInitiated = false;
@@ -49,71 +51,59 @@ public class PokerAICommon {
         public int betCount = 0;
         public NarrativeType type = NarrativeType.NEUTRAL;
 
-        public void addAction(BettingAction action) {
-            history[historyIndex] = action;
-            historyIndex = (historyIndex + 1) % MAX_HISTORY;
-            if (historyCount < MAX_HISTORY) historyCount++;
-            recalculateMetrics();
-        }
-
-        public void recalculateMetrics() {
-            if (historyCount == 0) return;
-
-            float aggressionSum = 0f;
-            float betRatioSum = 0f;
-            int betCount = 0;
-            hasInitiated = false;
+        private float aggressionSum = 0f;
+        private float betRatioSum = 0f;
+        private float minBetRatio = Float.MAX_VALUE;
+        private float maxBetRatio = -Float.MAX_VALUE;
+        private int checkCount = 0;
+        private int callCount = 0;
+        private boolean allChecks = true;
+        private boolean checkCallOnly = true;
+        private boolean checkThenBet = false;
+        private boolean trapUnveiled = false;
 
-            for (int i = 0; i < historyCount; i++) {
-                BettingAction a = history[i];
-                if (a.action == InternalAction.RAISE || a.action == InternalAction.BET) {
-                    aggressionSum += 1.0f;
-                    betRatioSum += a.betToPotRatio;
-                    betCount++;
-                    if (a.wasInitiator) hasInitiated = true;
-                } else if (a.action == InternalAction.CALL) {
-                    aggressionSum += 0.3f;
-                }
+        public void addAction(BettingAction action) {
+            lastAction = action;
+            actionCount++;
+
+            InternalAction a = action.action;
+            if (a == InternalAction.RAISE || a == InternalAction.BET) {
+                aggressionSum += 1.0f;
+                betRatioSum += action.betToPotRatio;
+                minBetRatio = Math.min(minBetRatio, action.betToPotRatio);
+                maxBetRatio = Math.max(maxBetRatio, action.betToPotRatio);
+                betCount++;
+                if (action.wasInitiator) hasInitiated = true;
+                if (checkCount > 0) checkThenBet = true;
+                if (a == InternalAction.RAISE && checkCount >= 2) trapUnveiled = true;
+            } else if (a == InternalAction.CALL) {
+                aggressionSum += 0.3f;
+                callCount++;
+            } else if (a == InternalAction.CHECK) {
+                checkCount++;
             }
+            if (a != InternalAction.CHECK) allChecks = false;
+            if (a != InternalAction.CHECK && a != InternalAction.CALL) checkCallOnly = false;
 
-            aggregateAggression = aggressionSum / historyCount;
+            aggregateAggression = aggressionSum / actionCount;
             avgBetRatio = betCount > 0 ? betRatioSum / betCount : 0f;
-            this.betCount = betCount;
             type = classifyNarrative();
         }
 
         public NarrativeType classifyNarrative() {
-            if (historyCount < 2) return NarrativeType.NEUTRAL;
-
-            boolean allChecks = true;
-            for (int i = 0; i < historyCount; i++) {
-                if (history[i].action != InternalAction.CHECK) {
-                    allChecks = false;
-                    break;
-                }
-            }
-            if (allChecks) return NarrativeType.PASSIVE_WEAK;
+            if (actionCount < 2) return NarrativeType.NEUTRAL;
 
-            boolean checkCallPattern = true;
-            for (int i = 0; i < historyCount; i++) {
-                InternalAction a = history[i].action;
-                if (a != InternalAction.CHECK && a != InternalAction.CALL) {
-                    checkCallPattern = false;
-                    break;
-                }
-            }
-            if (checkCallPattern && countCalls() >= 1) {
-                return NarrativeType.PASSIVE_DRAWING;
-            }
+            if (allChecks) return NarrativeType.PASSIVE_WEAK;
+            if (checkCallOnly && callCount >= 1) return NarrativeType.PASSIVE_DRAWING;
 
-            if (hasCheckThenBetPattern()) return NarrativeType.HIT_THE_BOARD;
-            if (hasTrapPattern()) return NarrativeType.TRAP_UNVEILED;
+            if (checkThenBet) return NarrativeType.HIT_THE_BOARD;
+            if (trapUnveiled) return NarrativeType.TRAP_UNVEILED;
 
             if (aggregateAggression > 0.7f) {
                 return NarrativeType.STRONG_ALL_ALONG;
             }
 
-            if (betCount >= 2 && hasPolarizedBetSizes()) {
+            if (betCount >= 2 && maxBetRatio - minBetRatio > 1.0f) {
                 return NarrativeType.POLARIZED;
             }
 
@@ -121,75 +111,66 @@ public class PokerAICommon {
         }
 
         public void reset() {
-            historyCount = 0;
-            historyIndex = 0;
+            lastAction = null;
+            actionCount = 0;
             aggregateAggression = 0f;
             hasInitiated = false;
             avgBetRatio = 0f;
             betCount = 0;
             type = NarrativeType.NEUTRAL;
-            for (int i = 0; i < MAX_HISTORY; i++) history[i] = null;
+            aggressionSum = 0f;
+            betRatioSum = 0f;
+            minBetRatio = Float.MAX_VALUE;
+            maxBetRatio = -Float.MAX_VALUE;
+            checkCount = 0;
+            callCount = 0;
+            allChecks = true;
+            checkCallOnly = true;
+            checkThenBet = false;
+            trapUnveiled = false;
         }
+    }
 
-        private boolean hasCheckThenBetPattern() {
-            boolean sawCheck = false;
-            for (int i = 0; i < historyCount; i++) {
-                if (history[i].action == InternalAction.CHECK) sawCheck = true;
-                else if (sawCheck && (history[i].action == InternalAction.BET || history[i].action == InternalAction.RAISE)) {
-                    return true;
-                }
-            }
-            return false;
+    /**
+     * Exponentially decayed event counts: every {@link #age} step scales everything recorded so far by
+     * {@code decay}, so recent events dominate without keeping a window of them. Ratios between slots are
+     * unaffected by ageing, which only matters relative to newer events.
+     */
+    public static class DecayedSums {
+        private final float decay;
+        private final float[] sums;
+        private float weight = 0f;
+
+        public DecayedSums(int slots, float decay) {
+            this.decay = decay;
+            this.sums = new float[slots];
         }
 
-        private boolean hasTrapPattern() {
-            int checksBeforeRaise = 0;
-            for (int i = 0; i < historyCount; i++) {
-                if (history[i].action == InternalAction.CHECK) checksBeforeRaise++;
-                else if (history[i].action == InternalAction.RAISE && checksBeforeRaise >= 2) return true;
-            }
-            return false;
+        public void age(int steps) {
+            if (steps <= 0 || weight == 0f) return;
+            float factor = steps == 1 ? decay : (float) Math.pow(decay, steps);
+            weight *= factor;
+            for (int i = 0; i < sums.length; i++) sums[i] *= factor;
         }
 
-        private boolean hasPolarizedBetSizes() {
-            float minRatio = Float.MAX_VALUE;
-            float maxRatio = -Float.MAX_VALUE;
-            for (int i = 0; i < historyCount; i++) {
-                if (history[i].action == InternalAction.RAISE || history[i].action == InternalAction.BET) {
-                    minRatio = Math.min(minRatio, history[i].betToPotRatio);
-                    maxRatio = Math.max(maxRatio, history[i].betToPotRatio);
-                }
-            }
-            return (maxRatio - minRatio) > 1.0f;
+        /** Records one event, adding {@code amount} to {@code slot}; a negative slot only counts the event. */
+        public void add(int slot, float amount) {
+            weight += 1f;
+            if (slot >= 0) sums[slot] += amount;
         }
 
-        private int countCalls() {
-            int count = 0;
-            for (int i = 0; i < historyCount; i++) {
-                if (history[i].action == InternalAction.CALL) count++;
-            }
-            return count;
+        /** Decayed number of events recorded. */
+        public float weight() {
+            return weight;
         }
-    }
 
-    public static class ShowdownRecord {
-        public int handRankValue;
-        public float lastBetRatio;
-        public boolean won;
-        public boolean wasBluff;
-        public int recordedAtHand;
-
-        public ShowdownRecord(int handRankValue, float lastBetRatio, boolean won, boolean wasBluff, int handNumber) {
-            this.handRankValue = handRankValue;
-            this.lastBetRatio = lastBetRatio;
-            this.won = won;
-            this.wasBluff = wasBluff;
-            this.recordedAtHand = handNumber;
+        public float ratio(int slot) {
+            return weight > 0f ? sums[slot] / weight : 0f;
         }
 
-        public float getDecayFactor(int currentHand) {
-            int age = currentHand - recordedAtHand;
-            return Math.max(0.3f, 1.0f - age * 0.1f);
+        public void reset() {
+            weight = 0f;
+            for (int i = 0; i < sums.length; i++) sums[i] = 0f;
         }
     }
 
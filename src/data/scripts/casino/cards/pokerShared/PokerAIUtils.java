@@ -78,55 +78,4 @@ public class PokerAIUtils {
         float adjustedFoldProb = (float) Math.pow(foldProbability, opponentCount);
         return adjustedFoldProb * potSize - (1 - adjustedFoldProb) * bluffAmount;
     }
-
-    public static int countOuts(List<Card> holeCards, List<Card> communityCards) {
-        int outs = 0;
-        int[] suitCounts = new int[4];
-        for (Card c : holeCards) suitCounts[c.suit().ordinal()]++;
-        for (Card c : communityCards) suitCounts[c.suit().ordinal()]++;
-        for (int count : suitCounts) {
-            if (count == 4) outs += 9;
-        }
-
-        boolean[] rankPresent = new boolean[15];
-        for (Card c : holeCards) rankPresent[c.rank().getValue(GameType.POKER)] = true;
-        for (Card c : communityCards) rankPresent[c.rank().getValue(GameType.POKER)] = true;
-        rankPresent[1] = rankPresent[14];
-
-        int maxSeq = 0, currentSeq = 0;
-        for (int r = 1; r <= 14; r++) {
-            if (rankPresent[r]) {
-                currentSeq++;
-                maxSeq = Math.max(maxSeq, currentSeq);
-            } else {
-                currentSeq = 0;
-            }
-        }
-
-        if (maxSeq == 4) outs += 8;
-        else if (maxSeq == 3) outs += 4;
-        return outs;
-    }
-
-    public static boolean isWetBoard(List<Card> communityCards) {
-        int[] suitCounts = new int[4];
-        for (Card c : communityCards) suitCounts[c.suit().ordinal()]++;
-        for (int count : suitCounts) {
-            if (count >= 3) return true;
-        }
-
-        boolean[] rankPresent = new boolean[15];
-        for (Card c : communityCards) rankPresent[c.rank().getValue(GameType.POKER)] = true;
-
-        int maxSeq = 0, currentSeq = 0;
-        for (int r = 2; r <= 14; r++) {
-            if (rankPresent[r]) {
-                currentSeq++;
-                maxSeq = Math.max(maxSeq, currentSeq);
-            } else {
-                currentSeq = 0;
-            }
-        }
-        return maxSeq >= 3;
-    }
-}
\ No newline at end of file
+}
@@ -62,6 +62,128 @@ public class PokerHandEvaluator {
         return analyzeHand(all);
     }
 
+    /**
+     * Evaluates hole plus community cards to a single int that orders hands exactly like
+     * {@link HandScore#compareTo}: the {@link HandRank} value in bits 20-23 and up to five
+     * tie-breaker ranks as 4-bit fields below it. Works on per-suit rank bitmasks without
+     * copying or sorting the cards.
+     */
+    public static int evaluatePacked(List<Card> holeCards, List<Card> communityCards) {
+        return evaluatePacked(suitMasks(holeCards) | suitMasks(communityCards),
+            rankCounts(holeCards) + rankCounts(communityCards));
+    }
+
+    /** The cards in the {@code suitMasks} layout of {@link #evaluatePacked(long, long)}. */
+    public static long suitMasks(List<Card> cards) {
+        long suits = 0;
+        for (int i = 0, n = cards.size(); i < n; i++) {
+            Card c = cards.get(i);
+            suits |= 1L << (c.suit().ordinal() * 16 + c.rank().getValue(GameType.POKER));
+        }
+        return suits;
+    }
+
+    /** The cards in the {@code rankCounts} layout of {@link #evaluatePacked(long, long)}. */
+    public static long rankCounts(List<Card> cards) {
+        long ranks = 0;
+        for (int i = 0, n = cards.size(); i < n; i++) {
+            ranks += 1L << (cards.get(i).rank().getValue(GameType.POKER) * 4);
+        }
+        return ranks;
+    }
+
+    /**
+     * Packed evaluation of an accumulated hand: {@code suitMasks} holds 16 bits per suit with bit r set
+     * for rank value r, {@code rankCounts} 4 bits per rank value. See {@link PokerHandState}.
+     */
+    public static int evaluatePacked(long suitMasks, long rankCounts) {
+        int ranks = 0;
+        int flushMask = 0;
+        for (int s = 0; s < 4; s++) {
+            int mask = (int) (suitMasks >>> (s * 16)) & 0xFFFF;
+            ranks |= mask;
+            if (Integer.bitCount(mask) >= 5) flushMask = mask;
+        }
+
+        if (flushMask != 0) {
+            int straightFlushHigh = straightHigh(flushMask);
+            if (straightFlushHigh > 0) return pack(HandRank.STRAIGHT_FLUSH, straightFlushHigh);
+        }
+
+        int fourRank = 0, threeRank = 0, pairRank = 0, secondPairRank = 0;
+        for (int r = 14; r >= 2; r--) {
+            int cnt = (int) (rankCounts >>> (r * 4)) & 0xF;
+            if (cnt == 4) fourRank = r;
+            else if (cnt == 3) {
+                if (threeRank == 0) threeRank = r;
+                else if (pairRank == 0) pairRank = r;
+            } else if (cnt == 2) {
+                if (pairRank == 0) pairRank = r;
+                else if (secondPairRank == 0) secondPairRank = r;
+            }
+        }
+
+        if (fourRank != 0) {
+            return pack(HandRank.FOUR_OF_A_KIND, fourRank, topRanks(ranks & ~(1 << fourRank), 1, 12));
+        }
+        if (threeRank != 0 && pairRank != 0) {
+            return pack(HandRank.FULL_HOUSE, threeRank, pairRank << 12);
+        }
+        if (flushMask != 0) {
+            return (HandRank.FLUSH.value << 20) | topRanks(flushMask, 5, 16);
+        }
+        int straight = straightHigh(ranks);
+        if (straight > 0) {
+            return pack(HandRank.STRAIGHT, straight);
+        }
+        if (threeRank != 0) {
+            return pack(HandRank.THREE_OF_A_KIND, threeRank, topRanks(ranks & ~(1 << threeRank), 2, 12));
+        }
+        if (secondPairRank != 0) {
+            return pack(HandRank.TWO_PAIR, pairRank,
+                (secondPairRank << 12) | topRanks(ranks & ~(1 << pairRank) & ~(1 << secondPairRank), 1, 8));
+        }
+        if (pairRank != 0) {
+            return pack(HandRank.PAIR, pairRank, topRanks(ranks & ~(1 << pairRank), 3, 12));
+        }
+        return (HandRank.HIGH_CARD.value << 20) | topRanks(ranks, 5, 16);
+    }
+
+    /** @return the category of a value from {@link #evaluatePacked} */
+    public static HandRank packedRank(int packed) {
+        return HAND_RANKS[(packed >>> 20) - 1];
+    }
+
+    private static final HandRank[] HAND_RANKS = HandRank.values();
+
+    private static int pack(HandRank rank, int primary) {
+        return (rank.value << 20) | (primary << 16);
+    }
+
+    private static int pack(HandRank rank, int primary, int kickers) {
+        return (rank.value << 20) | (primary << 16) | kickers;
+    }
+
+    /** Highest {@code count} ranks of a rank mask as consecutive 4-bit fields, the first at {@code shift}. */
+    private static int topRanks(int mask, int count, int shift) {
+        int packed = 0;
+        for (; count > 0 && mask != 0; count--, shift -= 4) {
+            int r = 31 - Integer.numberOfLeadingZeros(mask);
+            packed |= r << shift;
+            mask &= ~(1 << r);
+        }
+        return packed;
+    }
+
+    /** @return the top rank of the best straight in a rank mask (5 for the wheel), or 0 */
+    private static int straightHigh(int mask) {
+        int withLowAce = mask | ((mask >>> 14) & 1) << 1;
+        for (int high = 14; high >= 5; high--) {
+            if (((withLowAce >>> (high - 4)) & 0x1F) == 0x1F) return high;
+        }
+        return 0;
+    }
+
     private static HandScore analyzeHand(List<Card> cards) {
         int[] suitCounts = new int[4];
         int[] rankCounts = new int[15];
@@ -0,0 +1,100 @@
+package data.scripts.casino.cards.pokerShared;
+
+import java.util.List;
+
+import data.scripts.casino.cards.Card;
+import data.scripts.casino.cards.GameType;
+
+/**
+ * One seat's hole and community cards, accumulated as they are dealt. Keeps per-suit rank bitmasks
+ * and per-rank counts, so reading the current hand category or showdown strength is a single packed
+ * evaluation of two longs (cached until the next card) instead of a fresh
+ * {@link PokerHandEvaluator#evaluate} over copied and sorted lists every street.
+ */
+public final class PokerHandState {
+    private long suitMasks;   // 16 bits per suit, bit r set for rank value r
+    private long rankCounts;  // 4 bits per rank value
+    private int size;
+    private int strength = -1;  // -1 until scored for the current cards
+
+    public void reset() {
+        suitMasks = 0;
+        rankCounts = 0;
+        size = 0;
+        strength = -1;
+    }
+
+    /** Starts over with the given hole cards. */
+    public void reset(List<Card> holeCards) {
+        reset();
+        addAll(holeCards, 0);
+    }
+
+    public void add(Card card) {
+        int r = card.rank().getValue(GameType.POKER);
+        suitMasks |= 1L << (card.suit().ordinal() * 16 + r);
+        rankCounts += 1L << (r * 4);
+        size++;
+        strength = -1;
+    }
+
+    /** Adds {@code cards} from index {@code from} on, e.g. only the newly dealt community cards. */
+    public void addAll(List<Card> cards, int from) {
+        for (int i = from, n = cards.size(); i < n; i++) {
+            add(cards.get(i));
+        }
+    }
+
+    /**
+     * Catches up with community cards dealt since the last call. Rebuilds from scratch when the
+     * state doesn't match the given cards, e.g. after a suspended game was restored.
+     */
+    public PokerHandState sync(List<Card> holeCards, List<Card> communityCards) {
+        int boardCardsSeen = size - holeCards.size();
+        if (boardCardsSeen < 0 || boardCardsSeen > communityCards.size()) {
+            reset(holeCards);
+            boardCardsSeen = 0;
+        }
+        addAll(communityCards, boardCardsSeen);
+        return this;
+    }
+
+    /** Number of cards added since the last reset. */
+    public int size() {
+        return size;
+    }
+
+    /** Packed strength as from {@link PokerHandEvaluator#evaluatePacked}; 0 while empty. */
+    public int strength() {
+        if (strength < 0) {
+            strength = size > 0 ? PokerHandEvaluator.evaluatePacked(suitMasks, rankCounts) : 0;
+        }
+        return strength;
+    }
+
+    /** @return the current hand category, or null until five cards are known */
+    public PokerHandEvaluator.HandRank rank() {
+        return size >= 5 ? PokerHandEvaluator.packedRank(strength()) : null;
+    }
+
+    /** Bitmask of the rank values held, bit r for rank value r (2-14). */
+    public int rankMask() {
+        int mask = 0;
+        for (int s = 0; s < 4; s++) {
+            mask |= suitRankMask(s);
+        }
+        return mask;
+    }
+
+    public int suitRankMask(int suitOrdinal) {
+        return (int) (suitMasks >>> (suitOrdinal * 16)) & 0xFFFF;
+    }
+
+    public int suitCount(int suitOrdinal) {
+        return Integer.bitCount(suitRankMask(suitOrdinal));
+    }
+
+    public int rankCount(int rankValue) {
+        return (int) (rankCounts >>> (rankValue * 4)) & 0xF;
+    }
+}
@@ -15,6 +15,11 @@ public final class PokerUIUtils {
         return true;
     }
 
+    public static final Color COLOR_EQUITY_HUD = new Color(150, 210, 255);
+
+    // Hand ranks below this chance are left off the HUD
+    private static final float MIN_SHOWN_HAND_ODDS = 0.005f;
+
     public static final Color COLOR_ROUND_PREFLOP = new Color(150, 150, 200);
     public static final Color COLOR_ROUND_FLOP = new Color(100, 200, 100);
     public static final Color COLOR_ROUND_TURN = new Color(200, 200, 100);
@@ -41,6 +46,32 @@ public final class PokerUIUtils {
         };
     }
 
+    public static String getHandRankName(PokerHandEvaluator.HandRank rank) {
+        return switch (rank) {
+            case HIGH_CARD -> Strings.get("poker_hand_rank.high_card");
+            case PAIR -> Strings.get("poker_hand_rank.pair");
+            case TWO_PAIR -> Strings.get("poker_hand_rank.two_pair");
+            case THREE_OF_A_KIND -> Strings.get("poker_hand_rank.three_of_a_kind");
+            case STRAIGHT -> Strings.get("poker_hand_rank.straight");
+            case FLUSH -> Strings.get("poker_hand_rank.flush");
+            case FULL_HOUSE -> Strings.get("poker_hand_rank.full_house");
+            case FOUR_OF_A_KIND -> Strings.get("poker_hand_rank.four_of_a_kind");
+            case STRAIGHT_FLUSH -> Strings.get("poker_hand_rank.straight_flush");
+        };
+    }
+
+    /** Equity line and the chance of each final hand rank, for the player's equity HUD. */
+    public static String formatEquityHud(LiveEquityEstimator.Estimate estimate, int opponents) {
+        final StringBuilder entries = new StringBuilder();
+        for (PokerHandEvaluator.HandRank rank : PokerHandEvaluator.HandRank.values()) {
+            final float odds = estimate.odds(rank);
+            if (odds < MIN_SHOWN_HAND_ODDS) continue;
+            if (entries.length() > 0) entries.append(" | ");
+            entries.append(Strings.format("poker_panel.equity_hud_entry", getHandRankName(rank), odds * 100f));
+        }
+        return Strings.format("poker_panel.equity_hud", opponents, estimate.equity() * 100f, estimate.samples(), entries);
+    }
+
     public static String formatRoundProgress(PokerRound round, int pot, int bigBlind) {
         return Strings.format("poker_panel.round_progress", getRoundName(round), pot, bigBlind);
     }
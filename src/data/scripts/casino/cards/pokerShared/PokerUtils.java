@@ -32,7 +32,7 @@ public class PokerUtils {
             int rankValue = Integer.parseInt(parts[0]);
             Suit suit = Suit.valueOf(parts[1]);
             if (rankValue >= 2 && rankValue <= 14) {
-                return new Card(RANK_BY_VALUE[rankValue], suit, GameType.POKER);
+                return Card.of(RANK_BY_VALUE[rankValue], suit, GameType.POKER);
             }
         } catch (NumberFormatException ignored) {}
         return null;
@@ -10,6 +10,7 @@ import com.fs.starfarer.api.impl.campaign.ids.Tags;
 import com.fs.starfarer.api.impl.campaign.ids.Items;
 import data.scripts.casino.CasinoConfig;
 import data.scripts.casino.Strings;
+import data.scripts.casino.shared.CasinoMetrics;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -22,6 +23,7 @@ import java.util.Set;
 public class CasinoGachaManager {
     
     private static final String DATA_KEY = "CasinoGachaData";
+    private static final CasinoMetrics.Histogram PULL_TIME = CasinoMetrics.histogram("gacha.pull");
     
     private static final long ROTATION_PERIOD_DAYS = 14;
     
@@ -180,16 +182,17 @@ public class CasinoGachaManager {
         data.poolDestroyers.clear();
         data.poolFrigates.clear();
         
-        for (int i = 0; i < CasinoConfig.GACHA_POOL_CAPITALS && i < allCapitals.size(); i++) {
+        CasinoConfig.GachaSettings settings = CasinoConfig.gacha();
+        for (int i = 0; i < settings.poolCapitals() && i < allCapitals.size(); i++) {
             data.poolCapitals.add(allCapitals.get(i));
         }
-        for (int i = 0; i < CasinoConfig.GACHA_POOL_CRUISERS && i < allCruisers.size(); i++) {
+        for (int i = 0; i < settings.poolCruisers() && i < allCruisers.size(); i++) {
             data.poolCruisers.add(allCruisers.get(i));
         }
-        for (int i = 0; i < CasinoConfig.GACHA_POOL_DESTROYERS && i < allDestroyers.size(); i++) {
+        for (int i = 0; i < settings.poolDestroyers() && i < allDestroyers.size(); i++) {
             data.poolDestroyers.add(allDestroyers.get(i));
         }
-        for (int i = 0; i < CasinoConfig.GACHA_POOL_FRIGATES && i < allFrigates.size(); i++) {
+        for (int i = 0; i < settings.poolFrigates() && i < allFrigates.size(); i++) {
             data.poolFrigates.add(allFrigates.get(i));
         }
         
@@ -221,33 +224,19 @@ public class CasinoGachaManager {
     }
     
     public String performPullDetailed(List<FleetMemberAPI> collectedShips) {
-        GachaData data = getData();
-        data.pity5++;
-        data.pity4++;
-        
-        float currentRate5 = CasinoConfig.PROB_5_STAR;
-        
-        if (data.pity5 >= CasinoConfig.PITY_SOFT_START_5) {
-            currentRate5 = CasinoConfig.PROB_5_STAR + (data.pity5 - (CasinoConfig.PITY_SOFT_START_5 - 1)) * 0.06f;
-        }
-        if (data.pity5 >= CasinoConfig.PITY_HARD_5) currentRate5 = 10.0f; 
-        
-        float roll = random.nextFloat();
-        
-        if (roll < currentRate5) {
-            data.pity5 = 0; 
-            return handle5StarDetailed(data, collectedShips);
-        }
-        
-        float currentRate4 = CasinoConfig.PROB_4_STAR;
-        if (data.pity4 >= CasinoConfig.PITY_HARD_4) currentRate4 = 10.0f;
-        
-        float roll4 = random.nextFloat();
-        
-        if (roll4 < currentRate4) {
-             data.pity4 = 0;
-             return handle4StarDetailed(data, collectedShips);
+        long start = CasinoMetrics.startTimer();
+        try {
+            return rollPull(collectedShips);
+        } finally {
+            PULL_TIME.recordSince(start);
         }
+    }
+
+    private String rollPull(List<FleetMemberAPI> collectedShips) {
+        GachaData data = getData();
+        int rarity = rollRarity(data, CasinoConfig.gacha(), random);
+        if (rarity == 5) return handle5StarDetailed(data, collectedShips);
+        if (rarity == 4) return handle4StarDetailed(data, collectedShips);
         
         String s = getRandomHullFromPool(random.nextBoolean() ? ShipAPI.HullSize.DESTROYER : ShipAPI.HullSize.FRIGATE);
              
@@ -265,27 +254,71 @@ public class CasinoGachaManager {
         }
     }
     
-    private String handle5StarDetailed(GachaData data, List<FleetMemberAPI> collectedShips) {
-        String resultId;
-        boolean isFeatured = false;
+    /**
+     * Chance of a 5-star on the pull that takes the 5-star pity counter to {@code pity5}: the base rate,
+     * rising by 6% per pull from the soft pity start, and certain at hard pity.
+     */
+    public static float fiveStarRate(int pity5, CasinoConfig.GachaSettings settings) {
+        float currentRate5 = settings.prob5Star();
+        
+        if (pity5 >= settings.pitySoftStart5()) {
+            currentRate5 = settings.prob5Star() + (pity5 - (settings.pitySoftStart5() - 1)) * 0.06f;
+        }
+        if (pity5 >= settings.pityHard5()) currentRate5 = 10.0f; 
+        return currentRate5;
+    }
+    
+    /**
+     * Counts one pull against both pity counters and rolls its rarity (5, 4 or 3 stars), resetting the
+     * counter of the rarity hit. Draws one float from {@code random}, and a second unless it is a 5-star.
+     */
+    public static int rollRarity(GachaData data, CasinoConfig.GachaSettings settings, Random random) {
+        data.pity5++;
+        data.pity4++;
+        
+        float roll = random.nextFloat();
+        
+        if (roll < fiveStarRate(data.pity5, settings)) {
+            data.pity5 = 0; 
+            return 5;
+        }
+        
+        float currentRate4 = settings.prob4Star();
+        if (data.pity4 >= settings.pityHard4()) currentRate4 = 10.0f;
         
+        float roll4 = random.nextFloat();
+        
+        if (roll4 < currentRate4) {
+             data.pity4 = 0;
+             return 4;
+        }
+        return 3;
+    }
+    
+    /**
+     * Settles the featured 50/50 for a 5-star: a pull after a lost 50/50 is always the featured capital.
+     * Losing sets that guarantee. Draws one boolean from {@code random} unless the pull is guaranteed.
+     */
+    public static boolean rollFeatured5(GachaData data, Random random) {
         if (data.guaranteedFeatured5) {
-            resultId = data.featuredCapital;
             data.guaranteedFeatured5 = false; 
+            return true;
+        }
+        if (random.nextBoolean()) {
+            return true;
+        }
+        data.guaranteedFeatured5 = true;
+        return false;
+    }
+    
+    private String handle5StarDetailed(GachaData data, List<FleetMemberAPI> collectedShips) {
+        boolean isFeatured = rollFeatured5(data, random);
+        String resultId = isFeatured ? data.featuredCapital : getRandomHullFromPool(ShipAPI.HullSize.CAPITAL_SHIP);
+        if (resultId == null && !isFeatured) {
+            // No pool capital to give, so this counts as a won 50/50
+            resultId = data.featuredCapital;
             isFeatured = true;
-        } else {
-             if (random.nextBoolean()) {
-                 resultId = data.featuredCapital;
-                 isFeatured = true;
-             } else {
-                 resultId = getRandomHullFromPool(ShipAPI.HullSize.CAPITAL_SHIP);
-                 if (resultId == null) {
-                     resultId = data.featuredCapital;
-                     isFeatured = true;
-                 } else {
-                     data.guaranteedFeatured5 = true;
-                 }
-             }
+            data.guaranteedFeatured5 = false;
         }
         
         if (resultId == null) {
@@ -26,6 +26,8 @@ import data.scripts.casino.Strings;
 import data.scripts.casino.CasinoConfig;
 import data.scripts.casino.shared.GachaUI;
 import data.scripts.casino.shared.CasinoSpriteCache;
+import data.scripts.casino.shared.CasinoMetrics;
+import data.scripts.casino.shared.MetricsOverlay;
 import data.scripts.casino.gacha.CasinoGachaManager.GachaData;
 
 public class GachaAnimation extends BaseCustomUIPanelPlugin {
@@ -208,6 +210,7 @@ public class SlotReel {
             for (int i = 0; i < VISIBLE_SHIP_COUNT + 6; i++) {
                 visibleHullIds.add(getRandomPoolHullId());
             }
+            CasinoSpriteCache.prefetch(visibleHullIds);
         }
 
         public void advance(float amount) {
@@ -628,9 +631,17 @@ public class SlotReel {
 
     protected GachaAnimationCallback callback;
 
+    // Metrics
+    private final CasinoMetrics.FrameTimer renderTimer = CasinoMetrics.frameTimer("gacha.panel.render");
+    private final CasinoMetrics.FrameTimer advanceTimer = CasinoMetrics.frameTimer("gacha.panel.advance");
+    private final MetricsOverlay metricsOverlay = new MetricsOverlay();
+
     public GachaAnimation(List<GachaItem> itemsToAnimate, GachaAnimationCallback callback) {
         this.allItems.addAll(itemsToAnimate);
         this.callback = callback;
+        for (GachaItem item : itemsToAnimate) {
+            CasinoSpriteCache.prefetch(item.hullId);
+        }
     }
 
     public void setPoolHullIds(List<String> hullIds) {
@@ -656,7 +667,10 @@ public class SlotReel {
             }
         }
         if (poolHullIds.isEmpty()) return "kite";
-        return poolHullIds.get(random.nextInt(poolHullIds.size()));
+        // Picked hulls enter the reel off-screen, so there is time to load them before they scroll in
+        String hullId = poolHullIds.get(random.nextInt(poolHullIds.size()));
+        CasinoSpriteCache.prefetch(hullId);
+        return hullId;
     }
 
     public void init(CustomPanelAPI panel, DialogCallbacks callbacks) {
@@ -680,6 +694,7 @@ public class SlotReel {
         createReelLabels();
         createPityLabels();
         createFooterLabel();
+        metricsOverlay.attach(panel);
     }
     
     private void createChasingLights() {
@@ -847,6 +862,15 @@ public class SlotReel {
     }
 
     public void renderBelow(float alphaMult) {
+        renderTimer.begin();
+        try {
+            renderPanel(alphaMult);
+        } finally {
+            renderTimer.end();
+        }
+    }
+
+    private void renderPanel(float alphaMult) {
         if (p == null) return;
 
         float panelX = p.getX();
@@ -1136,8 +1160,19 @@ private void renderReelContent(SlotReel reel, float reelLeft, float reelRight, f
     }
 
     public void advance(float amount) {
+        metricsOverlay.advance(amount);
+        advanceTimer.begin();
+        try {
+            advancePanel(amount);
+        } finally {
+            advanceTimer.end();
+        }
+    }
+
+    private void advancePanel(float amount) {
         if (p == null) return;
 
+        CasinoSpriteCache.advancePrefetch();
         animationTimer += amount;
 
         for (SlotReel reel : reels) {
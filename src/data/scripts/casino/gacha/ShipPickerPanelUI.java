@@ -2,10 +2,9 @@ package data.scripts.casino.gacha;
 
 import java.awt.Color;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.lwjgl.input.Keyboard;
@@ -50,13 +49,18 @@ public class ShipPickerPanelUI extends BaseCustomUIPanelPlugin implements Action
 
     private static final int COLS = 5;
     private static final int ROWS = 2;
+    private static final int PAGE_SIZE = COLS * ROWS;
     private static final float GAP_X = 15f;
     private static final float GAP_Y = 20f;
+    private static final float CELL_WIDTH = SHIP_BOX_WIDTH + GAP_X;
+    private static final float CELL_HEIGHT = SHIP_BOX_HEIGHT + NAME_HEIGHT + VALUE_HEIGHT + GAP_Y + CHECKBOX_SIZE;
 
     private static final float MARGIN = 30f;
     private static final float HEADER_HEIGHT = 40f;
     private static final float BUTTON_HEIGHT = 40f;
     private static final float BUTTON_AREA_HEIGHT = 60f;
+    private static final float GRID_START_Y = MARGIN + HEADER_HEIGHT + 20f;
+    private static final float PAGE_BUTTON_WIDTH = 110f;
 
     private static final Color COLOR_BG_DARK = new Color(15, 15, 20);
     private static final Color COLOR_BOX_BG = new Color(40, 40, 50);
@@ -68,6 +72,8 @@ public class ShipPickerPanelUI extends BaseCustomUIPanelPlugin implements Action
 
     private static final String ACTION_CONVERT = "picker_convert";
     private static final String ACTION_KEEP_ALL = "picker_keep_all";
+    private static final String ACTION_PREV_PAGE = "picker_prev_page";
+    private static final String ACTION_NEXT_PAGE = "picker_next_page";
 
     private final List<FleetMemberAPI> ships;
     private final Set<String> autoConvertHullIds;
@@ -78,26 +84,30 @@ public class ShipPickerPanelUI extends BaseCustomUIPanelPlugin implements Action
 
     private final Set<Integer> selectedIndices = new HashSet<>();
     private final Set<Integer> autoConvertIndices = new HashSet<>();
-    private final Map<Integer, Integer> shipValues = new HashMap<>();
+    // Computed on first display; -1 = not yet computed
+    private final int[] shipValues;
 
     private LabelAPI autoCountLabel;
     private LabelAPI selectedCountLabel;
+    private LabelAPI pageLabel;
 
-    private final List<LabelAPI> shipNameLabels = new ArrayList<>();
+    // One name/value label pair per grid cell, reused for every page
+    private final LabelAPI[] slotNameLabels = new LabelAPI[PAGE_SIZE];
+    private final LabelAPI[] slotValueLabels = new LabelAPI[PAGE_SIZE];
 
     private int lastAutoCount = -1;
     private int lastSelectedCount = -1;
 
+    private final int pageCount;
+    private int currentPage = 0;
+
     private ButtonAPI convertButton;
+    private ButtonAPI prevPageButton;
+    private ButtonAPI nextPageButton;
 
     private boolean buttonsCreated = false;
     private boolean wasMousePressed = false;
 
-    private record ClickRegion(float boxX, float boxY, float width, float height, int shipIndex)
-    {    }
-
-    private final List<ClickRegion> shipClickRegions = new ArrayList<>();
-
     public interface ShipPickerCallback {
         void onConvert(List<FleetMemberAPI> selected);
         void onKeepAll();
@@ -107,22 +117,22 @@ public class ShipPickerPanelUI extends BaseCustomUIPanelPlugin implements Action
         this.ships = ships;
         this.autoConvertHullIds = autoConvertHullIds != null ? autoConvertHullIds : new HashSet<>();
         this.callback = callback;
+        this.shipValues = new int[ships.size()];
+        this.pageCount = Math.max(1, (ships.size() + PAGE_SIZE - 1) / PAGE_SIZE);
 
         initializeSelectionState();
-        cacheShipSprites();
+        prefetchPage(0);
+        prefetchPage(1);
     }
 
     private void initializeSelectionState() {
         autoConvertIndices.clear();
         selectedIndices.clear();
-        shipValues.clear();
+        Arrays.fill(shipValues, -1);
 
         for (int i = 0; i < ships.size(); i++) {
             FleetMemberAPI ship = ships.get(i);
             if (ship != null && ship.getHullId() != null) {
-                int value = calculateShipValue(ship);
-                shipValues.put(i, value);
-
                 if (autoConvertHullIds.contains(ship.getHullId())) {
                     autoConvertIndices.add(i);
                     selectedIndices.add(i);
@@ -136,10 +146,19 @@ public class ShipPickerPanelUI extends BaseCustomUIPanelPlugin implements Action
         return (int)(ship.getHullSpec().getBaseValue() / CasinoConfig.SHIP_TRADE_RATE * CasinoConfig.SHIP_SELL_MULTIPLIER);
     }
 
-    private void cacheShipSprites() {
-        for (FleetMemberAPI ship : ships) {
-            if (ship != null && ship.getHullId() != null) {
-                getShipSprite(ship.getHullId());
+    private int getShipValue(int index) {
+        if (shipValues[index] < 0) {
+            shipValues[index] = calculateShipValue(ships.get(index));
+        }
+        return shipValues[index];
+    }
+
+    private void prefetchPage(int page) {
+        int end = Math.min(ships.size(), (page + 1) * PAGE_SIZE);
+        for (int i = page * PAGE_SIZE; i < end; i++) {
+            FleetMemberAPI ship = ships.get(i);
+            if (ship != null) {
+                CasinoSpriteCache.prefetch(ship.getHullId());
             }
         }
     }
@@ -155,7 +174,12 @@ public class ShipPickerPanelUI extends BaseCustomUIPanelPlugin implements Action
         callbacks.getPanelFader().setDurationOut(0.3f);
 
         createUIElements();
-        updateLabels();
+        showPage(0);
+    }
+
+    @Override
+    public void advance(float amount) {
+        CasinoSpriteCache.advancePrefetch();
     }
 
     private void createUIElements() {
@@ -184,41 +208,73 @@ public class ShipPickerPanelUI extends BaseCustomUIPanelPlugin implements Action
         selectedCountLabel.setAlignment(Alignment.LMID);
         panel.addComponent((UIComponentAPI) selectedCountLabel).inTL(MARGIN, MARGIN + HEADER_HEIGHT)
             .setSize(PANEL_WIDTH - MARGIN * 2, 20f);
+
+        pageLabel = settings.createLabel("", Fonts.DEFAULT_SMALL);
+        pageLabel.setColor(Color.GRAY);
+        pageLabel.setAlignment(Alignment.RMID);
+        panel.addComponent((UIComponentAPI) pageLabel).inTL(MARGIN, MARGIN + HEADER_HEIGHT)
+            .setSize(PANEL_WIDTH - MARGIN * 2, 20f);
     }
 
     private void createShipLabels() {
-        float startY = MARGIN + HEADER_HEIGHT + 20f;
-
-        for (int i = 0; i < ships.size() && i < COLS * ROWS; i++) {
-            FleetMemberAPI ship = ships.get(i);
-            if (ship == null) continue;
-
-            int col = i % COLS;
-            int row = i / COLS;
-            float boxX = MARGIN + col * (SHIP_BOX_WIDTH + GAP_X);
-            float boxY = startY + row * (SHIP_BOX_HEIGHT + NAME_HEIGHT + VALUE_HEIGHT + GAP_Y + CHECKBOX_SIZE);
-
-            shipClickRegions.add(new ClickRegion(boxX, boxY, SHIP_BOX_WIDTH, SHIP_BOX_HEIGHT + CHECKBOX_SIZE, i));
-
-            String name = ship.getShipName() != null ? ship.getShipName() :
-                          (ship.getHullSpec() != null ? ship.getHullSpec().getHullName() : "Unknown");
+        for (int slot = 0; slot < PAGE_SIZE; slot++) {
+            float boxX = getSlotX(slot);
+            float boxY = getSlotY(slot);
 
-            LabelAPI nameLbl = settings.createLabel(name, Fonts.DEFAULT_SMALL);
+            LabelAPI nameLbl = settings.createLabel("", Fonts.DEFAULT_SMALL);
             nameLbl.setColor(Color.WHITE);
             nameLbl.setAlignment(Alignment.MID);
             nameLbl.getPosition().setSize(SHIP_BOX_WIDTH, NAME_HEIGHT);
             panel.addComponent((UIComponentAPI) nameLbl).inTL(boxX, boxY + SHIP_BOX_HEIGHT + CHECKBOX_SIZE);
-            shipNameLabels.add(nameLbl);
+            slotNameLabels[slot] = nameLbl;
 
-            int value = shipValues.getOrDefault(i, 0);
-            LabelAPI valueLbl = settings.createLabel(Strings.format("gacha_picker.value_format", value), Fonts.DEFAULT_SMALL);
+            LabelAPI valueLbl = settings.createLabel("", Fonts.DEFAULT_SMALL);
             valueLbl.setColor(Color.GRAY);
             valueLbl.setAlignment(Alignment.MID);
             valueLbl.getPosition().setSize(SHIP_BOX_WIDTH, VALUE_HEIGHT);
             panel.addComponent((UIComponentAPI) valueLbl).inTL(boxX, boxY + SHIP_BOX_HEIGHT + CHECKBOX_SIZE + NAME_HEIGHT);
+            slotValueLabels[slot] = valueLbl;
         }
     }
 
+    private static float getSlotX(int slot) {
+        return MARGIN + (slot % COLS) * CELL_WIDTH;
+    }
+
+    private static float getSlotY(int slot) {
+        return GRID_START_Y + (slot / COLS) * CELL_HEIGHT;
+    }
+
+    /** Points the slot labels at the ships of the given page. */
+    private void showPage(int page) {
+        currentPage = Math.max(0, Math.min(page, pageCount - 1));
+        int first = currentPage * PAGE_SIZE;
+
+        for (int slot = 0; slot < PAGE_SIZE; slot++) {
+            int index = first + slot;
+            FleetMemberAPI ship = index < ships.size() ? ships.get(index) : null;
+            if (ship == null) {
+                slotNameLabels[slot].setText("");
+                slotValueLabels[slot].setText("");
+                continue;
+            }
+
+            String name = ship.getShipName() != null ? ship.getShipName() :
+                          (ship.getHullSpec() != null ? ship.getHullSpec().getHullName() : "Unknown");
+            slotNameLabels[slot].setText(name);
+            slotValueLabels[slot].setText(Strings.format("gacha_picker.value_format", getShipValue(index)));
+        }
+
+        pageLabel.setText(pageCount > 1 ? Strings.format("gacha_picker.page", currentPage + 1, pageCount) : "");
+        if (prevPageButton != null) {
+            prevPageButton.setEnabled(currentPage > 0);
+            nextPageButton.setEnabled(currentPage < pageCount - 1);
+        }
+
+        prefetchPage(currentPage + 1);
+        updateLabels();
+    }
+
 private void createButtons() {
         if (panel == null || buttonsCreated) return;
 
@@ -238,6 +294,18 @@ private void createButtons() {
         keepAllButton.setQuickMode(true);
         keepAllButton.setShortcut(Keyboard.KEY_ESCAPE, false);
 
+        if (pageCount > 1) {
+            prevPageButton = btnTp.addButton(Strings.get("gacha_picker.prev_page_btn"), ACTION_PREV_PAGE, PAGE_BUTTON_WIDTH, BUTTON_HEIGHT, 0f);
+            prevPageButton.getPosition().inTL(MARGIN, 0);
+            prevPageButton.setQuickMode(true);
+            prevPageButton.setShortcut(Keyboard.KEY_LEFT, false);
+
+            nextPageButton = btnTp.addButton(Strings.get("gacha_picker.next_page_btn"), ACTION_NEXT_PAGE, PAGE_BUTTON_WIDTH, BUTTON_HEIGHT, 0f);
+            nextPageButton.getPosition().inTL(PANEL_WIDTH - MARGIN - PAGE_BUTTON_WIDTH, 0);
+            nextPageButton.setQuickMode(true);
+            nextPageButton.setShortcut(Keyboard.KEY_RIGHT, false);
+        }
+
         buttonsCreated = true;
     }
 
@@ -261,18 +329,20 @@ private void createButtons() {
             }
         }
 
-        for (int i = 0; i < shipNameLabels.size() && i < ships.size(); i++) {
-            boolean isSelected = selectedIndices.contains(i);
-            boolean isAuto = autoConvertIndices.contains(i);
+        int first = currentPage * PAGE_SIZE;
+        for (int slot = 0; slot < PAGE_SIZE && first + slot < ships.size(); slot++) {
+            int index = first + slot;
+            boolean isSelected = selectedIndices.contains(index);
+            boolean isAuto = autoConvertIndices.contains(index);
 
             if (isSelected) {
                 if (isAuto) {
-                    shipNameLabels.get(i).setColor(COLOR_AUTO_TAG);
+                    slotNameLabels[slot].setColor(COLOR_AUTO_TAG);
                 } else {
-                    shipNameLabels.get(i).setColor(COLOR_MANUAL_TAG);
+                    slotNameLabels[slot].setColor(COLOR_MANUAL_TAG);
                 }
             } else {
-                shipNameLabels.get(i).setColor(Color.WHITE);
+                slotNameLabels[slot].setColor(Color.WHITE);
             }
         }
     }
@@ -291,9 +361,10 @@ private void createButtons() {
     }
 
     private void renderShipBoxes(float panelX, float panelY, float alphaMult) {
-        float startY = MARGIN + HEADER_HEIGHT + 20f;
+        int first = currentPage * PAGE_SIZE;
 
-        for (int i = 0; i < ships.size() && i < COLS * ROWS; i++) {
+        for (int slot = 0; slot < PAGE_SIZE && first + slot < ships.size(); slot++) {
+            int i = first + slot;
             FleetMemberAPI ship = ships.get(i);
             if (ship == null) continue;
 
@@ -301,10 +372,8 @@ private void createButtons() {
             GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
             GL11.glDisable(GL11.GL_TEXTURE_2D);
 
-            int col = i % COLS;
-            int row = i / COLS;
-            float boxX = MARGIN + col * (SHIP_BOX_WIDTH + GAP_X);
-            float boxY = startY + row * (SHIP_BOX_HEIGHT + NAME_HEIGHT + VALUE_HEIGHT + GAP_Y + CHECKBOX_SIZE);
+            float boxX = getSlotX(slot);
+            float boxY = getSlotY(slot);
 
             float screenY = panelY + PANEL_HEIGHT - boxY - SHIP_BOX_HEIGHT;
 
@@ -390,25 +459,36 @@ private void createButtons() {
             float mouseY = Mouse.getY() / scale;
 
             PositionAPI pos = panel.getPosition();
-            float panelX = pos.getX();
-            float panelY = pos.getY();
-
-            for (ClickRegion region : shipClickRegions) {
-                float screenX = panelX + region.boxX;
-                float screenY = panelY + PANEL_HEIGHT - region.boxY - region.height;
-
-                if (mouseX >= screenX && mouseX <= screenX + region.width &&
-                    mouseY >= screenY && mouseY <= screenY + region.height) {
-                    toggleSelection(region.shipIndex);
-                    Global.getSoundPlayer().playUISound("ui_button_pressed", 1f, 0.6f);
-                    break;
-                }
+            int index = getShipIndexAt(mouseX - pos.getX(), pos.getY() + PANEL_HEIGHT - mouseY);
+            if (index >= 0) {
+                toggleSelection(index);
+                Global.getSoundPlayer().playUISound("ui_button_pressed", 1f, 0.6f);
             }
         }
 
         wasMousePressed = mouseDown;
     }
 
+    /**
+     * Maps a point in panel coordinates (x from the left, y from the top) to the ship whose
+     * box or checkbox it lands on, or -1 for gaps, empty cells and points outside the grid.
+     */
+    private int getShipIndexAt(float x, float y) {
+        float gridX = x - MARGIN;
+        float gridY = y - GRID_START_Y;
+        if (gridX < 0 || gridY < 0) return -1;
+
+        int col = (int) (gridX / CELL_WIDTH);
+        int row = (int) (gridY / CELL_HEIGHT);
+        if (col >= COLS || row >= ROWS) return -1;
+        if (gridX - col * CELL_WIDTH > SHIP_BOX_WIDTH) return -1;
+        if (gridY - row * CELL_HEIGHT > SHIP_BOX_HEIGHT + CHECKBOX_SIZE) return -1;
+
+        int index = currentPage * PAGE_SIZE + row * COLS + col;
+        if (index >= ships.size() || ships.get(index) == null) return -1;
+        return index;
+    }
+
     private void toggleSelection(int index) {
         if (index < 0 || index >= ships.size()) return;
 
@@ -445,6 +525,10 @@ private void createButtons() {
                 callback.onKeepAll();
             }
             callbacks.dismissDialog();
+        } else if (action.equals(ACTION_PREV_PAGE)) {
+            showPage(currentPage - 1);
+        } else if (action.equals(ACTION_NEXT_PAGE)) {
+            showPage(currentPage + 1);
         }
     }
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package data.scripts.casino.interaction;
 
 import com.fs.starfarer.api.Global;
+import data.scripts.casino.arena.ArenaBattleLog;
+import data.scripts.casino.arena.ArenaBattleRecord;
 import data.scripts.casino.arena.ArenaDialogDelegate;
 import data.scripts.casino.arena.ArenaPanelUI;
+import data.scripts.casino.arena.ArenaPayout;
 import data.scripts.casino.arena.SpiralAbyssArena;
 import data.scripts.casino.CasinoConfig;
 import data.scripts.casino.gacha.CasinoGachaManager;
@@ -11,13 +14,10 @@ import data.scripts.casino.Strings;
 
 import java.awt.Color;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.Comparator;
-import java.util.function.Predicate;
 
 public class ArenaHandler {
 
@@ -47,12 +47,7 @@ public class ArenaHandler {
 
     // Memory keys for suspended arena state
     private static final String MEM_SUSPENDED_GAME_TYPE = "$ipc_suspended_game_type";
-    private static final String MEM_ARENA_CURRENT_ROUND = "$ipc_arena_current_round";
-    private static final String MEM_ARENA_OPPONENTS_DEFEATED = "$ipc_arena_opponents_defeated";
-    private static final String MEM_ARENA_COMBATANT_COUNT = "$ipc_arena_combatant_count";
-    private static final String MEM_ARENA_COMBATANT_PREFIX = "$ipc_arena_combatant_";
-    private static final String MEM_ARENA_BETS_COUNT = "$ipc_arena_bets_count";
-    private static final String MEM_ARENA_SUSPEND_TIME = "$ipc_arena_suspend_time";
+    private static final String MEM_ARENA_SNAPSHOT = "$ipc_arena_snapshot";
 
 private final CasinoInteraction main;
     private ArenaDialogDelegate currentDelegate;
@@ -154,19 +149,15 @@ private final CasinoInteraction main;
     }
     
 protected List<BetInfo> arenaBets = new ArrayList<>();
-    protected List<String> battleLog = new ArrayList<>();
+    protected final ArenaBattleLog battleLog = new ArenaBattleLog();
     
-    private final Map<String, OptionHandler> handlers = new HashMap<>();
-    private final Map<Predicate<String>, OptionHandler> predicateHandlers = new HashMap<>();
-
     public ArenaHandler(CasinoInteraction main) {
         this.main = main;
-        initializeHandlers();
     }
     
-    private void initializeHandlers() {
-        handlers.put("arena_visual_panel", option -> initAndShowVisualPanel());
-        handlers.put(OPTION_ARENA_LOBBY, option -> {
+    void registerOptions(OptionRouter router) {
+        router.exact("arena_visual_panel", option -> initAndShowVisualPanel());
+        router.exact(OPTION_ARENA_LOBBY, option -> {
             // Return any active bets when canceling back to lobby
             returnActiveBets();
             arenaBets.clear();
@@ -178,41 +169,30 @@ protected List<BetInfo> arenaBets = new ArrayList<>();
             battleLog.clear();
             showArenaLobby();
         });
-        handlers.put("arena_add_bet_menu", option -> showAddBetMenu());
-        handlers.put(OPTION_HOW_TO_ARENA, option -> main.help.showArenaHelp());
-        handlers.put(OPTION_BACK_MENU, option -> {
-            // If leaving without a suspended game, clear any suspended memory
-            if (!hasSuspendedArena()) {
-                clearSuspendedArenaMemory();
-            }
-            resetArenaState();
-            main.showMenu();
-        });
-        handlers.put(OPTION_ARENA_RESUME, option -> restoreSuspendedArena());
-
-        handlers.put(OPTION_ARENA_WATCH_NEXT, option -> simulateArenaStep());
-        handlers.put(OPTION_ARENA_SKIP, option -> {
-            boolean result;
-            do {
-                result = simulateArenaStep();
-            } while (result);
+        router.exact("arena_add_bet_menu", option -> showAddBetMenu());
+        router.exact(OPTION_ARENA_RESUME, option -> restoreSuspendedArena());
+
+        router.exact(OPTION_ARENA_WATCH_NEXT, option -> simulateArenaStep());
+        router.exact(OPTION_ARENA_SKIP, option -> {
+            resolveRemainingRounds();
+            finishArenaBattle();
         });
-        handlers.put(OPTION_ARENA_SUSPEND, option -> suspendArena());
-        handlers.put(OPTION_ARENA_ADD_ANOTHER_BET, option -> showAddAnotherBetMenu());
-        handlers.put(OPTION_ARENA_STATUS, option -> showArenaVisualPanel());
-        handlers.put(OPTION_ARENA_LEAVE_NOW, option -> {
+        router.exact(OPTION_ARENA_SUSPEND, option -> suspendArena());
+        router.exact(OPTION_ARENA_ADD_ANOTHER_BET, option -> showAddAnotherBetMenu());
+        router.exact(OPTION_ARENA_STATUS, option -> showArenaVisualPanel());
+        router.exact(OPTION_ARENA_LEAVE_NOW, option -> {
             if (!hasSuspendedArena()) {
                 clearSuspendedArenaMemory();
             }
             resetArenaState();
             main.showMenu();
         });
-        handlers.put("arena_resume_continue", option -> {
+        router.exact("arena_resume_continue", option -> {
             clearSuspendedArenaMemory();
             showArenaVisualPanel();
         });
-        handlers.put("arena_resume_wait", option -> main.showMenu());
-        handlers.put(OPTION_ARENA_START_BATTLE, option -> {
+        router.exact("arena_resume_wait", option -> main.showMenu());
+        router.exact(OPTION_ARENA_START_BATTLE, option -> {
             int chosenIdx = -1;
             for (int i = 0; i < arenaCombatants.size(); i++) {
                 if (chosenChampion != null &&
@@ -229,37 +209,11 @@ protected List<BetInfo> arenaBets = new ArrayList<>();
             }
         });
 
-        predicateHandlers.put(option -> option.startsWith(OPTION_ARENA_SELECT_SHIP), option -> {
-            int parsedIdx = Integer.parseInt(option.replace(OPTION_ARENA_SELECT_SHIP, ""));
-            showArenaConfirm(parsedIdx);
-        });
-        predicateHandlers.put(option -> option.startsWith(OPTION_ARENA_ADD_BET)
-                && !option.equals("arena_add_bet_menu")
-                && !option.startsWith(OPTION_ARENA_CONFIRM_ADD_BET), option -> {
-            int parsedAdditionalAmount = Integer.parseInt(option.replace(OPTION_ARENA_ADD_BET, ""));
-            confirmAddBet(parsedAdditionalAmount);
-        });
-        predicateHandlers.put(option -> option.startsWith(OPTION_ARENA_CONFIRM_ADD_BET)
-                && !option.startsWith(OPTION_ARENA_CONFIRM_ADD_BET_TO_CHAMP), option -> {
-            int parsedAdditionalAmount = Integer.parseInt(option.replace(OPTION_ARENA_CONFIRM_ADD_BET, ""));
-            addIncrementalBet(parsedAdditionalAmount);
-        });
-        predicateHandlers.put(option -> option.startsWith(OPTION_ARENA_SELECT_CHAMPION_FOR_BET), option -> {
-            int parsedIdx = Integer.parseInt(option.replace(OPTION_ARENA_SELECT_CHAMPION_FOR_BET, ""));
-            showBetAmountSelection(parsedIdx);
-        });
-        predicateHandlers.put(option -> option.startsWith(OPTION_ARENA_CONFIRM_ADD_BET_TO_CHAMP), option -> {
-            String[] parts = option.replace(OPTION_ARENA_CONFIRM_ADD_BET_TO_CHAMP, "").split("_");
-            int championIndex = Integer.parseInt(parts[0]);
-            int amount = Integer.parseInt(parts[1]);
-            performAddBetToChampion(championIndex, amount);
-        });
-
-        // Handle contextual arena help options
-        predicateHandlers.put(option -> option.startsWith("how_to_arena_"), option -> {
-            String returnTo = option.replace("how_to_arena_", "");
-            main.help.showArenaHelp(returnTo);
-        });
+        router.indexed(OPTION_ARENA_SELECT_SHIP, this::showArenaConfirm);
+        router.indexed(OPTION_ARENA_ADD_BET, this::confirmAddBet);
+        router.indexed(OPTION_ARENA_CONFIRM_ADD_BET, this::addIncrementalBet);
+        router.indexed(OPTION_ARENA_SELECT_CHAMPION_FOR_BET, this::showBetAmountSelection);
+        router.indexPair(OPTION_ARENA_CONFIRM_ADD_BET_TO_CHAMP, this::performAddBetToChampion);
     }
 
     // Color definitions for perks - prefixes (strong) are brighter, affixes (weak) are lighter
@@ -426,23 +380,6 @@ protected List<BetInfo> arenaBets = new ArrayList<>();
         return false;
     }
 
-    public void handle(String option) {
-        // Try exact match handlers first
-        OptionHandler handler = handlers.get(option);
-        if (handler != null) {
-            handler.handle(option);
-            return;
-        }
-        
-        // Try predicate-based handlers for pattern matching
-        for (Map.Entry<Predicate<String>, OptionHandler> entry : predicateHandlers.entrySet()) {
-            if (entry.getKey().test(option)) {
-                entry.getValue().handle(option);
-                return;
-            }
-        }
-    }
-    
     private void displayFinancialInfo() {
         int currentBalance = CasinoVIPManager.getBalance();
         int creditCeiling = CasinoVIPManager.getCreditCeiling();
@@ -743,8 +680,6 @@ private ArenaDialogDelegate activeDialogDelegate = null;
 
 private boolean simulateArenaStep() {
         List<String> logEntries = activeArena.simulateStep(arenaCombatants, currentRound);
-        
-        activeArena.invalidateOddsCache();
 
         currentRound++;
 
@@ -854,8 +789,6 @@ private boolean simulateArenaStep() {
         }
         
         List<String> logEntries = activeArena.simulateStep(arenaCombatants, currentRound);
-        
-        activeArena.invalidateOddsCache();
 
         currentRound++;
 
@@ -916,26 +849,7 @@ private boolean simulateArenaStep() {
             return;
         }
         
-        boolean result;
-        do {
-            List<String> logEntries = activeArena.simulateStep(arenaCombatants, currentRound);
-            
-            activeArena.invalidateOddsCache();
-
-            currentRound++;
-
-            int aliveCount = 0;
-            for (SpiralAbyssArena.SpiralGladiator gladiator : arenaCombatants) {
-                if (!gladiator.isDead) {
-                    gladiator.turnsSurvived++;
-                    aliveCount++;
-                }
-            }
-
-            battleLog.addAll(logEntries);
-            
-            result = aliveCount > 1;
-        } while (result);
+        resolveRemainingRounds();
         
         delegate.setPendingBattleEnd(false);
         delegate.getArenaPanel().stopAnimation();
@@ -943,6 +857,13 @@ private boolean simulateArenaStep() {
         finishArenaBattleInPlace(delegate);
     }
     
+    /** Plays the rest of the battle without generating log text; lines are written if the log is read. */
+    private void resolveRemainingRounds() {
+        ArenaBattleRecord record = activeArena.resolveToEnd(arenaCombatants, currentRound);
+        currentRound += record.rounds();
+        battleLog.addDeferred(activeArena, arenaCombatants, record);
+    }
+    
     public void startNewArenaMatchInPlace(ArenaDialogDelegate delegate) {
         if (delegate == null) {
             startNewArenaMatch();
@@ -978,28 +899,7 @@ private boolean simulateArenaStep() {
     }
 
     private void calculateFinalPositions(SpiralAbyssArena.SpiralGladiator winner) {
-        if (winner != null) {
-            winner.finalPosition = 0;
-        }
-        
-        List<SpiralAbyssArena.SpiralGladiator> deadShips = new ArrayList<>();
-        for (SpiralAbyssArena.SpiralGladiator g : arenaCombatants) {
-            if (g.isDead) {
-                deadShips.add(g);
-            }
-        }
-        
-        deadShips.sort((a, b) -> Integer.compare(b.turnsSurvived, a.turnsSurvived));
-        
-        int position = 1;
-        int lastTurnsSurvived = -1;
-        for (SpiralAbyssArena.SpiralGladiator ship : deadShips) {
-            if (lastTurnsSurvived != -1 && ship.turnsSurvived != lastTurnsSurvived) {
-                position++;
-            }
-            ship.finalPosition = position;
-            lastTurnsSurvived = ship.turnsSurvived;
-        }
+        ArenaPayout.assignFinalPositions(arenaCombatants, winner);
     }
 
     private SpiralAbyssArena.SpiralGladiator findWinner() {
@@ -1052,9 +952,7 @@ private boolean simulateArenaStep() {
 
         for (BetInfo bet : arenaBets) {
             if (bet.ship == ship) {
-                float performanceMultiplier = calculatePerformanceMultiplier(ship, bet.roundPlaced);
-                float effectiveMultiplier = calculateEffectiveMultiplier(bet.multiplier, performanceMultiplier);
-                reward += (int)(bet.amount * effectiveMultiplier);
+                reward += ArenaPayout.winReward(bet.amount, bet.multiplier, ship, bet.roundPlaced);
             }
         }
         return reward;
@@ -1063,34 +961,13 @@ private boolean simulateArenaStep() {
     private int calculateConsolationReward(SpiralAbyssArena.SpiralGladiator ship) {
         int reward = 0;
 
-        float positionFactor = SpiralAbyssArena.getPositionFactor(ship.finalPosition);
-
         for (BetInfo bet : arenaBets) {
             if (bet.ship == ship) {
-                float baseConsolation = CasinoConfig.ARENA_CONSOLATION_BASE * positionFactor;
-                
-                float killBonusFactor = calculateKillBonusFactor(bet.roundPlaced, ship.kills);
-                float consolationRate = baseConsolation + killBonusFactor;
-                
-                reward += (int)(bet.amount * consolationRate);
+                reward += ArenaPayout.consolationReward(bet.amount, ship, bet.roundPlaced);
             }
         }
         return reward;
     }
-    
-    /**
-     * Calculates the kill bonus factor for consolation.
-     * Kill bonus only applies to bets placed before battle started (round 0).
-     * 
-     * @param roundPlaced The round when the bet was placed
-     * @param kills The number of kills the ship achieved
-     * @return The kill bonus factor to add to consolation rate
-     */
-    private float calculateKillBonusFactor(int roundPlaced, int kills) {
-        if (kills <= 0 || roundPlaced > 0) return 0.0f;
-        
-        return CasinoConfig.ARENA_KILL_BONUS_FLAT * kills;
-    }
 
     private void startNewArenaMatch() {
         cachedTotalBet = 0;
@@ -1151,42 +1028,8 @@ private boolean simulateArenaStep() {
     private void clearSuspendedArenaMemory() {
         com.fs.starfarer.api.campaign.rules.MemoryAPI mem = Global.getSector().getMemoryWithoutUpdate();
         mem.unset(MEM_SUSPENDED_GAME_TYPE);
-        mem.unset(MEM_ARENA_CURRENT_ROUND);
-        mem.unset(MEM_ARENA_OPPONENTS_DEFEATED);
-        mem.unset(MEM_ARENA_COMBATANT_COUNT);
-        mem.unset(MEM_ARENA_SUSPEND_TIME);
-        mem.unset(MEM_ARENA_BETS_COUNT);
-        
-        // Clear combatant data (up to reasonable max)
-        for (int i = 0; i < 10; i++) {
-            if (mem.getString(MEM_ARENA_COMBATANT_PREFIX + i + "_hull_id") == null) {
-                break;
-            }
-            mem.unset(MEM_ARENA_COMBATANT_PREFIX + i + "_hull_id");
-            mem.unset(MEM_ARENA_COMBATANT_PREFIX + i + "_prefix");
-            mem.unset(MEM_ARENA_COMBATANT_PREFIX + i + "_hull_name");
-            mem.unset(MEM_ARENA_COMBATANT_PREFIX + i + "_affix");
-            mem.unset(MEM_ARENA_COMBATANT_PREFIX + i + "_hp");
-            mem.unset(MEM_ARENA_COMBATANT_PREFIX + i + "_max_hp");
-            mem.unset(MEM_ARENA_COMBATANT_PREFIX + i + "_power");
-            mem.unset(MEM_ARENA_COMBATANT_PREFIX + i + "_agility");
-            mem.unset(MEM_ARENA_COMBATANT_PREFIX + i + "_bravery");
-            mem.unset(MEM_ARENA_COMBATANT_PREFIX + i + "_is_dead");
-            mem.unset(MEM_ARENA_COMBATANT_PREFIX + i + "_kills");
-            mem.unset(MEM_ARENA_COMBATANT_PREFIX + i + "_turns_survived");
-            mem.unset(MEM_ARENA_COMBATANT_PREFIX + i + "_base_odds");
-        }
-        
-        // Clear bet data
-        for (int i = 0; i < 30; i++) {
-            if (!mem.contains("$ipc_arena_bet_" + i + "_amount")) {
-                break;
-            }
-            mem.unset("$ipc_arena_bet_" + i + "_amount");
-            mem.unset("$ipc_arena_bet_" + i + "_multiplier");
-            mem.unset("$ipc_arena_bet_" + i + "_round_placed");
-            mem.unset("$ipc_arena_bet_" + i + "_ship_name");
-        }
+        mem.unset(MEM_ARENA_SNAPSHOT);
+        ArenaSnapshotCodec.clearLegacy(mem);
     }
 
     private void showBetAmountSelection(int championIndex) {
@@ -1368,66 +1211,23 @@ private void performAddBetToChampion(int championIndex, int additionalAmount) {
         return total;
     }
 
-    private float calculatePerformanceMultiplier(SpiralAbyssArena.SpiralGladiator ship, int roundPlaced) {
-        float survivalBonusMult = 1.0f;
-        if (roundPlaced == 0) {
-            survivalBonusMult = 1.0f + (ship.turnsSurvived * CasinoConfig.ARENA_SURVIVAL_BONUS_PER_TURN);
-        }
-        
-        float killBonusMult = 1.0f;
-        if (roundPlaced == 0 && ship.kills > 0) {
-            killBonusMult = 1.0f + (ship.kills * CasinoConfig.ARENA_KILL_BONUS_PER_KILL);
-        }
-        
-        return survivalBonusMult * killBonusMult;
-    }
-
-    private float calculateEffectiveMultiplier(float frozenOdds, float performanceMultiplier) {
-        float effectiveMultiplier = frozenOdds * performanceMultiplier;
-        return Math.max(1.01f, effectiveMultiplier);
-    }
-
     private void suspendArena() {
         com.fs.starfarer.api.campaign.rules.MemoryAPI mem = Global.getSector().getMemoryWithoutUpdate();
-        mem.set("$ipc_suspended_game_type", "Arena");
-
-        mem.set("$ipc_arena_current_round", currentRound);
-        mem.set("$ipc_arena_opponents_defeated", opponentsDefeated);
-
-        if (arenaCombatants != null) {
-            for (int i = 0; i < arenaCombatants.size(); i++) {
-                SpiralAbyssArena.SpiralGladiator gladiator = arenaCombatants.get(i);
-                mem.set(MEM_ARENA_COMBATANT_PREFIX + i + "_hull_id", gladiator.hullId);
-                mem.set(MEM_ARENA_COMBATANT_PREFIX + i + "_prefix", gladiator.prefix);
-                mem.set(MEM_ARENA_COMBATANT_PREFIX + i + "_hull_name", gladiator.hullName);
-                mem.set(MEM_ARENA_COMBATANT_PREFIX + i + "_affix", gladiator.affix);
-                mem.set(MEM_ARENA_COMBATANT_PREFIX + i + "_hp", gladiator.hp);
-                mem.set(MEM_ARENA_COMBATANT_PREFIX + i + "_max_hp", gladiator.maxHp);
-                mem.set(MEM_ARENA_COMBATANT_PREFIX + i + "_power", gladiator.power);
-                mem.set(MEM_ARENA_COMBATANT_PREFIX + i + "_agility", gladiator.agility);
-                mem.set(MEM_ARENA_COMBATANT_PREFIX + i + "_bravery", gladiator.bravery);
-                mem.set(MEM_ARENA_COMBATANT_PREFIX + i + "_is_dead", gladiator.isDead);
-                mem.set(MEM_ARENA_COMBATANT_PREFIX + i + "_kills", gladiator.kills);
-                mem.set(MEM_ARENA_COMBATANT_PREFIX + i + "_turns_survived", gladiator.turnsSurvived);
-                mem.set(MEM_ARENA_COMBATANT_PREFIX + i + "_base_odds", gladiator.baseOdds);
-            }
-            mem.set(MEM_ARENA_COMBATANT_COUNT, arenaCombatants.size());
-        }
-        
-        // Save bets
-        mem.set(MEM_ARENA_BETS_COUNT, arenaBets.size());
-        for (int i = 0; i < arenaBets.size(); i++) {
-            BetInfo bet = arenaBets.get(i);
-            mem.set("$ipc_arena_bet_" + i + "_amount", bet.amount);
-            mem.set("$ipc_arena_bet_" + i + "_multiplier", bet.multiplier);
-            mem.set("$ipc_arena_bet_" + i + "_round_placed", bet.roundPlaced);
-            if (bet.ship != null) {
-                mem.set("$ipc_arena_bet_" + i + "_ship_name", bet.ship.fullName);
-            }
-        }
 
         // Store the time when arena was suspended for the joke
-        mem.set(MEM_ARENA_SUSPEND_TIME, Global.getSector().getClock().getTimestamp());
+        long suspendTime = Global.getSector().getClock().getTimestamp();
+        String snapshot = ArenaSnapshotCodec.encode(currentRound, opponentsDefeated, suspendTime,
+            activeArena, arenaCombatants, arenaBets);
+        if (snapshot == null) {
+            // A suspended match with no data could never be resumed, so call it off and refund the bets
+            Global.getLogger(this.getClass()).error("Could not suspend arena match, returning bets instead");
+            main.getTextPanel().addPara(Strings.get("errors.arena_suspend_failed"), Color.RED);
+            resetArenaState();
+            main.showMenu();
+            return;
+        }
+        mem.set(MEM_SUSPENDED_GAME_TYPE, "Arena");
+        mem.set(MEM_ARENA_SNAPSHOT, snapshot);
 
         main.getTextPanel().addPara(Strings.get("arena_suspend.stand_up"), Color.YELLOW);
         main.getTextPanel().addPara(Strings.get("arena_suspend.announcer_pause"), Color.CYAN);
@@ -1440,68 +1240,72 @@ private void performAddBetToChampion(int championIndex, int additionalAmount) {
     private void restoreSuspendedArena() {
         com.fs.starfarer.api.campaign.rules.MemoryAPI mem = Global.getSector().getMemoryWithoutUpdate();
 
-        if (!mem.contains(MEM_ARENA_SUSPEND_TIME) || !mem.contains(MEM_ARENA_COMBATANT_COUNT)) {
+        ArenaSnapshotCodec.Snapshot snapshot;
+        if (mem.contains(MEM_ARENA_SNAPSHOT)) {
+            snapshot = ArenaSnapshotCodec.decode(mem.getString(MEM_ARENA_SNAPSHOT));
+        } else if (ArenaSnapshotCodec.hasLegacy(mem)) {
+            // Migrate saves from before the snapshot format
+            snapshot = ArenaSnapshotCodec.readLegacy(mem);
+            String migrated = ArenaSnapshotCodec.encode(snapshot.currentRound, snapshot.opponentsDefeated,
+                snapshot.suspendTime, null, snapshot.combatants, snapshot.bets);
+            // Keep the legacy keys if the snapshot could not be written, so the match is not lost
+            if (migrated != null) {
+                mem.set(MEM_ARENA_SNAPSHOT, migrated);
+                ArenaSnapshotCodec.clearLegacy(mem);
+            }
+        } else {
+            snapshot = null;
+        }
+
+        if (snapshot == null) {
             clearSuspendedArenaMemory();
             main.getTextPanel().addPara(Strings.get("errors.corrupted_arena_data"), Color.RED);
             showArenaLobby();
             return;
         }
 
-        long suspendTime = mem.getLong(MEM_ARENA_SUSPEND_TIME);
-        float daysAway = Global.getSector().getClock().getElapsedDaysSince(suspendTime);
+        if (snapshot.unplayable) {
+            // A hull in the match no longer exists, so it cannot be replayed; call it off and refund the stakes
+            Global.getLogger(this.getClass()).warn("Suspended arena match cannot be rebuilt, returning bets");
+            main.getTextPanel().addPara(Strings.get("errors.arena_match_unplayable"), Color.RED);
+            arenaBets.clear();
+            cachedTotalBet = 0;
+            for (BetInfo bet : snapshot.bets) {
+                cachedTotalBet += bet.amount;
+            }
+            resetArenaState();
+            clearSuspendedArenaMemory();
+            showArenaLobby();
+            return;
+        }
 
-        currentRound = mem.getInt(MEM_ARENA_CURRENT_ROUND);
-        opponentsDefeated = mem.getInt(MEM_ARENA_OPPONENTS_DEFEATED);
+        float daysAway = Global.getSector().getClock().getElapsedDaysSince(snapshot.suspendTime);
 
-        int combatantCount = mem.getInt(MEM_ARENA_COMBATANT_COUNT);
-        if (combatantCount > 0) {
-            arenaCombatants = new ArrayList<>();
-            for (int i = 0; i < combatantCount; i++) {
-                String prefix = mem.getString(MEM_ARENA_COMBATANT_PREFIX + i + "_prefix");
-                String hullId = mem.getString(MEM_ARENA_COMBATANT_PREFIX + i + "_hull_id");
-                if (hullId == null) {
-                    hullId = "";
-                }
-                String hullName = mem.getString(MEM_ARENA_COMBATANT_PREFIX + i + "_hull_name");
-                String affix = mem.getString(MEM_ARENA_COMBATANT_PREFIX + i + "_affix");
-                int hp = mem.getInt(MEM_ARENA_COMBATANT_PREFIX + i + "_hp");
-                int maxHp = mem.getInt(MEM_ARENA_COMBATANT_PREFIX + i + "_max_hp");
-                int power = mem.getInt(MEM_ARENA_COMBATANT_PREFIX + i + "_power");
-                float agility = mem.getFloat(MEM_ARENA_COMBATANT_PREFIX + i + "_agility");
-                float bravery = mem.getFloat(MEM_ARENA_COMBATANT_PREFIX + i + "_bravery");
-
-                SpiralAbyssArena.SpiralGladiator gladiator = new SpiralAbyssArena.SpiralGladiator(hullId, prefix, hullName, affix, maxHp, power, agility, bravery);
-                gladiator.hp = hp;
-                gladiator.isDead = mem.getBoolean(MEM_ARENA_COMBATANT_PREFIX + i + "_is_dead");
-                gladiator.kills = mem.getInt(MEM_ARENA_COMBATANT_PREFIX + i + "_kills");
-                gladiator.turnsSurvived = mem.getInt(MEM_ARENA_COMBATANT_PREFIX + i + "_turns_survived");
-                gladiator.baseOdds = mem.getFloat(MEM_ARENA_COMBATANT_PREFIX + i + "_base_odds");
-                arenaCombatants.add(gladiator);
-            }
+        currentRound = snapshot.currentRound;
+        opponentsDefeated = snapshot.opponentsDefeated;
+
+        if (!snapshot.combatants.isEmpty()) {
+            arenaCombatants = snapshot.combatants;
         }
 
-        int betsCount = mem.getInt(MEM_ARENA_BETS_COUNT);
         arenaBets.clear();
         cachedTotalBet = 0;
-        for (int i = 0; i < betsCount; i++) {
-            int amount = mem.getInt("$ipc_arena_bet_" + i + "_amount");
-            float multiplier = mem.getFloat("$ipc_arena_bet_" + i + "_multiplier");
-            int roundPlaced = mem.getInt("$ipc_arena_bet_" + i + "_round_placed");
-            String shipName = mem.getString("$ipc_arena_bet_" + i + "_ship_name");
-
-            SpiralAbyssArena.SpiralGladiator betShip = findGladiatorByName(shipName);
-
-            if (betShip != null) {
-                arenaBets.add(new BetInfo(amount, multiplier, betShip, roundPlaced));
-                cachedTotalBet += amount;
-            }
+        for (BetInfo bet : snapshot.bets) {
+            arenaBets.add(bet);
+            cachedTotalBet += bet.amount;
         }
         
         if (!arenaBets.isEmpty()) {
             chosenChampion = arenaBets.get(0).ship;
         }
         
-        if (activeArena == null) {
+        if (snapshot.arena != null) {
+            // Rebuilt from its seed: carry on with the same random stream and restore the log so far
+            activeArena = snapshot.arena;
+            battleLog.clear();
+            battleLog.addDeferred(activeArena, arenaCombatants, snapshot.replayed);
+        } else {
+            // Full stats from an older save; a fresh arena is not replayable, so this match keeps that form
             activeArena = new SpiralAbyssArena();
         }
 
@@ -1521,15 +1325,6 @@ private void performAddBetToChampion(int championIndex, int additionalAmount) {
         main.getOptions().addOption(Strings.get("arena_resume.wait"), "arena_resume_wait");
     }
 
-    private SpiralAbyssArena.SpiralGladiator findGladiatorByName(String fullName) {
-        for (SpiralAbyssArena.SpiralGladiator gladiator : arenaCombatants) {
-            if (gladiator.fullName.equals(fullName)) {
-                return gladiator;
-            }
-        }
-        return null;
-    }
-
     public boolean hasSuspendedArena() {
         com.fs.starfarer.api.campaign.rules.MemoryAPI mem = Global.getSector().getMemoryWithoutUpdate();
         String suspendedGameType = mem.getString(MEM_SUSPENDED_GAME_TYPE);
@@ -0,0 +1,286 @@
+package data.scripts.casino.interaction;
+
+import com.fs.starfarer.api.Global;
+import com.fs.starfarer.api.campaign.rules.MemoryAPI;
+import data.scripts.casino.arena.ArenaBattleRecord;
+import data.scripts.casino.arena.SpiralAbyssArena;
+import org.apache.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes a suspended arena match into a single compact JSON string stored under one memory key.
+ * A match whose roster was rolled from its seed is stored as the seed, the hull ids and the bets
+ * (the player's only actions), and decoding rebuilds it by replaying the rounds already fought.
+ * Other matches (restored from older saves) keep every combatant's stats as positional arrays.
+ * Bets reference their ship by index either way. If a seeded match can no longer be rebuilt because
+ * one of its hulls is gone, the bets are still decoded, without their ships, so they can be refunded.
+ * Older saves that used one memory key per field are still readable via {@link #readLegacy}.
+ */
+public final class ArenaSnapshotCodec {
+
+    private static final Logger log = Global.getLogger(ArenaSnapshotCodec.class);
+
+    public static final int VERSION = 2;
+    private static final int VERSION_FULL = 1;
+
+    // Legacy per-field memory keys (pre-snapshot saves)
+    private static final String LEGACY_CURRENT_ROUND = "$ipc_arena_current_round";
+    private static final String LEGACY_OPPONENTS_DEFEATED = "$ipc_arena_opponents_defeated";
+    private static final String LEGACY_COMBATANT_COUNT = "$ipc_arena_combatant_count";
+    private static final String LEGACY_COMBATANT_PREFIX = "$ipc_arena_combatant_";
+    private static final String LEGACY_BETS_COUNT = "$ipc_arena_bets_count";
+    private static final String LEGACY_BET_PREFIX = "$ipc_arena_bet_";
+    private static final String LEGACY_SUSPEND_TIME = "$ipc_arena_suspend_time";
+
+    private static final String[] LEGACY_COMBATANT_FIELDS = {
+        "_hull_id", "_prefix", "_hull_name", "_affix", "_hp", "_max_hp", "_power",
+        "_agility", "_bravery", "_is_dead", "_kills", "_turns_survived", "_base_odds"
+    };
+    private static final String[] LEGACY_BET_FIELDS = {
+        "_amount", "_multiplier", "_round_placed", "_ship_name"
+    };
+
+    private ArenaSnapshotCodec() {}
+
+    public static class Snapshot {
+        public int currentRound;
+        public int opponentsDefeated;
+        public long suspendTime;
+        public final List<SpiralAbyssArena.SpiralGladiator> combatants = new ArrayList<>();
+        public final List<ArenaHandler.BetInfo> bets = new ArrayList<>();
+        // Set when the match was rebuilt from its seed: the arena to continue with, and the replayed rounds
+        public SpiralAbyssArena arena;
+        public ArenaBattleRecord replayed;
+        // Set when a seeded match could not be rebuilt: there are no combatants and the bets have no ship
+        public boolean unplayable;
+    }
+
+    /**
+     * @param arena the match's arena; only a replayable one is stored by seed, pass null to keep full stats
+     */
+    public static String encode(int currentRound, int opponentsDefeated, long suspendTime, SpiralAbyssArena arena,
+                                List<SpiralAbyssArena.SpiralGladiator> combatants,
+                                List<ArenaHandler.BetInfo> bets) {
+        try {
+            boolean seeded = arena != null && arena.isReplayable();
+            JSONObject root = new JSONObject();
+            root.put("v", seeded ? VERSION : VERSION_FULL);
+            root.put("r", currentRound);
+            root.put("d", opponentsDefeated);
+            root.put("t", suspendTime);
+
+            if (seeded) {
+                root.put("s", arena.getSeed());
+                JSONArray hulls = new JSONArray();
+                if (combatants != null) {
+                    for (SpiralAbyssArena.SpiralGladiator g : combatants) {
+                        hulls.put(g.hullId);
+                    }
+                }
+                root.put("h", hulls);
+            }
+
+            JSONArray ships = new JSONArray();
+            if (combatants != null && !seeded) {
+                for (SpiralAbyssArena.SpiralGladiator g : combatants) {
+                    JSONArray s = new JSONArray();
+                    s.put(g.hullId);
+                    s.put(g.prefix);
+                    s.put(g.hullName);
+                    s.put(g.affix);
+                    s.put(g.hp);
+                    s.put(g.maxHp);
+                    s.put(g.power);
+                    s.put((double) g.agility);
+                    s.put((double) g.bravery);
+                    s.put(g.isDead ? 1 : 0);
+                    s.put(g.kills);
+                    s.put(g.turnsSurvived);
+                    s.put((double) g.baseOdds);
+                    ships.put(s);
+                }
+            }
+            if (!seeded) root.put("c", ships);
+
+            JSONArray betArray = new JSONArray();
+            for (ArenaHandler.BetInfo bet : bets) {
+                int shipIndex = combatants != null ? combatants.indexOf(bet.ship) : -1;
+                if (shipIndex < 0) continue;
+                JSONArray b = new JSONArray();
+                b.put(bet.amount);
+                b.put((double) bet.multiplier);
+                b.put(shipIndex);
+                b.put(bet.roundPlaced);
+                betArray.put(b);
+            }
+            root.put("b", betArray);
+
+            return root.toString();
+        } catch (JSONException e) {
+            log.error("Failed to encode arena snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return the decoded snapshot, or null if the data is missing, corrupted or from a newer version;
+     *         check {@link Snapshot#unplayable} before resuming it
+     */
+    public static Snapshot decode(String data) {
+        if (data == null || data.isEmpty()) return null;
+        try {
+            JSONObject root = new JSONObject(data);
+            int version = root.optInt("v", 0);
+            if (version < 1 || version > VERSION) {
+                log.warn("Unsupported arena snapshot version: " + version);
+                return null;
+            }
+
+            Snapshot snapshot = new Snapshot();
+            snapshot.currentRound = root.getInt("r");
+            snapshot.opponentsDefeated = root.getInt("d");
+            snapshot.suspendTime = root.getLong("t");
+
+            int shipCount;
+            if (version >= 2) {
+                JSONArray hulls = root.getJSONArray("h");
+                shipCount = hulls.length();
+                snapshot.unplayable = !replay(snapshot, root.getLong("s"), hulls);
+            } else {
+                readCombatants(snapshot, root.getJSONArray("c"));
+                shipCount = snapshot.combatants.size();
+            }
+
+            JSONArray betArray = root.getJSONArray("b");
+            for (int i = 0; i < betArray.length(); i++) {
+                JSONArray b = betArray.getJSONArray(i);
+                int shipIndex = b.getInt(2);
+                if (shipIndex < 0 || shipIndex >= shipCount) continue;
+                SpiralAbyssArena.SpiralGladiator ship = snapshot.unplayable ? null : snapshot.combatants.get(shipIndex);
+                snapshot.bets.add(new ArenaHandler.BetInfo(b.getInt(0), (float) b.getDouble(1), ship, b.getInt(3)));
+            }
+
+            return snapshot;
+        } catch (JSONException e) {
+            log.error("Failed to decode arena snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Rebuilds a seeded match's roster and plays it back to the suspended round. */
+    private static boolean replay(Snapshot snapshot, long seed, JSONArray hulls) throws JSONException {
+        List<String> hullIds = new ArrayList<>(hulls.length());
+        for (int i = 0; i < hulls.length(); i++) {
+            hullIds.add(hulls.getString(i));
+        }
+
+        SpiralAbyssArena arena = new SpiralAbyssArena(seed);
+        List<SpiralAbyssArena.SpiralGladiator> combatants = arena.createCombatants(hullIds);
+        if (combatants.size() != hullIds.size()) {
+            log.warn("Arena snapshot references hulls that no longer exist; cannot replay the match");
+            return false;
+        }
+
+        snapshot.replayed = arena.replay(combatants, snapshot.currentRound);
+        snapshot.arena = arena;
+        snapshot.combatants.addAll(combatants);
+        return true;
+    }
+
+    private static void readCombatants(Snapshot snapshot, JSONArray ships) throws JSONException {
+        for (int i = 0; i < ships.length(); i++) {
+            JSONArray s = ships.getJSONArray(i);
+            SpiralAbyssArena.SpiralGladiator g = new SpiralAbyssArena.SpiralGladiator(
+                s.getString(0), s.getString(1), s.getString(2), s.getString(3),
+                s.getInt(5), s.getInt(6), (float) s.getDouble(7), (float) s.getDouble(8));
+            g.hp = s.getInt(4);
+            g.isDead = s.getInt(9) != 0;
+            g.kills = s.getInt(10);
+            g.turnsSurvived = s.getInt(11);
+            g.baseOdds = (float) s.getDouble(12);
+            snapshot.combatants.add(g);
+        }
+    }
+
+    public static boolean hasLegacy(MemoryAPI mem) {
+        return mem.contains(LEGACY_COMBATANT_COUNT) && mem.contains(LEGACY_SUSPEND_TIME);
+    }
+
+    /**
+     * Reads a suspended match written by older versions, one memory key per field.
+     */
+    public static Snapshot readLegacy(MemoryAPI mem) {
+        Snapshot snapshot = new Snapshot();
+        snapshot.currentRound = mem.getInt(LEGACY_CURRENT_ROUND);
+        snapshot.opponentsDefeated = mem.getInt(LEGACY_OPPONENTS_DEFEATED);
+        snapshot.suspendTime = mem.getLong(LEGACY_SUSPEND_TIME);
+
+        int combatantCount = mem.getInt(LEGACY_COMBATANT_COUNT);
+        for (int i = 0; i < combatantCount; i++) {
+            String key = LEGACY_COMBATANT_PREFIX + i;
+            String hullId = mem.getString(key + "_hull_id");
+            if (hullId == null) {
+                hullId = "";
+            }
+            SpiralAbyssArena.SpiralGladiator g = new SpiralAbyssArena.SpiralGladiator(hullId,
+                mem.getString(key + "_prefix"), mem.getString(key + "_hull_name"), mem.getString(key + "_affix"),
+                mem.getInt(key + "_max_hp"), mem.getInt(key + "_power"),
+                mem.getFloat(key + "_agility"), mem.getFloat(key + "_bravery"));
+            g.hp = mem.getInt(key + "_hp");
+            g.isDead = mem.getBoolean(key + "_is_dead");
+            g.kills = mem.getInt(key + "_kills");
+            g.turnsSurvived = mem.getInt(key + "_turns_survived");
+            g.baseOdds = mem.getFloat(key + "_base_odds");
+            snapshot.combatants.add(g);
+        }
+
+        int betsCount = mem.getInt(LEGACY_BETS_COUNT);
+        for (int i = 0; i < betsCount; i++) {
+            String key = LEGACY_BET_PREFIX + i;
+            String shipName = mem.getString(key + "_ship_name");
+            for (SpiralAbyssArena.SpiralGladiator g : snapshot.combatants) {
+                if (g.fullName.equals(shipName)) {
+                    snapshot.bets.add(new ArenaHandler.BetInfo(mem.getInt(key + "_amount"),
+                        mem.getFloat(key + "_multiplier"), g, mem.getInt(key + "_round_placed")));
+                    break;
+                }
+            }
+        }
+
+        return snapshot;
+    }
+
+    public static void clearLegacy(MemoryAPI mem) {
+        if (!mem.contains(LEGACY_COMBATANT_COUNT) && !mem.contains(LEGACY_SUSPEND_TIME)) {
+            return;
+        }
+        mem.unset(LEGACY_CURRENT_ROUND);
+        mem.unset(LEGACY_OPPONENTS_DEFEATED);
+        mem.unset(LEGACY_COMBATANT_COUNT);
+        mem.unset(LEGACY_SUSPEND_TIME);
+        mem.unset(LEGACY_BETS_COUNT);
+
+        for (int i = 0; i < 10; i++) {
+            if (mem.getString(LEGACY_COMBATANT_PREFIX + i + "_hull_id") == null) {
+                break;
+            }
+            for (String field : LEGACY_COMBATANT_FIELDS) {
+                mem.unset(LEGACY_COMBATANT_PREFIX + i + field);
+            }
+        }
+
+        for (int i = 0; i < 30; i++) {
+            if (!mem.contains(LEGACY_BET_PREFIX + i + "_amount")) {
+                break;
+            }
+            for (String field : LEGACY_BET_FIELDS) {
+                mem.unset(LEGACY_BET_PREFIX + i + field);
+            }
+        }
+    }
+}
@@ -8,10 +8,9 @@ import data.scripts.casino.cards.blackjack.BlackjackDialogDelegate;
 import data.scripts.casino.cards.blackjack.BlackjackGame;
 import data.scripts.casino.cards.blackjack.BlackjackGame.Action;
 import data.scripts.casino.cards.blackjack.BlackjackGame.GameState;
+import data.scripts.casino.shared.GameStateCodec;
 
 import java.awt.Color;
-import java.util.Map;
-import java.util.HashMap;
 
 public class BlackjackHandler {
 
@@ -23,35 +22,26 @@ public class BlackjackHandler {
 
     private int handsPlayedThisSession = 0;
     private static final String BLACKJACK_COOLDOWN_KEY = "$ipc_blackjack_cooldown_until";
-
-    private final Map<String, OptionHandler> handlers = new HashMap<>();
+    private static final String BLACKJACK_SUSPENDED_STATE_KEY = "$ipc_blackjack_suspended_state";
 
     public BlackjackHandler(CasinoInteraction main) {
         this.main = main;
-        initializeHandlers();
     }
 
-    private void initializeHandlers() {
-        handlers.put("blackjack_play", option -> showBlackjackConfirm());
-        handlers.put("blackjack_how_to", option -> main.help.showBlackjackHelp());
-        handlers.put("blackjack_deal", option -> setupGame());
-        handlers.put("blackjack_new_hand", option -> startNewHand());
-        handlers.put("blackjack_suspend", option -> suspendGame());
-        handlers.put("blackjack_leave", option -> handleLeaveTable());
-        handlers.put("blackjack_resume_continue", option -> {
+    void registerOptions(OptionRouter router) {
+        router.exact("blackjack_play", option -> showBlackjackConfirm());
+        router.exact("blackjack_how_to", option -> main.help.showBlackjackHelp());
+        router.exact("blackjack_deal", option -> setupGame());
+        router.exact("blackjack_new_hand", option -> startNewHand());
+        router.exact("blackjack_suspend", option -> suspendGame());
+        router.exact("blackjack_leave", option -> handleLeaveTable());
+        router.exact("blackjack_resume_continue", option -> {
             clearSuspendedGameMemory();
             showBlackjackVisualPanel();
         });
-        handlers.put("blackjack_resume_wait", option -> main.showMenu());
-        handlers.put("blackjack_back_to_menu", option -> handleBackToMenu());
-        handlers.put("blackjack_back_to_game", option -> showBlackjackVisualPanel());
-    }
-
-    public void handle(String option) {
-        OptionHandler handler = handlers.get(option);
-        if (handler != null) {
-            handler.handle(option);
-        }
+        router.exact("blackjack_resume_wait", option -> main.showMenu());
+        router.exact("blackjack_back_to_menu", option -> handleBackToMenu());
+        router.exact("blackjack_back_to_game", option -> showBlackjackVisualPanel());
     }
 
     public void showBlackjackConfirm() {
@@ -158,12 +148,8 @@ public class BlackjackHandler {
         MemoryAPI mem = Global.getSector().getMemoryWithoutUpdate();
 
         mem.set("$ipc_suspended_game_type", "Blackjack");
-        mem.set("$ipc_blackjack_pot", state.pot);
-        mem.set("$ipc_blackjack_player_stack", state.playerStack);
-        mem.set("$ipc_blackjack_current_bet", state.currentBet);
-        mem.set("$ipc_blackjack_credit_borrowed", state.creditBorrowed);
-        mem.set("$ipc_blackjack_hands_played", handsPlayedThisSession);
-        mem.set("$ipc_blackjack_suspend_time", Global.getSector().getClock().getTimestamp());
+        mem.set(BLACKJACK_SUSPENDED_STATE_KEY, GameStateCodec.encodeBlackjack(state, handsPlayedThisSession,
+            Global.getSector().getClock().getTimestamp()));
 
         main.textPanel.addPara(Strings.get("blackjack_suspend.stand_up"), Color.YELLOW);
         main.textPanel.addPara(Strings.get("blackjack_suspend.dealer_eyebrow"), Color.CYAN);
@@ -175,25 +161,26 @@ public class BlackjackHandler {
     public void restoreSuspendedGame() {
         MemoryAPI mem = Global.getSector().getMemoryWithoutUpdate();
 
-        if (!mem.contains("$ipc_blackjack_player_stack") || !mem.contains("$ipc_blackjack_suspend_time")) {
+        GameStateCodec.Suspended<BlackjackGame.GameStateData> suspended = null;
+        if (mem.contains(BLACKJACK_SUSPENDED_STATE_KEY)) {
+            suspended = GameStateCodec.decodeBlackjack(mem.getString(BLACKJACK_SUSPENDED_STATE_KEY));
+        } else if (mem.contains("$ipc_blackjack_player_stack") && mem.contains("$ipc_blackjack_suspend_time")) {
+            suspended = readLegacySuspendedState(mem);
+        }
+
+        if (suspended == null) {
             clearSuspendedGameMemory();
             main.getTextPanel().addPara(Strings.get("errors.corrupted_blackjack_data"), Color.RED);
             showBlackjackConfirm();
             return;
         }
 
-        int playerStack = mem.getInt("$ipc_blackjack_player_stack");
-        int handsPlayed = mem.getInt("$ipc_blackjack_hands_played");
-        int creditBorrowed = mem.contains("$ipc_blackjack_credit_borrowed") ? mem.getInt("$ipc_blackjack_credit_borrowed") : 0;
-
-        handsPlayedThisSession = handsPlayed;
+        handsPlayedThisSession = suspended.handsPlayed();
 
-        blackjackGame = new BlackjackGame(playerStack);
-        blackjackGame.getState().creditBorrowed = creditBorrowed;
+        blackjackGame = BlackjackGame.createSuspendedGame(suspended.state());
         blackjackGame.getState().overdraftEnabled = false;
 
-        long suspendTime = mem.getLong("$ipc_blackjack_suspend_time");
-        float daysAway = Global.getSector().getClock().getElapsedDaysSince(suspendTime);
+        float daysAway = Global.getSector().getClock().getElapsedDaysSince(suspended.suspendTime());
 
         main.getTextPanel().addPara(Strings.get("blackjack_suspend.dealer_stares"), Color.CYAN);
         if (daysAway >= 30) {
@@ -218,15 +205,30 @@ public class BlackjackHandler {
         return "Blackjack".equals(suspendedGameType);
     }
 
+    /**
+     * Reads a game suspended by older versions, which only kept the stack and borrowed credit.
+     */
+    private GameStateCodec.Suspended<BlackjackGame.GameStateData> readLegacySuspendedState(MemoryAPI mem) {
+        BlackjackGame legacyGame = new BlackjackGame(mem.getInt("$ipc_blackjack_player_stack"));
+        legacyGame.startNewHand();
+        BlackjackGame.GameStateData saved = legacyGame.getState();
+        saved.creditBorrowed = mem.contains("$ipc_blackjack_credit_borrowed") ? mem.getInt("$ipc_blackjack_credit_borrowed") : 0;
+        return new GameStateCodec.Suspended<>(saved, mem.getInt("$ipc_blackjack_hands_played"),
+            mem.getLong("$ipc_blackjack_suspend_time"));
+    }
+
     private void clearSuspendedGameMemory() {
         MemoryAPI mem = Global.getSector().getMemoryWithoutUpdate();
         mem.unset("$ipc_suspended_game_type");
-        mem.unset("$ipc_blackjack_pot");
-        mem.unset("$ipc_blackjack_player_stack");
-        mem.unset("$ipc_blackjack_current_bet");
-        mem.unset("$ipc_blackjack_credit_borrowed");
-        mem.unset("$ipc_blackjack_hands_played");
-        mem.unset("$ipc_blackjack_suspend_time");
+        mem.unset(BLACKJACK_SUSPENDED_STATE_KEY);
+        if (mem.contains("$ipc_blackjack_suspend_time")) {
+            mem.unset("$ipc_blackjack_pot");
+            mem.unset("$ipc_blackjack_player_stack");
+            mem.unset("$ipc_blackjack_current_bet");
+            mem.unset("$ipc_blackjack_credit_borrowed");
+            mem.unset("$ipc_blackjack_hands_played");
+            mem.unset("$ipc_blackjack_suspend_time");
+        }
     }
 
     private void handleLeaveTable() {
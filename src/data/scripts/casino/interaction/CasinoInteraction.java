@@ -25,6 +25,8 @@ public class CasinoInteraction implements InteractionDialogPlugin {
     protected final TopupHandler topup;
     protected final HelpHandler help;
 
+    private final OptionRouter router = new OptionRouter();
+
     private State currentState = State.MAIN_MENU;
 
     public enum State {
@@ -53,6 +55,28 @@ public class CasinoInteraction implements InteractionDialogPlugin {
         this.financial = new FinHandler(this);
         this.topup = new TopupHandler(this);
         this.help = new HelpHandler(this);
+        registerOptions();
+    }
+
+    /**
+     * Registers every handler's options plus the top-level ones. Any option nothing claims falls
+     * back to the main menu in {@link #optionSelected}.
+     */
+    private void registerOptions() {
+        gacha.registerOptions(router);
+        poker.registerOptions(router);
+        poker5.registerOptions(router);
+        blackjack.registerOptions(router);
+        arena.registerOptions(router);
+        financial.registerOptions(router);
+        topup.registerOptions(router);
+        help.registerOptions(router);
+
+        router.exact("leave", option -> {
+            CasinoMusicPlugin.stopCasinoMusic();
+            dialog.dismiss();
+        });
+        router.prefix("back_", option -> showMenu());
     }
 
     @Override
@@ -103,37 +127,7 @@ public class CasinoInteraction implements InteractionDialogPlugin {
         
         String option = (String) optionData;
 
-        if ("leave".equals(option)) {
-            CasinoMusicPlugin.stopCasinoMusic();
-            dialog.dismiss();
-            return;
-        }
-
-        // Route to appropriate handler based on option prefix
-        if (option.startsWith("gacha_") || option.startsWith("pull_") || option.startsWith("confirm_pull_") || option.startsWith("auto_convert") || option.startsWith("explain_")) {
-            gacha.handle(option);
-        } else if (option.equals("play5") || option.startsWith("poker5_") || option.startsWith("confirm_poker5") || option.startsWith("next_hand5")) {
-            poker5.handle(option);
-        } else if (option.equals("play") || option.startsWith("poker_") || option.startsWith("confirm_poker") || option.startsWith("next_hand") || option.equals("confirm_overdraft") || option.equals("cancel_overdraft")) {
-            poker.handle(option);
-        } else if (option.startsWith("blackjack_")) {
-            blackjack.handle(option);
-        } else if (option.startsWith("arena_")) {
-            arena.handle(option);
-        } else if (option.startsWith("topup_") || option.startsWith("topup_pack_") || option.startsWith("confirm_topup_pack_") || option.startsWith("buy_vip_from_topup") || option.startsWith("confirm_buy_vip_topup")) {
-            topup.handle(option);
-        } else if (option.startsWith("financial_") || option.startsWith("buy_vip") ||
-                   option.startsWith("confirm_buy_vip") ||
-                   option.startsWith("buy_ship") || option.startsWith("confirm_ship_trade") ||
-                   option.startsWith("cancel_ship_trade") || option.startsWith("toggle_vip_notifications") ||
-                   option.startsWith("captcha_answer_") || option.startsWith("captcha_wrong_") ||
-                   option.startsWith("cash_out")) {
-            financial.handle(option);
-        } else if (option.startsWith("how_to_")) {
-            help.handle(option);
-        } else if (option.startsWith("back_")) {
-            showMenu();
-        } else {
+        if (!router.dispatch(option)) {
             // Unknown option - return to menu as fallback
             showMenu();
         }
@@ -11,10 +11,7 @@ import data.scripts.casino.Strings;
 import java.awt.Color;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Random;
-import java.util.function.Predicate;
 
 //Handler for financial services: VIP subscriptions, ship trading, and satirical cashout flow.
 
@@ -23,9 +20,6 @@ public class FinHandler {
     private final CasinoInteraction main;
     private final Random random = new Random();
 
-    private final Map<String, OptionHandler> handlers = new HashMap<>();
-    private final Map<Predicate<String>, OptionHandler> predicateHandlers = new HashMap<>();
-
     private record CaptchaQuestion(String question, String[] options, int correctIndex)
     {    }
 
@@ -37,7 +31,6 @@ public class FinHandler {
     public FinHandler(CasinoInteraction main) {
         this.main = main;
         initializeCaptchaQuestions();
-        initializeHandlers();
     }
 
     private void initializeCaptchaQuestions() {
@@ -83,60 +76,38 @@ public class FinHandler {
         ));
     }
     
-    private void initializeHandlers() {
+    void registerOptions(OptionRouter router) {
         // Exact match handlers
-        handlers.put("financial_menu", option -> showFinancialMenu());
+        router.exact("financial_menu", option -> showFinancialMenu());
 
         // New ISP/Tech Support themed cashout flow
-        handlers.put("cash_out", option -> performCashOut());
-        handlers.put("cash_out_phone", option -> performCashOutPhone());
-        handlers.put("cash_out_phone_billing", option -> performCashOutPhoneDeadEnd("billing"));
-        handlers.put("cash_out_phone_sales", option -> performCashOutPhoneDeadEnd("sales"));
-        handlers.put("cash_out_phone_support", option -> performCashOutHold());
-        handlers.put("cash_out_hold", option -> performCashOutHold());
-        handlers.put("cash_out_captcha", option -> performCashOutCaptcha());
-        handlers.put("cash_out_tier1", option -> performCashOutTier1());
-        handlers.put("cash_out_escalate", option -> performCashOutEscalate());
-        handlers.put("cash_out_escalate_no", option -> performCashOutEscalate());
-        handlers.put("cash_out_escalate_ships", option -> performCashOutEscalate());
-        handlers.put("cash_out_final", option -> performCashOutFinal());
-        handlers.put("cash_out_return", option -> performCashOutReturn());
-        handlers.put("cash_out_return_hold", option -> performCashOutReturnHold());
+        router.exact("cash_out", option -> performCashOut());
+        router.exact("cash_out_phone", option -> performCashOutPhone());
+        router.exact("cash_out_phone_billing", option -> performCashOutPhoneDeadEnd("billing"));
+        router.exact("cash_out_phone_sales", option -> performCashOutPhoneDeadEnd("sales"));
+        router.exact("cash_out_phone_support", option -> performCashOutHold());
+        router.exact("cash_out_hold", option -> performCashOutHold());
+        router.exact("cash_out_captcha", option -> performCashOutCaptcha());
+        router.exact("cash_out_tier1", option -> performCashOutTier1());
+        router.exact("cash_out_escalate", option -> performCashOutEscalate());
+        router.exact("cash_out_escalate_no", option -> performCashOutEscalate());
+        router.exact("cash_out_escalate_ships", option -> performCashOutEscalate());
+        router.exact("cash_out_final", option -> performCashOutFinal());
+        router.exact("cash_out_return", option -> performCashOutReturn());
+        router.exact("cash_out_return_hold", option -> performCashOutReturnHold());
 
         // CAPTCHA answer handlers (will be generated dynamically)
-        handlers.put("captcha_wrong_1", option -> performCashOutCaptchaWrong());
-        handlers.put("captcha_wrong_2", option -> performCashOutCaptchaWrong());
-
-        handlers.put("buy_vip", option -> showVIPConfirm());
-        handlers.put("confirm_buy_vip", option -> purchaseVIPPass());
-        handlers.put("buy_ship", option -> openShipTradePicker());
-        handlers.put("confirm_ship_trade", option -> confirmShipTrade());
-        handlers.put("cancel_ship_trade", option -> showFinancialMenu());
-        handlers.put("toggle_vip_notifications", option -> toggleVIPNotifications());
-        handlers.put("back_menu", option -> main.showMenu());
-        handlers.put("how_to_play_main", option -> main.help.showGeneralHelp());
-        handlers.put("how_to_financial", option -> main.help.showFinancialHelp());
-
-        // Predicate-based handlers for pattern matching
-        predicateHandlers.put(option -> option.startsWith("captcha_answer_"), option -> {
-            int answerIndex = Integer.parseInt(option.replace("captcha_answer_", ""));
-            checkCaptchaAnswer(answerIndex);
-        });
-    }
+        router.exact("captcha_wrong_1", option -> performCashOutCaptchaWrong());
+        router.exact("captcha_wrong_2", option -> performCashOutCaptchaWrong());
 
-    public void handle(String option) {
-        OptionHandler handler = handlers.get(option);
-        if (handler != null) {
-            handler.handle(option);
-            return;
-        }
-        
-        for (Map.Entry<Predicate<String>, OptionHandler> entry : predicateHandlers.entrySet()) {
-            if (entry.getKey().test(option)) {
-                entry.getValue().handle(option);
-                return;
-            }
-        }
+        router.exact("buy_vip", option -> showVIPConfirm());
+        router.exact("confirm_buy_vip", option -> purchaseVIPPass());
+        router.exact("buy_ship", option -> openShipTradePicker());
+        router.exact("confirm_ship_trade", option -> confirmShipTrade());
+        router.exact("cancel_ship_trade", option -> showFinancialMenu());
+        router.exact("toggle_vip_notifications", option -> toggleVIPNotifications());
+
+        router.indexed("captcha_answer_", this::checkCaptchaAnswer);
     }
 
     public void showFinancialMenu() {
@@ -15,10 +15,8 @@ import data.scripts.casino.gacha.ShipPickerPanelUI.ShipPickerCallback;
 import data.scripts.casino.Strings;
 import java.awt.Color;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 public class GachaHandler {
@@ -58,33 +56,21 @@ public class GachaHandler {
     }
 
     private final CasinoInteraction main;
-    private final Map<String, OptionHandler> handlers = new HashMap<>();
 
     private boolean justCompletedPull = false;
     private final List<FleetMemberAPI> shipsAwaitingConversionDecision = new ArrayList<>();
 
     public GachaHandler(CasinoInteraction main) {
         this.main = main;
-        initializeHandlers();
     }
 
-    private void initializeHandlers() {
-        handlers.put(OPTION_GACHA_MENU, option -> showGachaMenu());
-        handlers.put(OPTION_PULL_1, option -> showGachaConfirm(1));
-        handlers.put(OPTION_PULL_10, option -> showGachaConfirm(10));
-        handlers.put(OPTION_AUTO_CONVERT, option -> openAutoConvertPicker());
-        handlers.put(OPTION_HOW_TO_GACHA, option -> main.help.showGachaHelp());
-        handlers.put(OPTION_BACK_MENU, option -> main.showMenu());
-        handlers.put(OPTION_EXPLAIN_IPC_CREDIT, option -> showIPCCreditExplanation());
-    }
-
-    private boolean isConfirmPullOption(String option) {
-        return option != null && option.startsWith(PREFIX_CONFIRM_PULL);
-    }
-
-    private void handleConfirmPull(String option) {
-        int rounds = Integer.parseInt(option.replace(PREFIX_CONFIRM_PULL, ""));
-        performGachaPull(rounds);
+    void registerOptions(OptionRouter router) {
+        router.exact(OPTION_GACHA_MENU, option -> showGachaMenu());
+        router.exact(OPTION_PULL_1, option -> showGachaConfirm(1));
+        router.exact(OPTION_PULL_10, option -> showGachaConfirm(10));
+        router.exact(OPTION_AUTO_CONVERT, option -> openAutoConvertPicker());
+        router.exact(OPTION_EXPLAIN_IPC_CREDIT, option -> showIPCCreditExplanation());
+        router.indexed(PREFIX_CONFIRM_PULL, this::performGachaPull);
     }
 
     private boolean canAffordTransaction(int amount) {
@@ -111,18 +97,6 @@ public class GachaHandler {
         main.textPanel.addPara(Strings.get("financial_status.divider"), Color.CYAN);
     }
 
-    public void handle(String option) {
-        OptionHandler handler = handlers.get(option);
-        if (handler != null) {
-            handler.handle(option);
-            return;
-        }
-
-        if (isConfirmPullOption(option)) {
-            handleConfirmPull(option);
-        }
-    }
-
     public void showGachaMenu() {
         main.options.clearOptions();
 
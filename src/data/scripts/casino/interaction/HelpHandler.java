@@ -3,53 +3,25 @@ package data.scripts.casino.interaction;
 import data.scripts.casino.CasinoConfig;
 import data.scripts.casino.Strings;
 import java.awt.Color;
-import java.util.HashMap;
-import java.util.Map;
 
 public class HelpHandler {
 
     private final CasinoInteraction main;
-    private final Map<String, OptionHandler> handlers = new HashMap<>();
     
     public HelpHandler(CasinoInteraction main) {
         this.main = main;
-        initializeHandlers();
     }
     
-    private void initializeHandlers() {
-        handlers.put("how_to_play_main", option -> showGeneralHelp());
-        handlers.put("how_to_poker", option -> showPokerHelp());
-        handlers.put("how_to_poker5_menu", option -> showPokerHelp("play5"));
-        handlers.put("how_to_blackjack", option -> showBlackjackHelp());
-        handlers.put("how_to_arena", option -> showArenaHelp("arena_lobby"));
-        handlers.put("how_to_gacha", option -> showGachaHelp());
-        handlers.put("how_to_financial", option -> showFinancialHelp());
-        handlers.put("how_to_topup", option -> showTopupHelp());
-        handlers.put("back_menu", option -> main.showMenu());
-        handlers.put("gacha_menu", main.gacha::handle);
-        handlers.put("play", main.poker::handle);
-        handlers.put("play5", main.poker5::handle);
-        handlers.put("poker5_back_action", option -> main.poker5.handle("poker5_back_action"));
-        handlers.put("arena_lobby", main.arena::handle);
-        handlers.put("financial_menu", main.financial::handle);
-        handlers.put("topup_menu", main.topup::handle);
-        handlers.put("arena_status", main.arena::handle);
-    }
-
-    public void handle(String option) {
-        OptionHandler handler = handlers.get(option);
-        if (handler != null) {
-            handler.handle(option);
-            return;
-        }
-        
-        if (option.startsWith("how_to_arena_")) {
-            String returnTo = option.replace("how_to_arena_", "");
-            showArenaHelp(returnTo);
-            return;
-        }
-        
-        main.showMenu();
+    void registerOptions(OptionRouter router) {
+        router.exact("how_to_play_main", option -> showGeneralHelp());
+        router.exact("how_to_poker", option -> showPokerHelp());
+        router.exact("how_to_poker5_menu", option -> showPokerHelp("play5"));
+        router.exact("how_to_blackjack", option -> showBlackjackHelp());
+        router.exact("how_to_arena", option -> showArenaHelp("arena_lobby"));
+        router.exact("how_to_gacha", option -> showGachaHelp());
+        router.exact("how_to_financial", option -> showFinancialHelp());
+        router.exact("how_to_topup", option -> showTopupHelp());
+        router.prefix("how_to_arena_", option -> showArenaHelp(option.substring("how_to_arena_".length())));
     }
 
     public void showGeneralHelp() {
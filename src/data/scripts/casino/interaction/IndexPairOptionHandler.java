@@ -0,0 +1,9 @@
+package data.scripts.casino.interaction;
+
+
+/** Handles an option made of a registered prefix and two numbers, such as {@code arena_confirm_add_bet_to_champ_2_500}. */
+@FunctionalInterface
+public interface IndexPairOptionHandler {
+    
+    void handle(int first, int second);
+}
@@ -0,0 +1,9 @@
+package data.scripts.casino.interaction;
+
+
+/** Handles an option made of a registered prefix and a number, such as {@code arena_select_ship_3}. */
+@FunctionalInterface
+public interface IndexedOptionHandler {
+    
+    void handle(int index);
+}
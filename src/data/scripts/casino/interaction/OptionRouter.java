@@ -0,0 +1,173 @@
+package data.scripts.casino.interaction;
+
+import java.util.Arrays;
+
+/**
+ * Routes a selected option id to the handler registered for it, in one walk of a character trie.
+ * <p>
+ * Handlers register at startup: exact ids, plain prefixes, and prefixes followed by one number
+ * ({@code arena_select_ship_3}) or two ({@code arena_confirm_add_bet_to_champ_2_500}). The deepest
+ * match wins: an exact id beats every prefix, and a longer prefix beats a shorter one. Where a
+ * numbered and a plain handler share a prefix, the numbered one takes ids whose suffix parses.
+ * Suffixes are parsed during the walk, so a dispatch allocates nothing and handlers get the
+ * numbers directly. Registering the same id or prefix twice throws, so overlaps show up when the
+ * dialog opens rather than depending on registration order.
+ */
+public final class OptionRouter {
+
+    // Numbers longer than this are not treated as indices
+    private static final int MAX_DIGITS = 9;
+    private static final long NO_NUMBER = -1;
+
+    private static final int MATCH_PREFIX = 0;
+    private static final int MATCH_INDEXED = 1;
+    private static final int MATCH_INDEX_PAIR = 2;
+
+    private static final class Node {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        OptionHandler exact;
+        OptionHandler prefix;
+        IndexedOptionHandler indexed;
+        IndexPairOptionHandler indexPair;
+
+        Node child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) return children[i];
+            }
+            return null;
+        }
+
+        Node childOrCreate(char c) {
+            Node child = child(c);
+            if (child != null) return child;
+            child = new Node();
+            keys = Arrays.copyOf(keys, keys.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            keys[keys.length - 1] = c;
+            children[children.length - 1] = child;
+            return child;
+        }
+    }
+
+    private final Node root = new Node();
+
+    /** Handles exactly {@code option}. */
+    public void exact(String option, OptionHandler handler) {
+        Node node = nodeFor(option);
+        if (node.exact != null) throw duplicate("Option", option);
+        node.exact = handler;
+    }
+
+    /** Handles every option starting with {@code prefix} that nothing longer claims. */
+    public void prefix(String prefix, OptionHandler handler) {
+        Node node = nodeFor(prefix);
+        if (node.prefix != null) throw duplicate("Prefix", prefix);
+        node.prefix = handler;
+    }
+
+    /** Handles {@code prefix} followed by a non-negative number. */
+    public void indexed(String prefix, IndexedOptionHandler handler) {
+        Node node = nodeFor(prefix);
+        if (node.indexed != null) throw duplicate("Indexed prefix", prefix);
+        node.indexed = handler;
+    }
+
+    /** Handles {@code prefix} followed by two non-negative numbers joined by an underscore. */
+    public void indexPair(String prefix, IndexPairOptionHandler handler) {
+        Node node = nodeFor(prefix);
+        if (node.indexPair != null) throw duplicate("Index pair prefix", prefix);
+        node.indexPair = handler;
+    }
+
+    /**
+     * Runs the handler with the deepest match for {@code option}.
+     *
+     * @return false if nothing matched
+     */
+    public boolean dispatch(String option) {
+        Node node = root;
+        int length = option.length();
+
+        // Deepest match so far, and the numbers parsed for it
+        Node best = null;
+        int bestKind = MATCH_PREFIX;
+        int first = 0, second = 0;
+
+        for (int i = 0; ; i++) {
+            if (node.indexed != null || node.indexPair != null) {
+                long number = parseNumber(option, i);
+                if (number != NO_NUMBER) {
+                    int end = (int) number;
+                    if (end == length && node.indexed != null) {
+                        best = node;
+                        bestKind = MATCH_INDEXED;
+                        first = (int) (number >>> 32);
+                    } else if (node.indexPair != null && end < length && option.charAt(end) == '_') {
+                        long next = parseNumber(option, end + 1);
+                        if (next != NO_NUMBER && (int) next == length) {
+                            best = node;
+                            bestKind = MATCH_INDEX_PAIR;
+                            first = (int) (number >>> 32);
+                            second = (int) (next >>> 32);
+                        }
+                    }
+                }
+            }
+            if (node.prefix != null && best != node) {
+                best = node;
+                bestKind = MATCH_PREFIX;
+            }
+            if (i == length) {
+                if (node.exact != null) {
+                    node.exact.handle(option);
+                    return true;
+                }
+                break;
+            }
+            node = node.child(option.charAt(i));
+            if (node == null) break;
+        }
+
+        if (best == null) return false;
+        switch (bestKind) {
+            case MATCH_INDEXED -> best.indexed.handle(first);
+            case MATCH_INDEX_PAIR -> best.indexPair.handle(first, second);
+            default -> best.prefix.handle(option);
+        }
+        return true;
+    }
+
+    /**
+     * Reads the digits of {@code option} from {@code from}.
+     *
+     * @return the value in the high 32 bits and the index after the last digit in the low 32, or
+     *         {@link #NO_NUMBER} if there are no digits or too many
+     */
+    private static long parseNumber(String option, int from) {
+        int value = 0;
+        int i = from;
+        int length = option.length();
+        while (i < length) {
+            char c = option.charAt(i);
+            if (c < '0' || c > '9') break;
+            if (i - from == MAX_DIGITS) return NO_NUMBER;
+            value = value * 10 + (c - '0');
+            i++;
+        }
+        if (i == from) return NO_NUMBER;
+        return ((long) value << 32) | i;
+    }
+
+    private Node nodeFor(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+        }
+        return node;
+    }
+
+    private static IllegalStateException duplicate(String kind, String key) {
+        return new IllegalStateException(kind + " '" + key + "' is already registered");
+    }
+}
@@ -5,6 +5,8 @@ import com.fs.starfarer.api.campaign.rules.MemoryAPI;
 import data.scripts.casino.CasinoConfig;
 import data.scripts.casino.CasinoVIPManager;
 import data.scripts.casino.shared.CasinoFinancials;
+import data.scripts.casino.shared.GameStateCodec;
+import data.scripts.casino.shared.HandHistoryStore;
 import data.scripts.casino.cards.poker2.PokerDialogDelegate;
 import data.scripts.casino.cards.poker2.PokerGame;
 import static data.scripts.casino.cards.pokerShared.PokerAICommon.InternalAction;
@@ -18,9 +20,6 @@ import data.scripts.casino.Strings;
 import java.awt.Color;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.Predicate;
 
 public class PokerHandler {
 
@@ -40,81 +39,37 @@ private int handsPlayedThisSession = 0;
     private String pendingOpponentAction = "";
     private String pendingPlayerAction = "";
     private static final String POKER_COOLDOWN_KEY = "$ipc_poker_cooldown_until";
+    private static final String POKER_SUSPENDED_STATE_KEY = "$ipc_poker_suspended_state";
 
-    private final Map<String, OptionHandler> handlers = new HashMap<>();
-    private final Map<Predicate<String>, OptionHandler> predicateHandlers = new HashMap<>();
-    
     public PokerHandler(CasinoInteraction main) {
         this.main = main;
-        initializeHandlers();
     }
     
-    private void initializeHandlers() {
-        handlers.put("play", option -> showPokerConfirm());
-        handlers.put("confirm_poker_ante", option -> setupGame());
-        handlers.put("next_hand", option -> startNextHand());
-        handlers.put("how_to_poker", option -> main.help.showPokerHelp("poker_back_action"));
-        handlers.put("poker_call", option -> handlePokerCall());
-        handlers.put("poker_check", option -> handlePokerCheck());
-        handlers.put("poker_fold", option -> handlePokerFold());
-        handlers.put("poker_raise_menu", option -> showRaiseOptions());
-handlers.put("poker_back_action", option -> showPokerVisualPanel());
-        handlers.put("poker_suspend", option -> suspendGame());
-        handlers.put("poker_back_to_menu", option -> handleLeaveTable());
-        handlers.put("poker_leave_now", option -> handleSuspendLeave());
-        handlers.put("poker_abandon_confirm", option -> showAbandonConfirm());
-        handlers.put("poker_abandon_confirm_leave", option -> handleLeaveTable());
-        handlers.put("poker_abandon_cancel", option -> showPokerVisualPanel());
-        handlers.put("poker_resume_continue", option -> {
+    void registerOptions(OptionRouter router) {
+        router.exact("play", option -> showPokerConfirm());
+        router.exact("confirm_poker_ante", option -> setupGame());
+        router.exact("next_hand", option -> startNextHand());
+        router.exact("poker_call", option -> handlePokerCall());
+        router.exact("poker_check", option -> handlePokerCheck());
+        router.exact("poker_fold", option -> handlePokerFold());
+        router.exact("poker_raise_menu", option -> showRaiseOptions());
+router.exact("poker_back_action", option -> showPokerVisualPanel());
+        router.exact("poker_suspend", option -> suspendGame());
+        router.exact("poker_back_to_menu", option -> handleLeaveTable());
+        router.exact("poker_leave_now", option -> handleSuspendLeave());
+        router.exact("poker_abandon_confirm", option -> showAbandonConfirm());
+        router.exact("poker_abandon_confirm_leave", option -> handleLeaveTable());
+        router.exact("poker_abandon_cancel", option -> showPokerVisualPanel());
+        router.exact("poker_resume_continue", option -> {
             clearSuspendedGameMemory();
             showPokerVisualPanel();
         });
-        handlers.put("poker_resume_wait", option -> main.showMenu());
-        handlers.put("suspend_abandon_confirm", option -> showSuspendAbandonConfirm());
-        handlers.put("suspend_abandon_leave", option -> abandonSuspendedGame());
-        handlers.put("suspend_abandon_cancel", option -> {
-            main.textPanel.addPara(Strings.get("poker_suspend.sit_back_down"), Color.CYAN);
-            showPokerVisualPanel();
-        });
-        handlers.put("back_menu", option -> {
-            pokerGame = null;
-            handsPlayedThisSession = 0;
-            currentDelegate = null;
-            pendingStackSize = 0;
-            pendingOverdraftAmount = 0;
-            clearSuspendedGameMemory();
-            main.showMenu();
-        });
-        handlers.put("confirm_overdraft", option -> processOverdraftConfirmation());
-        handlers.put("cancel_overdraft", option -> cancelOverdraft());
+        router.exact("poker_resume_wait", option -> main.showMenu());
+        router.exact("confirm_overdraft", option -> processOverdraftConfirmation());
+        router.exact("cancel_overdraft", option -> cancelOverdraft());
         
-        predicateHandlers.put(option -> option.startsWith("poker_raise_"), option -> {
-            int amt = Integer.parseInt(option.replace("poker_raise_", ""));
-            performRaise(amt);
-        });
-        
-        predicateHandlers.put(option -> option.startsWith("poker_stack_"), option -> {
-            String stackStr = option.replace("poker_stack_", "");
-            int stackSize = Integer.parseInt(stackStr);
-            setupGame(stackSize);
-        });
-    }
-
-    public void handle(String option) {
-        OptionHandler handler = handlers.get(option);
-        if (handler != null) {
-            handler.handle(option);
-            return;
-        }
-        
-        for (Map.Entry<Predicate<String>, OptionHandler> entry : predicateHandlers.entrySet()) {
-            if (entry.getKey().test(option)) {
-                entry.getValue().handle(option);
-                return;
-            }
-        }
-        
-        handlePokerAction(option);
+        router.indexed("poker_raise_", this::performRaise);
+        router.indexed("poker_stack_", this::setupGame);
     }
 
     public void showPokerConfirm() {
@@ -428,13 +383,6 @@ private void startNextHand() {
         updateGameState();
     }
     
-    public void handlePokerAction(String option) {
-        if (option.startsWith("poker_raise_")) {
-            int amt = Integer.parseInt(option.replace("poker_raise_", ""));
-            performRaise(amt);
-        }
-    }
-    
     private void updateGameState() {
         if (pokerGame == null) return;
         PokerGame.PokerState state = pokerGame.getState();
@@ -527,48 +475,12 @@ state = pokerGame.getState();
     
     private void suspendGame() {
         if (pokerGame == null) return;
+        pokerGame.recordHandEnd();
+        HandHistoryStore.flush();
         PokerGame.PokerState state = pokerGame.getState();
         MemoryAPI mem = Global.getSector().getMemoryWithoutUpdate();
-        mem.set("$ipc_poker_suspended", true);
-
-        mem.set("$ipc_poker_pot_size", state.pot);
-        mem.set("$ipc_poker_player_bet", state.playerBet);
-        mem.set("$ipc_poker_opponent_bet", state.opponentBet);
-        mem.set("$ipc_poker_player_stack", state.playerStack);
-        mem.set("$ipc_poker_opponent_stack", state.opponentStack);
-        mem.set("$ipc_poker_player_is_dealer", state.dealer == PokerGame.Dealer.PLAYER);
-        mem.set("$ipc_poker_big_blind", state.bigBlind);
-        
-        mem.set("$ipc_poker_round", state.round.name());
-        mem.set("$ipc_poker_current_player", state.currentPlayer.name());
-        mem.set("$ipc_poker_player_has_acted", state.playerHasActed);
-        mem.set("$ipc_poker_opponent_has_acted", state.opponentHasActed);
-        mem.set("$ipc_poker_player_all_in", state.playerDeclaredAllIn);
-        mem.set("$ipc_poker_opponent_all_in", state.opponentDeclaredAllIn);
-
-        if (state.playerHand != null) {
-            mem.set("$ipc_poker_player_hand_count", state.playerHand.size());
-            for (int i = 0; i < state.playerHand.size(); i++) {
-                mem.set("$ipc_poker_player_hand_" + i, PokerGame.cardToString(state.playerHand.get(i)));
-            }
-        }
-        
-        if (state.opponentHand != null) {
-            mem.set("$ipc_poker_opponent_hand_count", state.opponentHand.size());
-            for (int i = 0; i < state.opponentHand.size(); i++) {
-                mem.set("$ipc_poker_opponent_hand_" + i, PokerGame.cardToString(state.opponentHand.get(i)));
-            }
-        }
-        
-        if (state.communityCards != null) {
-            mem.set("$ipc_poker_community_count", state.communityCards.size());
-            for (int i = 0; i < state.communityCards.size(); i++) {
-                mem.set("$ipc_poker_community_" + i, PokerGame.cardToString(state.communityCards.get(i)));
-            }
-        }
-
-        mem.set("$ipc_poker_hands_played", handsPlayedThisSession);
-        mem.set("$ipc_poker_suspend_time", Global.getSector().getClock().getTimestamp());
+        mem.set(POKER_SUSPENDED_STATE_KEY, GameStateCodec.encodePoker(state, handsPlayedThisSession,
+            Global.getSector().getClock().getTimestamp()));
 
         main.getTextPanel().addPara(Strings.get("poker_suspend.stand_up"), Color.YELLOW);
         main.getTextPanel().addPara(Strings.get("poker_suspend.dealer_eyebrow"), Color.CYAN);
@@ -599,121 +511,36 @@ state = pokerGame.getState();
         main.getOptions().addOption(Strings.get("poker_suspend.go_back_game"), "poker_abandon_cancel");
     }
 
-    private void showSuspendAbandonConfirm() {
-        if (pokerGame == null) {
-            main.showMenu();
-            return;
-        }
-        PokerGame.PokerState state = pokerGame.getState();
-        int stackValue = state.playerStack;
-        
-        main.getOptions().clearOptions();
-        main.getTextPanel().addPara(Strings.get("poker_suspend.abandon_title"), Color.RED);
-        main.getTextPanel().addPara("");
-        main.getTextPanel().addPara(Strings.get("poker_suspend.abandon_msg"), Color.YELLOW);
-        main.getTextPanel().addPara(Strings.format("poker_suspend.stack_returned", stackValue), Color.CYAN);
-        main.getTextPanel().addPara("");
-        main.getTextPanel().addPara(Strings.format("poker_suspend.early_leave_warning", MIN_HANDS_BEFORE_LEAVE), Color.ORANGE);
-        main.getTextPanel().addPara("");
-        main.getTextPanel().addPara(Strings.get("poker_suspend.could_return"), Color.GRAY);
-        
-        main.getOptions().addOption(Strings.get("poker_suspend.yes_abandon"), "suspend_abandon_leave");
-        main.getOptions().addOption(Strings.get("poker_suspend.go_back_table"), "suspend_abandon_cancel");
-    }
-
     public void restoreSuspendedGame() {
         MemoryAPI mem = Global.getSector().getMemoryWithoutUpdate();
 
-        if (!mem.contains("$ipc_poker_pot_size") || !mem.contains("$ipc_poker_suspend_time")) {
+        GameStateCodec.Suspended<PokerGame.PokerState> suspended = null;
+        if (mem.contains(POKER_SUSPENDED_STATE_KEY)) {
+            suspended = GameStateCodec.decodePoker(mem.getString(POKER_SUSPENDED_STATE_KEY));
+        } else if (mem.contains("$ipc_poker_pot_size") && mem.contains("$ipc_poker_suspend_time")) {
+            suspended = readLegacySuspendedState(mem);
+        }
+
+        if (suspended == null) {
             clearSuspendedGameMemory();
             main.getTextPanel().addPara(Strings.get("errors.corrupted_poker_data"), Color.RED);
             showPokerConfirm();
             return;
         }
 
-        int pot = mem.getInt("$ipc_poker_pot_size");
-        int pBet = mem.getInt("$ipc_poker_player_bet");
-        int oBet = mem.getInt("$ipc_poker_opponent_bet");
-        int pStack = mem.getInt("$ipc_poker_player_stack");
-        int oStack = mem.getInt("$ipc_poker_opponent_stack");
-        boolean pDealer = mem.getBoolean("$ipc_poker_player_is_dealer");
-        int bigBlind = mem.contains("$ipc_poker_big_blind") ? 
-            mem.getInt("$ipc_poker_big_blind") : CasinoConfig.POKER_BIG_BLIND;
-
-        if (mem.contains("$ipc_poker_hands_played")) {
-            handsPlayedThisSession = mem.getInt("$ipc_poker_hands_played");
-        } else {
-            handsPlayedThisSession = 0;
-        }
+        PokerGame.PokerState saved = suspended.state();
+        handsPlayedThisSession = suspended.handsPlayed();
 
-        PokerRound round = PokerRound.PREFLOP;
-        if (mem.contains("$ipc_poker_round")) {
-            try {
-                round = PokerRound.valueOf(mem.getString("$ipc_poker_round"));
-            } catch (Exception ignored) {}
-        }
-        
-        PokerGame.CurrentPlayer currentPlayer = PokerGame.CurrentPlayer.PLAYER;
-        if (mem.contains("$ipc_poker_current_player")) {
-            try {
-                currentPlayer = PokerGame.CurrentPlayer.valueOf(mem.getString("$ipc_poker_current_player"));
-            } catch (Exception ignored) {}
-        }
-        
-        boolean playerHasActed = mem.getBoolean("$ipc_poker_player_has_acted");
-        boolean opponentHasActed = mem.getBoolean("$ipc_poker_opponent_has_acted");
-        boolean playerAllIn = mem.getBoolean("$ipc_poker_player_all_in");
-        boolean opponentAllIn = mem.getBoolean("$ipc_poker_opponent_all_in");
-
-        List<Card> playerHand = new ArrayList<>();
-        if (mem.contains("$ipc_poker_player_hand_count")) {
-            int count = mem.getInt("$ipc_poker_player_hand_count");
-            for (int i = 0; i < count; i++) {
-                if (mem.contains("$ipc_poker_player_hand_" + i)) {
-                    Card card = PokerGame.stringToCard(
-                        mem.getString("$ipc_poker_player_hand_" + i));
-                    if (card != null) playerHand.add(card);
-                }
-            }
-        }
-        
-        List<Card> opponentHand = new ArrayList<>();
-        if (mem.contains("$ipc_poker_opponent_hand_count")) {
-            int count = mem.getInt("$ipc_poker_opponent_hand_count");
-            for (int i = 0; i < count; i++) {
-                if (mem.contains("$ipc_poker_opponent_hand_" + i)) {
-                    Card card = PokerGame.stringToCard(
-                        mem.getString("$ipc_poker_opponent_hand_" + i));
-                    if (card != null) opponentHand.add(card);
-                }
-            }
-        }
-        
-        List<Card> communityCards = new ArrayList<>();
-        if (mem.contains("$ipc_poker_community_count")) {
-            int count = mem.getInt("$ipc_poker_community_count");
-            for (int i = 0; i < count; i++) {
-                if (mem.contains("$ipc_poker_community_" + i)) {
-                    Card card = PokerGame.stringToCard(
-                        mem.getString("$ipc_poker_community_" + i));
-                    if (card != null) communityCards.add(card);
-                }
-            }
-        }
-
-        PokerGame.Dealer dealer = pDealer ? PokerGame.Dealer.PLAYER : PokerGame.Dealer.OPPONENT;
-        
         pokerGame = PokerGame.createSuspendedGame(
-            pStack, oStack, bigBlind,
-            pot, pBet, oBet,
-            dealer, round, currentPlayer,
-            playerHand, opponentHand, communityCards,
-            playerHasActed, opponentHasActed,
-            playerAllIn, opponentAllIn
+            saved.playerStack, saved.opponentStack, saved.bigBlind,
+            saved.pot, saved.playerBet, saved.opponentBet,
+            saved.dealer, saved.round, saved.currentPlayer,
+            saved.playerHand, saved.opponentHand, saved.communityCards,
+            saved.playerHasActed, saved.opponentHasActed,
+            saved.playerDeclaredAllIn, saved.opponentDeclaredAllIn
         );
 
-        long suspendTime = mem.getLong("$ipc_poker_suspend_time");
-        float daysAway = Global.getSector().getClock().getElapsedDaysSince(suspendTime);
+        float daysAway = Global.getSector().getClock().getElapsedDaysSince(suspended.suspendTime());
 
         main.getTextPanel().addPara(Strings.get("poker_suspend.dealer_stares"), Color.CYAN);
         if (daysAway >= 30) {
@@ -732,13 +559,75 @@ state = pokerGame.getState();
         main.getOptions().addOption(Strings.get("poker_resume.wait"), "poker_resume_wait");
     }
 
+    /**
+     * Reads a game suspended by older versions, which stored one memory key per field.
+     */
+    private GameStateCodec.Suspended<PokerGame.PokerState> readLegacySuspendedState(MemoryAPI mem) {
+        PokerGame.PokerState saved = new PokerGame.PokerState();
+        saved.pot = mem.getInt("$ipc_poker_pot_size");
+        saved.playerBet = mem.getInt("$ipc_poker_player_bet");
+        saved.opponentBet = mem.getInt("$ipc_poker_opponent_bet");
+        saved.playerStack = mem.getInt("$ipc_poker_player_stack");
+        saved.opponentStack = mem.getInt("$ipc_poker_opponent_stack");
+        saved.dealer = mem.getBoolean("$ipc_poker_player_is_dealer") ? PokerGame.Dealer.PLAYER : PokerGame.Dealer.OPPONENT;
+        saved.bigBlind = mem.contains("$ipc_poker_big_blind") ?
+            mem.getInt("$ipc_poker_big_blind") : CasinoConfig.POKER_BIG_BLIND;
+
+        saved.round = PokerRound.PREFLOP;
+        if (mem.contains("$ipc_poker_round")) {
+            try {
+                saved.round = PokerRound.valueOf(mem.getString("$ipc_poker_round"));
+            } catch (Exception ignored) {}
+        }
+
+        saved.currentPlayer = PokerGame.CurrentPlayer.PLAYER;
+        if (mem.contains("$ipc_poker_current_player")) {
+            try {
+                saved.currentPlayer = PokerGame.CurrentPlayer.valueOf(mem.getString("$ipc_poker_current_player"));
+            } catch (Exception ignored) {}
+        }
+
+        saved.playerHasActed = mem.getBoolean("$ipc_poker_player_has_acted");
+        saved.opponentHasActed = mem.getBoolean("$ipc_poker_opponent_has_acted");
+        saved.playerDeclaredAllIn = mem.getBoolean("$ipc_poker_player_all_in");
+        saved.opponentDeclaredAllIn = mem.getBoolean("$ipc_poker_opponent_all_in");
+
+        saved.playerHand = readLegacyCards(mem, "$ipc_poker_player_hand_count", "$ipc_poker_player_hand_");
+        saved.opponentHand = readLegacyCards(mem, "$ipc_poker_opponent_hand_count", "$ipc_poker_opponent_hand_");
+        saved.communityCards = readLegacyCards(mem, "$ipc_poker_community_count", "$ipc_poker_community_");
+
+        int handsPlayed = mem.contains("$ipc_poker_hands_played") ? mem.getInt("$ipc_poker_hands_played") : 0;
+        return new GameStateCodec.Suspended<>(saved, handsPlayed, mem.getLong("$ipc_poker_suspend_time"));
+    }
+
+    private List<Card> readLegacyCards(MemoryAPI mem, String countKey, String cardKeyPrefix) {
+        List<Card> cards = new ArrayList<>();
+        if (mem.contains(countKey)) {
+            int count = mem.getInt(countKey);
+            for (int i = 0; i < count; i++) {
+                if (mem.contains(cardKeyPrefix + i)) {
+                    Card card = PokerGame.stringToCard(mem.getString(cardKeyPrefix + i));
+                    if (card != null) cards.add(card);
+                }
+            }
+        }
+        return cards;
+    }
+
     public boolean hasSuspendedPoker() {
         MemoryAPI mem = Global.getSector().getMemoryWithoutUpdate();
-        return mem.getBoolean("$ipc_poker_suspended");
+        return mem.contains(POKER_SUSPENDED_STATE_KEY) || mem.getBoolean("$ipc_poker_suspended");
     }
 
     private void clearSuspendedGameMemory() {
         MemoryAPI mem = Global.getSector().getMemoryWithoutUpdate();
+        mem.unset(POKER_SUSPENDED_STATE_KEY);
+        if (mem.contains("$ipc_poker_suspended")) {
+            clearLegacySuspendedGameMemory(mem);
+        }
+    }
+
+    private void clearLegacySuspendedGameMemory(MemoryAPI mem) {
         mem.unset("$ipc_poker_suspended");
         mem.unset("$ipc_poker_pot_size");
         mem.unset("$ipc_poker_player_bet");
@@ -797,20 +686,20 @@ state = pokerGame.getState();
             main.getTextPanel().addPara(Strings.get("poker_result.hand_ended_early"), Color.GRAY);
         }
 
-        PokerHandEvaluator.HandScore playerScore = PokerHandEvaluator.evaluate(state.playerHand, state.communityCards);
-        PokerHandEvaluator.HandScore oppScore = PokerHandEvaluator.evaluate(state.opponentHand, state.communityCards);
+        int playerStrength = pokerGame.getPlayerHandStrength();
+        PokerHandEvaluator.HandRank playerRank = PokerHandEvaluator.packedRank(playerStrength);
 
-        int cmp = playerScore.compareTo(oppScore);
+        int cmp = Integer.compare(playerStrength, pokerGame.getOpponentHandStrength());
 
         boolean playerWasBluffing = false;  // anti-gullibility AI tracking
         if (cmp < 0) {
-            playerWasBluffing = playerScore.rank.value <= PokerHandEvaluator.HandRank.PAIR.value;
+            playerWasBluffing = playerRank.value <= PokerHandEvaluator.HandRank.PAIR.value;
         }
         pokerGame.getAI().trackPlayerShowdown(playerWasBluffing);
 
             float lastBetRatio = state.pot > 0 ? (float) state.playerBet / state.pot : 0f;
             boolean playerWon = cmp > 0;
-            pokerGame.getAI().trackShowdownDetails(playerScore.rank.value, lastBetRatio, playerWon, playerWasBluffing);
+            pokerGame.getAI().trackShowdownDetails(playerRank.value, lastBetRatio, playerWon, playerWasBluffing);
 
         if (cmp > 0) {
             main.getTextPanel().addPara(Strings.get("poker_result.victory"), Color.CYAN);
@@ -904,6 +793,8 @@ state = pokerGame.getState();
     }
     
     private void handleLeaveTable() {
+        if (pokerGame != null) pokerGame.recordHandEnd();
+        HandHistoryStore.flush();
         if (pokerGame != null && pokerGame.getState().playerStack > 0) {
             int stackToReturn = pokerGame.getState().playerStack;
             CasinoVIPManager.addToBalance(stackToReturn);
@@ -933,36 +824,15 @@ state = pokerGame.getState();
         main.showMenu();
     }
     
-    private void abandonSuspendedGame() {
-        if (pokerGame != null && pokerGame.getState().playerStack > 0) {
-            int stackToReturn = pokerGame.getState().playerStack;
-            CasinoVIPManager.addToBalance(stackToReturn);
-            main.getTextPanel().addPara(Strings.format("poker_suspend.cash_out_leave", stackToReturn), Color.GREEN);
-            pokerGame.getState().playerStack = 0;
-        }
-
-        if (handsPlayedThisSession < MIN_HANDS_BEFORE_LEAVE) {
-            MemoryAPI mem = Global.getSector().getMemoryWithoutUpdate();
-            mem.set(POKER_COOLDOWN_KEY, Global.getSector().getClock().getTimestamp());
-            main.getTextPanel().addPara(Strings.get("poker_suspend.dealer_note_early"), Color.YELLOW);
-        }
-
-        handsPlayedThisSession = 0;
-        clearSuspendedGameMemory();
-        
-        pokerGame = null;
-        currentDelegate = null;
-        
-        main.showMenu();
-    }
-    
 private void endHand() {
         if (pokerGame == null) return;
+        pokerGame.recordHandEnd();
         PokerGame.PokerState state = pokerGame.getState();
 
         if (state.playerStack < state.bigBlind) {
             main.getTextPanel().addPara(Strings.get("poker_result.out_of_chips"), Color.RED);
             returnStacks();
+            HandHistoryStore.flush();
             clearSuspendedGameMemory();
             pokerGame = null;
             handsPlayedThisSession = 0;
@@ -971,6 +841,7 @@ private void endHand() {
         } else if (state.opponentStack < state.bigBlind) {
             main.getTextPanel().addPara(Strings.get("poker_result.opponent_out"), Color.GREEN);
             returnStacks();
+            HandHistoryStore.flush();
             clearSuspendedGameMemory();
             pokerGame = null;
             handsPlayedThisSession = 0;
@@ -1000,6 +871,7 @@ private void endHand() {
                         state.playerStack += state.pot;
                     }
                     state.pot = 0;
+                    pokerGame.recordHandEnd();
                 }
             }
             case CHECK -> {
@@ -1072,16 +944,14 @@ PokerAICommon.AIResponse response = pokerGame.getOpponentAction();
                 state.playerStack += state.pot;
             }
             state.pot = 0;
+            pokerGame.recordHandEnd();
             delegate.refreshAfterStateChange(pokerGame);
             return;
         }
         
-        PokerHandEvaluator.HandScore playerScore = PokerHandEvaluator.evaluate(state.playerHand, state.communityCards);
-        PokerHandEvaluator.HandScore oppScore = PokerHandEvaluator.evaluate(state.opponentHand, state.communityCards);
-        
         state.lastPotWon = state.pot;
         
-        int cmp = playerScore.compareTo(oppScore);
+        int cmp = Integer.compare(pokerGame.getPlayerHandStrength(), pokerGame.getOpponentHandStrength());
         if (cmp > 0) {
             state.playerStack += state.pot;
         } else if (cmp < 0) {
@@ -1093,6 +963,7 @@ PokerAICommon.AIResponse response = pokerGame.getOpponentAction();
             state.opponentStack += halfPot;
         }
         state.pot = 0;
+        pokerGame.recordHandEnd();
         
         delegate.refreshAfterStateChange(pokerGame);
     }
@@ -1116,6 +987,8 @@ PokerAICommon.AIResponse response = pokerGame.getOpponentAction();
     }
     
     public void handleCleanLeaveInPlace(PokerDialogDelegate delegate) {
+        if (pokerGame != null) pokerGame.recordHandEnd();
+        HandHistoryStore.flush();
         if (pokerGame != null && pokerGame.getState().playerStack > 0) {
             int stackToReturn = pokerGame.getState().playerStack;
             CasinoVIPManager.addToBalance(stackToReturn);
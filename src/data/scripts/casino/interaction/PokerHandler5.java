@@ -11,12 +11,11 @@ import data.scripts.casino.cards.poker5.PokerGame5;
 import data.scripts.casino.cards.poker5.PokerGame5Factory;
 import data.scripts.casino.cards.pokerShared.PokerAction;
 import data.scripts.casino.cards.pokerShared.PokerRound;
-import data.scripts.casino.cards.pokerShared.PokerUtils;
+import data.scripts.casino.shared.GameStateCodec;
+import data.scripts.casino.shared.HandHistoryStore;
 
 import java.awt.Color;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.Predicate;
+import java.util.Arrays;
 
 public class PokerHandler5 {
 
@@ -29,53 +28,23 @@ public class PokerHandler5 {
 
     private int handsPlayedThisSession = 0;
     private static final String POKER5_COOLDOWN_KEY = "$ipc_poker5_cooldown_until";
-
-    private final Map<String, OptionHandler> handlers = new HashMap<>();
-    private final Map<Predicate<String>, OptionHandler> predicateHandlers = new HashMap<>();
+    private static final String POKER5_SUSPENDED_STATE_KEY = "$ipc_poker5_suspended_state";
 
     public PokerHandler5(CasinoInteraction main) {
         this.main = main;
-        initializeHandlers();
     }
 
-    private void initializeHandlers() {
-        handlers.put("play5", option -> showPoker5Confirm());
-        handlers.put("poker5_back_action", option -> showPoker5VisualPanel());
-        handlers.put("how_to_poker5", option -> main.help.showPokerHelp("poker5_back_action"));
-        handlers.put("how_to_poker5_menu", option -> main.help.showPokerHelp("play5"));
-        handlers.put("poker5_resume_continue", option -> {
+    void registerOptions(OptionRouter router) {
+        router.exact("play5", option -> showPoker5Confirm());
+        router.exact("poker5_back_action", option -> showPoker5VisualPanel());
+        router.exact("how_to_poker5", option -> main.help.showPokerHelp("poker5_back_action"));
+        router.exact("poker5_resume_continue", option -> {
             clearSuspendedGameMemory();
             showPoker5VisualPanel();
         });
-        handlers.put("poker5_resume_wait", option -> main.showMenu());
-        handlers.put("back_menu5", option -> {
-            pokerGame = null;
-            handsPlayedThisSession = 0;
-            currentDelegate = null;
-            clearSuspendedGameMemory();
-            main.showMenu();
-        });
+        router.exact("poker5_resume_wait", option -> main.showMenu());
 
-        predicateHandlers.put(option -> option.startsWith("poker5_stack_"), option -> {
-            String stackStr = option.replace("poker5_stack_", "");
-            int stackSize = Integer.parseInt(stackStr);
-            setupGame(stackSize);
-        });
-    }
-
-    public void handle(String option) {
-        OptionHandler handler = handlers.get(option);
-        if (handler != null) {
-            handler.handle(option);
-            return;
-        }
-
-        for (Map.Entry<Predicate<String>, OptionHandler> entry : predicateHandlers.entrySet()) {
-            if (entry.getKey().test(option)) {
-                entry.getValue().handle(option);
-                return;
-            }
-        }
+        router.indexed("poker5_stack_", this::setupGame);
     }
 
     public void showPoker5Confirm() {
@@ -142,11 +111,9 @@ public class PokerHandler5 {
     private void startGameWithStack(int stackSize) {
         CasinoVIPManager.addToBalance(-stackSize);
 
-        int[] startingStacks = new int[PokerGame5.NUM_PLAYERS];
-        startingStacks[PokerGame5.HUMAN_PLAYER_INDEX] = stackSize;
-        for (int i = 1; i < PokerGame5.NUM_PLAYERS; i++) {
-            startingStacks[i] = stackSize;
-        }
+        int seats = Math.max(PokerGame5.MIN_PLAYERS, Math.min(PokerGame5.MAX_PLAYERS, CasinoConfig.POKER_TABLE_SEATS));
+        int[] startingStacks = new int[seats];
+        Arrays.fill(startingStacks, stackSize);
 
         pokerGame = new PokerGame5(startingStacks);
         handsPlayedThisSession = 0;
@@ -295,6 +262,8 @@ public class PokerHandler5 {
     }
 
     public void handleCleanLeaveInPlace(PokerDialogDelegate5 delegate) {
+        if (pokerGame != null) pokerGame.recordHandEnd();
+        HandHistoryStore.flush();
         if (pokerGame != null && pokerGame.getState().stacks[PokerGame5.HUMAN_PLAYER_INDEX] > 0) {
             int stackToReturn = pokerGame.getState().stacks[PokerGame5.HUMAN_PLAYER_INDEX];
             CasinoVIPManager.addToBalance(stackToReturn);
@@ -316,6 +285,7 @@ public class PokerHandler5 {
         if (state.stacks[PokerGame5.HUMAN_PLAYER_INDEX] <= 0) {
             main.getTextPanel().addPara(Strings.get("poker_result.out_of_chips"), Color.RED);
             returnRemainingStack();
+            HandHistoryStore.flush();
             clearSuspendedGameMemory();
             pokerGame = null;
             handsPlayedThisSession = 0;
@@ -335,38 +305,12 @@ public class PokerHandler5 {
 
     private void suspendGame() {
         if (pokerGame == null) return;
+        pokerGame.recordHandEnd();
+        HandHistoryStore.flush();
         PokerGame5.PokerState5 state = pokerGame.getState();
         MemoryAPI mem = Global.getSector().getMemoryWithoutUpdate();
-        mem.set("$ipc_poker5_suspended", true);
-
-        mem.set("$ipc_poker5_button_position", state.buttonPosition);
-        mem.set("$ipc_poker5_big_blind", state.bigBlind);
-        mem.set("$ipc_poker5_round", state.round.name());
-        mem.set("$ipc_poker5_current_player", state.currentPlayerIndex);
-        mem.set("$ipc_poker5_pot", state.pot);
-        mem.set("$ipc_poker5_hands_played", handsPlayedThisSession);
-
-        for (int i = 0; i < PokerGame5.NUM_PLAYERS; i++) {
-            mem.set("$ipc_poker5_stack_" + i, state.stacks[i]);
-            mem.set("$ipc_poker5_bet_" + i, state.bets[i]);
-            mem.set("$ipc_poker5_folded_" + i, state.foldedPlayers.contains(i));
-            mem.set("$ipc_poker5_allin_" + i, state.declaredAllIn[i]);
-            mem.set("$ipc_poker5_has_acted_" + i, state.hasActed[i]);
-
-            if (state.hands[i] != null) {
-                mem.set("$ipc_poker5_hand_count_" + i, state.hands[i].size());
-                for (int j = 0; j < state.hands[i].size(); j++) {
-                    mem.set("$ipc_poker5_hand_" + i + "_" + j, PokerUtils.cardToString(state.hands[i].get(j)));
-                }
-            }
-        }
-
-        mem.set("$ipc_poker5_community_count", state.communityCards.size());
-        for (int i = 0; i < state.communityCards.size(); i++) {
-            mem.set("$ipc_poker5_community_" + i, PokerUtils.cardToString(state.communityCards.get(i)));
-        }
-
-        mem.set("$ipc_poker5_suspend_time", Global.getSector().getClock().getTimestamp());
+        mem.set(POKER5_SUSPENDED_STATE_KEY, GameStateCodec.encodePoker5(state, handsPlayedThisSession,
+            Global.getSector().getClock().getTimestamp()));
 
         main.textPanel.addPara(Strings.get("poker5.suspended_msg"), Color.YELLOW);
         main.options.clearOptions();
@@ -376,15 +320,27 @@ public class PokerHandler5 {
     public void restoreSuspendedGame() {
         MemoryAPI mem = Global.getSector().getMemoryWithoutUpdate();
 
-        if (!mem.contains("$ipc_poker5_pot")) {
+        long suspendTime = 0;
+        if (mem.contains(POKER5_SUSPENDED_STATE_KEY)) {
+            GameStateCodec.Suspended<PokerGame5.PokerState5> suspended =
+                GameStateCodec.decodePoker5(mem.getString(POKER5_SUSPENDED_STATE_KEY));
+            pokerGame = null;
+            if (suspended != null) {
+                pokerGame = PokerGame5Factory.restoreFromState(suspended.state());
+                handsPlayedThisSession = suspended.handsPlayed();
+                suspendTime = suspended.suspendTime();
+            }
+        } else if (mem.contains("$ipc_poker5_pot")) {
+            pokerGame = PokerGame5Factory.restoreFromMemory(mem);
+            handsPlayedThisSession = mem.getInt("$ipc_poker5_hands_played");
+            suspendTime = mem.getLong("$ipc_poker5_suspend_time");
+        } else {
             clearSuspendedGameMemory();
             main.textPanel.addPara(Strings.get("errors.corrupted_poker_data"), Color.RED);
             showPoker5Confirm();
             return;
         }
 
-        pokerGame = PokerGame5Factory.restoreFromMemory(mem);
-
         if (pokerGame == null) {
             clearSuspendedGameMemory();
             main.textPanel.addPara(Strings.get("poker5.restore_failed"), Color.RED);
@@ -392,9 +348,6 @@ public class PokerHandler5 {
             return;
         }
 
-        handsPlayedThisSession = mem.getInt("$ipc_poker5_hands_played");
-
-        long suspendTime = mem.getLong("$ipc_poker5_suspend_time");
         float daysAway = Global.getSector().getClock().getElapsedDaysSince(suspendTime);
 
         main.textPanel.addPara(Strings.get("poker_suspend.dealer_stares"), Color.CYAN);
@@ -411,11 +364,18 @@ public class PokerHandler5 {
 
     public boolean hasSuspendedPoker5() {
         MemoryAPI mem = Global.getSector().getMemoryWithoutUpdate();
-        return mem.getBoolean("$ipc_poker5_suspended");
+        return mem.contains(POKER5_SUSPENDED_STATE_KEY) || mem.getBoolean("$ipc_poker5_suspended");
     }
 
     private void clearSuspendedGameMemory() {
         MemoryAPI mem = Global.getSector().getMemoryWithoutUpdate();
+        mem.unset(POKER5_SUSPENDED_STATE_KEY);
+        if (mem.contains("$ipc_poker5_suspended")) {
+            clearLegacySuspendedGameMemory(mem);
+        }
+    }
+
+    private void clearLegacySuspendedGameMemory(MemoryAPI mem) {
         mem.unset("$ipc_poker5_suspended");
         mem.unset("$ipc_poker5_button_position");
         mem.unset("$ipc_poker5_big_blind");
@@ -425,7 +385,7 @@ public class PokerHandler5 {
         mem.unset("$ipc_poker5_hands_played");
         mem.unset("$ipc_poker5_suspend_time");
 
-        for (int i = 0; i < PokerGame5.NUM_PLAYERS; i++) {
+        for (int i = 0; i < PokerGame5Factory.LEGACY_SEATS; i++) {
             mem.unset("$ipc_poker5_stack_" + i);
             mem.unset("$ipc_poker5_bet_" + i);
             mem.unset("$ipc_poker5_folded_" + i);
@@ -444,6 +404,8 @@ public class PokerHandler5 {
     }
 
     private void handleLeaveTable() {
+        if (pokerGame != null) pokerGame.recordHandEnd();
+        HandHistoryStore.flush();
         returnRemainingStack();
 
         handsPlayedThisSession = 0;
@@ -5,51 +5,23 @@ import data.scripts.casino.CasinoConfig;
 import data.scripts.casino.CasinoVIPManager;
 import data.scripts.casino.Strings;
 import java.awt.Color;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.function.Predicate;
 
 public class TopupHandler {
 
     private final CasinoInteraction main;
-    private final Map<String, OptionHandler> handlers = new HashMap<>();
-    private final Map<Predicate<String>, OptionHandler> predicateHandlers = new HashMap<>();
 
     public TopupHandler(CasinoInteraction main) {
         this.main = main;
-        initializeHandlers();
     }
 
-    private void initializeHandlers() {
-        handlers.put("topup_menu", option -> showTopUpMenu());
-        handlers.put("back_menu", option -> main.showMenu());
-        handlers.put("how_to_topup", option -> main.help.showTopupHelp());
-        handlers.put("buy_vip_from_topup", option -> showVIPConfirmFromTopup());
-        handlers.put("confirm_buy_vip_topup", option -> purchaseVIPPassFromTopup());
+    void registerOptions(OptionRouter router) {
+        router.exact("topup_menu", option -> showTopUpMenu());
+        router.exact("buy_vip_from_topup", option -> showVIPConfirmFromTopup());
+        router.exact("confirm_buy_vip_topup", option -> purchaseVIPPassFromTopup());
 
-        predicateHandlers.put(option -> option.startsWith("topup_pack_"), option -> {
-            int index = Integer.parseInt(option.replace("topup_pack_", ""));
-            showTopUpConfirm(index);
-        });
-        predicateHandlers.put(option -> option.startsWith("confirm_topup_pack_"), option -> {
-            int index = Integer.parseInt(option.replace("confirm_topup_pack_", ""));
-            purchaseGemPack(CasinoConfig.GEM_PACKAGES.get(index).gems(), CasinoConfig.GEM_PACKAGES.get(index).cost());
-        });
-    }
-
-    public void handle(String option) {
-        OptionHandler handler = handlers.get(option);
-        if (handler != null) {
-            handler.handle(option);
-            return;
-        }
-
-        for (Map.Entry<Predicate<String>, OptionHandler> entry : predicateHandlers.entrySet()) {
-            if (entry.getKey().test(option)) {
-                entry.getValue().handle(option);
-                return;
-            }
-        }
+        router.indexed("topup_pack_", this::showTopUpConfirm);
+        router.indexed("confirm_topup_pack_", index ->
+            purchaseGemPack(CasinoConfig.GEM_PACKAGES.get(index).gems(), CasinoConfig.GEM_PACKAGES.get(index).cost()));
     }
 
     public void showTopUpMenu() {
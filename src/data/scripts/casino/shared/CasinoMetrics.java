@@ -0,0 +1,185 @@
+package data.scripts.casino.shared;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lightweight performance telemetry: named lock-free counters and latency histograms.
+ * Histograms use log-linear buckets (16 per power of two, about 6% resolution) over
+ * nanosecond values, so recording is a single atomic increment with no allocation.
+ * Everything is a no-op while disabled (the default); see {@code metricsEnabled} in casino_settings.json.
+ * Deliberately free of game API dependencies so the headless game logic can be instrumented too.
+ */
+public final class CasinoMetrics {
+
+    private static volatile boolean enabled = false;
+
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    private CasinoMetrics() {}
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    public static Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new Histogram());
+    }
+
+    public static FrameTimer frameTimer(String name) {
+        return new FrameTimer(histogram(name));
+    }
+
+    /** @return a start timestamp for {@link Histogram#recordSince}, or 0 while disabled */
+    public static long startTimer() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            if (enabled) value.increment();
+        }
+
+        public void add(long amount) {
+            if (enabled) value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        void reset() {
+            value.reset();
+        }
+    }
+
+    public static final class Histogram {
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+        static int bucketIndex(long value) {
+            if (value < SUB_BUCKETS) return (int) Math.max(0, value);
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        static long bucketLowerBound(int index) {
+            if (index < SUB_BUCKETS) return index;
+            int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            long sub = index % SUB_BUCKETS;
+            return (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+        }
+
+        public void record(long nanos) {
+            if (!enabled) return;
+            buckets.incrementAndGet(bucketIndex(nanos));
+            count.increment();
+            sum.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        /** Records the time elapsed since a {@link CasinoMetrics#startTimer()} timestamp. */
+        public void recordSince(long startNanos) {
+            if (startNanos != 0L) {
+                record(System.nanoTime() - startNanos);
+            }
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public double getMean() {
+            long n = count.sum();
+            return n > 0 ? (double) sum.sum() / n : 0;
+        }
+
+        /** @return lower bound of the bucket holding the given percentile (0-100), in nanoseconds */
+        public long getPercentile(double percentile) {
+            long n = count.sum();
+            if (n == 0) return 0;
+            long target = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += buckets.get(i);
+                if (seen >= target) return bucketLowerBound(i);
+            }
+            return max.get();
+        }
+
+        void reset() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                buckets.set(i, 0);
+            }
+            count.reset();
+            sum.reset();
+            max.reset();
+        }
+    }
+
+    /** Times one section per frame, e.g. a panel's renderBelow. Render-thread use only. */
+    public static final class FrameTimer {
+        private final Histogram histogram;
+        private long start;
+
+        private FrameTimer(Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        public void begin() {
+            start = startTimer();
+        }
+
+        public void end() {
+            histogram.recordSince(start);
+            start = 0L;
+        }
+    }
+
+    /** One line per metric, sorted by name; latencies in milliseconds. */
+    public static String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Histogram> entry : new ConcurrentSkipListMap<>(histograms).entrySet()) {
+            Histogram h = entry.getValue();
+            if (h.getCount() == 0) continue;
+            sb.append(String.format("%s: n=%d mean=%.3f p50=%.3f p99=%.3f max=%.3f ms%n",
+                entry.getKey(), h.getCount(), h.getMean() / 1e6, h.getPercentile(50) / 1e6,
+                h.getPercentile(99) / 1e6, h.getMax() / 1e6));
+        }
+        for (Map.Entry<String, Counter> entry : new ConcurrentSkipListMap<>(counters).entrySet()) {
+            sb.append(entry.getKey()).append(": ").append(entry.getValue().get()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public static void reset() {
+        for (Counter c : counters.values()) c.reset();
+        for (Histogram h : histograms.values()) h.reset();
+    }
+}
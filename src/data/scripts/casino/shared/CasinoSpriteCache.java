@@ -1,49 +1,219 @@
 package data.scripts.casino.shared;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import com.fs.starfarer.api.Global;
 import com.fs.starfarer.api.SettingsAPI;
 import com.fs.starfarer.api.combat.ShipHullSpecAPI;
 import com.fs.starfarer.api.graphics.SpriteAPI;
+import data.scripts.casino.CasinoConfig;
 
+/**
+ * Bounded LRU cache of ship hull sprites, sized by estimated texture memory.
+ * Several hull ids (skins, variants) can share one sprite file, so textures are reference counted
+ * by texture name: a texture this cache had to load itself is unloaded only once no cached hull
+ * uses it any more. Textures the game already had resident are never unloaded.
+ * Entries drawn within the last few frames or waiting in the prefetch queue are never evicted,
+ * so the cache may run over budget while a panel shows more sprites than the budget allows.
+ * Texture uploads must happen on the render thread, so {@link #prefetch} only queues hulls;
+ * the queue is drained a few sprites per frame by {@link #advancePrefetch()} from panel advance().
+ */
 public final class CasinoSpriteCache {
     private static final SettingsAPI settings = Global.getSettings();
-    private static final Map<String, SpriteAPI> cache = new HashMap<>();
+
+    private static final int PREFETCH_PER_FRAME = 4;
+    private static final long BYTES_PER_PIXEL = 4;
+    // advancePrefetch() runs once per frame per open panel, so allow a few ticks of slack
+    private static final long IN_USE_FRAMES = 4;
+
+    private static final class Entry {
+        final SpriteAPI sprite;
+        final String textureName;
+        long lastUsedFrame;
+
+        Entry(SpriteAPI sprite, String textureName) {
+            this.sprite = sprite;
+            this.textureName = textureName;
+        }
+    }
+
+    private static final class TextureRef {
+        final boolean owned;
+        final long bytes;
+        int refs;
+
+        TextureRef(boolean owned, long bytes) {
+            this.owned = owned;
+            this.bytes = bytes;
+        }
+    }
+
+    private static Entry missing() {
+        return new Entry(null, null);
+    }
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private static final LinkedHashMap<String, Entry> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private static final ArrayDeque<String> prefetchQueue = new ArrayDeque<>();
+    private static final Set<String> prefetchQueued = new HashSet<>();
+    private static final Map<String, TextureRef> textureRefs = new HashMap<>();
+    private static long cachedBytes = 0;
+    private static long frame = 0;
+
+    private static long hits = 0;
+    private static long misses = 0;
+    private static long evictions = 0;
 
     private CasinoSpriteCache() {}
 
     public static SpriteAPI getShipSprite(String hullId) {
         if (hullId == null || hullId.isEmpty()) return null;
 
-        if (cache.containsKey(hullId)) {
-            return cache.get(hullId);
+        Entry entry = cache.get(hullId);
+        if (entry != null) {
+            hits++;
+            entry.lastUsedFrame = frame;
+            return entry.sprite;
         }
 
+        misses++;
+        entry = load(hullId);
+        entry.lastUsedFrame = frame;
+        add(hullId, entry);
+        return entry.sprite;
+    }
+
+    private static void add(String hullId, Entry entry) {
+        cache.put(hullId, entry);
+        evictToBudget();
+    }
+
+    private static Entry load(String hullId) {
         try {
             ShipHullSpecAPI spec = settings.getHullSpec(hullId);
-            if (spec == null) {
-                cache.put(hullId, null);
-                return null;
-            }
+            if (spec == null) return missing();
 
             String spriteName = spec.getSpriteName();
-            if (spriteName == null || spriteName.isEmpty()) {
-                cache.put(hullId, null);
-                return null;
-            }
+            if (spriteName == null || spriteName.isEmpty()) return missing();
 
+            TextureRef ref = textureRefs.get(spriteName);
             SpriteAPI sprite = settings.getSprite(spriteName);
-            cache.put(hullId, sprite);
-            return sprite;
+            if (ref == null) {
+                boolean owned = false;
+                if (sprite == null || sprite.getTextureId() == 0) {
+                    settings.loadTexture(spriteName);
+                    sprite = settings.getSprite(spriteName);
+                    owned = true;
+                }
+                if (sprite == null) {
+                    if (owned) settings.unloadTexture(spriteName);
+                    return missing();
+                }
+                ref = new TextureRef(owned, (long) (sprite.getWidth() * sprite.getHeight()) * BYTES_PER_PIXEL);
+                textureRefs.put(spriteName, ref);
+                cachedBytes += ref.bytes;
+            } else if (sprite == null) {
+                return missing();
+            }
+            ref.refs++;
+            return new Entry(sprite, spriteName);
         } catch (Exception e) {
-            cache.put(hullId, null);
-            return null;
+            return missing();
         }
     }
 
+    private static boolean isInUse(String hullId, Entry entry) {
+        return frame - entry.lastUsedFrame <= IN_USE_FRAMES || prefetchQueued.contains(hullId);
+    }
+
+    private static void evictToBudget() {
+        // Non-positive limits (e.g. settings failed to load) mean unbounded
+        long budget = CasinoConfig.SPRITE_CACHE_MAX_MEGABYTES > 0
+            ? CasinoConfig.SPRITE_CACHE_MAX_MEGABYTES * 1024L * 1024L : Long.MAX_VALUE;
+        int maxEntries = CasinoConfig.SPRITE_CACHE_MAX_ENTRIES > 0 ? CasinoConfig.SPRITE_CACHE_MAX_ENTRIES : Integer.MAX_VALUE;
+        Iterator<Map.Entry<String, Entry>> it = cache.entrySet().iterator();
+        while ((cachedBytes > budget || cache.size() > maxEntries) && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            if (isInUse(eldest.getKey(), eldest.getValue())) continue;
+            it.remove();
+            release(eldest.getValue());
+            evictions++;
+        }
+    }
+
+    private static void release(Entry entry) {
+        if (entry.textureName == null) return;
+
+        TextureRef ref = textureRefs.get(entry.textureName);
+        if (ref == null || --ref.refs > 0) return;
+        textureRefs.remove(entry.textureName);
+        cachedBytes -= ref.bytes;
+        if (ref.owned) {
+            settings.unloadTexture(entry.textureName);
+        }
+    }
+
+    /** Queues hulls to be loaded ahead of use. Already cached or queued hulls are skipped. */
+    public static void prefetch(Collection<String> hullIds) {
+        for (String hullId : hullIds) {
+            prefetch(hullId);
+        }
+    }
+
+    public static void prefetch(String hullId) {
+        if (hullId == null || hullId.isEmpty() || cache.containsKey(hullId)) return;
+        if (prefetchQueued.add(hullId)) {
+            prefetchQueue.add(hullId);
+        }
+    }
+
+    /** Loads up to a few queued sprites. Call once per frame from a panel's advance(). */
+    public static void advancePrefetch() {
+        frame++;
+        for (int i = 0; i < PREFETCH_PER_FRAME && !prefetchQueue.isEmpty(); i++) {
+            String hullId = prefetchQueue.poll();
+            prefetchQueued.remove(hullId);
+            if (cache.containsKey(hullId)) continue;
+
+            // Prefetch loads count as neither hits nor misses
+            Entry entry = load(hullId);
+            entry.lastUsedFrame = frame;
+            add(hullId, entry);
+        }
+    }
+
+    public static long getHits() { return hits; }
+
+    public static long getMisses() { return misses; }
+
+    public static long getEvictions() { return evictions; }
+
+    public static long getCachedBytes() { return cachedBytes; }
+
+    public static int size() { return cache.size(); }
+
+    public static String getStatsSummary() {
+        long lookups = hits + misses;
+        float hitRate = lookups > 0 ? (float) hits / lookups * 100f : 0f;
+        return String.format("sprites=%d (%.1f MB) hits=%d misses=%d (%.1f%% hit) evictions=%d",
+            cache.size(), cachedBytes / (1024f * 1024f), hits, misses, hitRate, evictions);
+    }
+
     public static void clear() {
+        for (Entry entry : cache.values()) {
+            release(entry);
+        }
         cache.clear();
+        textureRefs.clear();
+        prefetchQueue.clear();
+        prefetchQueued.clear();
+        cachedBytes = 0;
     }
-}
\ No newline at end of file
+}
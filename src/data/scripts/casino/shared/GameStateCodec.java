@@ -0,0 +1,410 @@
+package data.scripts.casino.shared;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import data.scripts.casino.cards.Card;
+import data.scripts.casino.cards.GameType;
+import data.scripts.casino.cards.blackjack.BlackjackGame;
+import data.scripts.casino.cards.poker2.PokerGame;
+import data.scripts.casino.cards.poker5.PokerGame5;
+import data.scripts.casino.cards.pokerShared.PokerRound;
+
+/**
+ * Compact binary codec for suspended card games. Each game is written as a single
+ * Base64 string so suspend/resume is one memory write and one memory read.
+ * <p>
+ * Layout: tag byte, version byte, suspend timestamp, hands played, then the game state.
+ * Integers are zigzag varints, cards are one byte (rank * 4 + suit, 0xFF for none),
+ * booleans are packed into bit flags and player sets into bitmasks.
+ * Derived fields (hand ranks, UI action labels) are not stored; the games recompute them.
+ */
+public final class GameStateCodec {
+    private GameStateCodec() {}
+
+    public static final int VERSION = 1;
+
+    private static final byte TAG_POKER = 'P';
+    private static final byte TAG_POKER5 = '5';
+    private static final byte TAG_BLACKJACK = 'B';
+
+    private static final int NO_CARD = 0xFF;
+    private static final PokerRound[] ROUNDS = PokerRound.values();
+
+    public record Suspended<S>(S state, int handsPlayed, long suspendTime) {}
+
+    public static int cardToByte(Card card) {
+        if (card == null) return NO_CARD;
+        return card.code();
+    }
+
+    public static Card byteToCard(int b, GameType type) {
+        if (b == NO_CARD || b < 0 || b >= Card.DISTINCT_CARDS) return null;
+        return Card.of(b, type);
+    }
+
+    // ---------------------------------------------------------------- heads-up poker
+
+    public static String encodePoker(PokerGame.PokerState s, int handsPlayed, long suspendTime) {
+        Writer w = new Writer(TAG_POKER, handsPlayed, suspendTime);
+        w.cards(s.playerHand);
+        w.cards(s.opponentHand);
+        w.cards(s.communityCards);
+        w.varint(s.pot);
+        w.varint(s.playerStack);
+        w.varint(s.opponentStack);
+        w.varint(s.playerBet);
+        w.varint(s.opponentBet);
+        w.varint(s.displayPlayerBet);
+        w.varint(s.displayOpponentBet);
+        w.varint(s.bigBlind);
+        w.varint(s.lastPotWon);
+        w.varint(s.maxStack);
+        w.ordinal(s.dealer);
+        w.ordinal(s.round);
+        w.ordinal(s.currentPlayer);
+        w.ordinal(s.folder);
+        w.flags(s.playerHasActed, s.opponentHasActed, s.playerDeclaredAllIn, s.opponentDeclaredAllIn);
+        return w.finish();
+    }
+
+    public static Suspended<PokerGame.PokerState> decodePoker(String data) {
+        Reader r = Reader.open(data, TAG_POKER);
+        if (r == null) return null;
+        try {
+            PokerGame.PokerState s = new PokerGame.PokerState();
+            s.playerHand = r.cards(GameType.POKER);
+            s.opponentHand = r.cards(GameType.POKER);
+            s.communityCards = r.cards(GameType.POKER);
+            s.pot = r.varint();
+            s.playerStack = r.varint();
+            s.opponentStack = r.varint();
+            s.playerBet = r.varint();
+            s.opponentBet = r.varint();
+            s.displayPlayerBet = r.varint();
+            s.displayOpponentBet = r.varint();
+            s.bigBlind = r.varint();
+            s.lastPotWon = r.varint();
+            s.maxStack = r.varint();
+            s.dealer = r.ordinal(PokerGame.Dealer.values());
+            s.round = r.ordinal(ROUNDS);
+            s.currentPlayer = r.ordinal(PokerGame.CurrentPlayer.values());
+            s.folder = r.ordinal(PokerGame.CurrentPlayer.values());
+            int flags = r.u8();
+            s.playerHasActed = (flags & 1) != 0;
+            s.opponentHasActed = (flags & 2) != 0;
+            s.playerDeclaredAllIn = (flags & 4) != 0;
+            s.opponentDeclaredAllIn = (flags & 8) != 0;
+            return new Suspended<>(s, r.handsPlayed, r.suspendTime);
+        } catch (IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    // ---------------------------------------------------------------- 5-player poker
+
+    public static String encodePoker5(PokerGame5.PokerState5 s, int handsPlayed, long suspendTime) {
+        Writer w = new Writer(TAG_POKER5, handsPlayed, suspendTime);
+        int seats = s.stacks.length;
+        w.varint(seats);
+        for (int i = 0; i < seats; i++) {
+            w.cards(s.hands[i]);
+            w.varint(s.stacks[i]);
+            w.varint(s.bets[i]);
+            w.varint(s.displayBets[i]);
+            w.varint(s.totalContributions[i]);
+        }
+        w.cards(s.communityCards);
+        w.varint(mask(s.hasActed));
+        w.varint(mask(s.declaredAllIn));
+        w.varint(mask(s.foldedPlayers));
+        w.varint(mask(s.activePlayers));
+
+        w.varint(s.sidePots.size());
+        for (PokerGame5.SidePot pot : s.sidePots) {
+            w.varint(pot.amount);
+            w.varint(pot.capPerPlayer);
+            w.varint(mask(pot.eligiblePlayers));
+        }
+
+        w.varint(s.pot);
+        w.varint(s.mainPotCap);
+        w.varint(s.buttonPosition);
+        w.ordinal(s.round);
+        w.varint(s.currentPlayerIndex);
+        w.varint(s.lastRaiseAmount);
+        w.varint(s.lastRaisePlayerIndex);
+        w.varint(s.lastPotWon);
+        w.varint(s.bigBlind);
+        w.varint(s.maxStack);
+        w.varint(s.foldWinner);
+        w.varint(s.winners.length);
+        for (int winner : s.winners) w.varint(winner);
+        return w.finish();
+    }
+
+    public static Suspended<PokerGame5.PokerState5> decodePoker5(String data) {
+        Reader r = Reader.open(data, TAG_POKER5);
+        if (r == null) return null;
+        try {
+            int seats = r.varint();
+            if (seats < PokerGame5.MIN_PLAYERS || seats > PokerGame5.MAX_PLAYERS) return null;
+            PokerGame5.PokerState5 s = new PokerGame5.PokerState5(seats);
+            for (int i = 0; i < seats; i++) {
+                s.hands[i] = r.cards(GameType.POKER);
+                s.stacks[i] = r.varint();
+                s.bets[i] = r.varint();
+                s.displayBets[i] = r.varint();
+                s.totalContributions[i] = r.varint();
+            }
+            s.communityCards = r.cards(GameType.POKER);
+            unmask(r.varint(), s.hasActed);
+            unmask(r.varint(), s.declaredAllIn);
+            unmask(r.varint(), seats, s.foldedPlayers);
+            unmask(r.varint(), seats, s.activePlayers);
+
+            int potCount = r.varint();
+            for (int i = 0; i < potCount; i++) {
+                int amount = r.varint();
+                int cap = r.varint();
+                PokerGame5.SidePot pot = new PokerGame5.SidePot(amount, new HashSet<>(), cap);
+                unmask(r.varint(), seats, pot.eligiblePlayers);
+                s.sidePots.add(pot);
+            }
+
+            s.pot = r.varint();
+            s.mainPotCap = r.varint();
+            s.buttonPosition = r.varint();
+            s.round = r.ordinal(ROUNDS);
+            s.currentPlayerIndex = r.varint();
+            s.lastRaiseAmount = r.varint();
+            s.lastRaisePlayerIndex = r.varint();
+            s.lastPotWon = r.varint();
+            s.bigBlind = r.varint();
+            s.maxStack = r.varint();
+            s.foldWinner = r.varint();
+            s.winners = new int[r.length(seats)];
+            for (int i = 0; i < s.winners.length; i++) s.winners[i] = r.varint();
+            return new Suspended<>(s, r.handsPlayed, r.suspendTime);
+        } catch (IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    // ---------------------------------------------------------------- blackjack
+
+    public static String encodeBlackjack(BlackjackGame.GameStateData s, int handsPlayed, long suspendTime) {
+        Writer w = new Writer(TAG_BLACKJACK, handsPlayed, suspendTime);
+        writeHand(w, s.playerHand);
+        writeHand(w, s.dealerHand);
+        int splitCount = s.splitHands != null ? s.splitHands.size() : 0;
+        w.varint(splitCount);
+        for (int i = 0; i < splitCount; i++) writeHand(w, s.splitHands.get(i));
+        w.varint(s.currentSplitIndex);
+        w.varint(s.pot);
+        w.varint(s.playerStack);
+        w.varint(s.currentBet);
+        w.ordinal(s.state);
+        w.varint(s.lastPotWon);
+        w.varint(s.originalBalance);
+        w.varint(s.creditCeiling);
+        w.varint(s.creditBorrowed);
+        int resultCount = s.splitHandResults != null ? s.splitHandResults.size() : 0;
+        w.varint(resultCount);
+        for (int i = 0; i < resultCount; i++) w.varint(s.splitHandResults.get(i));
+        w.flags(s.dealerHoleCardRevealed, s.overdraftEnabled, s.splitHandResults != null);
+        return w.finish();
+    }
+
+    public static Suspended<BlackjackGame.GameStateData> decodeBlackjack(String data) {
+        Reader r = Reader.open(data, TAG_BLACKJACK);
+        if (r == null) return null;
+        try {
+            BlackjackGame.GameStateData s = new BlackjackGame.GameStateData();
+            s.playerHand = readHand(r);
+            s.dealerHand = readHand(r);
+            int splitCount = r.length(r.remaining());
+            s.splitHands = new ArrayList<>(splitCount);
+            for (int i = 0; i < splitCount; i++) s.splitHands.add(readHand(r));
+            s.currentSplitIndex = r.varint();
+            s.pot = r.varint();
+            s.playerStack = r.varint();
+            s.currentBet = r.varint();
+            s.state = r.ordinal(BlackjackGame.GameState.values());
+            s.lastPotWon = r.varint();
+            s.originalBalance = r.varint();
+            s.creditCeiling = r.varint();
+            s.creditBorrowed = r.varint();
+            int resultCount = r.length(r.remaining());
+            List<Integer> results = new ArrayList<>(resultCount);
+            for (int i = 0; i < resultCount; i++) results.add(r.varint());
+            int flags = r.u8();
+            s.dealerHoleCardRevealed = (flags & 1) != 0;
+            s.overdraftEnabled = (flags & 2) != 0;
+            s.splitHandResults = (flags & 4) != 0 ? results : null;
+            return new Suspended<>(s, r.handsPlayed, r.suspendTime);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void writeHand(Writer w, BlackjackGame.Hand hand) {
+        if (hand == null) hand = new BlackjackGame.Hand();
+        w.varint(hand.betAmount);
+        w.cards(hand.cards);
+    }
+
+    private static BlackjackGame.Hand readHand(Reader r) {
+        BlackjackGame.Hand hand = new BlackjackGame.Hand(r.varint());
+        for (Card c : r.cards(GameType.BLACKJACK)) hand.addCard(c);
+        return hand;
+    }
+
+    // ---------------------------------------------------------------- bitmask helpers
+
+    private static int mask(boolean[] values) {
+        int m = 0;
+        for (int i = 0; i < values.length; i++) if (values[i]) m |= 1 << i;
+        return m;
+    }
+
+    private static int mask(Iterable<Integer> seats) {
+        int m = 0;
+        for (int seat : seats) m |= 1 << seat;
+        return m;
+    }
+
+    private static void unmask(int m, boolean[] out) {
+        for (int i = 0; i < out.length; i++) out[i] = (m & (1 << i)) != 0;
+    }
+
+    private static void unmask(int m, int seats, Set<Integer> out) {
+        out.clear();
+        for (int i = 0; i < seats; i++) if ((m & (1 << i)) != 0) out.add(i);
+    }
+
+    // ---------------------------------------------------------------- byte stream
+
+    private static final class Writer {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+
+        Writer(byte tag, int handsPlayed, long suspendTime) {
+            out.write(tag);
+            out.write(VERSION);
+            varlong(suspendTime);
+            varint(handsPlayed);
+        }
+
+        void varint(int v) {
+            varlong(v);
+        }
+
+        void varlong(long v) {
+            long z = (v << 1) ^ (v >> 63);
+            while ((z & ~0x7FL) != 0) {
+                out.write((int) ((z & 0x7F) | 0x80));
+                z >>>= 7;
+            }
+            out.write((int) z);
+        }
+
+        void ordinal(Enum<?> e) {
+            out.write(e == null ? 0xFF : e.ordinal());
+        }
+
+        void flags(boolean... bits) {
+            int f = 0;
+            for (int i = 0; i < bits.length; i++) if (bits[i]) f |= 1 << i;
+            out.write(f);
+        }
+
+        void cards(List<Card> cards) {
+            int n = cards != null ? cards.size() : 0;
+            out.write(n);
+            for (int i = 0; i < n; i++) out.write(cardToByte(cards.get(i)));
+        }
+
+        String finish() {
+            return Base64.getEncoder().withoutPadding().encodeToString(out.toByteArray());
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buf;
+        private int pos;
+        long suspendTime;
+        int handsPlayed;
+
+        private Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        static Reader open(String data, byte expectedTag) {
+            if (data == null || data.isEmpty()) return null;
+            try {
+                Reader r = new Reader(Base64.getDecoder().decode(data));
+                if (r.u8() != expectedTag) return null;
+                int version = r.u8();
+                if (version < 1 || version > VERSION) return null;
+                r.suspendTime = r.varlong();
+                r.handsPlayed = r.varint();
+                return r;
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                return null;
+            }
+        }
+
+        int u8() {
+            if (pos >= buf.length) throw new IndexOutOfBoundsException("Truncated game state");
+            return buf[pos++] & 0xFF;
+        }
+
+        int varint() {
+            return (int) varlong();
+        }
+
+        /** A count that sizes an allocation; anything outside 0 to {@code max} means the state is damaged. */
+        int length(int max) {
+            int n = varint();
+            if (n < 0 || n > max) throw new IndexOutOfBoundsException("Bad length " + n);
+            return n;
+        }
+
+        /** Bytes left, an upper bound on any count of items still to be read. */
+        int remaining() {
+            return buf.length - pos;
+        }
+
+        long varlong() {
+            long z = 0;
+            int shift = 0;
+            int b;
+            do {
+                if (shift > 63) throw new IndexOutOfBoundsException("Malformed varint");
+                b = u8();
+                z |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (z >>> 1) ^ -(z & 1);
+        }
+
+        <E extends Enum<E>> E ordinal(E[] values) {
+            int o = u8();
+            return o < values.length ? values[o] : null;
+        }
+
+        List<Card> cards(GameType type) {
+            int n = u8();
+            List<Card> cards = new ArrayList<>(Math.max(n, 2));
+            for (int i = 0; i < n; i++) {
+                Card c = byteToCard(u8(), type);
+                if (c != null) cards.add(c);
+            }
+            return cards;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package data.scripts.casino.shared;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import data.scripts.casino.cards.Card;
+import data.scripts.casino.cards.pokerShared.PokerAction;
+import data.scripts.casino.cards.pokerShared.PokerRound;
+
+/**
+ * Compact binary poker hand histories.
+ * <p>
+ * Each hand is one blob: a header (game tag, version, session seed, hand number, hand seed,
+ * start time, button, big blind, stacks before blinds, deck order), one record per accepted
+ * action (seat, action, round, amount, milliseconds since the deal) and an end record with the
+ * stacks after the pot was paid. Cards use the one-byte encoding of {@link GameStateCodec},
+ * integers are zigzag varints. A history file is a magic header followed by length-prefixed hands.
+ * <p>
+ * Games record through a {@link Recorder}, which only exists while a sink is installed
+ * (see HandHistoryStore); without one, recording costs nothing.
+ */
+public final class HandHistory {
+    private HandHistory() {}
+
+    public static final int VERSION = 1;
+
+    public static final byte GAME_HEADS_UP = 'P';
+    public static final byte GAME_POKER5 = '5';
+
+    private static final int ACTION_MARKER = 'A';
+    private static final int END_MARKER = 'E';
+    private static final byte[] FILE_MAGIC = {'I', 'P', 'H', 'H'};
+
+    private static final PokerAction[] ACTIONS = PokerAction.values();
+    private static final PokerRound[] ROUNDS = PokerRound.values();
+
+    private static volatile Consumer<byte[]> sink;
+
+    /** Installs the receiver of finished hands; null turns recording off for tables opened afterwards. */
+    public static void setSink(Consumer<byte[]> newSink) {
+        sink = newSink;
+    }
+
+    /** @return a recorder for a newly opened table, or null while recording is off */
+    public static Recorder newRecorder(byte game, int seats, long sessionSeed) {
+        Consumer<byte[]> target = sink;
+        return target != null ? new Recorder(game, seats, sessionSeed, target) : null;
+    }
+
+    /**
+     * Builds hand blobs for one table on the game thread. The buffer is reused between hands;
+     * the only allocation per hand is the finished copy handed to the sink.
+     */
+    public static final class Recorder {
+        private final byte game;
+        private final int seats;
+        private final long sessionSeed;
+        private final Consumer<byte[]> target;
+
+        private byte[] buf = new byte[256];
+        private int len;
+        private int handNumber;
+        private long handStartMillis;
+        private boolean open;
+
+        private Recorder(byte game, int seats, long sessionSeed, Consumer<byte[]> target) {
+            this.game = game;
+            this.seats = seats;
+            this.sessionSeed = sessionSeed;
+            this.target = target;
+        }
+
+        /**
+         * Starts a hand. {@code stacks} are taken before blinds and {@code button} before it moves.
+         * A hand still open (e.g. heads-up, where the handler pays the pot) is closed with these stacks.
+         */
+        public void beginHand(long handSeed, int button, int bigBlind, int[] stacks, List<Card> deck) {
+            endHand(stacks);
+
+            len = 0;
+            handStartMillis = System.currentTimeMillis();
+            u8(game);
+            u8(VERSION);
+            varlong(sessionSeed);
+            varint(handNumber++);
+            varlong(handSeed);
+            varlong(handStartMillis);
+            varint(button);
+            varint(bigBlind);
+            u8(seats);
+            for (int i = 0; i < seats; i++) varint(stacks[i]);
+            u8(deck.size());
+            for (int i = 0; i < deck.size(); i++) u8(GameStateCodec.cardToByte(deck.get(i)));
+            open = true;
+        }
+
+        public void action(int seat, PokerAction action, PokerRound round, int amount) {
+            if (!open) return;
+            u8(ACTION_MARKER);
+            u8(seat);
+            u8(action.ordinal());
+            u8(round.ordinal());
+            varint(amount);
+            varint((int) (System.currentTimeMillis() - handStartMillis));
+        }
+
+        /** Closes the current hand with the stacks after payout and passes it on. No-op if none is open. */
+        public void endHand(int[] stacks) {
+            if (!open) return;
+            open = false;
+            u8(END_MARKER);
+            for (int i = 0; i < seats; i++) varint(stacks[i]);
+            target.accept(Arrays.copyOf(buf, len));
+        }
+
+        private void u8(int b) {
+            if (len == buf.length) buf = Arrays.copyOf(buf, len * 2);
+            buf[len++] = (byte) b;
+        }
+
+        private void varint(int v) {
+            varlong(v);
+        }
+
+        private void varlong(long v) {
+            long z = (v << 1) ^ (v >> 63);
+            while ((z & ~0x7FL) != 0) {
+                u8((int) ((z & 0x7F) | 0x80));
+                z >>>= 7;
+            }
+            u8((int) z);
+        }
+    }
+
+    public record Action(int seat, PokerAction action, PokerRound round, int amount, int millis) {}
+
+    /** A decoded hand. {@code deck} is in draw order from the end, as in {@link data.scripts.casino.cards.Deck}. */
+    public record Hand(byte game, long sessionSeed, int handNumber, long handSeed, long startMillis,
+                       int button, int bigBlind, int[] stacks, byte[] deck, List<Action> actions,
+                       int[] finalStacks) {}
+
+    // ---------------------------------------------------------------- files
+
+    public static byte[] encodeFile(Collection<byte[]> hands) {
+        int size = FILE_MAGIC.length + 5;
+        for (byte[] hand : hands) size += hand.length + 5;
+
+        Cursor out = new Cursor(new byte[size]);
+        for (byte b : FILE_MAGIC) out.buf[out.pos++] = b;
+        out.putVarint(hands.size());
+        for (byte[] hand : hands) {
+            out.putVarint(hand.length);
+            System.arraycopy(hand, 0, out.buf, out.pos, hand.length);
+            out.pos += hand.length;
+        }
+        return Arrays.copyOf(out.buf, out.pos);
+    }
+
+    /** Splits a history file back into raw hand blobs; empty if the data is not a history file. */
+    public static List<byte[]> splitFile(byte[] data) {
+        List<byte[]> hands = new ArrayList<>();
+        if (data == null || data.length < FILE_MAGIC.length) return hands;
+        for (int i = 0; i < FILE_MAGIC.length; i++) {
+            if (data[i] != FILE_MAGIC[i]) return hands;
+        }
+        try {
+            Cursor in = new Cursor(data);
+            in.pos = FILE_MAGIC.length;
+            int count = in.varint();
+            for (int i = 0; i < count; i++) {
+                int length = in.varint();
+                if (length < 0 || in.pos + length > data.length) break;
+                hands.add(Arrays.copyOfRange(data, in.pos, in.pos + length));
+                in.pos += length;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // Keep whatever was intact before the damage
+        }
+        return hands;
+    }
+
+    public static List<Hand> decodeFile(byte[] data) {
+        List<Hand> hands = new ArrayList<>();
+        for (byte[] blob : splitFile(data)) {
+            Hand hand = decodeHand(blob);
+            if (hand != null) hands.add(hand);
+        }
+        return hands;
+    }
+
+    /** @return the decoded hand, or null if the blob is damaged or from a newer version */
+    public static Hand decodeHand(byte[] blob) {
+        try {
+            Cursor in = new Cursor(blob);
+            byte game = (byte) in.u8();
+            int version = in.u8();
+            if (version < 1 || version > VERSION) return null;
+
+            long sessionSeed = in.varlong();
+            int handNumber = in.varint();
+            long handSeed = in.varlong();
+            long startMillis = in.varlong();
+            int button = in.varint();
+            int bigBlind = in.varint();
+            int seats = in.u8();
+            int[] stacks = new int[seats];
+            for (int i = 0; i < seats; i++) stacks[i] = in.varint();
+            byte[] deck = new byte[in.u8()];
+            for (int i = 0; i < deck.length; i++) deck[i] = (byte) in.u8();
+
+            List<Action> actions = new ArrayList<>();
+            int[] finalStacks = new int[seats];
+            while (true) {
+                int marker = in.u8();
+                if (marker == END_MARKER) {
+                    for (int i = 0; i < seats; i++) finalStacks[i] = in.varint();
+                    break;
+                }
+                if (marker != ACTION_MARKER) return null;
+                int seat = in.u8();
+                int action = in.u8();
+                int round = in.u8();
+                if (action >= ACTIONS.length || round >= ROUNDS.length) return null;
+                actions.add(new Action(seat, ACTIONS[action], ROUNDS[round], in.varint(), in.varint()));
+            }
+
+            return new Hand(game, sessionSeed, handNumber, handSeed, startMillis, button, bigBlind,
+                stacks, deck, actions, finalStacks);
+        } catch (IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static final class Cursor {
+        final byte[] buf;
+        int pos;
+
+        Cursor(byte[] buf) {
+            this.buf = buf;
+        }
+
+        int u8() {
+            if (pos >= buf.length) throw new IndexOutOfBoundsException("Truncated hand history");
+            return buf[pos++] & 0xFF;
+        }
+
+        int varint() {
+            return (int) varlong();
+        }
+
+        long varlong() {
+            long z = 0;
+            int shift = 0;
+            int b;
+            do {
+                if (shift > 63) throw new IndexOutOfBoundsException("Malformed varint");
+                b = u8();
+                z |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (z >>> 1) ^ -(z & 1);
+        }
+
+        void putVarint(int v) {
+            long z = ((long) v << 1) ^ ((long) v >> 63);
+            while ((z & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((z & 0x7F) | 0x80);
+                z >>>= 7;
+            }
+            buf[pos++] = (byte) z;
+        }
+    }
+}
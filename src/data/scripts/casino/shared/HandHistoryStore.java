@@ -0,0 +1,102 @@
+package data.scripts.casino.shared;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.log4j.Logger;
+
+import com.fs.starfarer.api.Global;
+
+import data.scripts.casino.CasinoConfig;
+
+/**
+ * Keeps the last {@code pokerHandHistoryMaxHands} poker hands in a ring and persists it to
+ * {@value #FILE_NAME} in the game's common folder. Finished hands are handed to a single
+ * background thread, which owns the ring, so the game thread never waits on disk.
+ * <p>
+ * The common-folder API can only replace a whole file, so the ring is not written per hand: it is
+ * saved when a table is left or suspended ({@link #flush()}) and otherwise every
+ * {@value #SAVE_EVERY_HANDS} hands, which bounds what a crash can lose.
+ */
+public final class HandHistoryStore {
+    private static final Logger log = Global.getLogger(HandHistoryStore.class);
+
+    public static final String FILE_NAME = "ipc_poker_hand_history";
+
+    static final int SAVE_EVERY_HANDS = 25;
+
+    private static ExecutorService writer;
+
+    // Only touched on the writer thread
+    private static final ArrayDeque<byte[]> ring = new ArrayDeque<>();
+    private static int unsaved = 0;
+
+    private HandHistoryStore() {}
+
+    /** Starts or stops recording according to the current config. Called once settings are loaded. */
+    public static synchronized void install() {
+        if (!CasinoConfig.POKER_HAND_HISTORY_ENABLED || CasinoConfig.POKER_HAND_HISTORY_MAX_HANDS <= 0) {
+            HandHistory.setSink(null);
+            return;
+        }
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "IPC-HandHistory");
+                thread.setDaemon(true);
+                return thread;
+            });
+            writer.execute(HandHistoryStore::load);
+        }
+        HandHistory.setSink(HandHistoryStore::append);
+    }
+
+    private static void append(byte[] hand) {
+        writer.execute(() -> {
+            ring.addLast(hand);
+            trim();
+            if (++unsaved >= SAVE_EVERY_HANDS) {
+                save();
+            }
+        });
+    }
+
+    /** Queues a save of any hands not yet on disk. Called when a poker table is left or suspended. */
+    public static synchronized void flush() {
+        if (writer == null) return;
+        writer.execute(() -> {
+            if (unsaved > 0) {
+                save();
+            }
+        });
+    }
+
+    private static void trim() {
+        while (ring.size() > CasinoConfig.POKER_HAND_HISTORY_MAX_HANDS) {
+            ring.removeFirst();
+        }
+    }
+
+    private static void load() {
+        try {
+            if (!Global.getSettings().fileExistsInCommon(FILE_NAME)) return;
+            String text = Global.getSettings().readTextFileFromCommon(FILE_NAME);
+            ring.addAll(HandHistory.splitFile(Base64.getDecoder().decode(text.trim())));
+            trim();
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Could not read poker hand history, starting a new one", e);
+        }
+    }
+
+    private static void save() {
+        unsaved = 0;
+        try {
+            String text = Base64.getEncoder().encodeToString(HandHistory.encodeFile(ring));
+            Global.getSettings().writeTextFileToCommon(FILE_NAME, text);
+        } catch (IOException e) {
+            log.warn("Could not write poker hand history", e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package data.scripts.casino.shared;
+
+import java.awt.Color;
+
+import org.lwjgl.input.Keyboard;
+
+import com.fs.starfarer.api.Global;
+import com.fs.starfarer.api.ui.Alignment;
+import com.fs.starfarer.api.ui.CustomPanelAPI;
+import com.fs.starfarer.api.ui.Fonts;
+import com.fs.starfarer.api.ui.LabelAPI;
+import com.fs.starfarer.api.ui.UIComponentAPI;
+
+import data.scripts.casino.CasinoConfig;
+
+/**
+ * Debug overlay listing {@link CasinoMetrics} in the corner of a casino panel, toggled with F8
+ * while metrics are enabled. Also writes the periodic metrics summary to the log.
+ */
+public class MetricsOverlay {
+
+    private static final int TOGGLE_KEY = Keyboard.KEY_F8;
+    private static final float REFRESH_INTERVAL = 0.5f;
+    private static final Color OVERLAY_COLOR = new Color(120, 255, 160);
+
+    private static boolean visible = false;
+    private static float logTimer = 0f;
+
+    private LabelAPI label;
+    private boolean wasKeyDown = false;
+    private float refreshTimer = 0f;
+
+    public void attach(CustomPanelAPI panel) {
+        if (!CasinoMetrics.isEnabled() || panel == null) return;
+
+        label = Global.getSettings().createLabel("", Fonts.DEFAULT_SMALL);
+        label.setColor(OVERLAY_COLOR);
+        label.setAlignment(Alignment.TL);
+        panel.addComponent((UIComponentAPI) label).inTL(10f, 10f).setSize(600f, 300f);
+        label.setOpacity(visible ? 1f : 0f);
+    }
+
+    public void advance(float amount) {
+        if (!CasinoMetrics.isEnabled()) return;
+
+        if (CasinoConfig.METRICS_LOG_INTERVAL > 0f) {
+            logTimer += amount;
+            if (logTimer >= CasinoConfig.METRICS_LOG_INTERVAL) {
+                logTimer = 0f;
+                Global.getLogger(MetricsOverlay.class).info("Casino metrics:\n" + CasinoMetrics.summary());
+            }
+        }
+
+        if (label == null) return;
+
+        boolean keyDown = Keyboard.isKeyDown(TOGGLE_KEY);
+        if (keyDown && !wasKeyDown) {
+            visible = !visible;
+            label.setOpacity(visible ? 1f : 0f);
+            refreshTimer = REFRESH_INTERVAL;
+        }
+        wasKeyDown = keyDown;
+
+        if (visible) {
+            refreshTimer += amount;
+            if (refreshTimer >= REFRESH_INTERVAL) {
+                refreshTimer = 0f;
+                label.setText(CasinoMetrics.summary());
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package data.scripts.casino.cards.poker5;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import org.json.JSONObject;
+
+import data.scripts.casino.CasinoConfig;
+import data.scripts.casino.cards.Card;
+import data.scripts.casino.cards.Deck;
+import data.scripts.casino.cards.GameType;
+import data.scripts.casino.cards.pokerShared.PokerAction;
+import data.scripts.casino.cards.pokerShared.PokerRound;
+import data.scripts.casino.shared.GameStateCodec;
+import data.scripts.casino.shared.HandHistory;
+
+/**
+ * Re-drives recorded 5-seat hands through {@link PokerGame5} and its AIs.
+ * <p>
+ * Each recorded session is replayed on one table built from its session seed, with the recorded
+ * deck and hand seed, so the AIs see exactly the cards and random numbers they had live. Before every
+ * recorded AI action the AI is asked again and its answer compared with the recording; the recorded
+ * action is then applied, keeping the hand on its real path. When a session's first hands have already
+ * dropped out of the ring, the table is rebuilt mid-session with blank opponent profiles, so early
+ * decisions there may legitimately differ.
+ * <p>
+ * Offline: {@code java -cp tools-classes:Casino.jar:starfarer.api.jar:json.jar:log4j.jar
+ * data.scripts.casino.cards.poker5.HandHistoryReplay <history file> [casino_settings.json]}
+ * with the history file copied from the game's saves/common folder.
+ */
+public final class HandHistoryReplay {
+    private HandHistoryReplay() {}
+
+    private static final int MAX_REPORTED_MISMATCHES = 20;
+
+    public record Report(int hands, int skippedHands, int aiDecisions, int matchingDecisions,
+                         int stackMismatches, long elapsedNanos, List<String> mismatches) {
+
+        public float agreement() {
+            return aiDecisions > 0 ? (float) matchingDecisions / aiDecisions : 1f;
+        }
+
+        public String summary() {
+            double seconds = elapsedNanos / 1e9;
+            StringBuilder sb = new StringBuilder(String.format(
+                "hands=%d skipped=%d decisions=%d agreement=%.2f%% stack mismatches=%d (%.2fs, %.0f decisions/s)%n",
+                hands, skippedHands, aiDecisions, agreement() * 100f, stackMismatches, seconds,
+                seconds > 0 ? aiDecisions / seconds : 0));
+            for (String mismatch : mismatches) {
+                sb.append("  ").append(mismatch).append('\n');
+            }
+            return sb.toString();
+        }
+    }
+
+    public static Report replay(List<HandHistory.Hand> hands) {
+        long start = System.nanoTime();
+        int replayed = 0, skipped = 0, decisions = 0, matching = 0, stackMismatches = 0;
+        List<String> mismatches = new ArrayList<>();
+
+        PokerGame5 game = null;
+        long session = 0;
+        int nextHandNumber = -1;
+
+        for (HandHistory.Hand hand : hands) {
+            if (hand.game() != HandHistory.GAME_POKER5 || hand.stacks().length < PokerGame5.MIN_PLAYERS
+                    || hand.stacks().length > PokerGame5.MAX_PLAYERS) {
+                skipped++;
+                continue;
+            }
+
+            if (game == null || hand.sessionSeed() != session || hand.handNumber() != nextHandNumber
+                    || hand.stacks().length != game.getNumPlayers()) {
+                game = new PokerGame5(hand.stacks(), true, hand.sessionSeed(), false);
+                session = hand.sessionSeed();
+            }
+            nextHandNumber = hand.handNumber() + 1;
+
+            PokerGame5.PokerState5 state = game.getState();
+            System.arraycopy(hand.stacks(), 0, state.stacks, 0, hand.stacks().length);
+            state.buttonPosition = hand.button();
+            game.setBigBlindAmount(hand.bigBlind());
+            game.startNewHand(toDeck(hand.deck()), hand.handSeed());
+
+            for (HandHistory.Action recorded : hand.actions()) {
+                PokerAI5 ai = game.getAI(recorded.seat());
+                if (ai != null && state.round != PokerRound.SHOWDOWN) {
+                    PokerAI5.AIResponse response = ai.decideAction(recorded.seat(), state);
+                    decisions++;
+                    if (sameDecision(response, recorded)) {
+                        matching++;
+                    } else if (mismatches.size() < MAX_REPORTED_MISMATCHES) {
+                        mismatches.add(String.format("session %016x hand %d seat %d %s: recorded %s %d, replayed %s %d",
+                            session, hand.handNumber(), recorded.seat(), recorded.round(),
+                            recorded.action(), recorded.amount(), response.action, response.raiseAmount));
+                    }
+                }
+                game.processPokerAction(recorded.seat(), recorded.action(), recorded.amount());
+            }
+
+            game.determineWinners();
+            if (!Arrays.equals(state.stacks, hand.finalStacks())) {
+                stackMismatches++;
+            }
+            replayed++;
+        }
+
+        return new Report(replayed, skipped, decisions, matching, stackMismatches, System.nanoTime() - start, mismatches);
+    }
+
+    private static boolean sameDecision(PokerAI5.AIResponse response, HandHistory.Action recorded) {
+        if (response.action != recorded.action()) return false;
+        return response.action != PokerAction.RAISE || response.raiseAmount == recorded.amount();
+    }
+
+    private static Deck toDeck(byte[] order) {
+        List<Card> cards = new ArrayList<>(order.length);
+        for (byte b : order) {
+            Card card = GameStateCodec.byteToCard(b & 0xFF, GameType.POKER);
+            if (card != null) cards.add(card);
+        }
+        return Deck.ofDrawOrder(GameType.POKER, cards);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: HandHistoryReplay <history file> [casino_settings.json]");
+            return;
+        }
+        Path settings = Path.of(args.length > 1 ? args[1] : "data/config/casino_settings.json");
+        CasinoConfig.applySettings(new JSONObject(Files.readString(settings)));
+
+        byte[] data = Base64.getMimeDecoder().decode(Files.readString(Path.of(args[0])).trim());
+        List<HandHistory.Hand> hands = HandHistory.decodeFile(data);
+        System.out.print(replay(hands).summary());
+    }
+}
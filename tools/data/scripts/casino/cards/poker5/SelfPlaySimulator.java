@@ -0,0 +1,332 @@
+package data.scripts.casino.cards.poker5;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.json.JSONObject;
+
+import data.scripts.casino.CasinoConfig;
+import data.scripts.casino.cards.Deck;
+import data.scripts.casino.cards.GameType;
+import data.scripts.casino.cards.pokerShared.PokerAICommon;
+import data.scripts.casino.cards.pokerShared.PokerAction;
+import data.scripts.casino.cards.pokerShared.PokerRound;
+import data.scripts.casino.shared.CasinoMetrics;
+
+/**
+ * Headless self-play for tuning the multi-seat AI: every seat is a {@link MultiPlayerPokerOpponentAI}
+ * and tables run in parallel, one per worker task.
+ * <p>
+ * Each table is fully determined by its seed (deck shuffles, AI randomness and starting personalities),
+ * and table seeds derive from one master seed, so a run with the same arguments produces the same
+ * statistics on any number of threads. Stacks are reset before every hand, cash-game style, so results
+ * are not skewed by busted seats. Results are attributed to the personality a seat had when the hand was
+ * dealt; the AIs may drift between personalities as they profile each other.
+ * <p>
+ * Offline: {@code java -cp tools-classes:Casino.jar:starfarer.api.jar:json.jar:log4j.jar
+ * data.scripts.casino.cards.poker5.SelfPlaySimulator <hands> [tables] [seed] [casino_settings.json] [seats]}.
+ * Lower {@code pokerMonteCarloSamples} in the settings file for faster, rougher runs. With {@code bench}
+ * as the first argument it instead reports AI decision latency for every supported seat count.
+ */
+public final class SelfPlaySimulator {
+    private SelfPlaySimulator() {}
+
+    // A betting round can't legitimately take this many actions; guards against a stuck table
+    private static final int MAX_ACTIONS_PER_HAND = 200;
+
+    private static final PokerAICommon.Personality[] PERSONALITIES = PokerAICommon.Personality.values();
+
+    /** Counters for one personality. Net winnings are kept in big blinds. */
+    public static final class Stats {
+        public long hands;
+        public double netBigBlinds;
+        public long voluntarilyPutIn;
+        public long preflopRaises;
+        public long sawFlop;
+        public long wentToShowdown;
+        public long wonAtShowdown;
+
+        void add(Stats other) {
+            hands += other.hands;
+            netBigBlinds += other.netBigBlinds;
+            voluntarilyPutIn += other.voluntarilyPutIn;
+            preflopRaises += other.preflopRaises;
+            sawFlop += other.sawFlop;
+            wentToShowdown += other.wentToShowdown;
+            wonAtShowdown += other.wonAtShowdown;
+        }
+
+        public double bbPer100() {
+            return hands > 0 ? netBigBlinds * 100.0 / hands : 0;
+        }
+
+        public double vpip() {
+            return percent(voluntarilyPutIn, hands);
+        }
+
+        public double pfr() {
+            return percent(preflopRaises, hands);
+        }
+
+        /** Went to showdown, as a share of flops seen. */
+        public double wtsd() {
+            return percent(wentToShowdown, sawFlop);
+        }
+
+        /** Won at showdown, as a share of showdowns. */
+        public double wsd() {
+            return percent(wonAtShowdown, wentToShowdown);
+        }
+
+        private static double percent(long part, long whole) {
+            return whole > 0 ? part * 100.0 / whole : 0;
+        }
+    }
+
+    public record Report(int seats, int tables, int threads, long seed, long hands, long decisions, long abandonedHands,
+                         long elapsedNanos, Stats[] byPersonality) {
+
+        public double handsPerSecond() {
+            return elapsedNanos > 0 ? hands * 1e9 / elapsedNanos : 0;
+        }
+
+        public double decisionsPerSecond() {
+            return elapsedNanos > 0 ? decisions * 1e9 / elapsedNanos : 0;
+        }
+
+        public Stats get(PokerAICommon.Personality personality) {
+            return byPersonality[personality.ordinal()];
+        }
+
+        public String summary() {
+            StringBuilder sb = new StringBuilder(String.format(
+                "hands=%d seats=%d tables=%d threads=%d seed=%d abandoned=%d (%.2fs, %.0f hands/s, %.0f decisions/s)%n",
+                hands, seats, tables, threads, seed, abandonedHands, elapsedNanos / 1e9, handsPerSecond(), decisionsPerSecond()));
+            sb.append(String.format("%-11s %10s %9s %7s %7s %7s %7s%n",
+                "personality", "seat-hands", "bb/100", "VPIP", "PFR", "WTSD", "W$SD"));
+            for (PokerAICommon.Personality personality : PERSONALITIES) {
+                Stats s = get(personality);
+                sb.append(String.format("%-11s %10d %9.2f %6.1f%% %6.1f%% %6.1f%% %6.1f%%%n",
+                    personality, s.hands, s.bbPer100(), s.vpip(), s.pfr(), s.wtsd(), s.wsd()));
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Plays {@code hands} hands split evenly over {@code tables} tables on {@code threads} worker threads.
+     */
+    public static Report run(long hands, int tables, int threads, long seed, int startingStack) {
+        return run(hands, tables, threads, seed, startingStack, PokerGame5.DEFAULT_PLAYERS);
+    }
+
+    public static Report run(long hands, int tables, int threads, long seed, int startingStack, int seats) {
+        tables = Math.max(1, tables);
+        threads = Math.max(1, Math.min(threads, tables));
+
+        Random seeds = new Random(seed);
+        long[] tableSeeds = new long[tables];
+        long[] tableHands = new long[tables];
+        for (int t = 0; t < tables; t++) {
+            tableSeeds[t] = seeds.nextLong();
+            tableHands[t] = hands / tables + (t < hands % tables ? 1 : 0);
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "IPC-SelfPlay");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        try {
+            List<Future<TableResult>> futures = new ArrayList<>(tables);
+            for (int t = 0; t < tables; t++) {
+                long tableSeed = tableSeeds[t];
+                long count = tableHands[t];
+                futures.add(workers.submit(() -> playTable(tableSeed, count, startingStack, seats)));
+            }
+
+            // Merge in table order so totals don't depend on scheduling
+            Stats[] total = newStats();
+            long played = 0, decisions = 0, abandoned = 0;
+            for (Future<TableResult> future : futures) {
+                TableResult result = future.get();
+                played += result.hands;
+                decisions += result.decisions;
+                abandoned += result.abandoned;
+                for (int p = 0; p < total.length; p++) {
+                    total[p].add(result.stats[p]);
+                }
+            }
+            return new Report(seats, tables, threads, seed, played, decisions, abandoned, System.nanoTime() - start, total);
+        } catch (Exception e) {
+            throw new IllegalStateException("Self-play failed", e);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static final class TableResult {
+        final Stats[] stats = newStats();
+        long hands;
+        long decisions;
+        long abandoned;
+    }
+
+    private static TableResult playTable(long tableSeed, long hands, int startingStack, int seats) {
+        int[] stacks = new int[seats];
+        Arrays.fill(stacks, startingStack);
+
+        PokerGame5 game = new PokerGame5(stacks, true, tableSeed, false);
+        game.seatAI(PokerGame5.HUMAN_PLAYER_INDEX, new MultiPlayerPokerOpponentAI(PokerGame5.HUMAN_PLAYER_INDEX, tableSeed));
+        PokerGame5.PokerState5 state = game.getState();
+        int bigBlind = game.getBigBlindAmount();
+        Random shuffles = new Random(tableSeed);
+        Deck deck = new Deck(GameType.POKER, shuffles);
+
+        TableResult result = new TableResult();
+        Stats[] seatStats = new Stats[seats];
+        boolean[] vpip = new boolean[seats];
+        boolean[] pfr = new boolean[seats];
+        boolean[] sawFlop = new boolean[seats];
+
+        for (long h = 0; h < hands; h++) {
+            Arrays.fill(state.stacks, startingStack);
+            Arrays.fill(vpip, false);
+            Arrays.fill(pfr, false);
+            Arrays.fill(sawFlop, false);
+
+            deck.shuffle();
+            game.startNewHand(deck, shuffles.nextLong());
+
+            for (int i = 0; i < seats; i++) {
+                MultiPlayerPokerOpponentAI ai = (MultiPlayerPokerOpponentAI) game.getAI(i);
+                seatStats[i] = result.stats[ai.getPersonality().ordinal()];
+            }
+
+            int actions = 0;
+            boolean flopSeen = false;
+            while (state.round != PokerRound.SHOWDOWN && actions < MAX_ACTIONS_PER_HAND) {
+                int seat = state.currentPlayerIndex;
+                PokerAI5.AIResponse response = game.getAI(seat).decideAction(seat, state);
+                if (state.round == PokerRound.PREFLOP) {
+                    PokerAction action = response.action;
+                    vpip[seat] |= action == PokerAction.CALL || action == PokerAction.RAISE || action == PokerAction.ALL_IN;
+                    pfr[seat] |= action == PokerAction.RAISE || action == PokerAction.ALL_IN;
+                }
+                game.processAIPokerAction(seat, response);
+                actions++;
+
+                if (!flopSeen && state.communityCards.size() >= 3) {
+                    flopSeen = true;
+                    for (int i = 0; i < seats; i++) {
+                        sawFlop[i] = !state.foldedPlayers.contains(i);
+                    }
+                }
+            }
+            result.decisions += actions;
+
+            if (state.round != PokerRound.SHOWDOWN) {
+                result.abandoned++;
+                continue;
+            }
+
+            boolean showdown = state.foldWinner < 0;
+            game.determineWinners();
+
+            for (int i = 0; i < seats; i++) {
+                Stats s = seatStats[i];
+                s.hands++;
+                s.netBigBlinds += (double) (state.stacks[i] - startingStack) / bigBlind;
+                if (vpip[i]) s.voluntarilyPutIn++;
+                if (pfr[i]) s.preflopRaises++;
+                if (sawFlop[i]) s.sawFlop++;
+                if (showdown && !state.foldedPlayers.contains(i)) {
+                    s.wentToShowdown++;
+                    if (isWinner(state, i)) s.wonAtShowdown++;
+                }
+            }
+            result.hands++;
+        }
+        return result;
+    }
+
+    private static boolean isWinner(PokerGame5.PokerState5 state, int seat) {
+        for (int w : state.winners) {
+            if (w == seat) return true;
+        }
+        return false;
+    }
+
+    private static Stats[] newStats() {
+        Stats[] stats = new Stats[PERSONALITIES.length];
+        for (int p = 0; p < stats.length; p++) {
+            stats[p] = new Stats();
+        }
+        return stats;
+    }
+
+    /**
+     * Single-threaded self-play at every supported seat count, reporting how long one AI decision
+     * takes as the number of opponents grows. Uses the {@code poker5.ai.decide} metric, so any other
+     * metrics collected so far are reset.
+     */
+    public static String benchmarkSeats(long hands, long seed, int startingStack) {
+        boolean wasEnabled = CasinoMetrics.isEnabled();
+        CasinoMetrics.setEnabled(true);
+        CasinoMetrics.Histogram decide = CasinoMetrics.histogram("poker5.ai.decide");
+        StringBuilder sb = new StringBuilder(String.format("%5s %9s %13s %10s %10s %10s%n",
+            "seats", "hands/s", "decisions/h", "mean us", "p50 us", "p99 us"));
+        try {
+            // Warm up so the first seat count isn't measured against an unoptimized evaluator
+            run(Math.max(1, hands / 4), 1, 1, seed, startingStack, PokerGame5.MAX_PLAYERS);
+            for (int seats = PokerGame5.MIN_PLAYERS; seats <= PokerGame5.MAX_PLAYERS; seats++) {
+                CasinoMetrics.reset();
+                Report report = run(hands, 1, 1, seed, startingStack, seats);
+                sb.append(String.format("%5d %9.0f %13.2f %10.1f %10.1f %10.1f%n",
+                    seats, report.handsPerSecond(), (double) report.decisions() / Math.max(1, report.hands()),
+                    decide.getMean() / 1e3, decide.getPercentile(50) / 1e3, decide.getPercentile(99) / 1e3));
+            }
+        } finally {
+            CasinoMetrics.reset();
+            CasinoMetrics.setEnabled(wasEnabled);
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 2 && args[0].equals("bench")) {
+            long hands = Long.parseLong(args[1]);
+            long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+            loadSettings(args.length > 3 ? args[3] : null);
+            System.out.print(benchmarkSeats(hands, seed, CasinoConfig.POKER_DEFAULT_OPPONENT_STACK));
+            return;
+        }
+        if (args.length < 1) {
+            System.err.println("Usage: SelfPlaySimulator <hands> [tables] [seed] [casino_settings.json] [seats]");
+            System.err.println("       SelfPlaySimulator bench <hands per seat count> [seed] [casino_settings.json]");
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        long hands = Long.parseLong(args[0]);
+        int tables = args.length > 1 ? Integer.parseInt(args[1]) : threads;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        loadSettings(args.length > 3 ? args[3] : null);
+        int seats = args.length > 4 ? Integer.parseInt(args[4]) : PokerGame5.DEFAULT_PLAYERS;
+
+        System.out.print(run(hands, tables, threads, seed, CasinoConfig.POKER_DEFAULT_OPPONENT_STACK, seats).summary());
+    }
+
+    private static void loadSettings(String path) throws Exception {
+        Path settings = Path.of(path != null ? path : "data/config/casino_settings.json");
+        CasinoConfig.applySettings(new JSONObject(Files.readString(settings)));
+    }
+}
@@ -0,0 +1,577 @@
+package data.scripts.casino.shared;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.fs.starfarer.api.combat.ShipAPI;
+
+import data.scripts.casino.CasinoConfig;
+import data.scripts.casino.arena.ArenaPayout;
+import data.scripts.casino.arena.SpiralAbyssArena;
+import data.scripts.casino.arena.SpiralAbyssArena.SpiralGladiator;
+import data.scripts.casino.gacha.CasinoGachaManager;
+
+/**
+ * Headless correctness and throughput check for the gacha and arena engines, meant as the gate for
+ * any rewrite of either: run it before and after, and both the verdicts and the rates should hold.
+ * <p>
+ * Gacha: pulls go through {@link CasinoGachaManager#rollRarity} and {@link CasinoGachaManager#rollFeatured5},
+ * the same calls a real pull makes, on a fresh pity state per task. The pulls it took to reach each
+ * 5-star are tested against the distribution worked out from the configured base rate, soft pity and
+ * hard pity (chi-square and KS), the 4-star rate against the configured rate at each 4-star pity
+ * count (chi-square), and the featured 50/50 against a fair coin. Pulls at hard pity and pulls after
+ * a lost 50/50 must never miss.
+ * <p>
+ * Arena: each match rolls a roster the way the game does (a capital, two cruisers, destroyers for the
+ * rest) with {@link SpiralAbyssArena#rollGladiator} and fights it out with
+ * {@link SpiralAbyssArena#resolveToEnd}. Every {@code pricedEvery}-th match is also priced: the
+ * round-0 odds are taken, a bet is placed on every ship and paid by {@link ArenaPayout}. The return
+ * per unit staked is tested against {@code 1 - arenaHouseEdge}, and the Monte Carlo's win chances
+ * against the winners actually seen (chi-square over ten probability bins). Pricing costs a full
+ * odds Monte Carlo per match, hence the sampling. The bins use the Monte Carlo's own estimate, so
+ * with very many priced matches its sampling noise shows up too; raise {@code arenaSimulationCount}
+ * in the settings file before reading much into a marginal calibration result.
+ * <p>
+ * Work is split into seeded tasks from one master seed and merged in task order, so the same arguments
+ * give the same statistics on any number of threads. Every test runs at {@link #ALPHA}.
+ * <p>
+ * Offline: {@code java -cp tools-classes:Casino.jar:starfarer.api.jar:json.jar:log4j.jar
+ * data.scripts.casino.shared.FairnessHarness <pulls> <matches> [seed] [casino_settings.json] [pricedEvery]},
+ * run from the mod folder so {@code data/config/strings.json} is found for the arena name lists.
+ * Exits with status 1 if any check fails.
+ */
+public final class FairnessHarness {
+    private FairnessHarness() {}
+
+    /** Significance level of every test; low, since a gate that fails on noise gets ignored. */
+    public static final double ALPHA = 0.001;
+
+    private static final int TASKS_PER_THREAD = 4;
+    private static final int STAKE = 10_000;
+    private static final int CALIBRATION_BINS = 10;
+    private static final int DEFAULT_PRICED_EVERY = 100;
+
+    /** One statistical check and whether it passed. */
+    public record Check(String name, String detail, boolean passed) {
+        @Override
+        public String toString() {
+            return String.format("  %-4s %-26s %s", passed ? "ok" : "FAIL", name, detail);
+        }
+    }
+
+    public record GachaReport(int threads, long seed, long pulls, long fiveStars, long fourStars,
+                              long elapsedNanos, List<Check> checks) {
+
+        public double pullsPerSecond() {
+            return elapsedNanos > 0 ? pulls * 1e9 / elapsedNanos : 0;
+        }
+
+        public boolean passed() {
+            return checks.stream().allMatch(Check::passed);
+        }
+
+        public String summary() {
+            StringBuilder sb = new StringBuilder(String.format(
+                "gacha: pulls=%d threads=%d seed=%d 5*=%.3f%% 4*=%.3f%% (%.2fs, %.0f pulls/s)%n",
+                pulls, threads, seed, percent(fiveStars, pulls), percent(fourStars, pulls),
+                elapsedNanos / 1e9, pullsPerSecond()));
+            for (Check check : checks) sb.append(check).append(System.lineSeparator());
+            return sb.toString();
+        }
+    }
+
+    public record ArenaReport(int threads, long seed, long matches, long pricedMatches, long elapsedNanos,
+                              long pricingNanos, double returnToPlayer, List<Check> checks) {
+
+        public double matchesPerSecond() {
+            return elapsedNanos > 0 ? matches * 1e9 / elapsedNanos : 0;
+        }
+
+        /** Mean worker time to price one match, in milliseconds. */
+        public double pricingMillis() {
+            return pricedMatches > 0 ? pricingNanos / 1e6 / pricedMatches : 0;
+        }
+
+        public boolean passed() {
+            return checks.stream().allMatch(Check::passed);
+        }
+
+        public String summary() {
+            StringBuilder sb = new StringBuilder(String.format(
+                "arena: matches=%d priced=%d threads=%d seed=%d RTP=%.4f (%.2fs, %.0f matches/s, %.2f ms to price)%n",
+                matches, pricedMatches, threads, seed, returnToPlayer, elapsedNanos / 1e9, matchesPerSecond(),
+                pricingMillis()));
+            for (Check check : checks) sb.append(check).append(System.lineSeparator());
+            return sb.toString();
+        }
+    }
+
+    // ---- Gacha ----
+
+    /** Chance of a 5-star on the pull that takes the pity counter to {@code pity}, as configured. */
+    static double expectedFiveStarRate(int pity, CasinoConfig.GachaSettings settings) {
+        if (pity >= settings.pityHard5()) return 1.0;
+        double rate = settings.prob5Star();
+        if (pity >= settings.pitySoftStart5()) {
+            rate += (pity - settings.pitySoftStart5() + 1) * 0.06;
+        }
+        return Math.min(1.0, rate);
+    }
+
+    /** Chance of a 4-star on a pull that isn't a 5-star, at 4-star pity count {@code pity}. */
+    static double expectedFourStarRate(int pity, CasinoConfig.GachaSettings settings) {
+        return pity >= settings.pityHard4() ? 1.0 : settings.prob4Star();
+    }
+
+    private static final class GachaTally {
+        // Pulls needed for each 5-star; index 0 unused
+        final long[] pullsToFiveStar;
+        // Non-5-star pulls and 4-stars by 4-star pity count, counts at or past hard pity folded into the last
+        final long[] fourStarTrials;
+        final long[] fourStarHits;
+        long pulls, fiveStars, fourStars;
+        long fiftyFiftyWon, fiftyFiftyLost, guaranteed;
+        long pityViolations, guaranteeViolations;
+
+        GachaTally(CasinoConfig.GachaSettings settings) {
+            pullsToFiveStar = new long[settings.pityHard5() + 1];
+            fourStarTrials = new long[settings.pityHard4() + 1];
+            fourStarHits = new long[settings.pityHard4() + 1];
+        }
+
+        void add(GachaTally other) {
+            for (int i = 0; i < pullsToFiveStar.length; i++) pullsToFiveStar[i] += other.pullsToFiveStar[i];
+            for (int i = 0; i < fourStarTrials.length; i++) {
+                fourStarTrials[i] += other.fourStarTrials[i];
+                fourStarHits[i] += other.fourStarHits[i];
+            }
+            pulls += other.pulls;
+            fiveStars += other.fiveStars;
+            fourStars += other.fourStars;
+            fiftyFiftyWon += other.fiftyFiftyWon;
+            fiftyFiftyLost += other.fiftyFiftyLost;
+            guaranteed += other.guaranteed;
+            pityViolations += other.pityViolations;
+            guaranteeViolations += other.guaranteeViolations;
+        }
+    }
+
+    public static GachaReport runGacha(long pulls, int threads, long seed) {
+        CasinoConfig.GachaSettings settings = CasinoConfig.gacha();
+        long start = System.nanoTime();
+        List<GachaTally> parts = runTasks(pulls, threads, seed, "IPC-GachaHarness",
+            (taskSeed, count) -> pullTask(settings, taskSeed, count));
+        long elapsed = System.nanoTime() - start;
+
+        GachaTally total = new GachaTally(settings);
+        for (GachaTally part : parts) total.add(part);
+        return new GachaReport(threads, seed, total.pulls, total.fiveStars, total.fourStars, elapsed,
+            gachaChecks(total, settings));
+    }
+
+    private static GachaTally pullTask(CasinoConfig.GachaSettings settings, long taskSeed, long pulls) {
+        GachaTally tally = new GachaTally(settings);
+        CasinoGachaManager.GachaData data = new CasinoGachaManager.GachaData();
+        Random random = new Random(taskSeed);
+        int sinceFiveStar = 0;
+        int hard4 = settings.pityHard4();
+
+        for (long i = 0; i < pulls; i++) {
+            sinceFiveStar++;
+            int fourPity = Math.min(data.pity4 + 1, hard4);
+            int rarity = CasinoGachaManager.rollRarity(data, settings, random);
+
+            if (rarity == 5) {
+                tally.fiveStars++;
+                if (sinceFiveStar < tally.pullsToFiveStar.length) {
+                    tally.pullsToFiveStar[sinceFiveStar]++;
+                } else {
+                    tally.pityViolations++;
+                }
+                sinceFiveStar = 0;
+
+                boolean wasGuaranteed = data.guaranteedFeatured5;
+                boolean featured = CasinoGachaManager.rollFeatured5(data, random);
+                if (wasGuaranteed) {
+                    tally.guaranteed++;
+                    if (!featured) tally.guaranteeViolations++;
+                } else if (featured) {
+                    tally.fiftyFiftyWon++;
+                } else {
+                    tally.fiftyFiftyLost++;
+                }
+                continue;
+            }
+
+            tally.fourStarTrials[fourPity]++;
+            if (rarity == 4) {
+                tally.fourStars++;
+                tally.fourStarHits[fourPity]++;
+            }
+        }
+        tally.pulls = pulls;
+        return tally;
+    }
+
+    private static List<Check> gachaChecks(GachaTally t, CasinoConfig.GachaSettings settings) {
+        List<Check> checks = new ArrayList<>();
+        int hard5 = settings.pityHard5();
+
+        // Pulls to a 5-star: P(k) = r(k) * prod over j < k of (1 - r(j))
+        double[] pmf = new double[hard5 + 1];
+        double survive = 1.0;
+        for (int k = 1; k <= hard5; k++) {
+            double rate = expectedFiveStarRate(k, settings);
+            pmf[k] = survive * rate;
+            survive *= 1.0 - rate;
+        }
+        long n = t.fiveStars - t.pityViolations;
+        double[] expected = new double[hard5 + 1];
+        for (int k = 1; k <= hard5; k++) expected[k] = pmf[k] * n;
+        checks.add(chiSquareCheck("5* pulls-to-hit chi2", t.pullsToFiveStar, expected, 1));
+
+        double cumObserved = 0, cumExpected = 0, d = 0;
+        for (int k = 1; k <= hard5; k++) {
+            cumObserved += n > 0 ? (double) t.pullsToFiveStar[k] / n : 0;
+            cumExpected += pmf[k];
+            d = Math.max(d, Math.abs(cumObserved - cumExpected));
+        }
+        double critical = n > 0 ? Math.sqrt(-0.5 * Math.log(ALPHA / 2)) / Math.sqrt(n) : 0;
+        checks.add(new Check("5* pulls-to-hit KS", String.format("D=%.5f critical=%.5f n=%d", d, critical, n),
+            n > 0 && d < critical));
+
+        double meanPulls = 0;
+        for (int k = 1; k <= hard5; k++) meanPulls += k * pmf[k];
+        checks.add(new Check("5* hard pity", String.format("%d 5* past pull %d; expected overall rate %.3f%%",
+            t.pityViolations, hard5, 100.0 / meanPulls), t.pityViolations == 0));
+
+        // 4-star: one binomial per pity count, each its own degree of freedom
+        double chi = 0;
+        int df = 0;
+        long forcedMisses = 0;
+        for (int k = 1; k < t.fourStarTrials.length; k++) {
+            long trials = t.fourStarTrials[k];
+            double rate = expectedFourStarRate(k, settings);
+            if (rate >= 1.0) {
+                forcedMisses += trials - t.fourStarHits[k];
+                continue;
+            }
+            double e = trials * rate;
+            if (e < 5 || trials - e < 5) continue;
+            double diff = t.fourStarHits[k] - e;
+            chi += diff * diff / (e * (1.0 - rate));
+            df++;
+        }
+        checks.add(pValueCheck("4* rate by pity chi2", chi, df));
+        checks.add(new Check("4* hard pity", forcedMisses + " misses at 4* hard pity", forcedMisses == 0));
+
+        long fiftyFifty = t.fiftyFiftyWon + t.fiftyFiftyLost;
+        double diff = t.fiftyFiftyWon - fiftyFifty / 2.0;
+        double fairChi = fiftyFifty > 0 ? diff * diff / (fiftyFifty / 4.0) : 0;
+        checks.add(pValueCheck("featured 50/50 chi2", fairChi, fiftyFifty > 0 ? 1 : 0));
+        checks.add(new Check("featured guarantee", String.format("%d misses in %d guaranteed",
+            t.guaranteeViolations, t.guaranteed), t.guaranteeViolations == 0));
+        return checks;
+    }
+
+    // ---- Arena ----
+
+    private static final class ArenaTally {
+        long matches, priced, pricingNanos;
+        // Return per unit staked, averaged over the ships of each priced match
+        double returned, returnedSquares;
+        final double[] binPredicted = new double[CALIBRATION_BINS];
+        final double[] binVariance = new double[CALIBRATION_BINS];
+        final long[] binWins = new long[CALIBRATION_BINS];
+
+        void add(ArenaTally other) {
+            matches += other.matches;
+            priced += other.priced;
+            pricingNanos += other.pricingNanos;
+            returned += other.returned;
+            returnedSquares += other.returnedSquares;
+            for (int b = 0; b < CALIBRATION_BINS; b++) {
+                binPredicted[b] += other.binPredicted[b];
+                binVariance[b] += other.binVariance[b];
+                binWins[b] += other.binWins[b];
+            }
+        }
+    }
+
+    /** Prefix and affix names, only their count matters to the rolls. */
+    private record NameLists(List<String> prefixPos, List<String> prefixNeg, List<String> affixPos,
+                             List<String> affixNeg) {}
+
+    public static ArenaReport runArena(long matches, int threads, long seed, int pricedEvery, JSONObject strings)
+            throws JSONException {
+        NameLists names = new NameLists(
+            list(strings, "arena_prefixes", "positive"), list(strings, "arena_prefixes", "negative"),
+            list(strings, "arena_affixes", "positive"), list(strings, "arena_affixes", "negative"));
+        int every = Math.max(1, pricedEvery);
+
+        long start = System.nanoTime();
+        List<ArenaTally> parts = runTasks(matches, threads, seed, "IPC-ArenaHarness",
+            (taskSeed, count) -> matchTask(names, every, taskSeed, count));
+        long elapsed = System.nanoTime() - start;
+
+        ArenaTally total = new ArenaTally();
+        for (ArenaTally part : parts) total.add(part);
+
+        List<Check> checks = new ArrayList<>();
+        // Bets within a match are correlated, so the match is the sample
+        long n = total.priced;
+        double rtp = n > 0 ? total.returned / n : 0;
+        double target = 1.0 - CasinoConfig.arena().houseEdge();
+        double variance = n > 1 ? (total.returnedSquares - n * rtp * rtp) / (n - 1) : 0;
+        double standardError = n > 0 ? Math.sqrt(variance / n) : 0;
+        double z = standardError > 0 ? (rtp - target) / standardError : 0;
+        double pRtp = 2 * normalUpperTail(Math.abs(z));
+        checks.add(new Check("return vs house edge", String.format("RTP=%.4f target=%.4f z=%.2f p=%.4g",
+            rtp, target, z, pRtp), n > 1 && pRtp >= ALPHA));
+
+        double chi = 0;
+        int df = 0;
+        for (int b = 0; b < CALIBRATION_BINS; b++) {
+            if (total.binPredicted[b] < 5 || total.binVariance[b] <= 0) continue;
+            double diff = total.binWins[b] - total.binPredicted[b];
+            chi += diff * diff / total.binVariance[b];
+            df++;
+        }
+        checks.add(pValueCheck("win chance calibration chi2", chi, df));
+
+        return new ArenaReport(threads, seed, total.matches, total.priced, elapsed, total.pricingNanos, rtp, checks);
+    }
+
+    private static ArenaTally matchTask(NameLists names, int pricedEvery, long taskSeed, long matches) {
+        ArenaTally tally = new ArenaTally();
+        Random rosters = new Random(taskSeed);
+        int shipCount = Math.max(2, CasinoConfig.ARENA_SHIP_COUNT);
+        float[] odds = new float[shipCount];
+        float[] winChance = new float[shipCount];
+
+        for (long m = 0; m < matches; m++) {
+            SpiralAbyssArena arena = new SpiralAbyssArena(rosters.nextLong());
+            List<SpiralGladiator> combatants = new ArrayList<>(shipCount);
+            for (int i = 0; i < shipCount; i++) {
+                ShipAPI.HullSize size = i == 0 ? ShipAPI.HullSize.CAPITAL_SHIP
+                    : i < 3 ? ShipAPI.HullSize.CRUISER : ShipAPI.HullSize.DESTROYER;
+                combatants.add(SpiralAbyssArena.rollGladiator(rosters, "harness_" + i, size.name(),
+                    CasinoConfig.ARENA_BASE_STATS.get(size),
+                    names.prefixPos(), names.prefixNeg(), names.affixPos(), names.affixNeg()));
+            }
+
+            boolean priced = m % pricedEvery == 0;
+            if (priced) {
+                long pricingStart = System.nanoTime();
+                for (int i = 0; i < shipCount; i++) {
+                    combatants.get(i).setArenaReference(arena, combatants, i);
+                }
+                // Priced as the bet screens freeze them, house edge included
+                for (int i = 0; i < shipCount; i++) {
+                    odds[i] = combatants.get(i).getCurrentOdds(0);
+                }
+                Map<Integer, Map<Integer, Float>> positions = arena.calculatePositionProbabilities(combatants, 0);
+                for (int i = 0; i < shipCount; i++) {
+                    winChance[i] = positions.get(i).getOrDefault(0, 0.0f);
+                }
+                tally.pricingNanos += System.nanoTime() - pricingStart;
+            }
+
+            arena.resolveToEnd(combatants, 0);
+            SpiralGladiator winner = null;
+            for (SpiralGladiator g : combatants) {
+                if (!g.isDead) winner = g;
+            }
+            ArenaPayout.assignFinalPositions(combatants, winner);
+            tally.matches++;
+            if (!priced) continue;
+
+            tally.priced++;
+            double matchReturn = 0;
+            for (int i = 0; i < shipCount; i++) {
+                SpiralGladiator ship = combatants.get(i);
+                int paid = ship == winner
+                    ? ArenaPayout.winReward(STAKE, odds[i], ship, 0)
+                    : ArenaPayout.consolationReward(STAKE, ship, 0);
+                matchReturn += (double) paid / STAKE / shipCount;
+
+                int bin = Math.min(CALIBRATION_BINS - 1, (int) (winChance[i] * CALIBRATION_BINS));
+                tally.binPredicted[bin] += winChance[i];
+                tally.binVariance[bin] += winChance[i] * (1.0 - winChance[i]);
+                if (ship == winner) tally.binWins[bin]++;
+            }
+            tally.returned += matchReturn;
+            tally.returnedSquares += matchReturn * matchReturn;
+        }
+        return tally;
+    }
+
+    private static List<String> list(JSONObject strings, String group, String key) throws JSONException {
+        JSONArray array = strings.getJSONObject(group).getJSONArray(key);
+        List<String> values = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) values.add(array.getString(i));
+        return values;
+    }
+
+    // ---- Shared ----
+
+    private interface Task<T> {
+        T run(long taskSeed, long count) throws Exception;
+    }
+
+    /** Splits {@code total} over seeded tasks on {@code threads} workers; results come back in task order. */
+    private static <T> List<T> runTasks(long total, int threads, long seed, String threadName, Task<T> task) {
+        threads = Math.max(1, threads);
+        int tasks = (int) Math.max(1, Math.min(total, (long) threads * TASKS_PER_THREAD));
+
+        Random seeds = new Random(seed);
+        long[] taskSeeds = new long[tasks];
+        long[] taskCounts = new long[tasks];
+        for (int t = 0; t < tasks; t++) {
+            taskSeeds[t] = seeds.nextLong();
+            taskCounts[t] = total / tasks + (t < total % tasks ? 1 : 0);
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<T>> futures = new ArrayList<>(tasks);
+            for (int t = 0; t < tasks; t++) {
+                long taskSeed = taskSeeds[t];
+                long count = taskCounts[t];
+                futures.add(workers.submit(() -> task.run(taskSeed, count)));
+            }
+            List<T> results = new ArrayList<>(tasks);
+            for (Future<T> future : futures) results.add(future.get());
+            return results;
+        } catch (Exception e) {
+            throw new IllegalStateException(threadName + " failed", e);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /** Pearson chi-square, merging neighbouring bins until each expects at least five. */
+    private static Check chiSquareCheck(String name, long[] observed, double[] expected, int from) {
+        List<double[]> bins = new ArrayList<>();
+        double o = 0, e = 0;
+        for (int k = from; k < observed.length; k++) {
+            o += observed[k];
+            e += expected[k];
+            if (e >= 5) {
+                bins.add(new double[] {o, e});
+                o = 0;
+                e = 0;
+            }
+        }
+        if (o > 0 || e > 0) {
+            if (bins.isEmpty()) return new Check(name, "not enough samples", true);
+            double[] last = bins.get(bins.size() - 1);
+            last[0] += o;
+            last[1] += e;
+        }
+
+        double chi = 0;
+        for (double[] bin : bins) {
+            chi += (bin[0] - bin[1]) * (bin[0] - bin[1]) / bin[1];
+        }
+        return pValueCheck(name, chi, bins.size() - 1);
+    }
+
+    private static Check pValueCheck(String name, double chi, int df) {
+        if (df <= 0) return new Check(name, "not enough samples", true);
+        double p = upperRegularizedGamma(df / 2.0, chi / 2.0);
+        return new Check(name, String.format("chi2=%.2f df=%d p=%.4g", chi, df, p), p >= ALPHA);
+    }
+
+    /** Q(a, x), the chi-square survival function when called with (df/2, chi2/2). */
+    static double upperRegularizedGamma(double a, double x) {
+        if (x <= 0) return 1.0;
+        double logPrefix = a * Math.log(x) - x - logGamma(a);
+        if (x < a + 1) {
+            double term = 1.0 / a, sum = term;
+            for (int n = 1; n < 10_000 && Math.abs(term) > Math.abs(sum) * 1e-15; n++) {
+                term *= x / (a + n);
+                sum += term;
+            }
+            return Math.max(0.0, 1.0 - sum * Math.exp(logPrefix));
+        }
+        // Lentz's continued fraction
+        double tiny = 1e-300;
+        double b = x + 1 - a, c = 1 / tiny, d = 1 / b, h = d;
+        for (int i = 1; i < 10_000; i++) {
+            double an = -i * (i - a);
+            b += 2;
+            d = an * d + b;
+            if (Math.abs(d) < tiny) d = tiny;
+            c = b + an / c;
+            if (Math.abs(c) < tiny) c = tiny;
+            d = 1 / d;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1) < 1e-15) break;
+        }
+        return Math.exp(logPrefix) * h;
+    }
+
+    /** Lanczos approximation. */
+    private static double logGamma(double x) {
+        double[] g = {76.18009172947146, -86.50532032941677, 24.01409824083091,
+            -1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5};
+        double y = x, tmp = x + 5.5;
+        tmp -= (x + 0.5) * Math.log(tmp);
+        double series = 1.000000000190015;
+        for (double coefficient : g) series += coefficient / ++y;
+        return -tmp + Math.log(2.5066282746310005 * series / x);
+    }
+
+    private static double normalUpperTail(double z) {
+        return 0.5 * upperRegularizedGamma(0.5, z * z / 2);
+    }
+
+    private static double percent(long part, long whole) {
+        return whole > 0 ? part * 100.0 / whole : 0;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: FairnessHarness <pulls> <matches> [seed] [casino_settings.json] [pricedEvery]");
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        long pulls = Long.parseLong(args[0]);
+        long matches = Long.parseLong(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        Path settings = Path.of(args.length > 3 ? args[3] : "data/config/casino_settings.json");
+        CasinoConfig.applySettings(new JSONObject(Files.readString(settings)));
+        int pricedEvery = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_PRICED_EVERY;
+        JSONObject strings = new JSONObject(Files.readString(Path.of("data/config/strings.json")));
+
+        boolean passed = true;
+        if (pulls > 0) {
+            GachaReport gacha = runGacha(pulls, threads, seed);
+            System.out.print(gacha.summary());
+            passed = gacha.passed();
+        }
+        if (matches > 0) {
+            ArenaReport arena = runArena(matches, threads, seed, pricedEvery, strings);
+            System.out.print(arena.summary());
+            passed &= arena.passed();
+        }
+        if (!passed) System.exit(1);
+    }
+}
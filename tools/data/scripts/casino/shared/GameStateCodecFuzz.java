@@ -0,0 +1,348 @@
+package data.scripts.casino.shared;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+import data.scripts.casino.cards.Card;
+import data.scripts.casino.cards.GameType;
+import data.scripts.casino.cards.blackjack.BlackjackGame;
+import data.scripts.casino.cards.poker2.PokerGame;
+import data.scripts.casino.cards.poker5.PokerGame5;
+import data.scripts.casino.cards.pokerShared.PokerRound;
+
+/**
+ * Round-trip fuzz test for {@link GameStateCodec}. Random heads-up, N-seat and blackjack states,
+ * including null enums, empty hands, negative and extreme integers, are encoded, decoded and compared
+ * field by field over every field the codec stores. Derived fields the games recompute on resume
+ * (hand ranks, action labels) are not compared. Each encoding is also decoded once more with one byte
+ * overwritten, which must give null or a state but never throw.
+ * <p>
+ * Offline: {@code java -cp tools-classes:Casino.jar:starfarer.api.jar data.scripts.casino.shared.GameStateCodecFuzz
+ * <iterations> [seed]}. Prints the first few mismatches and exits with status 1 if there were any.
+ */
+public final class GameStateCodecFuzz {
+    private GameStateCodecFuzz() {}
+
+    private static final int MAX_REPORTED = 20;
+    private static final PokerRound[] ROUNDS = PokerRound.values();
+
+    /** Mismatches found so far; only the first {@link #MAX_REPORTED} are kept as text. */
+    private static final class Failures {
+        final List<String> messages = new ArrayList<>();
+        long count;
+
+        void check(String game, long iteration, String field, Object expected, Object actual) {
+            if (Objects.equals(expected, actual)) return;
+            count++;
+            if (messages.size() < MAX_REPORTED) {
+                messages.add(String.format("  %s #%d %s: expected %s, got %s", game, iteration, field, expected, actual));
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: GameStateCodecFuzz <iterations> [seed]");
+            return;
+        }
+        long iterations = Long.parseLong(args[0]);
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+
+        Random random = new Random(seed);
+        Failures failures = new Failures();
+        long start = System.nanoTime();
+        for (long i = 0; i < iterations; i++) {
+            fuzzPoker(random, i, failures);
+            fuzzPoker5(random, i, failures);
+            fuzzBlackjack(random, i, failures);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("GameStateCodec round trip: %d states per game, seed=%d, %.1f ms%n",
+            iterations, seed, elapsed / 1e6);
+        for (String message : failures.messages) System.out.println(message);
+        if (failures.count > 0) {
+            System.out.printf("  FAIL %d mismatches%n", failures.count);
+            System.exit(1);
+        }
+        System.out.println("  ok   every field round-tripped");
+    }
+
+    /** Decodes {@code encoded} with one random byte overwritten, as a damaged or hand-edited save would be. */
+    private static void fuzzDamaged(Random random, long iteration, Failures failures, String game, String encoded,
+                                    Function<String, ?> decode) {
+        byte[] bytes = Base64.getDecoder().decode(encoded);
+        bytes[random.nextInt(bytes.length)] = (byte) random.nextInt(256);
+        try {
+            decode.apply(Base64.getEncoder().withoutPadding().encodeToString(bytes));
+        } catch (RuntimeException | OutOfMemoryError e) {
+            failures.check(game, iteration, "damaged decode", "null or a state", e.toString());
+        }
+    }
+
+    // ---------------------------------------------------------------- heads-up poker
+
+    private static void fuzzPoker(Random random, long iteration, Failures failures) {
+        PokerGame.PokerState s = new PokerGame.PokerState();
+        s.playerHand = randomCards(random, GameType.POKER, 2);
+        s.opponentHand = randomCards(random, GameType.POKER, 2);
+        s.communityCards = randomCards(random, GameType.POKER, 5);
+        s.pot = randomInt(random);
+        s.playerStack = randomInt(random);
+        s.opponentStack = randomInt(random);
+        s.playerBet = randomInt(random);
+        s.opponentBet = randomInt(random);
+        s.displayPlayerBet = randomInt(random);
+        s.displayOpponentBet = randomInt(random);
+        s.bigBlind = randomInt(random);
+        s.lastPotWon = randomInt(random);
+        s.maxStack = randomInt(random);
+        s.dealer = randomEnum(random, PokerGame.Dealer.values());
+        s.round = randomEnum(random, ROUNDS);
+        s.currentPlayer = randomEnum(random, PokerGame.CurrentPlayer.values());
+        s.folder = randomEnum(random, PokerGame.CurrentPlayer.values());
+        s.playerHasActed = random.nextBoolean();
+        s.opponentHasActed = random.nextBoolean();
+        s.playerDeclaredAllIn = random.nextBoolean();
+        s.opponentDeclaredAllIn = random.nextBoolean();
+        int handsPlayed = randomInt(random);
+        long suspendTime = random.nextLong();
+
+        String game = "poker";
+        String encoded = GameStateCodec.encodePoker(s, handsPlayed, suspendTime);
+        fuzzDamaged(random, iteration, failures, game, encoded, GameStateCodec::decodePoker);
+        GameStateCodec.Suspended<PokerGame.PokerState> decoded = GameStateCodec.decodePoker(encoded);
+        if (decoded == null) {
+            failures.check(game, iteration, "decode", "state", null);
+            return;
+        }
+        PokerGame.PokerState d = decoded.state();
+        failures.check(game, iteration, "handsPlayed", handsPlayed, decoded.handsPlayed());
+        failures.check(game, iteration, "suspendTime", suspendTime, decoded.suspendTime());
+        failures.check(game, iteration, "playerHand", s.playerHand, d.playerHand);
+        failures.check(game, iteration, "opponentHand", s.opponentHand, d.opponentHand);
+        failures.check(game, iteration, "communityCards", s.communityCards, d.communityCards);
+        failures.check(game, iteration, "pot", s.pot, d.pot);
+        failures.check(game, iteration, "playerStack", s.playerStack, d.playerStack);
+        failures.check(game, iteration, "opponentStack", s.opponentStack, d.opponentStack);
+        failures.check(game, iteration, "playerBet", s.playerBet, d.playerBet);
+        failures.check(game, iteration, "opponentBet", s.opponentBet, d.opponentBet);
+        failures.check(game, iteration, "displayPlayerBet", s.displayPlayerBet, d.displayPlayerBet);
+        failures.check(game, iteration, "displayOpponentBet", s.displayOpponentBet, d.displayOpponentBet);
+        failures.check(game, iteration, "bigBlind", s.bigBlind, d.bigBlind);
+        failures.check(game, iteration, "lastPotWon", s.lastPotWon, d.lastPotWon);
+        failures.check(game, iteration, "maxStack", s.maxStack, d.maxStack);
+        failures.check(game, iteration, "dealer", s.dealer, d.dealer);
+        failures.check(game, iteration, "round", s.round, d.round);
+        failures.check(game, iteration, "currentPlayer", s.currentPlayer, d.currentPlayer);
+        failures.check(game, iteration, "folder", s.folder, d.folder);
+        failures.check(game, iteration, "playerHasActed", s.playerHasActed, d.playerHasActed);
+        failures.check(game, iteration, "opponentHasActed", s.opponentHasActed, d.opponentHasActed);
+        failures.check(game, iteration, "playerDeclaredAllIn", s.playerDeclaredAllIn, d.playerDeclaredAllIn);
+        failures.check(game, iteration, "opponentDeclaredAllIn", s.opponentDeclaredAllIn, d.opponentDeclaredAllIn);
+    }
+
+    // ---------------------------------------------------------------- N-seat poker
+
+    private static void fuzzPoker5(Random random, long iteration, Failures failures) {
+        int seats = PokerGame5.MIN_PLAYERS + random.nextInt(PokerGame5.MAX_PLAYERS - PokerGame5.MIN_PLAYERS + 1);
+        PokerGame5.PokerState5 s = new PokerGame5.PokerState5(seats);
+        for (int i = 0; i < seats; i++) {
+            s.hands[i] = randomCards(random, GameType.POKER, 2);
+            s.stacks[i] = randomInt(random);
+            s.bets[i] = randomInt(random);
+            s.displayBets[i] = randomInt(random);
+            s.totalContributions[i] = randomInt(random);
+            s.hasActed[i] = random.nextBoolean();
+            s.declaredAllIn[i] = random.nextBoolean();
+            if (random.nextBoolean()) {
+                s.foldedPlayers.add(i);
+            } else if (random.nextBoolean()) {
+                s.activePlayers.add(i);
+            }
+        }
+        s.communityCards = randomCards(random, GameType.POKER, 5);
+        int potCount = random.nextInt(seats);
+        for (int p = 0; p < potCount; p++) {
+            s.sidePots.add(new PokerGame5.SidePot(randomInt(random), randomSeats(random, seats), randomInt(random)));
+        }
+        s.pot = randomInt(random);
+        s.mainPotCap = randomInt(random);
+        s.buttonPosition = random.nextInt(seats);
+        s.round = randomEnum(random, ROUNDS);
+        s.currentPlayerIndex = random.nextInt(seats + 1) - 1;
+        s.lastRaiseAmount = randomInt(random);
+        s.lastRaisePlayerIndex = random.nextInt(seats + 1) - 1;
+        s.lastPotWon = randomInt(random);
+        s.bigBlind = randomInt(random);
+        s.maxStack = randomInt(random);
+        s.foldWinner = random.nextInt(seats + 1) - 1;
+        s.winners = new int[random.nextInt(seats + 1)];
+        for (int w = 0; w < s.winners.length; w++) s.winners[w] = random.nextInt(seats);
+        int handsPlayed = randomInt(random);
+        long suspendTime = random.nextLong();
+
+        String game = "poker5";
+        String encoded = GameStateCodec.encodePoker5(s, handsPlayed, suspendTime);
+        fuzzDamaged(random, iteration, failures, game, encoded, GameStateCodec::decodePoker5);
+        GameStateCodec.Suspended<PokerGame5.PokerState5> decoded = GameStateCodec.decodePoker5(encoded);
+        if (decoded == null) {
+            failures.check(game, iteration, "decode", "state", null);
+            return;
+        }
+        PokerGame5.PokerState5 d = decoded.state();
+        failures.check(game, iteration, "handsPlayed", handsPlayed, decoded.handsPlayed());
+        failures.check(game, iteration, "suspendTime", suspendTime, decoded.suspendTime());
+        failures.check(game, iteration, "seats", seats, d.seats());
+        if (d.seats() != seats) return;
+        for (int i = 0; i < seats; i++) {
+            failures.check(game, iteration, "hands[" + i + "]", s.hands[i], d.hands[i]);
+            failures.check(game, iteration, "stacks[" + i + "]", s.stacks[i], d.stacks[i]);
+            failures.check(game, iteration, "bets[" + i + "]", s.bets[i], d.bets[i]);
+            failures.check(game, iteration, "displayBets[" + i + "]", s.displayBets[i], d.displayBets[i]);
+            failures.check(game, iteration, "totalContributions[" + i + "]", s.totalContributions[i], d.totalContributions[i]);
+            failures.check(game, iteration, "hasActed[" + i + "]", s.hasActed[i], d.hasActed[i]);
+            failures.check(game, iteration, "declaredAllIn[" + i + "]", s.declaredAllIn[i], d.declaredAllIn[i]);
+        }
+        failures.check(game, iteration, "communityCards", s.communityCards, d.communityCards);
+        failures.check(game, iteration, "foldedPlayers", s.foldedPlayers, d.foldedPlayers);
+        failures.check(game, iteration, "activePlayers", s.activePlayers, d.activePlayers);
+        failures.check(game, iteration, "sidePots.size", s.sidePots.size(), d.sidePots.size());
+        for (int p = 0; p < Math.min(s.sidePots.size(), d.sidePots.size()); p++) {
+            PokerGame5.SidePot expected = s.sidePots.get(p);
+            PokerGame5.SidePot actual = d.sidePots.get(p);
+            failures.check(game, iteration, "sidePots[" + p + "].amount", expected.amount, actual.amount);
+            failures.check(game, iteration, "sidePots[" + p + "].capPerPlayer", expected.capPerPlayer, actual.capPerPlayer);
+            failures.check(game, iteration, "sidePots[" + p + "].eligiblePlayers", expected.eligiblePlayers, actual.eligiblePlayers);
+        }
+        failures.check(game, iteration, "pot", s.pot, d.pot);
+        failures.check(game, iteration, "mainPotCap", s.mainPotCap, d.mainPotCap);
+        failures.check(game, iteration, "buttonPosition", s.buttonPosition, d.buttonPosition);
+        failures.check(game, iteration, "round", s.round, d.round);
+        failures.check(game, iteration, "currentPlayerIndex", s.currentPlayerIndex, d.currentPlayerIndex);
+        failures.check(game, iteration, "lastRaiseAmount", s.lastRaiseAmount, d.lastRaiseAmount);
+        failures.check(game, iteration, "lastRaisePlayerIndex", s.lastRaisePlayerIndex, d.lastRaisePlayerIndex);
+        failures.check(game, iteration, "lastPotWon", s.lastPotWon, d.lastPotWon);
+        failures.check(game, iteration, "bigBlind", s.bigBlind, d.bigBlind);
+        failures.check(game, iteration, "maxStack", s.maxStack, d.maxStack);
+        failures.check(game, iteration, "foldWinner", s.foldWinner, d.foldWinner);
+        failures.check(game, iteration, "winners", Arrays.toString(s.winners), Arrays.toString(d.winners));
+    }
+
+    // ---------------------------------------------------------------- blackjack
+
+    private static void fuzzBlackjack(Random random, long iteration, Failures failures) {
+        BlackjackGame.GameStateData s = new BlackjackGame.GameStateData();
+        s.playerHand = randomHand(random);
+        s.dealerHand = randomHand(random);
+        s.splitHands = new ArrayList<>();
+        if (random.nextBoolean()) {
+            s.splitHands.add(randomHand(random));
+            s.splitHands.add(randomHand(random));
+        }
+        s.currentSplitIndex = random.nextInt(3);
+        s.pot = randomInt(random);
+        s.playerStack = randomInt(random);
+        s.currentBet = randomInt(random);
+        s.state = randomEnum(random, BlackjackGame.GameState.values());
+        s.lastPotWon = randomInt(random);
+        s.dealerHoleCardRevealed = random.nextBoolean();
+        s.originalBalance = randomInt(random);
+        s.creditCeiling = randomInt(random);
+        s.creditBorrowed = randomInt(random);
+        if (random.nextBoolean()) {
+            s.splitHandResults = new ArrayList<>();
+            int results = random.nextInt(3);
+            for (int r = 0; r < results; r++) s.splitHandResults.add(randomInt(random));
+        }
+        s.overdraftEnabled = random.nextBoolean();
+        int handsPlayed = randomInt(random);
+        long suspendTime = random.nextLong();
+
+        String game = "blackjack";
+        String encoded = GameStateCodec.encodeBlackjack(s, handsPlayed, suspendTime);
+        fuzzDamaged(random, iteration, failures, game, encoded, GameStateCodec::decodeBlackjack);
+        GameStateCodec.Suspended<BlackjackGame.GameStateData> decoded = GameStateCodec.decodeBlackjack(encoded);
+        if (decoded == null) {
+            failures.check(game, iteration, "decode", "state", null);
+            return;
+        }
+        BlackjackGame.GameStateData d = decoded.state();
+        failures.check(game, iteration, "handsPlayed", handsPlayed, decoded.handsPlayed());
+        failures.check(game, iteration, "suspendTime", suspendTime, decoded.suspendTime());
+        checkHand(failures, iteration, "playerHand", s.playerHand, d.playerHand);
+        checkHand(failures, iteration, "dealerHand", s.dealerHand, d.dealerHand);
+        failures.check(game, iteration, "splitHands.size", s.splitHands.size(), d.splitHands.size());
+        for (int h = 0; h < Math.min(s.splitHands.size(), d.splitHands.size()); h++) {
+            checkHand(failures, iteration, "splitHands[" + h + "]", s.splitHands.get(h), d.splitHands.get(h));
+        }
+        failures.check(game, iteration, "currentSplitIndex", s.currentSplitIndex, d.currentSplitIndex);
+        failures.check(game, iteration, "pot", s.pot, d.pot);
+        failures.check(game, iteration, "playerStack", s.playerStack, d.playerStack);
+        failures.check(game, iteration, "currentBet", s.currentBet, d.currentBet);
+        failures.check(game, iteration, "state", s.state, d.state);
+        failures.check(game, iteration, "lastPotWon", s.lastPotWon, d.lastPotWon);
+        failures.check(game, iteration, "dealerHoleCardRevealed", s.dealerHoleCardRevealed, d.dealerHoleCardRevealed);
+        failures.check(game, iteration, "originalBalance", s.originalBalance, d.originalBalance);
+        failures.check(game, iteration, "creditCeiling", s.creditCeiling, d.creditCeiling);
+        failures.check(game, iteration, "creditBorrowed", s.creditBorrowed, d.creditBorrowed);
+        failures.check(game, iteration, "splitHandResults", s.splitHandResults, d.splitHandResults);
+        failures.check(game, iteration, "overdraftEnabled", s.overdraftEnabled, d.overdraftEnabled);
+    }
+
+    private static void checkHand(Failures failures, long iteration, String field,
+                                  BlackjackGame.Hand expected, BlackjackGame.Hand actual) {
+        failures.check("blackjack", iteration, field + ".betAmount", expected.betAmount, actual.betAmount);
+        failures.check("blackjack", iteration, field + ".cards", expected.cards, actual.cards);
+        failures.check("blackjack", iteration, field + ".value", expected.getValue(), actual.getValue());
+        failures.check("blackjack", iteration, field + ".soft", expected.isSoft(), actual.isSoft());
+    }
+
+    // ---------------------------------------------------------------- generators
+
+    private static BlackjackGame.Hand randomHand(Random random) {
+        BlackjackGame.Hand hand = new BlackjackGame.Hand(randomInt(random));
+        for (Card card : randomCards(random, GameType.BLACKJACK, 8)) hand.addCard(card);
+        return hand;
+    }
+
+    private static List<Card> randomCards(Random random, GameType type, int maxCount) {
+        int count = random.nextInt(maxCount + 1);
+        List<Card> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cards.add(Card.of(random.nextInt(Card.DISTINCT_CARDS), type));
+        }
+        return cards;
+    }
+
+    private static Set<Integer> randomSeats(Random random, int seats) {
+        Set<Integer> set = new HashSet<>();
+        for (int i = 0; i < seats; i++) {
+            if (random.nextBoolean()) set.add(i);
+        }
+        return set;
+    }
+
+    /** Mostly game-sized values, with the varint edge cases mixed in. */
+    private static int randomInt(Random random) {
+        return switch (random.nextInt(8)) {
+            case 0 -> random.nextInt();
+            case 1 -> random.nextBoolean() ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+            case 2 -> -random.nextInt(1000);
+            case 3 -> 0;
+            default -> random.nextInt(10_000_000);
+        };
+    }
+
+    /** A random constant, or null about one time in five. */
+    private static <E extends Enum<E>> E randomEnum(Random random, E[] values) {
+        return random.nextInt(5) == 0 ? null : values[random.nextInt(values.length)];
+    }
+}